@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client;
+
+import java.util.Map;
+
+/**
+ * Options of the bulk {@link NCClient#askAll(String, Iterable, NCAskAllOptions, java.util.function.Consumer)} call.
+ * <p>
+ * <b>Usage</b><br>
+ * <pre class="brush: java">
+ *     NCAskAllStats stats = cli.askAll(
+ *         "my.model.id",
+ *         Files.lines(path)::iterator,
+ *         new NCAskAllOptions().setMaxInFlight(500).setOrdered(false),
+ *         res -&gt; System.out.println(res.getResultBody())
+ *     );
+ * </pre>
+ */
+public class NCAskAllOptions {
+    /** Default maximum number of the submitted requests whose results are not delivered yet. */
+    public static final int DFLT_MAX_IN_FLIGHT = 100;
+    /** Default number of the delivered requests released with single <code>cancel</code> call. */
+    public static final int DFLT_CANCEL_BATCH_SIZE = 100;
+    /** Default result order flag. */
+    public static final boolean DFLT_ORDERED = true;
+
+    private int maxInFlight = DFLT_MAX_IN_FLIGHT;
+    private int cancelBatchSize = DFLT_CANCEL_BATCH_SIZE;
+    private boolean ordered = DFLT_ORDERED;
+    private Map<String, Object> data;
+    private boolean enableLog;
+    private Long usrId;
+    private String usrExtId;
+
+    /**
+     * Sets maximum number of the submitted requests whose results are not delivered yet. It bounds both the
+     * server load and the memory used by the call, regardless of the number of the texts.
+     *
+     * @param maxInFlight Maximum number of the requests in flight.
+     * @return These options.
+     * @see #DFLT_MAX_IN_FLIGHT
+     */
+    public NCAskAllOptions setMaxInFlight(int maxInFlight) {
+        if (maxInFlight <= 0)
+            throw new IllegalArgumentException(String.format("Maximum requests in flight must be positive: %d", maxInFlight));
+
+        this.maxInFlight = maxInFlight;
+
+        return this;
+    }
+
+    /**
+     * Sets number of the delivered requests released on the server with single <code>cancel</code> call.
+     *
+     * @param cancelBatchSize Cancel batch size.
+     * @return These options.
+     * @see #DFLT_CANCEL_BATCH_SIZE
+     */
+    public NCAskAllOptions setCancelBatchSize(int cancelBatchSize) {
+        if (cancelBatchSize <= 0)
+            throw new IllegalArgumentException(String.format("Cancel batch size must be positive: %d", cancelBatchSize));
+
+        this.cancelBatchSize = cancelBatchSize;
+
+        return this;
+    }
+
+    /**
+     * Sets whether results are delivered in the order of the texts, or in the order of their completion.
+     * Ordered delivery holds the completed results until the results of all preceding texts are delivered.
+     *
+     * @param ordered Whether results are delivered in the order of the texts.
+     * @return These options.
+     * @see #DFLT_ORDERED
+     */
+    public NCAskAllOptions setOrdered(boolean ordered) {
+        this.ordered = ordered;
+
+        return this;
+    }
+
+    /**
+     * Sets optional JSON data passed to the model with each request.
+     *
+     * @param data JSON data payload. Can be {@code null} or empty.
+     * @return These options.
+     */
+    public NCAskAllOptions setData(Map<String, Object> data) {
+        this.data = data;
+
+        return this;
+    }
+
+    /**
+     * Sets whether to enable processing log collection.
+     *
+     * @param enableLog Whether to enable processing log collection.
+     * @return These options.
+     */
+    public NCAskAllOptions setEnableLog(boolean enableLog) {
+        this.enableLog = enableLog;
+
+        return this;
+    }
+
+    /**
+     * Sets IDs of the user the requests are submitted on behalf of.
+     *
+     * @param usrId Optional user ID.
+     * @param usrExtId Optional external "on-behalf-of" user ID.
+     * @return These options.
+     */
+    public NCAskAllOptions setUser(Long usrId, String usrExtId) {
+        this.usrId = usrId;
+        this.usrExtId = usrExtId;
+
+        return this;
+    }
+
+    /**
+     * Gets maximum number of the submitted requests whose results are not delivered yet.
+     *
+     * @return Maximum number of the requests in flight.
+     */
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * Gets number of the delivered requests released on the server with single <code>cancel</code> call.
+     *
+     * @return Cancel batch size.
+     */
+    public int getCancelBatchSize() {
+        return cancelBatchSize;
+    }
+
+    /**
+     * Gets whether results are delivered in the order of the texts.
+     *
+     * @return Result order flag.
+     */
+    public boolean isOrdered() {
+        return ordered;
+    }
+
+    /**
+     * Gets optional JSON data passed to the model with each request.
+     *
+     * @return JSON data payload, possibly {@code null}.
+     */
+    public Map<String, Object> getData() {
+        return data;
+    }
+
+    /**
+     * Gets whether processing log collection is enabled.
+     *
+     * @return Processing log collection flag.
+     */
+    public boolean isEnableLog() {
+        return enableLog;
+    }
+
+    /**
+     * Gets optional ID of the user the requests are submitted on behalf of.
+     *
+     * @return User ID, possibly {@code null}.
+     */
+    public Long getUserId() {
+        return usrId;
+    }
+
+    /**
+     * Gets optional external ID of the user the requests are submitted on behalf of.
+     *
+     * @return External user ID, possibly {@code null}.
+     */
+    public String getUserExternalId() {
+        return usrExtId;
+    }
+}
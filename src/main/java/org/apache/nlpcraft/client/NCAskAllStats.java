@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client;
+
+/**
+ * Statistics of the finished bulk {@link NCClient#askAll(String, Iterable, NCAskAllOptions, java.util.function.Consumer)}
+ * call.
+ */
+public interface NCAskAllStats {
+    /**
+     * Gets number of the submitted requests.
+     *
+     * @return Number of requests.
+     */
+    long getSubmitted();
+
+    /**
+     * Gets number of the delivered results.
+     *
+     * @return Number of results.
+     */
+    long getResults();
+
+    /**
+     * Gets number of the delivered results with an error, see {@link NCResult#getErrorCode()}.
+     *
+     * @return Number of failed results.
+     */
+    long getFailed();
+
+    /**
+     * Gets number of <code>cancel</code> calls releasing delivered requests on the server.
+     *
+     * @return Number of <code>cancel</code> calls.
+     */
+    long getCancelCalls();
+
+    /**
+     * Gets duration of the call.
+     *
+     * @return Duration in milliseconds.
+     */
+    long getDuration();
+
+    /**
+     * Gets throughput of the call.
+     *
+     * @return Number of delivered results per second.
+     */
+    default double getThroughput() {
+        long ms = getDuration();
+
+        return ms == 0 ? 0.0 : getResults() * 1000.0 / ms;
+    }
+}
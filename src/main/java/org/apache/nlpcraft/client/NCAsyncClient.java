@@ -0,0 +1,547 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking counterpart of {@link NCClient}. Every REST call returns immediately with a
+ * {@link CompletableFuture} that is completed once the server responds, so that a small number of I/O threads
+ * can carry a large number of outstanding requests.
+ * <p>
+ * Returned futures complete exceptionally with {@link NCClientException} in case of client-specific errors
+ * and with {@link java.io.IOException} in case of generic I/O errors. Note that futures are completed on the
+ * client's threads decoding the responses, not on the I/O dispatcher threads, yet dependent stages that perform
+ * long or blocking work should use one of the <code>*Async</code> methods of {@link CompletableFuture} with
+ * a dedicated executor.
+ * <p>
+ * See {@link NCClient} for the detailed description of each operation and its parameters.
+ * <p>
+ * <b>Usage</b><br>
+ * <pre class="brush: java">
+ *     // Get asynchronous client instance with all defaults.
+ *     NCAsyncClient cli = new NCClientBuilder().buildAsync();
+ *
+ *     // Perform any necessary calls...
+ *     cli.askSync("my.model.id", txt).thenAccept(res -&gt; System.out.println(res.getResultBody()));
+ *
+ *     // Close client &amp; sign out at the end.
+ *     cli.close().join();
+ * </pre>
+ *
+ * @see NCClientBuilder#buildAsync()
+ * @see NCClient
+ */
+public interface NCAsyncClient {
+    /**
+     * Gets current signed-in user email for this client.
+     *
+     * @return Current signed-in user email for this client.
+     * @see NCClientBuilder
+     */
+    String getClientUserEmail();
+
+    /**
+     * Gets current signed-in user password for this client.
+     *
+     * @return Current signed-in user password for this client.
+     * @see NCClientBuilder
+     */
+    String getClientUserPassword();
+
+    /**
+     * Gets whether this client is configured with cancel-on-exit logic.
+     *
+     * @return Whether this client is configured with cancel-on-exit logic
+     * @see NCClientBuilder
+     */
+    boolean isClientCancelOnExit();
+
+    /**
+     * Gets base URL this client is configured with. If the client is configured with several base URLs,
+     * the first one is returned.
+     *
+     * @return Base URL this client is configured with.
+     * @see NCClientBuilder
+     */
+    String getClientBaseUrl();
+
+    /**
+     * Gets all base URLs this client is configured with.
+     *
+     * @return Base URLs this client is configured with.
+     * @see NCClientBuilder#setBaseUrls(String...)
+     */
+    List<String> getClientBaseUrls();
+
+    /**
+     * Asynchronously clears conversation context for the given model and the specified user.
+     *
+     * @param mdlId Model ID.
+     * @param usrId Optional user ID.
+     * @param usrExtId Optional external "on-behalf-of" user ID.
+     * @return Future completed when the operation is finished.
+     * @see NCClient#clearConversation(String, Long, String)
+     */
+    CompletableFuture<Void> clearConversation(String mdlId, Long usrId, String usrExtId);
+
+    /**
+     * Asynchronously clears the dialog flow for the given model ID and specified user.
+     *
+     * @param mdlId Model ID.
+     * @param usrId Optional user ID.
+     * @param usrExtId Optional external "on-behalf-of" user ID.
+     * @return Future completed when the operation is finished.
+     * @see NCClient#clearDialog(String, Long, String)
+     */
+    CompletableFuture<Void> clearDialog(String mdlId, Long usrId, String usrExtId);
+
+    /**
+     * Asynchronously adds feedback for given request.
+     *
+     * @param srvReqId ID of the request to add feedback for.
+     * @param score Feedback score, between <code>0</code> and <code>1</code> inclusive.
+     * @param comment Optional feedback comment.
+     * @param usrId Optional user ID.
+     * @param usrExtId Optional external "on-behalf-of" user ID.
+     * @return Future of the ID of the newly added feedback record.
+     * @see NCClient#addFeedback(String, double, String, Long, String)
+     */
+    CompletableFuture<Long> addFeedback(String srvReqId, double score, String comment, Long usrId, String usrExtId);
+
+    /**
+     * Asynchronously deletes feedback record.
+     *
+     * @param id Optional ID of the feedback record to delete.
+     * @return Future completed when the operation is finished.
+     * @see NCClient#deleteFeedback(Long)
+     */
+    CompletableFuture<Void> deleteFeedback(Long id);
+
+    /**
+     * Asynchronously gets all feedback records for given request ID and user.
+     *
+     * @param srvReqId Optional request ID.
+     * @param usrId Optional user ID.
+     * @param usrExtId Optional external "on-behalf-of" user ID.
+     * @return Future of the list of feedback records.
+     * @see NCClient#getAllFeedback(String, Long, String)
+     */
+    CompletableFuture<List<NCFeedback>> getAllFeedback(String srvReqId, Long usrId, String usrExtId);
+
+    /**
+     * Asynchronously adds new user to the company of the currently signed-in user.
+     *
+     * @param email New user email.
+     * @param passwd New user password.
+     * @param firstName New user first name.
+     * @param lastName New user last name.
+     * @param avatarUrl Optional new user avatar URL. Can be {@code null}.
+     * @param isAdmin Whether the new user will have administrative privileges.
+     * @param properties Map of additional user-defined user properties.
+     * @param extId Optional external "on-behalf-of" user ID. Can be {@code null}.
+     * @return Future of the ID of the newly created user.
+     * @see NCClient#addUser(String, String, String, String, String, boolean, Map, String)
+     */
+    CompletableFuture<Long> addUser(
+        String email,
+        String passwd,
+        String firstName,
+        String lastName,
+        String avatarUrl,
+        boolean isAdmin,
+        Map<String, Object> properties,
+        String extId
+    );
+
+    /**
+     * Asynchronously updates given user.
+     *
+     * @param id User ID.
+     * @param firstName Mandatory user first name.
+     * @param lastName Mandatory user last name.
+     * @param avatarUrl Optional user avatar URL. Can be {@code null}.
+     * @param properties Optional user properties. Can be {@code null} or empty.
+     * @return Future completed when the operation is finished.
+     * @see NCClient#updateUser(long, String, String, String, Map)
+     */
+    CompletableFuture<Void> updateUser(
+        long id,
+        String firstName,
+        String lastName,
+        String avatarUrl,
+        Map<String, Object> properties
+    );
+
+    /**
+     * Asynchronously resets password for the given user.
+     *
+     * @param id ID of the user for which to reset the password.
+     * @param newPasswd New password.
+     * @return Future completed when the operation is finished.
+     * @see NCClient#resetUserPassword(Long, String)
+     */
+    CompletableFuture<Void> resetUserPassword(Long id, String newPasswd);
+
+    /**
+     * Asynchronously grants or denies given user administrative privileges.
+     *
+     * @param id ID of the user for which to change administrative privileges.
+     * @param isAdmin Administrative privileges flag.
+     * @return Future completed when the operation is finished.
+     * @see NCClient#updateUserAdmin(Long, boolean)
+     */
+    CompletableFuture<Void> updateUserAdmin(Long id, boolean isAdmin);
+
+    /**
+     * Asynchronously deletes given user.
+     *
+     * @param usrId Optional user ID.
+     * @param usrExtId Optional external "on-behalf-of" user ID.
+     * @return Future completed when the operation is finished.
+     * @see NCClient#deleteUser(Long, String)
+     */
+    CompletableFuture<Void> deleteUser(Long usrId, String usrExtId);
+
+    /**
+     * Asynchronously gets user record.
+     *
+     * @param usrId Optional user ID.
+     * @param usrExtId Optional external "on-behalf-of" user ID.
+     * @return Future of the user record.
+     * @see NCClient#getUser(Long, String)
+     */
+    CompletableFuture<NCUser> getUser(Long usrId, String usrExtId);
+
+    /**
+     * Asynchronously gets all user records for the current signed-in user company.
+     *
+     * @return Future of the list of all users.
+     * @see NCClient#getAllUsers()
+     */
+    CompletableFuture<List<NCUser>> getAllUsers();
+
+    /**
+     * Asynchronously gets list of all probes connected to the REST server.
+     *
+     * @return Future of the list of probes.
+     * @see NCClient#getProbes()
+     */
+    CompletableFuture<List<NCProbe>> getProbes();
+
+    /**
+     * Asynchronously submits request for processing. Returned future is completed as soon as the request is
+     * accepted by the server - use {@link #check(Set, Integer, Long, String)} to get the processing result.
+     *
+     * @param mdlId ID of the model to submit the request to.
+     * @param txt Text to process.
+     * @param data Optional JSON data to be passed to the model.
+     * @param enableLog Enable processing log collection.
+     * @param usrId Optional user ID.
+     * @param usrExtId Optional external "on-behalf-of" user ID.
+     * @return Future of the server request ID of the submitted request.
+     * @see NCClient#ask(String, String, Map, boolean, Long, String)
+     */
+    CompletableFuture<String> ask(
+        String mdlId,
+        String txt,
+        Map<String, Object> data,
+        boolean enableLog,
+        Long usrId,
+        String usrExtId
+    );
+
+    /**
+     * Convenient shortcut method for asynchronous ask call. It is equivalent to:
+     * <pre class="brush: java">
+     *     ask(mdlId, txt, null, false, null, null);
+     * </pre>
+     *
+     * @param mdlId ID of the model to submit the request to.
+     * @param txt Text to process.
+     * @return Future of the server request ID of the submitted request.
+     * @see #ask(String, String, Map, boolean, Long, String)
+     */
+    default CompletableFuture<String> ask(String mdlId, String txt) {
+        return ask(mdlId, txt, null, false, null, null);
+    }
+
+    /**
+     * Asynchronously submits request for processing and gets the processing result. Unlike the blocking
+     * {@link NCClient#askSync(String, String, Map, boolean, Long, String)} no thread is held while the
+     * request is being processed on the server.
+     *
+     * @param mdlId ID of the model to submit the request to.
+     * @param txt Text to process.
+     * @param data Optional JSON data to be passed to the model.
+     * @param enableLog Enable processing log collection.
+     * @param usrId Optional user ID.
+     * @param usrExtId Optional external "on-behalf-of" user ID.
+     * @return Future of the query processing result.
+     * @see NCClient#askSync(String, String, Map, boolean, Long, String)
+     */
+    CompletableFuture<NCResult> askSync(
+        String mdlId,
+        String txt,
+        Map<String, Object> data,
+        boolean enableLog,
+        Long usrId,
+        String usrExtId
+    );
+
+    /**
+     * Convenient shortcut method for asynchronous ask-sync call. It is equivalent to:
+     * <pre class="brush: java">
+     *     askSync(mdlId, txt, null, false, null, null);
+     * </pre>
+     *
+     * @param mdlId ID of the model to submit the request to.
+     * @param txt Text to process.
+     * @return Future of the query processing result.
+     * @see #askSync(String, String, Map, boolean, Long, String)
+     */
+    default CompletableFuture<NCResult> askSync(String mdlId, String txt) {
+        return askSync(mdlId, txt, null, false, null, null);
+    }
+
+    /**
+     * Asynchronously gets the status and result of the previously submitted requests.
+     *
+     * @param srvReqIds Optional server request IDs for which to get the statuses.
+     * @param maxRows Optional maximum number of returned items. Can be {@code null}.
+     * @param usrId Optional user ID.
+     * @param usrExtId Optional external "on-behalf-of" user ID.
+     * @return Future of the list of results.
+     * @see NCClient#check(Set, Integer, Long, String)
+     */
+    CompletableFuture<List<NCResult>> check(Set<String> srvReqIds, Integer maxRows, Long usrId, String usrExtId);
+
+    /**
+     * Asynchronously cancels the previously submitted requests and removes their results from the server storage.
+     *
+     * @param srvReqIds Server IDs of the requests to cancel. Optional, all current user requests will be
+     *      cancelled by default.
+     * @param usrId Optional user ID.
+     * @param usrExtId Optional external "on-behalf-of" user ID.
+     * @return Future completed when the operation is finished.
+     * @see NCClient#cancel(Set, Long, String)
+     */
+    CompletableFuture<Void> cancel(Set<String> srvReqIds, Long usrId, String usrExtId);
+
+    /**
+     * Asynchronously adds new company with given parameters.
+     *
+     * @param name Company name.
+     * @param website Optional company website.
+     * @param country Optional company address country.
+     * @param region Optional company address region.
+     * @param city Optional company address city.
+     * @param address Optional company address.
+     * @param postalCode Optional company address postal code.
+     * @param adminEmail Company administrator email.
+     * @param adminPasswd Company administrator password.
+     * @param adminFirstName Optional company administrator first name.
+     * @param adminLastName Optional company administrator last name.
+     * @param adminAvatarUrl Optional company administrator avatar URL.
+     * @param properties Company metadata.
+     * @return Future of the new company data.
+     * @see NCClient#addCompany(String, String, String, String, String, String, String, String, String, String, String, String, Map)
+     */
+    CompletableFuture<NCNewCompany> addCompany(
+        String name,
+        String website,
+        String country,
+        String region,
+        String city,
+        String address,
+        String postalCode,
+        String adminEmail,
+        String adminPasswd,
+        String adminFirstName,
+        String adminLastName,
+        String adminAvatarUrl,
+        Map<String, Object> properties
+    );
+
+    /**
+     * Asynchronously gets the company descriptor for the current signed-in user.
+     *
+     * @return Future of the company descriptor.
+     * @see NCClient#getCompany()
+     */
+    CompletableFuture<NCCompany> getCompany();
+
+    /**
+     * Asynchronously updates company information for the current signed-in user.
+     *
+     * @param name Company name.
+     * @param website Optional company website.
+     * @param country Optional company address country.
+     * @param region Optional company address region.
+     * @param city Optional company address city.
+     * @param address Optional company address.
+     * @param postalCode Optional company address postal code.
+     * @param properties Company metadata.
+     * @return Future completed when the operation is finished.
+     * @see NCClient#updateCompany(String, String, String, String, String, String, String, Map)
+     */
+    CompletableFuture<Void> updateCompany(
+        String name,
+        String website,
+        String country,
+        String region,
+        String city,
+        String address,
+        String postalCode,
+        Map<String, Object> properties
+    );
+
+    /**
+     * Asynchronously sets and returns new company probe authentication token.
+     *
+     * @return Future of the new company probe token.
+     * @see NCClient#resetCompanyToken()
+     */
+    CompletableFuture<String> resetCompanyToken();
+
+    /**
+     * Asynchronously deletes company and all its users and other associated data.
+     *
+     * @return Future completed when the operation is finished.
+     * @see NCClient#deleteCompany()
+     */
+    CompletableFuture<Void> deleteCompany();
+
+    /**
+     * Asynchronously runs synonym suggestion tool for given model ID and minimal score.
+     *
+     * @param mdlId ID Of the model to run the tool for.
+     * @param minScore Minimum score to include into the result, ranging from 0 to 1, default is 0.
+     * @return Future of the suggestion data container.
+     * @see NCClient#suggestSynonyms(String, Double)
+     */
+    CompletableFuture<NCSuggestionData> suggestSynonyms(String mdlId, Double minScore);
+
+    /**
+     * Asynchronously gets synonyms of the given model element.
+     *
+     * @param mdlId Model ID.
+     * @param elmId Element ID.
+     * @return Future of the element synonyms data.
+     * @see NCClient#getSynonyms(String, String)
+     */
+    CompletableFuture<NCElementSynonymsData> getSynonyms(String mdlId, String elmId);
+
+    /**
+     * Asynchronously gets the model information.
+     *
+     * @param mdlId Model ID.
+     * @return Future of the model information.
+     * @see NCClient#getModelInfo(String)
+     */
+    CompletableFuture<NCModelInfo> getModelInfo(String mdlId);
+
+    /**
+     * Gets current statistics of the HTTP connection pool used by this client.
+     *
+     * @return Connection pool statistics snapshot, or {@code null} if this client was built with a custom
+     *      HTTP client supplier and therefore doesn't own its connection pool.
+     * @see NCClientBuilder#setMaxConnections(int)
+     * @see NCClientBuilder#setMaxConnectionsPerRoute(int)
+     */
+    NCPoolStats getPoolStats();
+
+    /**
+     * Gets current statistics of the <code>askSync</code> result cache of this client.
+     *
+     * @return Result cache statistics snapshot, or {@code null} if the result cache is not enabled.
+     * @see NCClientBuilder#setResultCacheTtl(long)
+     */
+    NCResultCacheStats getResultCacheStats();
+
+    /**
+     * Gets current statistics of the <code>askSync</code> request hedging of this client.
+     *
+     * @return Hedging statistics snapshot, or {@code null} if hedging is not enabled.
+     * @see NCClientBuilder#setHedgingPercentile(double)
+     */
+    NCHedgingStats getHedgingStats();
+
+    /**
+     * Gets the view of this client which bounds each call by the given time. The deadline of the call covers
+     * waiting for the concurrency limit, retries, waiting for the pooled connection, connect and waiting for the
+     * response. The request is never sent once the deadline passed, the call fails with
+     * {@link NCDeadlineExceededException} instead. Futures of the calls whose response doesn't arrive in time
+     * complete with {@link NCDeadlineExceededException} as well. If the deadline of the <code>ask</code> call
+     * passes after the request was accepted by the server, the request is cancelled.
+     * <p>
+     * The view shares all state with this client, e.g. closing the view closes this client. Views can be created
+     * per call, for instance <code>cli.withDeadline(300).askSync(mdlId, txt)</code>.
+     *
+     * @param timeoutMs Timeout of each call in milliseconds.
+     * @return Client view with the deadline of each call.
+     * @throws IllegalArgumentException If the timeout is not positive.
+     */
+    NCAsyncClient withDeadline(long timeoutMs);
+
+    /**
+     * Gets current statistics of the REST endpoints this client routes requests to, one per configured base URL.
+     *
+     * @return Endpoint statistics snapshots, in the order of base URLs.
+     * @see NCClientBuilder#setBaseUrls(String...)
+     */
+    List<NCEndpointStats> getEndpointStats();
+
+    /**
+     * Gets current statistics of the client-side concurrency limiters, one per REST endpoint and model
+     * the requests were sent to.
+     *
+     * @return Concurrency limiter statistics snapshots, empty list if concurrency limiting is not enabled.
+     * @see NCClientBuilder#setConcurrencyLimit(int)
+     */
+    List<NCConcurrencyLimitStats> getConcurrencyLimitStats();
+
+    /**
+     * Gets current statistics of the bulkheads, i.e. partitions of the REST calls with their own concurrency
+     * and queue limits.
+     *
+     * @return Bulkhead statistics snapshots, empty list if bulkheads are disabled.
+     * @see NCClientBuilder#setBulkheadsEnabled(boolean)
+     */
+    List<NCBulkheadStats> getBulkheadStats();
+
+    /**
+     * Gets current statistics of the automatic release of the server requests created by this client.
+     *
+     * @return Request release statistics snapshot, or {@code null} if automatic release is not enabled.
+     * @see NCClientBuilder#setRequestAbandonTimeout(long)
+     */
+    NCRequestReleaseStats getRequestReleaseStats();
+
+    /**
+     * Asynchronously signs out from the REST server and closes the client once done. Any further calls to
+     * this client will result in exception.
+     *
+     * @return Future completed when the client is closed.
+     * @see NCClient#close()
+     */
+    CompletableFuture<Void> close();
+}
@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client;
+
+/**
+ * Snapshot of the bulkhead statistics. Bulkhead is a named partition of the client calls with its own
+ * concurrency and queue limits.
+ *
+ * @see NCClientBuilder#setBulkhead(String, int, int, long)
+ * @see NCClient#getBulkheadStats()
+ * @see NCAsyncClient#getBulkheadStats()
+ */
+public interface NCBulkheadStats {
+    /**
+     * Gets bulkhead name.
+     *
+     * @return Bulkhead name.
+     */
+    String getName();
+
+    /**
+     * Gets maximum number of the requests in progress, i.e. maximum number of the connections used by the calls
+     * of this bulkhead.
+     *
+     * @return Maximum number of the requests in progress.
+     */
+    int getMaxConcurrent();
+
+    /**
+     * Gets number of the requests in progress.
+     *
+     * @return Number of the requests in progress.
+     */
+    int getInFlight();
+
+    /**
+     * Gets number of the requests waiting in the queue.
+     *
+     * @return Number of the queued requests.
+     */
+    int getQueued();
+
+    /**
+     * Gets total number of the requests rejected because the queue was full or the queue timeout expired.
+     *
+     * @return Number of the rejected requests.
+     */
+    long getRejected();
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client;
+
+/**
+ * State transition of the client-side circuit breaker. Circuit breakers are kept per REST server, REST call
+ * and model.
+ *
+ * @see NCCircuitBreakerListener
+ */
+public interface NCCircuitBreakerEvent {
+    /**
+     * Gets base URL of the REST server.
+     *
+     * @return Base URL.
+     */
+    String getBaseUrl();
+
+    /**
+     * Gets REST call, e.g. <code>ask/sync</code>.
+     *
+     * @return REST call.
+     */
+    String getCall();
+
+    /**
+     * Gets ID of the model.
+     *
+     * @return Model ID, or {@code null} for the calls not related to any model.
+     */
+    String getModelId();
+
+    /**
+     * Gets previous state.
+     *
+     * @return Previous state.
+     */
+    NCCircuitBreakerState getFromState();
+
+    /**
+     * Gets new state.
+     *
+     * @return New state.
+     */
+    NCCircuitBreakerState getToState();
+
+    /**
+     * Gets failure rate of the recent calls which caused the transition.
+     *
+     * @return Failure rate, from zero to one.
+     */
+    double getFailureRate();
+
+    /**
+     * Gets slow call rate of the recent calls which caused the transition.
+     *
+     * @return Slow call rate, from zero to one.
+     */
+    double getSlowCallRate();
+}
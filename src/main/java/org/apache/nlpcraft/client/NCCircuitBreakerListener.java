@@ -0,0 +1,35 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client;
+
+/**
+ * Listener of the client-side circuit breaker state transitions, e.g. to shed the load upstream while the
+ * circuit breaker is open. Listener is called synchronously by the thread which caused the transition, so
+ * it should return quickly.
+ *
+ * @see NCClientBuilder#addCircuitBreakerListener(NCCircuitBreakerListener)
+ */
+@FunctionalInterface
+public interface NCCircuitBreakerListener {
+    /**
+     * Called on the circuit breaker state transition.
+     *
+     * @param e Transition event.
+     */
+    void onStateChange(NCCircuitBreakerEvent e);
+}
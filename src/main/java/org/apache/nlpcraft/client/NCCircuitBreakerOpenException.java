@@ -0,0 +1,36 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client;
+
+/**
+ * Exception thrown when the request is rejected by the open client-side circuit breaker, i.e. the recent
+ * requests of the same REST call and model to the server failed or were too slow. The request was not sent
+ * to the server.
+ *
+ * @see NCClientBuilder#setCircuitBreakerFailureRate(double)
+ */
+public class NCCircuitBreakerOpenException extends NCClientException {
+    /**
+     * Creates new exception with given error message.
+     *
+     * @param msg Error message.
+     */
+    public NCCircuitBreakerOpenException(String msg) {
+        super(msg);
+    }
+}
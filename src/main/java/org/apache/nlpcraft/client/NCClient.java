@@ -21,6 +21,8 @@ import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * <b>Java client API</b> provides native JVM wrapper for NLPCraft
@@ -54,6 +56,8 @@ import java.util.Set;
  *     // Close client &amp; sign out at the end.
  *     cli.close();
  * </pre>
+ * Client instance is thread-safe and is intended to be shared by all the threads of the application:
+ * concurrent calls use the same session and, with the default transport, the same connection pool.
  * 
  * @see NCClientBuilder
  */
@@ -83,13 +87,22 @@ public interface NCClient {
     boolean isClientCancelOnExit();
 
     /**
-     * Gets base URL this client is configured with.
+     * Gets base URL this client is configured with. If the client is configured with several base URLs,
+     * the first one is returned.
      *
      * @return Base URL this client is configured with.
      * @see NCClientBuilder
      */
     String getClientBaseUrl();
 
+    /**
+     * Gets all base URLs this client is configured with.
+     *
+     * @return Base URLs this client is configured with.
+     * @see NCClientBuilder#setBaseUrls(String...)
+     */
+    List<String> getClientBaseUrls();
+
     /**
      * Clears conversation context for the given model and the specified user.
      * <p>
@@ -555,9 +568,148 @@ public interface NCClient {
     // TODO:
     NCModelInfo getModelInfo(String mdlId) throws NCClientException, IOException;
     
+    /**
+     * Gets the result poller of this client. Poller tracks all requests submitted through it and gets their
+     * results with a single coalesced {@link #check(Set, Integer, Long, String)} call per polling interval.
+     *
+     * @return Result poller of this client.
+     * @see NCClientBuilder#setResultPollInterval(long)
+     */
+    NCResultPoller getResultPoller();
+
+    /**
+     * Processes all given texts, e.g. to re-score historical requests against the new model version. Texts
+     * are submitted with {@link #ask(String, String, Map, boolean, Long, String)} method while the number of
+     * the requests whose results are not delivered yet is below {@link NCAskAllOptions#getMaxInFlight()}. Their
+     * results are got with the coalesced <code>check</code> calls of the client's result poller, delivered
+     * to the consumer in the calling thread, in the order of the texts or of completion, and the delivered
+     * requests are released on the server with the batched {@link #cancel(Set, Long, String)} calls.
+     * <p>
+     * Texts are read lazily and memory used by the call is bounded by the in-flight window, regardless of the
+     * number of the texts. This method blocks until all results are delivered. If it fails, including the
+     * failure of the consumer, requests in flight are cancelled.
+     *
+     * @param mdlId ID of the model to submit the requests to.
+     * @param txts Texts to process.
+     * @param opts Options, {@code null} for the defaults.
+     * @param consumer Consumer of the results, including the failed ones.
+     * @return Statistics of the call, including its throughput.
+     * @throws NCClientException Thrown in case of client-specific errors.
+     * @throws IOException Thrown in case of generic I/O errors.
+     * @see #getResultPoller()
+     */
+    NCAskAllStats askAll(String mdlId, Iterable<String> txts, NCAskAllOptions opts, Consumer<NCResult> consumer)
+        throws NCClientException, IOException;
+
+    /**
+     * Processes all texts of the given stream. It is equivalent to:
+     * <pre class="brush: java">
+     *     try (txts) {
+     *         askAll(mdlId, txts::iterator, opts, consumer);
+     *     }
+     * </pre>
+     * The stream is closed when this method returns or fails, so that the streams backed by I/O resources,
+     * e.g. the lines of a file, are released.
+     *
+     * @param mdlId ID of the model to submit the requests to.
+     * @param txts Stream of the texts to process. It is closed by this method.
+     * @param opts Options, {@code null} for the defaults.
+     * @param consumer Consumer of the results, including the failed ones.
+     * @return Statistics of the call, including its throughput.
+     * @throws NCClientException Thrown in case of client-specific errors.
+     * @throws IOException Thrown in case of generic I/O errors.
+     * @see #askAll(String, Iterable, NCAskAllOptions, Consumer)
+     */
+    default NCAskAllStats askAll(String mdlId, Stream<String> txts, NCAskAllOptions opts, Consumer<NCResult> consumer)
+        throws NCClientException, IOException {
+        if (txts == null)
+            throw new IllegalArgumentException("Parameter cannot be null: 'txts'");
+
+        try (txts) {
+            return askAll(mdlId, txts::iterator, opts, consumer);
+        }
+    }
+
+    /**
+     * Gets current statistics of the HTTP connection pool used by this client.
+     *
+     * @return Connection pool statistics snapshot, or {@code null} if this client was built with a custom
+     *      HTTP client supplier and therefore doesn't own its connection pool.
+     * @see NCClientBuilder#setMaxConnections(int)
+     * @see NCClientBuilder#setMaxConnectionsPerRoute(int)
+     */
+    NCPoolStats getPoolStats();
+
+    /**
+     * Gets current statistics of the <code>askSync</code> result cache of this client.
+     *
+     * @return Result cache statistics snapshot, or {@code null} if the result cache is not enabled.
+     * @see NCClientBuilder#setResultCacheTtl(long)
+     */
+    NCResultCacheStats getResultCacheStats();
+
+    /**
+     * Gets current statistics of the <code>askSync</code> request hedging of this client.
+     *
+     * @return Hedging statistics snapshot, or {@code null} if hedging is not enabled.
+     * @see NCClientBuilder#setHedgingPercentile(double)
+     */
+    NCHedgingStats getHedgingStats();
+
+    /**
+     * Gets the view of this client which bounds each call by the given time. The deadline of the call covers
+     * waiting for the concurrency limit, retries, waiting for the pooled connection, connect and waiting for the
+     * response. The request is never sent once the deadline passed, the call fails with
+     * {@link NCDeadlineExceededException} instead. Timeout of the HTTP exchange is reported with the transport
+     * {@link IOException}, e.g. {@link java.net.SocketTimeoutException}. If the deadline of the <code>ask</code>
+     * call passes after the request was accepted by the server, the request is cancelled.
+     * <p>
+     * The view shares all state with this client, e.g. closing the view closes this client. Views can be created
+     * per call, for instance <code>cli.withDeadline(300).askSync(mdlId, txt)</code>.
+     *
+     * @param timeoutMs Timeout of each call in milliseconds.
+     * @return Client view with the deadline of each call.
+     * @throws IllegalArgumentException If the timeout is not positive.
+     */
+    NCClient withDeadline(long timeoutMs);
+
+    /**
+     * Gets current statistics of the REST endpoints this client routes requests to, one per configured base URL.
+     *
+     * @return Endpoint statistics snapshots, in the order of base URLs.
+     * @see NCClientBuilder#setBaseUrls(String...)
+     */
+    List<NCEndpointStats> getEndpointStats();
+
+    /**
+     * Gets current statistics of the client-side concurrency limiters, one per REST endpoint and model
+     * the requests were sent to.
+     *
+     * @return Concurrency limiter statistics snapshots, empty list if concurrency limiting is not enabled.
+     * @see NCClientBuilder#setConcurrencyLimit(int)
+     */
+    List<NCConcurrencyLimitStats> getConcurrencyLimitStats();
+
+    /**
+     * Gets current statistics of the bulkheads, i.e. partitions of the REST calls with their own concurrency
+     * and queue limits.
+     *
+     * @return Bulkhead statistics snapshots, empty list if bulkheads are disabled.
+     * @see NCClientBuilder#setBulkheadsEnabled(boolean)
+     */
+    List<NCBulkheadStats> getBulkheadStats();
+
+    /**
+     * Gets current statistics of the automatic release of the server requests created by this client.
+     *
+     * @return Request release statistics snapshot, or {@code null} if automatic release is not enabled.
+     * @see NCClientBuilder#setRequestAbandonTimeout(long)
+     */
+    NCRequestReleaseStats getRequestReleaseStats();
+
     /**
      * Closes the client and signs out from the REST server. Any further calls to this client will result in
-     * exception.
+     * exception. Only the first call closes the client, repeated or concurrent calls have no effect.
      *
      * @throws NCClientException Thrown in case of client-specific errors.
      * @throws IOException Thrown in case of generic I/O errors.
@@ -18,11 +18,39 @@
 package org.apache.nlpcraft.client;
 
 import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.nlpcraft.client.impl.NCAsyncClientImpl;
+import org.apache.nlpcraft.client.impl.NCBulkheads;
+import org.apache.nlpcraft.client.impl.NCCircuitBreakers;
 import org.apache.nlpcraft.client.impl.NCClientImpl;
+import org.apache.nlpcraft.client.impl.NCConcurrencyLimits;
+import org.apache.nlpcraft.client.impl.NCEndpointRouter;
+import org.apache.nlpcraft.client.impl.NCHedging;
+import org.apache.nlpcraft.client.impl.NCJdkHttpTransport;
+import org.apache.nlpcraft.client.impl.NCRequestCoalescer;
+import org.apache.nlpcraft.client.impl.NCRequestRelease;
+import org.apache.nlpcraft.client.impl.NCResultCache;
+import org.apache.nlpcraft.client.impl.NCRetryPolicy;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 /**
@@ -43,6 +71,21 @@ import java.util.function.Supplier;
  *     // Close client &amp; sign out at the end.
  *     cli.close();
  * </pre>
+ * Unless custom HTTP client supplier is set the builder creates pooled HTTP client that can be shared by many
+ * threads. Pool limits can be tuned with {@link #setMaxConnections(int)} and {@link #setMaxConnectionsPerRoute(int)}
+ * methods and monitored with {@link NCClient#getPoolStats()} method.
+ * <p>
+ * Client can balance the load between several REST servers of the same cluster itself, see {@link #setBaseUrls(String...)}.
+ * <p>
+ * Blocking clients can alternatively use JDK HTTP/2 transport or a custom one, see {@link #setTransportType(NCTransportType)}
+ * and {@link #setTransport(Supplier)} methods. Non-blocking clients always use Apache HttpAsyncClient.
+ * <p>
+ * Non-blocking {@link NCAsyncClient} instances are built by the same builder using {@link #buildAsync()} method.
+ * <p>
+ * Client jar is multi-release. On Java 21 or later the client's background work (result polling, health
+ * checks, hedged requests, retry and timeout callbacks) runs on virtual threads, and blocking clients scale
+ * to many callers running on virtual threads themselves as long as bulkheads are enabled, see
+ * {@link #setBulkheadsEnabled(boolean)}.
  */
 public class NCClientBuilder {
     /** Default public REST API URL (endpoint). */
@@ -53,14 +96,133 @@ public class NCClientBuilder {
     public static final String DFLT_PWD = "admin";
     /** Default cancel on exit flag. */
     public static final boolean DFLT_CANCEL_ON_EXIT = true;
+    /** Default maximum total number of pooled connections. */
+    public static final int DFLT_MAX_CONN = 200;
+    /** Default maximum number of pooled connections per route, i.e. per REST server. */
+    public static final int DFLT_MAX_CONN_PER_ROUTE = 100;
+    /** Default period of inactivity in milliseconds after which pooled connection is re-validated before reuse. */
+    public static final int DFLT_VALIDATE_AFTER_INACTIVITY_MS = 2000;
+    /** Default maximum time in milliseconds idle persistent connection is kept alive. */
+    public static final long DFLT_KEEP_ALIVE_MS = 30000;
+    /** Default maximum interval in milliseconds between result poller checks of the same request. */
+    public static final long DFLT_RESULT_POLL_INTERVAL_MS = 500;
+    /** Default minimal interval in milliseconds between result poller checks. */
+    public static final long DFLT_RESULT_MIN_POLL_INTERVAL_MS = 50;
+    /** Default maximum total weight, i.e. approximate size in bytes, of the cached <code>askSync</code> results. */
+    public static final long DFLT_RESULT_CACHE_MAX_WEIGHT = 16 * 1024 * 1024;
+    /** Default transport of the blocking client. */
+    public static final NCTransportType DFLT_TRANSPORT_TYPE = NCTransportType.APACHE_HTTP_CLIENT;
+    /** Default number of consecutive failures ejecting REST endpoint from routing. */
+    public static final int DFLT_EJECTION_THRESHOLD = 3;
+    /** Default time in milliseconds failing REST endpoint is ejected from routing for. */
+    public static final long DFLT_EJECTION_TIME_MS = 30000;
+    /** Default interval in milliseconds between REST endpoint health checks. */
+    public static final long DFLT_HEALTH_CHECK_INTERVAL_MS = 5000;
+    /** Default sticky routing mode. */
+    public static final NCStickyRouting DFLT_STICKY_ROUTING = NCStickyRouting.NONE;
+    /** Default maximum load of the server selected by sticky routing relative to the average load. */
+    public static final double DFLT_STICKY_LOAD_FACTOR = 1.25;
+    /** Default initial number of requests in progress per REST server and model allowed by concurrency limiting. */
+    public static final int DFLT_INIT_CONCURRENCY_LIMIT = 10;
+    /** Default maximum time in milliseconds the request over the concurrency limit waits in the queue. */
+    public static final long DFLT_CONCURRENCY_QUEUE_TIMEOUT_MS = 1000;
+    /** Default minimum delay in milliseconds before the retry of the failed request. */
+    public static final long DFLT_RETRY_DELAY_MS = 100;
+    /** Default maximum delay in milliseconds before the retry of the failed request. */
+    public static final long DFLT_MAX_RETRY_DELAY_MS = 10000;
+    /** Default number of retries allowed per request on average. */
+    public static final double DFLT_RETRY_BUDGET = 0.1;
+    /** Default number of the recent calls which outcomes are recorded by the circuit breaker. */
+    public static final int DFLT_CIRCUIT_BREAKER_WINDOW = 20;
+    /** Default duration in milliseconds of the call considered slow by the circuit breaker. */
+    public static final long DFLT_CIRCUIT_BREAKER_SLOW_CALL_DURATION_MS = 10000;
+    /** Default rate of the slow calls opening the circuit breaker. */
+    public static final double DFLT_CIRCUIT_BREAKER_SLOW_CALL_RATE = 1;
+    /** Default time in milliseconds the circuit breaker stays open before probe calls. */
+    public static final long DFLT_CIRCUIT_BREAKER_OPEN_TIME_MS = 30000;
+    /** Default share of the extra load added by the hedge requests. */
+    public static final double DFLT_HEDGING_BUDGET = 0.05;
+    /** Name of the bulkhead of the latency-critical NLP calls, i.e. <code>ask</code>, <code>check</code>, etc. */
+    public static final String INTERACTIVE_BULKHEAD = "interactive";
+    /** Name of the bulkhead of the management and bulk calls, i.e. all calls not routed to other bulkheads. */
+    public static final String ADMIN_BULKHEAD = "admin";
+    /** Default share of the pooled connections used by the admin bulkhead, the rest is used by the interactive one. */
+    public static final double DFLT_ADMIN_BULKHEAD_SHARE = 0.2;
+    /** Default interval in milliseconds between the automatic releases of the server requests. */
+    public static final long DFLT_REQUEST_RELEASE_INTERVAL_MS = 1000;
+    /** Default maximum number of the requests waiting in the bulkhead queue. */
+    public static final int DFLT_BULKHEAD_MAX_QUEUED = 10000;
+    /** Default maximum time in milliseconds the request waits in the bulkhead queue. */
+    public static final long DFLT_BULKHEAD_QUEUE_TIMEOUT_MS = 60000;
 
     private final NCClientImpl impl = new NCClientImpl();
+    private Supplier<CloseableHttpAsyncClient> asyncHttpCliSup;
+    private int maxConn = DFLT_MAX_CONN;
+    private long resCacheTtlMs;
+    private Set<String> coalescedMdlIds;
+    private long resCacheMaxWeight = DFLT_RESULT_CACHE_MAX_WEIGHT;
+    private int maxConnPerRoute = DFLT_MAX_CONN_PER_ROUTE;
+    private int validateAfterInactivityMs = DFLT_VALIDATE_AFTER_INACTIVITY_MS;
+    private long keepAliveMs = DFLT_KEEP_ALIVE_MS;
+    private NCTransportType transportType = DFLT_TRANSPORT_TYPE;
+    private Supplier<NCTransport> transportSup;
+    private int ejectThreshold = DFLT_EJECTION_THRESHOLD;
+    private long ejectTimeMs = DFLT_EJECTION_TIME_MS;
+    private long healthIntervalMs = DFLT_HEALTH_CHECK_INTERVAL_MS;
+    private NCStickyRouting sticky = DFLT_STICKY_ROUTING;
+    private double stickyLoadFactor = DFLT_STICKY_LOAD_FACTOR;
+    private int maxConcurrencyLimit;
+    private int initConcurrencyLimit = DFLT_INIT_CONCURRENCY_LIMIT;
+    private long concurrencyQueueTimeoutMs = DFLT_CONCURRENCY_QUEUE_TIMEOUT_MS;
+    private int maxRetries;
+    private long retryDelayMs = DFLT_RETRY_DELAY_MS;
+    private long maxRetryDelayMs = DFLT_MAX_RETRY_DELAY_MS;
+    private double retryBudget = DFLT_RETRY_BUDGET;
+    private double cbFailureRate;
+    private int cbWindow = DFLT_CIRCUIT_BREAKER_WINDOW;
+    private long cbSlowCallMs = DFLT_CIRCUIT_BREAKER_SLOW_CALL_DURATION_MS;
+    private double cbSlowCallRate = DFLT_CIRCUIT_BREAKER_SLOW_CALL_RATE;
+    private long cbOpenTimeMs = DFLT_CIRCUIT_BREAKER_OPEN_TIME_MS;
+    private final List<NCCircuitBreakerListener> cbLsnrs = new ArrayList<>();
+    private double hedgingPercentile;
+    private double hedgingBudget = DFLT_HEDGING_BUDGET;
+    private boolean bulkheadsEnabled;
+    private long reqAbandonTimeoutMs;
+    private long reqReleaseIntervalMs = DFLT_REQUEST_RELEASE_INTERVAL_MS;
+    private final Map<String, Bulkhead> bulkheads = new LinkedHashMap<>();
+    private final Map<String, String> bulkheadCalls = new LinkedHashMap<>();
+
+    /**
+     * Bulkhead settings. Zero concurrency limit means the default share of the connection pool.
+     */
+    private static class Bulkhead {
+        private final int maxConcurrent;
+        private final int maxQueued;
+        private final long queueTimeoutMs;
+        private long timeoutMs;
+
+        /**
+         *
+         * @param maxConcurrent
+         * @param maxQueued
+         * @param queueTimeoutMs
+         */
+        Bulkhead(int maxConcurrent, int maxQueued, long queueTimeoutMs) {
+            this.maxConcurrent = maxConcurrent;
+            this.maxQueued = maxQueued;
+            this.queueTimeoutMs = queueTimeoutMs;
+        }
+    }
     
     /**
      * Creates new client builder with all default settings.
      */
     public NCClientBuilder() {
-        // No-op.
+        bulkheads.put(INTERACTIVE_BULKHEAD, new Bulkhead(0, DFLT_BULKHEAD_MAX_QUEUED, DFLT_BULKHEAD_QUEUE_TIMEOUT_MS));
+        bulkheads.put(ADMIN_BULKHEAD, new Bulkhead(0, DFLT_BULKHEAD_MAX_QUEUED, DFLT_BULKHEAD_QUEUE_TIMEOUT_MS));
+
+        for (String call : NCBulkheads.INTERACTIVE_CALLS)
+            bulkheadCalls.put(call, INTERACTIVE_BULKHEAD);
     }
     
     /**
@@ -87,6 +249,218 @@ public class NCClientBuilder {
         return this;
     }
     
+    /**
+     * Sets built-in transport of the blocking client. Connection pool settings and custom HTTP client
+     * supplier only apply to {@link NCTransportType#APACHE_HTTP_CLIENT} transport. Non-blocking clients always
+     * use Apache HttpAsyncClient, so {@link #buildAsync()} method fails if other transport is set.
+     *
+     * @param transportType Transport type.
+     * @return Current client builder.
+     * @see #DFLT_TRANSPORT_TYPE
+     */
+    public NCClientBuilder setTransportType(NCTransportType transportType) {
+        if (transportType == null)
+            throw new IllegalArgumentException("Transport type cannot be null.");
+
+        this.transportType = transportType;
+
+        return this;
+    }
+
+    /**
+     * Sets custom transport of the blocking client. It takes precedence over {@link #setTransportType(NCTransportType)}
+     * and {@link #setClientSupplier(Supplier)} settings. Transport is closed when the client is closed.
+     * Non-blocking clients don't support custom transports, so {@link #buildAsync()} method fails if it's set.
+     *
+     * @param transportSup Custom transport supplier.
+     * @return Current client builder.
+     */
+    public NCClientBuilder setTransport(Supplier<NCTransport> transportSup) {
+        this.transportSup = transportSup;
+
+        return this;
+    }
+
+    /**
+     * Sets custom non-blocking HTTP client for this builder. This client is only used by
+     * the clients created with {@link #buildAsync()} method.
+     *
+     * @param asyncHttpCliSup Custom non-blocking HTTP client to use.
+     * @return Current client builder.
+     */
+    public NCClientBuilder setAsyncClientSupplier(Supplier<CloseableHttpAsyncClient> asyncHttpCliSup) {
+        this.asyncHttpCliSup = asyncHttpCliSup;
+
+        return this;
+    }
+
+    /**
+     * Sets maximum total number of connections in the default connection pool. Ignored if custom
+     * HTTP client supplier is set.
+     *
+     * @param maxConn Maximum total number of pooled connections.
+     * @return Current client builder.
+     * @see #DFLT_MAX_CONN
+     */
+    public NCClientBuilder setMaxConnections(int maxConn) {
+        if (maxConn <= 0)
+            throw new IllegalArgumentException("Maximum number of connections must be positive.");
+
+        this.maxConn = maxConn;
+
+        return this;
+    }
+
+    /**
+     * Sets maximum number of connections per route, i.e. per REST server, in the default connection pool.
+     * Ignored if custom HTTP client supplier is set.
+     *
+     * @param maxConnPerRoute Maximum number of pooled connections per route.
+     * @return Current client builder.
+     * @see #DFLT_MAX_CONN_PER_ROUTE
+     */
+    public NCClientBuilder setMaxConnectionsPerRoute(int maxConnPerRoute) {
+        if (maxConnPerRoute <= 0)
+            throw new IllegalArgumentException("Maximum number of connections per route must be positive.");
+
+        this.maxConnPerRoute = maxConnPerRoute;
+
+        return this;
+    }
+
+    /**
+     * Sets period of inactivity after which pooled connection is re-validated before being leased.
+     * Non-positive value disables validation. Ignored if custom HTTP client supplier is set.
+     *
+     * @param validateAfterInactivityMs Period of inactivity in milliseconds.
+     * @return Current client builder.
+     * @see #DFLT_VALIDATE_AFTER_INACTIVITY_MS
+     */
+    public NCClientBuilder setValidateAfterInactivity(int validateAfterInactivityMs) {
+        this.validateAfterInactivityMs = validateAfterInactivityMs;
+
+        return this;
+    }
+
+    /**
+     * Sets maximum time idle persistent connection is kept alive. Shorter keep-alive timeout sent by the
+     * server takes precedence. Ignored if custom HTTP client supplier is set.
+     *
+     * @param keepAliveMs Maximum keep-alive time in milliseconds.
+     * @return Current client builder.
+     * @see #DFLT_KEEP_ALIVE_MS
+     */
+    public NCClientBuilder setKeepAlive(long keepAliveMs) {
+        if (keepAliveMs <= 0)
+            throw new IllegalArgumentException("Keep-alive time must be positive.");
+
+        this.keepAliveMs = keepAliveMs;
+
+        return this;
+    }
+
+    /**
+     * Sets maximum interval between checks of the same request by the client result poller. Poller schedules
+     * checks adaptively, based on the observed completion times of the model requests, and backs off up to this
+     * interval while the result is not ready.
+     *
+     * @param pollIntervalMs Maximum polling interval in milliseconds.
+     * @return Current client builder.
+     * @see #DFLT_RESULT_POLL_INTERVAL_MS
+     * @see NCClient#getResultPoller()
+     */
+    public NCClientBuilder setResultPollInterval(long pollIntervalMs) {
+        if (pollIntervalMs <= 0)
+            throw new IllegalArgumentException("Result poll interval must be positive.");
+
+        impl.setResultPollInterval(pollIntervalMs);
+
+        return this;
+    }
+
+    /**
+     * Enables client-side cache of the <code>askSync</code> results and sets time-to-live of the cached results.
+     * Cache is disabled by default.
+     * <p>
+     * Results are cached per model, text (trimmed, with collapsed whitespaces), data, log flag and user. Only
+     * successful results are cached. Cached results of the model and user are dropped when
+     * {@link NCClient#clearConversation(String, Long, String)} or {@link NCClient#clearDialog(String, Long, String)}
+     * is called with the same user IDs. Note that results of the conversation-dependent models can differ for
+     * the same text, only enable the cache when such results can be shared within the TTL.
+     *
+     * @param ttlMs Time-to-live of the cached results in milliseconds.
+     * @return Current client builder.
+     * @see NCClient#getResultCacheStats()
+     */
+    public NCClientBuilder setResultCacheTtl(long ttlMs) {
+        if (ttlMs <= 0)
+            throw new IllegalArgumentException("Result cache TTL must be positive.");
+
+        resCacheTtlMs = ttlMs;
+
+        return this;
+    }
+
+    /**
+     * Sets maximum total weight, i.e. approximate size in bytes, of the cached <code>askSync</code> results.
+     * When the limit is reached, least recently used results are evicted, unless the new result is requested
+     * less often than them.
+     *
+     * @param maxWeight Maximum total weight of the cached results.
+     * @return Current client builder.
+     * @see #DFLT_RESULT_CACHE_MAX_WEIGHT
+     * @see #setResultCacheTtl(long)
+     */
+    public NCClientBuilder setResultCacheMaxWeight(long maxWeight) {
+        if (maxWeight <= 0)
+            throw new IllegalArgumentException("Result cache maximum weight must be positive.");
+
+        resCacheMaxWeight = maxWeight;
+
+        return this;
+    }
+
+    /**
+     * Enables single-flight coalescing of the identical concurrent <code>askSync</code> requests to the given
+     * models. While such request is in flight, identical requests (same model, text, data, log flag and user)
+     * wait for its result instead of being sent to the server. Coalescing is disabled by default.
+     * <p>
+     * Only enable coalescing for the stateless models, i.e. the models that don't depend on the conversation
+     * or dialog state, since all coalesced requests get the same result.
+     *
+     * @param mdlIds IDs of the stateless models which requests can be coalesced.
+     * @return Current client builder.
+     */
+    public NCClientBuilder setCoalescedModels(String... mdlIds) {
+        if (mdlIds == null)
+            throw new IllegalArgumentException("Model IDs must be provided.");
+
+        coalescedMdlIds = new HashSet<>(Arrays.asList(mdlIds));
+
+        if (coalescedMdlIds.contains(null))
+            throw new IllegalArgumentException("Model IDs cannot be null.");
+
+        return this;
+    }
+
+    /**
+     * Sets minimal interval between coalesced <code>check</code> calls of the client result poller. It is
+     * also the first polling interval for the models without observed completion times yet.
+     *
+     * @param minPollIntervalMs Minimal polling interval in milliseconds.
+     * @return Current client builder.
+     * @see #DFLT_RESULT_MIN_POLL_INTERVAL_MS
+     * @see NCClient#getResultPoller()
+     */
+    public NCClientBuilder setResultMinPollInterval(long minPollIntervalMs) {
+        if (minPollIntervalMs <= 0)
+            throw new IllegalArgumentException("Result minimal poll interval must be positive.");
+
+        impl.setResultMinPollInterval(minPollIntervalMs);
+
+        return this;
+    }
+
     /**
      * Sets custom base URL of the REST server for this builder.
      *
@@ -95,11 +469,591 @@ public class NCClientBuilder {
      * @see #DFLT_BASEURL
      */
     public NCClientBuilder setBaseUrl(String baseUrl) {
-        impl.setBaseUrl(baseUrl);
+        impl.setBaseUrls(baseUrl != null ? Collections.singletonList(baseUrl) : null);
     
         return this;
     }
+
+    /**
+     * Sets base URLs of several REST servers for this builder. Client signs in to each of them and routes
+     * every request to the server with the least outstanding requests, weighted by its average latency.
+     * Server failing to respond {@link #setEjectionThreshold(int) several times} in a row is ejected from
+     * routing for the {@link #setEjectionTime(long) ejection time}, or until it passes the periodic
+     * {@link #setHealthCheckInterval(long) health check}. REST servers should share the state, i.e. belong
+     * to the same NLPCraft cluster, since subsequent requests of the same user can be routed to different servers.
+     *
+     * @param baseUrls Base URLs of the REST servers to use.
+     * @return Current client builder.
+     * @see #DFLT_BASEURL
+     * @see NCClient#getEndpointStats()
+     */
+    public NCClientBuilder setBaseUrls(String... baseUrls) {
+        if (baseUrls == null || baseUrls.length == 0)
+            throw new IllegalArgumentException("Base URLs cannot be empty.");
+
+        for (String url : baseUrls)
+            if (url == null || url.trim().isEmpty())
+                throw new IllegalArgumentException("Base URL cannot be empty.");
+
+        impl.setBaseUrls(Arrays.asList(baseUrls));
+
+        return this;
+    }
+
+    /**
+     * Sets number of consecutive failures to get any response, from the requests or health checks, after which
+     * REST server is ejected from routing. Only applies to the clients with several base URLs.
+     *
+     * @param ejectThreshold Number of consecutive failures.
+     * @return Current client builder.
+     * @see #DFLT_EJECTION_THRESHOLD
+     * @see #setBaseUrls(String...)
+     */
+    public NCClientBuilder setEjectionThreshold(int ejectThreshold) {
+        if (ejectThreshold <= 0)
+            throw new IllegalArgumentException("Ejection threshold must be positive.");
+
+        this.ejectThreshold = ejectThreshold;
+
+        return this;
+    }
+
+    /**
+     * Sets time failing REST server is ejected from routing for, unless it passes the health check earlier.
+     * Only applies to the clients with several base URLs.
+     *
+     * @param ejectTimeMs Ejection time in milliseconds.
+     * @return Current client builder.
+     * @see #DFLT_EJECTION_TIME_MS
+     * @see #setBaseUrls(String...)
+     */
+    public NCClientBuilder setEjectionTime(long ejectTimeMs) {
+        if (ejectTimeMs <= 0)
+            throw new IllegalArgumentException("Ejection time must be positive.");
+
+        this.ejectTimeMs = ejectTimeMs;
+
+        return this;
+    }
+
+    /**
+     * Sets interval between the health checks of REST servers. Health check posts <code>health</code> call
+     * and succeeds on any response except server errors. Ejected server passing the check is returned to routing
+     * immediately. Only applies to the clients with several base URLs.
+     *
+     * @param healthIntervalMs Health check interval in milliseconds, zero to disable health checks.
+     * @return Current client builder.
+     * @see #DFLT_HEALTH_CHECK_INTERVAL_MS
+     * @see #setBaseUrls(String...)
+     */
+    public NCClientBuilder setHealthCheckInterval(long healthIntervalMs) {
+        if (healthIntervalMs < 0)
+            throw new IllegalArgumentException("Health check interval cannot be negative.");
+
+        this.healthIntervalMs = healthIntervalMs;
+
+        return this;
+    }
     
+    /**
+     * Sets sticky routing mode of the conversation-related requests. Only applies to the clients with several
+     * base URLs.
+     *
+     * @param sticky Sticky routing mode.
+     * @return Current client builder.
+     * @see #DFLT_STICKY_ROUTING
+     * @see #setBaseUrls(String...)
+     */
+    public NCClientBuilder setStickyRouting(NCStickyRouting sticky) {
+        if (sticky == null)
+            throw new IllegalArgumentException("Sticky routing mode cannot be null.");
+
+        this.sticky = sticky;
+
+        return this;
+    }
+
+    /**
+     * Sets maximum load of the server selected by sticky routing, relative to the average number of outstanding
+     * requests per server. Lower values spread heavy users sooner, higher ones keep them sticky longer.
+     *
+     * @param stickyLoadFactor Load factor, not less than one.
+     * @return Current client builder.
+     * @see #DFLT_STICKY_LOAD_FACTOR
+     * @see #setStickyRouting(NCStickyRouting)
+     */
+    public NCClientBuilder setStickyLoadFactor(double stickyLoadFactor) {
+        if (!(stickyLoadFactor >= 1))
+            throw new IllegalArgumentException("Sticky load factor must not be less than one.");
+
+        this.stickyLoadFactor = stickyLoadFactor;
+
+        return this;
+    }
+
+    /**
+     * Enables client-side adaptive concurrency limiting and sets the maximum limit. Limiting is disabled by default.
+     * <p>
+     * Requests in progress are limited per REST server and model. The limit starts from the initial value and
+     * grows while the latency stays stable, and shrinks when the latency rises or requests fail with I/O errors,
+     * timeouts or server errors, so that bursts don't overload the server. Requests over the limit wait in the
+     * queue and are rejected with {@link NCConcurrencyLimitException} if they wait longer than the queue timeout.
+     *
+     * @param maxLimit Maximum number of requests in progress per server and model.
+     * @return Current client builder.
+     * @see #setInitialConcurrencyLimit(int)
+     * @see #setConcurrencyQueueTimeout(long)
+     * @see NCClient#getConcurrencyLimitStats()
+     */
+    public NCClientBuilder setConcurrencyLimit(int maxLimit) {
+        if (maxLimit <= 0)
+            throw new IllegalArgumentException("Concurrency limit must be positive.");
+
+        maxConcurrencyLimit = maxLimit;
+
+        return this;
+    }
+
+    /**
+     * Sets initial value of the adaptive concurrency limit. Values above the maximum limit are capped by it.
+     *
+     * @param initLimit Initial number of requests in progress per server and model.
+     * @return Current client builder.
+     * @see #DFLT_INIT_CONCURRENCY_LIMIT
+     * @see #setConcurrencyLimit(int)
+     */
+    public NCClientBuilder setInitialConcurrencyLimit(int initLimit) {
+        if (initLimit <= 0)
+            throw new IllegalArgumentException("Initial concurrency limit must be positive.");
+
+        initConcurrencyLimit = initLimit;
+
+        return this;
+    }
+
+    /**
+     * Sets maximum time the request over the concurrency limit waits in the queue before it's rejected.
+     *
+     * @param queueTimeoutMs Queue timeout in milliseconds, zero to reject requests over the limit immediately.
+     * @return Current client builder.
+     * @see #DFLT_CONCURRENCY_QUEUE_TIMEOUT_MS
+     * @see #setConcurrencyLimit(int)
+     */
+    public NCClientBuilder setConcurrencyQueueTimeout(long queueTimeoutMs) {
+        if (queueTimeoutMs < 0)
+            throw new IllegalArgumentException("Concurrency queue timeout cannot be negative.");
+
+        concurrencyQueueTimeoutMs = queueTimeoutMs;
+
+        return this;
+    }
+
+    /**
+     * Enables retries of the failed requests and sets maximum number of retries of one request. Retries are
+     * disabled by default.
+     * <p>
+     * Idempotent requests, i.e. <code>check</code>, <code>cancel</code>, <code>getModelInfo</code>,
+     * <code>getSynonyms</code>, <code>getProbes</code>, <code>getUser</code>, <code>getAllUsers</code>,
+     * <code>getCompany</code>, <code>getAllFeedback</code>, <code>clearConversation</code> and
+     * <code>clearDialog</code>, are retried after I/O errors and server failures. Other requests, e.g.
+     * <code>ask</code>, <code>addUser</code> or <code>addFeedback</code>, are only retried if they were certainly
+     * not processed: the connection to the server failed, or the server responded with <code>429</code> or
+     * <code>503</code> status. Each retry can be routed to another server.
+     *
+     * @param maxRetries Maximum number of retries of one request.
+     * @return Current client builder.
+     * @see #setRetryDelay(long)
+     * @see #setMaxRetryDelay(long)
+     * @see #setRetryBudget(double)
+     */
+    public NCClientBuilder setMaxRetries(int maxRetries) {
+        if (maxRetries <= 0)
+            throw new IllegalArgumentException("Maximum number of retries must be positive.");
+
+        this.maxRetries = maxRetries;
+
+        return this;
+    }
+
+    /**
+     * Sets minimum delay before the retry. Delays grow with decorrelated jitter: each delay is a random value
+     * between this delay and three times the previous one, capped by the maximum delay.
+     *
+     * @param retryDelayMs Minimum retry delay in milliseconds.
+     * @return Current client builder.
+     * @see #DFLT_RETRY_DELAY_MS
+     * @see #setMaxRetries(int)
+     */
+    public NCClientBuilder setRetryDelay(long retryDelayMs) {
+        if (retryDelayMs < 0)
+            throw new IllegalArgumentException("Retry delay cannot be negative.");
+
+        this.retryDelayMs = retryDelayMs;
+
+        return this;
+    }
+
+    /**
+     * Sets maximum delay before the retry. Request is not retried if the server asks to wait longer
+     * with <code>Retry-After</code> header.
+     *
+     * @param maxRetryDelayMs Maximum retry delay in milliseconds.
+     * @return Current client builder.
+     * @see #DFLT_MAX_RETRY_DELAY_MS
+     * @see #setMaxRetries(int)
+     */
+    public NCClientBuilder setMaxRetryDelay(long maxRetryDelayMs) {
+        if (maxRetryDelayMs < 0)
+            throw new IllegalArgumentException("Maximum retry delay cannot be negative.");
+
+        this.maxRetryDelayMs = maxRetryDelayMs;
+
+        return this;
+    }
+
+    /**
+     * Sets retry budget, i.e. number of retries allowed per request on average. Budget prevents retries from
+     * multiplying the load of the failing server: when most requests fail, only this share of them is retried.
+     * A few retries in a row are allowed regardless of the budget.
+     *
+     * @param retryBudget Retry budget, from zero to one.
+     * @return Current client builder.
+     * @see #DFLT_RETRY_BUDGET
+     * @see #setMaxRetries(int)
+     */
+    public NCClientBuilder setRetryBudget(double retryBudget) {
+        if (!(retryBudget >= 0 && retryBudget <= 1))
+            throw new IllegalArgumentException("Retry budget must be between zero and one.");
+
+        this.retryBudget = retryBudget;
+
+        return this;
+    }
+
+    /**
+     * Enables client-side circuit breakers and sets the failure rate opening them. Circuit breakers are disabled
+     * by default.
+     * <p>
+     * Circuit breakers are kept per REST server, REST call and model. Each one records outcomes of the recent
+     * calls and opens when the rate of the failed calls (I/O errors, timeouts, server errors) or the rate of the
+     * slow calls reaches its threshold. Open circuit breaker fails calls immediately with
+     * {@link NCCircuitBreakerOpenException} instead of waiting for the timeouts. After the open time it lets a few
+     * probe calls through and closes if they succeed, or opens again otherwise.
+     *
+     * @param failureRate Failure rate opening circuit breaker, greater than zero and not greater than one.
+     * @return Current client builder.
+     * @see #setCircuitBreakerWindow(int)
+     * @see #setCircuitBreakerSlowCallDuration(long)
+     * @see #setCircuitBreakerSlowCallRate(double)
+     * @see #setCircuitBreakerOpenTime(long)
+     * @see #addCircuitBreakerListener(NCCircuitBreakerListener)
+     */
+    public NCClientBuilder setCircuitBreakerFailureRate(double failureRate) {
+        if (!(failureRate > 0 && failureRate <= 1))
+            throw new IllegalArgumentException("Circuit breaker failure rate must be greater than zero and not greater than one.");
+
+        cbFailureRate = failureRate;
+
+        return this;
+    }
+
+    /**
+     * Sets number of the recent calls which outcomes are recorded by the circuit breaker. Circuit breaker doesn't
+     * open until it records that many calls.
+     *
+     * @param window Number of the recorded calls.
+     * @return Current client builder.
+     * @see #DFLT_CIRCUIT_BREAKER_WINDOW
+     * @see #setCircuitBreakerFailureRate(double)
+     */
+    public NCClientBuilder setCircuitBreakerWindow(int window) {
+        if (window < NCCircuitBreakers.MIN_WINDOW)
+            throw new IllegalArgumentException(
+                String.format("Circuit breaker window cannot be less than %d.", NCCircuitBreakers.MIN_WINDOW)
+            );
+
+        cbWindow = window;
+
+        return this;
+    }
+
+    /**
+     * Sets duration of the call considered slow by the circuit breaker.
+     *
+     * @param slowCallMs Slow call duration in milliseconds.
+     * @return Current client builder.
+     * @see #DFLT_CIRCUIT_BREAKER_SLOW_CALL_DURATION_MS
+     * @see #setCircuitBreakerFailureRate(double)
+     */
+    public NCClientBuilder setCircuitBreakerSlowCallDuration(long slowCallMs) {
+        if (slowCallMs <= 0)
+            throw new IllegalArgumentException("Slow call duration must be positive.");
+
+        cbSlowCallMs = slowCallMs;
+
+        return this;
+    }
+
+    /**
+     * Sets rate of the slow calls, successful or not, opening the circuit breaker.
+     *
+     * @param slowCallRate Slow call rate, greater than zero and not greater than one.
+     * @return Current client builder.
+     * @see #DFLT_CIRCUIT_BREAKER_SLOW_CALL_RATE
+     * @see #setCircuitBreakerFailureRate(double)
+     */
+    public NCClientBuilder setCircuitBreakerSlowCallRate(double slowCallRate) {
+        if (!(slowCallRate > 0 && slowCallRate <= 1))
+            throw new IllegalArgumentException("Slow call rate must be greater than zero and not greater than one.");
+
+        cbSlowCallRate = slowCallRate;
+
+        return this;
+    }
+
+    /**
+     * Sets time the circuit breaker stays open before it lets probe calls through.
+     *
+     * @param openTimeMs Open time in milliseconds.
+     * @return Current client builder.
+     * @see #DFLT_CIRCUIT_BREAKER_OPEN_TIME_MS
+     * @see #setCircuitBreakerFailureRate(double)
+     */
+    public NCClientBuilder setCircuitBreakerOpenTime(long openTimeMs) {
+        if (openTimeMs <= 0)
+            throw new IllegalArgumentException("Circuit breaker open time must be positive.");
+
+        cbOpenTimeMs = openTimeMs;
+
+        return this;
+    }
+
+    /**
+     * Adds listener of the circuit breaker state transitions.
+     *
+     * @param lsnr Listener.
+     * @return Current client builder.
+     * @see #setCircuitBreakerFailureRate(double)
+     */
+    public NCClientBuilder addCircuitBreakerListener(NCCircuitBreakerListener lsnr) {
+        if (lsnr == null)
+            throw new IllegalArgumentException("Circuit breaker listener cannot be null.");
+
+        cbLsnrs.add(lsnr);
+
+        return this;
+    }
+
+    /**
+     * Enables hedging of the <code>askSync</code> requests and sets the latency percentile after which the
+     * request is hedged. Hedging is disabled by default.
+     * <p>
+     * If the request doesn't return within the given percentile of the recent <code>askSync</code> latency, the
+     * duplicate request is sent, to the least loaded REST server unless sticky routing applies. The first
+     * successful result is returned and the other one is cancelled on the server. Hedging makes sense for the
+     * models which requests can be safely processed twice.
+     *
+     * @param percentile Latency percentile, greater than zero and less than one, e.g. {@code 0.95}.
+     * @return Current client builder.
+     * @see #setHedgingBudget(double)
+     * @see NCClient#getHedgingStats()
+     */
+    public NCClientBuilder setHedgingPercentile(double percentile) {
+        if (!(percentile > 0 && percentile < 1))
+            throw new IllegalArgumentException("Hedging percentile must be greater than zero and less than one.");
+
+        hedgingPercentile = percentile;
+
+        return this;
+    }
+
+    /**
+     * Sets maximum share of the extra load added by the hedge requests, i.e. number of hedges allowed per
+     * <code>askSync</code> request on average.
+     *
+     * @param budget Hedging budget, greater than zero and not greater than one.
+     * @return Current client builder.
+     * @see #DFLT_HEDGING_BUDGET
+     * @see #setHedgingPercentile(double)
+     */
+    public NCClientBuilder setHedgingBudget(double budget) {
+        if (!(budget > 0 && budget <= 1))
+            throw new IllegalArgumentException("Hedging budget must be greater than zero and not greater than one.");
+
+        hedgingBudget = budget;
+
+        return this;
+    }
+
+    /**
+     * Enables automatic release of the server requests and sets the abandonment timeout. Automatic release is
+     * disabled by default.
+     * <p>
+     * Results of the requests submitted with <code>ask</code> calls are kept on the server until the requests
+     * are cancelled. With automatic release enabled, the client tracks all requests it creates and releases
+     * them in the background, with the batched <code>cancel</code> calls, once their results are delivered by
+     * the result poller or result stream that submitted them, or once they are not released within the given
+     * timeout. Results got by the caller's own <code>check</code> calls, or by the poller for the requests passed
+     * to {@link NCResultPoller#track(String, Long, String)}, are released only by the timeout, since the caller
+     * can check them again. Requests cancelled explicitly, and the requests of
+     * {@link NCClient#askAll(String, Iterable, NCAskAllOptions, java.util.function.Consumer)}, which releases them
+     * itself, are not tracked. Note that results of the released requests can't be checked again.
+     *
+     * @param timeoutMs Time in milliseconds after which the request is released even if its result was not
+     *      delivered.
+     * @return Current client builder.
+     * @see #setRequestReleaseInterval(long)
+     * @see NCClient#getRequestReleaseStats()
+     */
+    public NCClientBuilder setRequestAbandonTimeout(long timeoutMs) {
+        if (timeoutMs <= 0)
+            throw new IllegalArgumentException("Request abandonment timeout must be positive.");
+
+        reqAbandonTimeoutMs = timeoutMs;
+
+        return this;
+    }
+
+    /**
+     * Sets interval between the automatic releases of the server requests.
+     *
+     * @param intervalMs Interval in milliseconds.
+     * @return Current client builder.
+     * @see #DFLT_REQUEST_RELEASE_INTERVAL_MS
+     * @see #setRequestAbandonTimeout(long)
+     */
+    public NCClientBuilder setRequestReleaseInterval(long intervalMs) {
+        if (intervalMs <= 0)
+            throw new IllegalArgumentException("Request release interval must be positive.");
+
+        reqReleaseIntervalMs = intervalMs;
+
+        return this;
+    }
+
+    /**
+     * Enables or disables bulkheads. Bulkheads are disabled by default, and limits set by the other bulkhead
+     * methods of this builder apply only once they are enabled.
+     * <p>
+     * Bulkheads are named partitions of the REST calls with their own limits of the requests in progress and of
+     * the queue of the requests waiting for them. Limit of the requests in progress is also the limit of the
+     * pooled connections used by the calls of the bulkhead, so a burst of calls in one bulkhead can't take the
+     * connections needed by the others. By default, latency-critical NLP calls (<code>ask</code>,
+     * <code>ask/sync</code>, <code>check</code>, <code>cancel</code>, <code>clear/conversation</code> and
+     * <code>clear/dialog</code>) go to the {@link #INTERACTIVE_BULKHEAD} bulkhead, and all other calls to the
+     * {@link #ADMIN_BULKHEAD} one, which shares the connections as {@link #DFLT_ADMIN_BULKHEAD_SHARE} specifies.
+     * Default limits split all the connections of the pool created by the builder, i.e. the connections per route
+     * times the number of the endpoints, capped by the maximum total number of the connections. Bulkheads with
+     * the default limits don't limit the requests of the client which doesn't use such a pool, i.e. of the
+     * client with custom HTTP client supplier or with transport other than Apache HttpClient. Connection pool
+     * created by the builder is enlarged, if needed, to fit the limits set explicitly.
+     * Requests rejected by the bulkhead fail with {@link NCConcurrencyLimitException}.
+     * <p>
+     * Since bulkheads don't let more requests in than the pool can serve, callers wait for the connections in
+     * the bulkhead queue and not inside Apache HttpClient 4.x pool, which waits holding a monitor and so pins
+     * the carrier threads of the virtual threads.
+     *
+     * @param enabled Whether bulkheads are enabled.
+     * @return Current client builder.
+     * @see #setBulkhead(String, int, int, long)
+     * @see #setBulkheadCalls(String, String...)
+     * @see NCClient#getBulkheadStats()
+     */
+    public NCClientBuilder setBulkheadsEnabled(boolean enabled) {
+        bulkheadsEnabled = enabled;
+
+        return this;
+    }
+
+    /**
+     * Adds new bulkhead or changes limits of the existing one.
+     *
+     * @param name Bulkhead name, e.g. {@link #INTERACTIVE_BULKHEAD}.
+     * @param maxConcurrent Maximum number of the requests in progress.
+     * @param maxQueued Maximum number of the requests waiting in the queue, zero to reject requests over the limit.
+     * @param queueTimeoutMs Maximum time in milliseconds the request waits in the queue.
+     * @return Current client builder.
+     * @see #DFLT_ADMIN_BULKHEAD_SHARE
+     * @see #DFLT_BULKHEAD_MAX_QUEUED
+     * @see #DFLT_BULKHEAD_QUEUE_TIMEOUT_MS
+     * @see #setBulkheadsEnabled(boolean)
+     */
+    public NCClientBuilder setBulkhead(String name, int maxConcurrent, int maxQueued, long queueTimeoutMs) {
+        if (name == null)
+            throw new IllegalArgumentException("Bulkhead name cannot be null.");
+        if (maxConcurrent <= 0)
+            throw new IllegalArgumentException("Bulkhead concurrency limit must be positive.");
+        if (maxQueued < 0)
+            throw new IllegalArgumentException("Bulkhead queue limit cannot be negative.");
+        if (queueTimeoutMs <= 0)
+            throw new IllegalArgumentException("Bulkhead queue timeout must be positive.");
+
+        Bulkhead b = new Bulkhead(maxConcurrent, maxQueued, queueTimeoutMs);
+        Bulkhead prev = bulkheads.put(name, b);
+
+        if (prev != null)
+            b.timeoutMs = prev.timeoutMs;
+
+        return this;
+    }
+
+    /**
+     * Sets deadline of the calls of the bulkhead, unless the call has its own deadline. No deadline is set by
+     * default.
+     *
+     * @param name Bulkhead name.
+     * @param timeoutMs Timeout of each call in milliseconds, zero for none.
+     * @return Current client builder.
+     * @see NCClient#withDeadline(long)
+     * @see #setBulkheadsEnabled(boolean)
+     */
+    public NCClientBuilder setBulkheadTimeout(String name, long timeoutMs) {
+        if (timeoutMs < 0)
+            throw new IllegalArgumentException("Bulkhead timeout cannot be negative.");
+
+        bulkhead(name).timeoutMs = timeoutMs;
+
+        return this;
+    }
+
+    /**
+     * Routes the given REST calls to the bulkhead.
+     *
+     * @param name Bulkhead name.
+     * @param calls REST calls, e.g. <code>model/sugsyn</code> or <code>user/all</code>.
+     * @return Current client builder.
+     * @see #setBulkheadsEnabled(boolean)
+     */
+    public NCClientBuilder setBulkheadCalls(String name, String... calls) {
+        bulkhead(name);
+
+        if (calls == null || calls.length == 0)
+            throw new IllegalArgumentException("Bulkhead calls cannot be empty.");
+
+        for (String call : calls) {
+            if (call == null)
+                throw new IllegalArgumentException("Bulkhead call cannot be null.");
+
+            bulkheadCalls.put(call, name);
+        }
+
+        return this;
+    }
+
+    /**
+     *
+     * @param name
+     * @return
+     */
+    private Bulkhead bulkhead(String name) {
+        Bulkhead b = name != null ? bulkheads.get(name) : null;
+
+        if (b == null)
+            throw new IllegalArgumentException(String.format("Unknown bulkhead: %s", name));
+
+        return b;
+    }
+
     /**
      * Sets custom login user account.
      *
@@ -117,23 +1071,76 @@ public class NCClientBuilder {
     }
     
     /**
-     * Builds a client instance with configured settings.
      *
-     * @return Newly created instance of {@link NCClient}.
-     * @throws IOException Thrown in case of any I/O errors.
-     * @throws NCClientException Thrown in case of any NLPCraft-specific errors.
+     * @return
      */
-    public NCClient build() throws IOException, NCClientException {
+    private NCEndpointRouter mkRouter() {
+        return new NCEndpointRouter(
+            impl.getBaseUrls(), ejectThreshold, ejectTimeMs, healthIntervalMs, sticky, stickyLoadFactor
+        );
+    }
+
+    /**
+     * Gets number of the pooled connections which all endpoints can use together.
+     *
+     * @return Number of the connections.
+     */
+    private int poolCapacity() {
+        return (int)Math.min(maxConn, (long)maxConnPerRoute * impl.getBaseUrls().size());
+    }
+
+    /**
+     *
+     * @param ownPool Whether the client uses the connection pool created by this builder.
+     * @return Bulkheads, or {@code null} if disabled.
+     */
+    private NCBulkheads mkBulkheads(boolean ownPool) {
+        if (!bulkheadsEnabled)
+            return null;
+
+        NCBulkheads res = new NCBulkheads(ADMIN_BULKHEAD);
+
+        // Default limits split the connections of all endpoints, so that they fit the pool. Connections of the pool
+        // not created by the builder are unknown, so the default limits don't limit anything.
+        int conn = ownPool ? poolCapacity() : Integer.MAX_VALUE;
+        int admin = ownPool ? Math.max(1, (int)Math.round(conn * DFLT_ADMIN_BULKHEAD_SHARE)) : Integer.MAX_VALUE;
+
+        bulkheads.forEach((name, b) -> {
+            int max = b.maxConcurrent;
+
+            if (max == 0)
+                max = !ownPool ? Integer.MAX_VALUE : name.equals(ADMIN_BULKHEAD) ? admin : Math.max(1, conn - admin);
+
+            res.add(name, max, b.maxQueued, b.queueTimeoutMs, b.timeoutMs);
+        });
+        bulkheadCalls.forEach(res::route);
+
+        return res;
+    }
+
+    /**
+     * Gets number of the pooled connections needed by the bulkheads over the pool capacity.
+     *
+     * @param bh Bulkheads, {@code null} if disabled.
+     * @return Number of the connections the pool is enlarged to, zero if it fits already.
+     */
+    private int bulkheadConnections(NCBulkheads bh) {
+        int conn = bh != null ? bh.getMaxConcurrent() : 0;
+
+        return conn > poolCapacity() ? conn : 0;
+    }
+
+    /**
+     * Validates configured settings and applies the defaults.
+     */
+    private void prepare() {
         if (impl.getEmail() == null && impl.getPassword() != null ||
             impl.getEmail() != null && impl.getPassword() == null
         )
             throw new IllegalArgumentException("Both email and password should be null or not null.");
         
-        if (impl.getBaseUrl() == null)
-            impl.setBaseUrl(DFLT_BASEURL);
-        
-        if (impl.getClientSupplier() == null)
-            impl.setClientSupplier(HttpClients::createDefault);
+        if (impl.getBaseUrls() == null)
+            impl.setBaseUrls(Collections.singletonList(DFLT_BASEURL));
         
         if (impl.getEmail() == null)
             impl.setEmail(DFLT_EMAIL);
@@ -144,8 +1151,182 @@ public class NCClientBuilder {
         if (impl.isCancelOnExit() == null)
             impl.setCancelOnExit(DFLT_CANCEL_ON_EXIT);
 
+        if (impl.getResultPollInterval() == 0)
+            impl.setResultPollInterval(DFLT_RESULT_POLL_INTERVAL_MS);
+
+        if (impl.getResultMinPollInterval() == 0)
+            impl.setResultMinPollInterval(DFLT_RESULT_MIN_POLL_INTERVAL_MS);
+    }
+
+    /**
+     * Creates keep-alive strategy that honors the server keep-alive timeout capped by the configured maximum.
+     *
+     * @return Keep-alive strategy.
+     */
+    private ConnectionKeepAliveStrategy mkKeepAliveStrategy() {
+        long max = keepAliveMs;
+
+        return (resp, ctx) -> {
+            long ms = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(resp, ctx);
+
+            return ms > 0 ? Math.min(ms, max) : max;
+        };
+    }
+
+    /**
+     * Builds a client instance with configured settings.
+     *
+     * @return Newly created instance of {@link NCClient}.
+     * @throws IOException Thrown in case of any I/O errors.
+     * @throws NCClientException Thrown in case of any NLPCraft-specific errors.
+     */
+    public NCClient build() throws IOException, NCClientException {
+        prepare();
+
+        boolean ownPool =
+            transportSup == null && transportType == NCTransportType.APACHE_HTTP_CLIENT && impl.getClientSupplier() == null;
+        NCBulkheads bh = mkBulkheads(ownPool);
+        // Pool fits the requests in progress of all bulkheads, so that they don't compete for the connections.
+        int bhConn = bulkheadConnections(bh);
+
+        if (transportSup != null)
+            impl.setTransport(transportSup.get());
+        else if (transportType == NCTransportType.JDK_HTTP_CLIENT) {
+            RequestConfig cfg = impl.getRequestConfig() != null ? impl.getRequestConfig() : RequestConfig.DEFAULT;
+
+            impl.setTransport(NCJdkHttpTransport.create(cfg.getConnectTimeout(), cfg.getSocketTimeout()));
+        }
+        else if (impl.getClientSupplier() == null) {
+            PoolingHttpClientConnectionManager connMgr = new PoolingHttpClientConnectionManager();
+
+            connMgr.setMaxTotal(Math.max(maxConn, bhConn));
+            connMgr.setDefaultMaxPerRoute(Math.max(maxConnPerRoute, bhConn));
+            connMgr.setValidateAfterInactivity(validateAfterInactivityMs);
+
+            ConnectionKeepAliveStrategy keepAlive = mkKeepAliveStrategy();
+            long idleMs = keepAliveMs;
+
+            impl.setConnectionPool(connMgr);
+            impl.setClientSupplier(() ->
+                HttpClients.custom().
+                    setConnectionManager(connMgr).
+                    setKeepAliveStrategy(keepAlive).
+                    evictExpiredConnections().
+                    evictIdleConnections(idleMs, TimeUnit.MILLISECONDS).
+                    build()
+            );
+        }
+
+        if (resCacheTtlMs > 0)
+            impl.setResultCache(new NCResultCache(resCacheTtlMs, resCacheMaxWeight));
+
+        if (coalescedMdlIds != null && !coalescedMdlIds.isEmpty())
+            impl.setRequestCoalescer(new NCRequestCoalescer(coalescedMdlIds));
+
+        impl.setRouter(mkRouter());
+        impl.setBulkheads(bh);
+
+        if (cbFailureRate > 0)
+            impl.setCircuitBreakers(
+                new NCCircuitBreakers(cbWindow, cbFailureRate, cbSlowCallMs, cbSlowCallRate, cbOpenTimeMs, cbLsnrs)
+            );
+
+        if (hedgingPercentile > 0)
+            impl.setHedging(new NCHedging(hedgingPercentile, hedgingBudget));
+
+        if (reqAbandonTimeoutMs > 0)
+            impl.setRequestRelease(new NCRequestRelease(reqAbandonTimeoutMs, reqReleaseIntervalMs));
+
+        if (maxRetries > 0)
+            impl.setRetryPolicy(new NCRetryPolicy(maxRetries, retryDelayMs, maxRetryDelayMs, retryBudget));
+
+        if (maxConcurrencyLimit > 0)
+            impl.setConcurrencyLimits(
+                new NCConcurrencyLimits(initConcurrencyLimit, maxConcurrencyLimit, concurrencyQueueTimeoutMs)
+            );
+
         impl.initialize();
         
         return impl;
     }
+
+    /**
+     * Builds a non-blocking client instance with configured settings. Note that this method blocks
+     * until the client is signed in.
+     *
+     * @return Newly created instance of {@link NCAsyncClient}.
+     * @throws IOException Thrown in case of any I/O errors.
+     * @throws NCClientException Thrown in case of any NLPCraft-specific errors.
+     * @throws IllegalArgumentException Thrown if transport other than Apache HttpClient is set, see
+     *      {@link #setTransportType(NCTransportType)} and {@link #setTransport(Supplier)}.
+     */
+    public NCAsyncClient buildAsync() throws IOException, NCClientException {
+        if (transportSup != null || transportType != NCTransportType.APACHE_HTTP_CLIENT)
+            throw new IllegalArgumentException("Transport settings are only supported by the blocking client.");
+
+        prepare();
+
+        NCAsyncClientImpl asyncImpl = new NCAsyncClientImpl();
+
+        asyncImpl.setBaseUrls(impl.getBaseUrls());
+        asyncImpl.setEmail(impl.getEmail());
+        asyncImpl.setPassword(impl.getPassword());
+        asyncImpl.setCancelOnExit(impl.isCancelOnExit());
+        asyncImpl.setRequestConfig(impl.getRequestConfig());
+
+        NCBulkheads bh = mkBulkheads(asyncHttpCliSup == null);
+        int bhConn = bulkheadConnections(bh);
+
+        if (asyncHttpCliSup != null)
+            asyncImpl.setClientSupplier(asyncHttpCliSup);
+        else {
+            PoolingNHttpClientConnectionManager connMgr =
+                new PoolingNHttpClientConnectionManager(new DefaultConnectingIOReactor(IOReactorConfig.DEFAULT));
+
+            connMgr.setMaxTotal(Math.max(maxConn, bhConn));
+            connMgr.setDefaultMaxPerRoute(Math.max(maxConnPerRoute, bhConn));
+
+            ConnectionKeepAliveStrategy keepAlive = mkKeepAliveStrategy();
+
+            asyncImpl.setConnectionPool(connMgr);
+            asyncImpl.setClientSupplier(() ->
+                HttpAsyncClients.custom().
+                    setConnectionManager(connMgr).
+                    setKeepAliveStrategy(keepAlive).
+                    build()
+            );
+        }
+
+        if (resCacheTtlMs > 0)
+            asyncImpl.setResultCache(new NCResultCache(resCacheTtlMs, resCacheMaxWeight));
+
+        if (coalescedMdlIds != null && !coalescedMdlIds.isEmpty())
+            asyncImpl.setRequestCoalescer(new NCRequestCoalescer(coalescedMdlIds));
+
+        asyncImpl.setRouter(mkRouter());
+        asyncImpl.setBulkheads(bh);
+
+        if (cbFailureRate > 0)
+            asyncImpl.setCircuitBreakers(
+                new NCCircuitBreakers(cbWindow, cbFailureRate, cbSlowCallMs, cbSlowCallRate, cbOpenTimeMs, cbLsnrs)
+            );
+
+        if (hedgingPercentile > 0)
+            asyncImpl.setHedging(new NCHedging(hedgingPercentile, hedgingBudget));
+
+        if (reqAbandonTimeoutMs > 0)
+            asyncImpl.setRequestRelease(new NCRequestRelease(reqAbandonTimeoutMs, reqReleaseIntervalMs));
+
+        if (maxRetries > 0)
+            asyncImpl.setRetryPolicy(new NCRetryPolicy(maxRetries, retryDelayMs, maxRetryDelayMs, retryBudget));
+
+        if (maxConcurrencyLimit > 0)
+            asyncImpl.setConcurrencyLimits(
+                new NCConcurrencyLimits(initConcurrencyLimit, maxConcurrencyLimit, concurrencyQueueTimeoutMs)
+            );
+
+        asyncImpl.initialize();
+
+        return asyncImpl;
+    }
 }
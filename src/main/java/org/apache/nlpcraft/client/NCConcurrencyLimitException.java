@@ -0,0 +1,37 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client;
+
+/**
+ * Exception thrown when the request is rejected by the client-side concurrency limiter or bulkhead, i.e. the
+ * server or the bulkhead already has as many requests in progress as the limit allows and the request could not
+ * be queued or waited in the queue for too long. The request was not sent to the server.
+ *
+ * @see NCClientBuilder#setConcurrencyLimit(int)
+ * @see NCClientBuilder#setBulkhead(String, int, int, long)
+ */
+public class NCConcurrencyLimitException extends NCClientException {
+    /**
+     * Creates new exception with given error message.
+     *
+     * @param msg Error message.
+     */
+    public NCConcurrencyLimitException(String msg) {
+        super(msg);
+    }
+}
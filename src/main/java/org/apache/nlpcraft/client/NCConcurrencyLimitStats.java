@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client;
+
+/**
+ * Snapshot of the client-side concurrency limiter statistics of one REST endpoint and model.
+ *
+ * @see NCClientBuilder#setConcurrencyLimit(int)
+ * @see NCClient#getConcurrencyLimitStats()
+ * @see NCAsyncClient#getConcurrencyLimitStats()
+ */
+public interface NCConcurrencyLimitStats {
+    /**
+     * Gets base URL of the endpoint.
+     *
+     * @return Base URL.
+     */
+    String getBaseUrl();
+
+    /**
+     * Gets ID of the model whose requests are limited.
+     *
+     * @return Model ID, or {@code null} for the requests not related to any model, e.g. user management.
+     */
+    String getModelId();
+
+    /**
+     * Gets current limit of the requests in progress.
+     *
+     * @return Current concurrency limit.
+     */
+    int getLimit();
+
+    /**
+     * Gets number of requests currently in progress.
+     *
+     * @return Number of requests in progress.
+     */
+    int getInFlight();
+
+    /**
+     * Gets number of requests currently waiting in the queue.
+     *
+     * @return Number of queued requests.
+     */
+    int getQueued();
+
+    /**
+     * Gets total number of rejected requests.
+     *
+     * @return Number of rejected requests.
+     * @see NCConcurrencyLimitException
+     */
+    long getRejected();
+}
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client;
+
+/**
+ * Snapshot of the REST endpoint statistics of the client configured with several base URLs.
+ *
+ * @see NCClientBuilder#setBaseUrls(String...)
+ * @see NCClient#getEndpointStats()
+ * @see NCAsyncClient#getEndpointStats()
+ */
+public interface NCEndpointStats {
+    /**
+     * Gets base URL of the endpoint.
+     *
+     * @return Base URL.
+     */
+    String getBaseUrl();
+
+    /**
+     * Checks whether the endpoint is currently ejected from the routing because of the failures.
+     *
+     * @return Whether the endpoint is ejected.
+     */
+    boolean isEjected();
+
+    /**
+     * Gets number of requests to this endpoint currently in progress.
+     *
+     * @return Number of outstanding requests.
+     */
+    int getOutstanding();
+
+    /**
+     * Gets exponentially weighted moving average of the request latency of this endpoint.
+     *
+     * @return Average latency in milliseconds, zero if no requests completed yet.
+     */
+    double getLatency();
+
+    /**
+     * Gets total number of requests routed to this endpoint.
+     *
+     * @return Number of requests.
+     */
+    long getRequests();
+
+    /**
+     * Gets total number of failed requests and health checks of this endpoint, i.e. the ones that
+     * didn't get any response.
+     *
+     * @return Number of failures.
+     */
+    long getFailures();
+
+    /**
+     * Gets number of times this endpoint was ejected.
+     *
+     * @return Number of ejections.
+     */
+    long getEjections();
+}
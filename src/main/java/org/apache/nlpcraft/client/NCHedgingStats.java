@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client;
+
+/**
+ * Snapshot of the <code>askSync</code> hedging statistics.
+ *
+ * @see NCClientBuilder#setHedgingPercentile(double)
+ * @see NCClient#getHedgingStats()
+ * @see NCAsyncClient#getHedgingStats()
+ */
+public interface NCHedgingStats {
+    /**
+     * Gets current hedging delay, i.e. the configured percentile of the recent <code>askSync</code> latency.
+     *
+     * @return Hedging delay in milliseconds, or negative value if there are not enough latency samples yet.
+     */
+    long getDelay();
+
+    /**
+     * Gets total number of <code>askSync</code> requests.
+     *
+     * @return Number of requests.
+     */
+    long getRequests();
+
+    /**
+     * Gets total number of hedge requests sent.
+     *
+     * @return Number of hedge requests.
+     */
+    long getHedges();
+
+    /**
+     * Gets number of hedge requests which returned the result before the original ones.
+     *
+     * @return Number of hedge requests won.
+     */
+    long getHedgesWon();
+}
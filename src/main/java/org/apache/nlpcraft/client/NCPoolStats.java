@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client;
+
+/**
+ * Snapshot of the HTTP connection pool statistics. Use it to size the pool limits configured
+ * in {@link NCClientBuilder} under the actual load.
+ *
+ * @see NCClient#getPoolStats()
+ * @see NCAsyncClient#getPoolStats()
+ */
+public interface NCPoolStats {
+    /**
+     * Gets number of connections currently leased by the in-flight requests.
+     *
+     * @return Number of leased connections.
+     */
+    int getLeased();
+
+    /**
+     * Gets number of requests currently waiting for a connection to be leased. Constantly non-zero value
+     * indicates that the pool is too small for the load.
+     *
+     * @return Number of pending connection requests.
+     */
+    int getPending();
+
+    /**
+     * Gets number of idle persistent connections available for reuse.
+     *
+     * @return Number of available connections.
+     */
+    int getAvailable();
+
+    /**
+     * Gets maximum number of connections allowed by the pool.
+     *
+     * @return Maximum number of connections.
+     */
+    int getMax();
+}
@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client;
+
+/**
+ * Snapshot of the automatic release statistics of the server requests.
+ *
+ * @see NCClientBuilder#setRequestAbandonTimeout(long)
+ * @see NCClient#getRequestReleaseStats()
+ * @see NCAsyncClient#getRequestReleaseStats()
+ */
+public interface NCRequestReleaseStats {
+    /**
+     * Gets number of the server requests created by the client and not released yet.
+     *
+     * @return Number of tracked requests.
+     */
+    long getTracked();
+
+    /**
+     * Gets number of the requests released after their results were delivered.
+     *
+     * @return Number of released delivered requests.
+     */
+    long getReleasedDelivered();
+
+    /**
+     * Gets number of the requests released after the abandonment timeout.
+     *
+     * @return Number of released abandoned requests.
+     */
+    long getReleasedAbandoned();
+
+    /**
+     * Gets number of <code>cancel</code> calls releasing the requests.
+     *
+     * @return Number of <code>cancel</code> calls.
+     */
+    long getCancelCalls();
+
+    /**
+     * Gets total number of the requests reclaimed on the server.
+     *
+     * @return Number of released requests.
+     */
+    default long getReclaimed() {
+        return getReleasedDelivered() + getReleasedAbandoned();
+    }
+}
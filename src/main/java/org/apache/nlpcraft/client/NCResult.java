@@ -17,6 +17,7 @@
 
 package org.apache.nlpcraft.client;
 
+import java.lang.reflect.Type;
 import java.util.Map;
 import java.util.Set;
 
@@ -88,6 +89,29 @@ public interface NCResult {
      */
     String getResultBody();
 
+    /**
+     * Gets the result body deserialized from JSON into the object of the given class. It avoids intermediate
+     * string representation of the body returned by {@link #getResultBody()} method.
+     *
+     * @param cls Class of the result body object.
+     * @param <T> Type of the result body object.
+     * @return Query result body object, or {@code null} if there is no result body.
+     * @throws com.google.gson.JsonParseException Thrown if result body cannot be deserialized into the given class.
+     */
+    <T> T getResultBodyAs(Class<T> cls);
+
+    /**
+     * Gets the result body deserialized from JSON into the object of the given generic type, e.g.
+     * <code>new TypeToken&lt;List&lt;MyItem&gt;&gt;(){}.getType()</code>. It avoids intermediate string
+     * representation of the body returned by {@link #getResultBody()} method.
+     *
+     * @param type Type of the result body object.
+     * @param <T> Type of the result body object.
+     * @return Query result body object, or {@code null} if there is no result body.
+     * @throws com.google.gson.JsonParseException Thrown if result body cannot be deserialized into the given type.
+     */
+    <T> T getResultBodyAs(Type type);
+
     /**
      * Gets optional error code. See <code>/check</code> operation in
      * <a href="https://github.com/apache/incubator-nlpcraft/blob/master/openapi/nlpcraft_swagger.yml" target=_>openapi/nlpcraft_swagger.yml</a> file
@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client;
+
+/**
+ * Snapshot of the client-side <code>askSync</code> result cache statistics.
+ *
+ * @see NCClient#getResultCacheStats()
+ * @see NCAsyncClient#getResultCacheStats()
+ * @see NCClientBuilder#setResultCacheTtl(long)
+ */
+public interface NCResultCacheStats {
+    /**
+     * Gets number of <code>askSync</code> calls answered from the cache.
+     *
+     * @return Number of cache hits.
+     */
+    long getHits();
+
+    /**
+     * Gets number of <code>askSync</code> calls that were sent to the server because there was no
+     * valid cached result.
+     *
+     * @return Number of cache misses.
+     */
+    long getMisses();
+
+    /**
+     * Gets number of results evicted from the cache to stay within its maximum weight.
+     *
+     * @return Number of evictions.
+     */
+    long getEvictions();
+
+    /**
+     * Gets number of results currently cached.
+     *
+     * @return Number of cached results.
+     */
+    int getSize();
+
+    /**
+     * Gets current total weight of the cached results, i.e. their approximate size in bytes.
+     *
+     * @return Total weight of the cached results.
+     */
+    long getWeight();
+
+    /**
+     * Gets ratio of cache hits to all cached <code>askSync</code> calls.
+     *
+     * @return Hit ratio between <code>0.0</code> and <code>1.0</code>.
+     */
+    default double getHitRatio() {
+        long total = getHits() + getMisses();
+
+        return total == 0 ? 0.0 : (double)getHits() / total;
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+
+/**
+ * Client-side poller of the asynchronous request results. Instead of running own
+ * {@link NCClient#check(java.util.Set, Integer, Long, String)} loop for each request submitted with
+ * {@link NCClient#ask(String, String, Map, boolean, Long, String)} method, register the request with the poller and
+ * get a future of its result. Poller tracks all outstanding requests of the client and gets their results with
+ * a single coalesced <code>check</code> call per polling tick (one call per distinct user), completing
+ * the futures as the results arrive.
+ * <p>
+ * Checks are scheduled adaptively: poller learns completion times of the recent requests of each model and
+ * first checks the request near its expected completion, backing off exponentially up to the maximum
+ * polling interval while the result is not ready. Requests of the models without enough history are first
+ * checked after the minimal polling interval.
+ * <p>
+ * Poller is owned by the client and is stopped when the client is closed. Its background thread is only
+ * started when the first request is registered.
+ * <p>
+ * <b>Usage</b><br>
+ * <pre class="brush: java">
+ *     NCResultPoller poller = cli.getResultPoller();
+ *
+ *     poller.ask("my.model.id", txt).thenAccept(res -&gt; System.out.println(res.getResultBody()));
+ * </pre>
+ * Streams of texts are processed with {@link #stream(String, java.util.concurrent.Flow.Publisher, int)} method.
+ *
+ * @see NCClient#getResultPoller()
+ * @see NCClientBuilder#setResultPollInterval(long)
+ * @see NCClientBuilder#setResultMinPollInterval(long)
+ */
+public interface NCResultPoller {
+    /**
+     * Submits request with {@link NCClient#ask(String, String, Map, boolean, Long, String)} method and
+     * registers it with this poller.
+     *
+     * @param mdlId ID of the model to submit the request to.
+     * @param txt Text to process.
+     * @param data Optional JSON data to be passed to the model.
+     * @param enableLog Enable processing log collection.
+     * @param usrId Optional user ID.
+     * @param usrExtId Optional external "on-behalf-of" user ID.
+     * @return Future of the ready request result. It is completed exceptionally with {@link NCClientException}
+     *      if the request is not known to the server anymore or the poller is closed.
+     * @throws NCClientException Thrown in case of client-specific errors.
+     * @throws IOException Thrown in case of generic I/O errors.
+     */
+    CompletableFuture<NCResult> ask(
+        String mdlId,
+        String txt,
+        Map<String, Object> data,
+        boolean enableLog,
+        Long usrId,
+        String usrExtId
+    ) throws NCClientException, IOException;
+
+    /**
+     * Convenient shortcut method. It is equivalent to:
+     * <pre class="brush: java">
+     *     ask(mdlId, txt, null, false, null, null);
+     * </pre>
+     *
+     * @param mdlId ID of the model to submit the request to.
+     * @param txt Text to process.
+     * @return Future of the ready request result.
+     * @throws NCClientException Thrown in case of client-specific errors.
+     * @throws IOException Thrown in case of generic I/O errors.
+     * @see #ask(String, String, Map, boolean, Long, String)
+     */
+    default CompletableFuture<NCResult> ask(String mdlId, String txt) throws NCClientException, IOException {
+        return ask(mdlId, txt, null, false, null, null);
+    }
+
+    /**
+     * Registers already submitted request with this poller. User IDs must be the same as the ones the request
+     * was submitted with.
+     *
+     * @param srvReqId Server request ID.
+     * @param usrId Optional user ID.
+     * @param usrExtId Optional external "on-behalf-of" user ID.
+     * @return Future of the ready request result. Cancelling this future stops tracking of the request.
+     */
+    CompletableFuture<NCResult> track(String srvReqId, Long usrId, String usrExtId);
+
+    /**
+     * Creates publisher of the results of the given texts publisher, e.g. for the streaming pipelines. Each
+     * subscriber of the returned publisher subscribes to the texts publisher, submits received texts with
+     * {@link NCClient#ask(String, String, Map, boolean, Long, String)} method and gets their results with this
+     * poller's coalesced <code>check</code> calls.
+     * <p>
+     * Backpressure is demand-driven: texts are requested from the texts publisher only while the number of
+     * submitted requests whose results are not emitted yet is below both the subscriber's demand and
+     * <code>maxPending</code> limit. Results are emitted in the order of their completion, on the poller
+     * thread, and include the failed requests. Stream fails if a request can't be submitted or its result
+     * can't be got, or if the texts publisher fails. Cancelling the subscription, as well as the failure of
+     * the stream, cancels the texts subscription and the pending server requests.
+     *
+     * @param mdlId ID of the model to submit the requests to.
+     * @param txts Publisher of the texts to process.
+     * @param maxPending Maximum number of the submitted requests whose results are not emitted yet.
+     * @param data Optional JSON data to be passed to the model.
+     * @param enableLog Enable processing log collection.
+     * @param usrId Optional user ID.
+     * @param usrExtId Optional external "on-behalf-of" user ID.
+     * @return Publisher of the ready request results.
+     */
+    Flow.Publisher<NCResult> stream(
+        String mdlId,
+        Flow.Publisher<String> txts,
+        int maxPending,
+        Map<String, Object> data,
+        boolean enableLog,
+        Long usrId,
+        String usrExtId
+    );
+
+    /**
+     * Convenient shortcut method. It is equivalent to:
+     * <pre class="brush: java">
+     *     stream(mdlId, txts, maxPending, null, false, null, null);
+     * </pre>
+     *
+     * @param mdlId ID of the model to submit the requests to.
+     * @param txts Publisher of the texts to process.
+     * @param maxPending Maximum number of the submitted requests whose results are not emitted yet.
+     * @return Publisher of the ready request results.
+     * @see #stream(String, java.util.concurrent.Flow.Publisher, int, Map, boolean, Long, String)
+     */
+    default Flow.Publisher<NCResult> stream(String mdlId, Flow.Publisher<String> txts, int maxPending) {
+        return stream(mdlId, txts, maxPending, null, false, null, null);
+    }
+
+    /**
+     * Gets number of requests this poller is currently waiting results for.
+     *
+     * @return Number of pending requests.
+     */
+    int getPendingCount();
+
+    /**
+     * Gets total number of coalesced <code>check</code> calls made by this poller.
+     *
+     * @return Number of <code>check</code> calls.
+     */
+    long getCheckCalls();
+
+    /**
+     * Gets total number of request polls made by this poller, i.e. the sum of the request IDs passed
+     * to all <code>check</code> calls.
+     *
+     * @return Number of request polls.
+     */
+    long getRequestPolls();
+
+    /**
+     * Gets total number of ready results received by this poller.
+     *
+     * @return Number of ready results.
+     */
+    long getResults();
+
+    /**
+     * Gets average number of polls per ready result. Lower is better, <code>1.0</code> means that each
+     * request was checked only once, when its result was already ready.
+     *
+     * @return Polls per result ratio, or <code>0.0</code> if there are no results yet.
+     */
+    default double getPollsPerResult() {
+        long res = getResults();
+
+        return res == 0 ? 0.0 : (double)getRequestPolls() / res;
+    }
+
+    /**
+     * Gets expected completion time of the requests to the given model, as learned by this poller.
+     *
+     * @param mdlId Model ID.
+     * @return Median of the recently observed completion times in milliseconds, or <code>-1</code> if
+     *      there is not enough history for this model yet.
+     */
+    long getExpectedLatency(String mdlId);
+}
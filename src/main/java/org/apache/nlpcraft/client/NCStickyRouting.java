@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client;
+
+/**
+ * Sticky routing modes of the client configured with several REST servers. Sticky routing sends
+ * conversation-related requests, i.e. <code>ask</code>, <code>askSync</code>, <code>clearConversation</code>
+ * and <code>clearDialog</code>, of the same user to the same server, so that the server-side conversation
+ * context stays local to that server. Servers are selected by consistent hashing with bounded load: no server
+ * gets more than {@link NCClientBuilder#setStickyLoadFactor(double) load factor} times the average number of
+ * outstanding requests, excess requests of a heavy user spill over to the next servers on the hash ring.
+ * When a server is ejected or returns, only the users mapped to it move.
+ * <p>
+ * Note that the same user addressed once by <code>usrId</code> and once by <code>usrExtId</code> has two
+ * different routing keys, so user should be addressed consistently.
+ *
+ * @see NCClientBuilder#setStickyRouting(NCStickyRouting)
+ */
+public enum NCStickyRouting {
+    /** No sticky routing, requests are routed by the load of the servers only. */
+    NONE,
+
+    /** Requests of the same user are routed to the same server. */
+    USER,
+
+    /** Requests of the same user to the same model are routed to the same server. */
+    USER_MODEL
+}
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.function.Function;
+
+/**
+ * HTTP transport of the {@link NCClient}. Transport performs the request/response exchange of the REST calls:
+ * it posts JSON request body to the REST endpoint and passes the response body stream to the given handler.
+ * Request encoding, response decoding, authentication and error handling are done by the client.
+ * <p>
+ * Two transports are provided out of the box, see {@link NCTransportType}. Custom transport can be set with
+ * {@link NCClientBuilder#setTransport(java.util.function.Supplier)} method. Transport must be safe for
+ * concurrent use.
+ */
+public interface NCTransport extends Closeable {
+    /**
+     * Response handler.
+     *
+     * @param <T> Type of the handler result.
+     */
+    @FunctionalInterface
+    interface Handler<T> {
+        /**
+         * Handles the response. Response stream is closed by the transport after this method returns.
+         *
+         * @param code HTTP status code.
+         * @param body Response body stream.
+         * @param cs Response charset, or {@code null} if not specified by the server.
+         * @param hdrs Function returning the first value of the response header with given name, or {@code null}
+         *      if there's no such header.
+         * @return Handler result.
+         * @throws IOException Thrown in case of I/O errors.
+         */
+        T handle(int code, InputStream body, Charset cs, Function<String, String> hdrs) throws IOException;
+    }
+
+    /**
+     * Posts JSON request and handles the response. This method blocks until the response is handled.
+     *
+     * @param url Full request URL.
+     * @param body Request body array. It is only valid during this call, transport must not retain it.
+     * @param len Length of the request body, starting from the beginning of the array.
+     * @param h Response handler.
+     * @param <T> Type of the handler result.
+     * @return Handler result.
+     * @throws IOException Thrown in case of I/O errors.
+     * @throws NCClientException Thrown by the handler in case of client-specific errors.
+     */
+    <T> T post(String url, byte[] body, int len, Handler<T> h) throws IOException, NCClientException;
+
+    /**
+     * Posts JSON request and handles the response within the given time. Timeout bounds waiting for the pooled
+     * connection, connect and waiting for the response. Default implementation ignores the timeout, leaving
+     * it to the transport configuration.
+     *
+     * @param url Full request URL.
+     * @param body Request body array. It is only valid during this call, transport must not retain it.
+     * @param len Length of the request body, starting from the beginning of the array.
+     * @param timeoutMs Timeout in milliseconds.
+     * @param h Response handler.
+     * @param <T> Type of the handler result.
+     * @return Handler result.
+     * @throws IOException Thrown in case of I/O errors, including timeout.
+     * @throws NCClientException Thrown by the handler in case of client-specific errors.
+     * @see NCClient#withDeadline(long)
+     */
+    default <T> T post(String url, byte[] body, int len, long timeoutMs, Handler<T> h)
+        throws IOException, NCClientException {
+        return post(url, body, len, h);
+    }
+}
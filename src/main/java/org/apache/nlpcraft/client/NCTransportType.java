@@ -0,0 +1,40 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client;
+
+/**
+ * Built-in client transports.
+ *
+ * @see NCClientBuilder#setTransportType(NCTransportType)
+ */
+public enum NCTransportType {
+    /**
+     * Apache HttpClient 4.x over HTTP/1.1 with the pooled persistent connections. It is the default transport
+     * and the only one that supports {@link NCClientBuilder#setClientSupplier(java.util.function.Supplier)}
+     * and {@link NCClient#getPoolStats()}.
+     */
+    APACHE_HTTP_CLIENT,
+
+    /**
+     * JDK <code>java.net.http.HttpClient</code> preferring HTTP/2. Concurrent requests are multiplexed over a
+     * few connections when the server supports HTTP/2, including cleartext HTTP/2 (h2c) upgrade for
+     * <code>http://</code> URLs. Otherwise it falls back to HTTP/1.1. Connect and socket timeouts are taken
+     * from the request config, if set.
+     */
+    JDK_HTTP_CLIENT
+}
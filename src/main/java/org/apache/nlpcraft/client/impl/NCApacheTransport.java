@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client.impl;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.nlpcraft.client.NCClientException;
+import org.apache.nlpcraft.client.NCTransport;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Transport on Apache HttpClient 4.x.
+ */
+public class NCApacheTransport implements NCTransport {
+    private final CloseableHttpClient httpCli;
+    private final RequestConfig reqCfg;
+    private final boolean owned;
+
+    /**
+     *
+     * @param httpCli HTTP client.
+     * @param reqCfg Request config.
+     * @param owned Whether the HTTP client is owned by this transport and should be closed with it.
+     */
+    public NCApacheTransport(CloseableHttpClient httpCli, RequestConfig reqCfg, boolean owned) {
+        this.httpCli = httpCli;
+        this.reqCfg = reqCfg;
+        this.owned = owned;
+    }
+
+    @Override
+    public <T> T post(String url, byte[] body, int len, Handler<T> h) throws IOException, NCClientException {
+        return post(url, body, len, reqCfg, h);
+    }
+
+    @Override
+    public <T> T post(String url, byte[] body, int len, long timeoutMs, Handler<T> h)
+        throws IOException, NCClientException {
+        return post(url, body, len, bound(reqCfg, timeoutMs), h);
+    }
+
+    /**
+     * Bounds connection lease, connect and socket timeouts of the given config by the given time.
+     *
+     * @param cfg Request config.
+     * @param timeoutMs Timeout in milliseconds.
+     * @return Bounded request config.
+     */
+    static RequestConfig bound(RequestConfig cfg, long timeoutMs) {
+        int ms = (int)Math.min(Integer.MAX_VALUE, Math.max(1, timeoutMs));
+
+        return RequestConfig.copy(cfg).
+            setConnectionRequestTimeout(bound(cfg.getConnectionRequestTimeout(), ms)).
+            setConnectTimeout(bound(cfg.getConnectTimeout(), ms)).
+            setSocketTimeout(bound(cfg.getSocketTimeout(), ms)).
+            build();
+    }
+
+    /**
+     *
+     * @param timeoutMs Configured timeout, non-positive for infinite or system default.
+     * @param ms Bound.
+     * @return Bounded timeout.
+     */
+    private static int bound(int timeoutMs, int ms) {
+        return timeoutMs > 0 ? Math.min(timeoutMs, ms) : ms;
+    }
+
+    /**
+     *
+     * @param url
+     * @param body
+     * @param len
+     * @param cfg
+     * @param h
+     * @param <T>
+     * @return
+     * @throws IOException
+     * @throws NCClientException
+     */
+    private <T> T post(String url, byte[] body, int len, RequestConfig cfg, Handler<T> h)
+        throws IOException, NCClientException {
+        HttpPost post = new HttpPost(url);
+
+        try {
+            post.setConfig(cfg);
+
+            // Entity wraps the array without copying, it is fully sent before the response is handled.
+            post.setEntity(new ByteArrayEntity(body, 0, len, ContentType.APPLICATION_JSON));
+
+            return httpCli.execute(post, resp -> {
+                HttpEntity e = resp.getEntity();
+
+                try (InputStream in = e != null ? e.getContent() : InputStream.nullInputStream()) {
+                    return h.handle(
+                        resp.getStatusLine().getStatusCode(),
+                        in,
+                        e != null ? ContentType.getOrDefault(e).getCharset() : null,
+                        name -> {
+                            Header hdr = resp.getFirstHeader(name);
+
+                            return hdr != null ? hdr.getValue() : null;
+                        }
+                    );
+                }
+            });
+        }
+        finally {
+            post.releaseConnection();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (owned)
+            httpCli.close();
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client.impl;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.nlpcraft.client.NCAskAllOptions;
+import org.apache.nlpcraft.client.NCAskAllStats;
+import org.apache.nlpcraft.client.NCClient;
+import org.apache.nlpcraft.client.NCClientException;
+import org.apache.nlpcraft.client.NCResult;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+
+/**
+ * Bulk ask run. Caller's thread submits the texts with <code>ask</code> calls while the number of the requests
+ * whose results are not delivered yet is below the in-flight window, the poller gets their results with
+ * coalesced <code>check</code> calls and delivered requests are released with batched <code>cancel</code>
+ * calls. Memory used by the run is bounded by the window, regardless of the number of the texts.
+ */
+class NCAskAll {
+    private static final Logger log = LogManager.getLogger(NCAskAll.class);
+
+    /**
+     * Submitted request.
+     */
+    private static class Item {
+        private final String srvReqId;
+        private final CompletableFuture<NCResult> fut;
+
+        Item(String srvReqId, CompletableFuture<NCResult> fut) {
+            this.srvReqId = srvReqId;
+            this.fut = fut;
+        }
+    }
+
+    private final NCClient cli;
+    private final NCResultPollerImpl poller;
+    private final NCRequestRelease reqRelease;
+    private final String mdlId;
+    private final NCAskAllOptions opts;
+
+    // Requests whose results are not delivered yet, in the order of the texts.
+    private final Set<Item> window = new LinkedHashSet<>();
+    // Completed requests in the order of completion, only used by unordered delivery.
+    private final BlockingQueue<Item> done = new LinkedBlockingQueue<>();
+    private final Set<String> cancelBatch = new HashSet<>();
+
+    private long submitted;
+    private long results;
+    private long failed;
+    private long cancelCalls;
+
+    /**
+     *
+     * @param cli Client to use for <code>ask</code> and <code>cancel</code> calls.
+     * @param poller Poller to get the results with.
+     * @param reqRelease Client's automatic release of the server requests, {@code null} if disabled.
+     * @param mdlId Model ID.
+     * @param opts Options.
+     */
+    NCAskAll(NCClient cli, NCResultPollerImpl poller, NCRequestRelease reqRelease, String mdlId, NCAskAllOptions opts) {
+        this.cli = cli;
+        this.poller = poller;
+        this.reqRelease = reqRelease;
+        this.mdlId = mdlId;
+        this.opts = opts;
+    }
+
+    /**
+     * Submits all texts and delivers their results.
+     *
+     * @param txts Texts.
+     * @param consumer Results consumer.
+     * @return Statistics.
+     * @throws NCClientException
+     * @throws IOException
+     */
+    NCAskAllStats run(Iterator<String> txts, Consumer<NCResult> consumer) throws NCClientException, IOException {
+        long startMs = System.currentTimeMillis();
+        boolean ok = false;
+
+        try {
+            while (true) {
+                while (window.size() < opts.getMaxInFlight() && txts.hasNext())
+                    submit(txts.next());
+
+                if (window.isEmpty())
+                    break;
+
+                Item item = opts.isOrdered() ? window.iterator().next() : take();
+                NCResult res = await(item);
+
+                window.remove(item);
+                cancelBatch.add(item.srvReqId);
+
+                results++;
+
+                if (res.getErrorCode() != null)
+                    failed++;
+
+                consumer.accept(res);
+
+                if (cancelBatch.size() >= opts.getCancelBatchSize())
+                    release();
+            }
+
+            if (!cancelBatch.isEmpty())
+                release();
+
+            ok = true;
+        }
+        finally {
+            if (!ok)
+                abort();
+        }
+
+        NCAskAllStatsImpl stats = new NCAskAllStatsImpl(
+            submitted, results, failed, cancelCalls, System.currentTimeMillis() - startMs
+        );
+
+        log.info("Bulk ask finished [mdlId={}, stats={}]", mdlId, stats);
+
+        return stats;
+    }
+
+    /**
+     *
+     * @param txt
+     * @throws NCClientException
+     * @throws IOException
+     */
+    private void submit(String txt) throws NCClientException, IOException {
+        String srvReqId = cli.ask(
+            mdlId, txt, opts.getData(), opts.isEnableLog(), opts.getUserId(), opts.getUserExternalId()
+        );
+
+        submitted++;
+
+        // Released here, not by the client.
+        if (reqRelease != null)
+            reqRelease.onOwned(srvReqId);
+
+        Item item = new Item(
+            srvReqId,
+            poller.track0(
+                srvReqId, mdlId, opts.getUserId(), opts.getUserExternalId(), System.currentTimeMillis(), false
+            )
+        );
+
+        window.add(item);
+
+        if (!opts.isOrdered())
+            item.fut.whenComplete((res, e) -> done.add(item));
+    }
+
+    /**
+     *
+     * @return
+     * @throws InterruptedIOException
+     */
+    private Item take() throws InterruptedIOException {
+        try {
+            return done.take();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            throw new InterruptedIOException("Interrupted while waiting for bulk ask results.");
+        }
+    }
+
+    /**
+     *
+     * @param item
+     * @return
+     * @throws NCClientException
+     * @throws InterruptedIOException
+     */
+    private static NCResult await(Item item) throws NCClientException, InterruptedIOException {
+        try {
+            return item.fut.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            throw new InterruptedIOException("Interrupted while waiting for bulk ask results.");
+        }
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException)cause;
+
+            throw new NCClientException("Unexpected bulk ask error.", cause);
+        }
+    }
+
+    /**
+     * Releases delivered requests on the server.
+     *
+     * @throws NCClientException
+     * @throws IOException
+     */
+    private void release() throws NCClientException, IOException {
+        cancelCalls++;
+
+        cli.cancel(new HashSet<>(cancelBatch), opts.getUserId(), opts.getUserExternalId());
+
+        cancelBatch.clear();
+    }
+
+    /**
+     * Stops tracking the requests in flight and cancels them on the server along with the delivered ones
+     * not released yet. Errors are only logged, so that they don't hide the original one.
+     */
+    private void abort() {
+        for (Item item : window) {
+            item.fut.cancel(false);
+
+            cancelBatch.add(item.srvReqId);
+        }
+
+        window.clear();
+
+        if (cancelBatch.isEmpty())
+            return;
+
+        try {
+            release();
+        }
+        catch (Exception e) {
+            log.warn("Failed to cancel bulk ask requests [count={}, error={}]", cancelBatch.size(), e.getMessage());
+        }
+    }
+}
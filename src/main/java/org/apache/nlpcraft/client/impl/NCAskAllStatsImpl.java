@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client.impl;
+
+import org.apache.nlpcraft.client.NCAskAllStats;
+
+/**
+ * Bulk ask statistics.
+ */
+public class NCAskAllStatsImpl implements NCAskAllStats {
+    private final long submitted;
+    private final long results;
+    private final long failed;
+    private final long cancelCalls;
+    private final long durationMs;
+
+    /**
+     *
+     * @param submitted
+     * @param results
+     * @param failed
+     * @param cancelCalls
+     * @param durationMs
+     */
+    public NCAskAllStatsImpl(long submitted, long results, long failed, long cancelCalls, long durationMs) {
+        this.submitted = submitted;
+        this.results = results;
+        this.failed = failed;
+        this.cancelCalls = cancelCalls;
+        this.durationMs = durationMs;
+    }
+
+    @Override
+    public long getSubmitted() {
+        return submitted;
+    }
+
+    @Override
+    public long getResults() {
+        return results;
+    }
+
+    @Override
+    public long getFailed() {
+        return failed;
+    }
+
+    @Override
+    public long getCancelCalls() {
+        return cancelCalls;
+    }
+
+    @Override
+    public long getDuration() {
+        return durationMs;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "[submitted=%d, results=%d, failed=%d, cancelCalls=%d, duration=%dms, throughput=%.1f/s]",
+            submitted, results, failed, cancelCalls, durationMs, getThroughput()
+        );
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client.impl;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Identity of the stateless <code>askSync</code> request, i.e. model, normalized text, data, log flag and user.
+ * Requests with equal keys are expected to get the same result.
+ */
+public class NCAskKey {
+    private final String mdlId;
+    private final String txt;
+    private final Map<String, Object> data;
+    private final boolean enableLog;
+    private final Long usrId;
+    private final String usrExtId;
+    private final int hash;
+
+    /**
+     *
+     * @param mdlId
+     * @param txt
+     * @param data
+     * @param enableLog
+     * @param usrId
+     * @param usrExtId
+     */
+    public NCAskKey(String mdlId, String txt, Map<String, Object> data, boolean enableLog, Long usrId, String usrExtId) {
+        this.mdlId = mdlId;
+        this.txt = normalize(txt);
+        this.data = data == null || data.isEmpty() ? null : new HashMap<>(data);
+        this.enableLog = enableLog;
+        this.usrId = usrId;
+        this.usrExtId = usrExtId;
+
+        hash = Objects.hash(mdlId, this.txt, this.data, enableLog, usrId, usrExtId);
+    }
+
+    /**
+     * Normalizes text of the request: trims it and collapses whitespaces. Case is kept as is since
+     * it can be significant for the model.
+     *
+     * @param txt Text to normalize.
+     * @return Normalized text.
+     */
+    static String normalize(String txt) {
+        StringBuilder buf = new StringBuilder(txt.length());
+
+        boolean ws = false;
+
+        for (int i = 0; i < txt.length(); i++) {
+            char ch = txt.charAt(i);
+
+            if (Character.isWhitespace(ch))
+                ws = buf.length() > 0;
+            else {
+                if (ws)
+                    buf.append(' ');
+
+                buf.append(ch);
+
+                ws = false;
+            }
+        }
+
+        return buf.toString();
+    }
+
+    /**
+     *
+     * @return
+     */
+    public String getModelId() {
+        return mdlId;
+    }
+
+    /**
+     *
+     * @return Normalized text.
+     */
+    public String getText() {
+        return txt;
+    }
+
+    /**
+     * Checks whether this request belongs to the given model and user.
+     *
+     * @param mdlId Model ID.
+     * @param usrId Optional user ID.
+     * @param usrExtId Optional external user ID.
+     * @return
+     */
+    public boolean isUser(String mdlId, Long usrId, String usrExtId) {
+        return
+            this.mdlId.equals(mdlId) && Objects.equals(this.usrId, usrId) && Objects.equals(this.usrExtId, usrExtId);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o)
+            return true;
+
+        if (o == null || getClass() != o.getClass())
+            return false;
+
+        NCAskKey k = (NCAskKey)o;
+
+        return
+            hash == k.hash &&
+            enableLog == k.enableLog &&
+            mdlId.equals(k.mdlId) &&
+            txt.equals(k.txt) &&
+            Objects.equals(usrId, k.usrId) &&
+            Objects.equals(usrExtId, k.usrExtId) &&
+            Objects.equals(data, k.data);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
@@ -0,0 +1,1612 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client.impl;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.pool.ConnPoolControl;
+import org.apache.http.util.EntityUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.nlpcraft.client.NCAsyncClient;
+import org.apache.nlpcraft.client.NCBulkheadStats;
+import org.apache.nlpcraft.client.NCClientException;
+import org.apache.nlpcraft.client.NCCompany;
+import org.apache.nlpcraft.client.NCConcurrencyLimitStats;
+import org.apache.nlpcraft.client.NCElementSynonymsData;
+import org.apache.nlpcraft.client.NCEndpointStats;
+import org.apache.nlpcraft.client.NCFeedback;
+import org.apache.nlpcraft.client.NCHedgingStats;
+import org.apache.nlpcraft.client.NCModelInfo;
+import org.apache.nlpcraft.client.NCNewCompany;
+import org.apache.nlpcraft.client.NCPoolStats;
+import org.apache.nlpcraft.client.NCProbe;
+import org.apache.nlpcraft.client.NCRequestReleaseStats;
+import org.apache.nlpcraft.client.NCResult;
+import org.apache.nlpcraft.client.NCResultCacheStats;
+import org.apache.nlpcraft.client.NCStickyRouting;
+import org.apache.nlpcraft.client.NCSuggestionData;
+import org.apache.nlpcraft.client.NCUser;
+import org.apache.nlpcraft.client.impl.beans.NCAskBean;
+import org.apache.nlpcraft.client.impl.beans.NCAskSyncBean;
+import org.apache.nlpcraft.client.impl.beans.NCCheckBean;
+import org.apache.nlpcraft.client.impl.beans.NCCompanyBean;
+import org.apache.nlpcraft.client.impl.beans.NCCompanyTokenResetBean;
+import org.apache.nlpcraft.client.impl.beans.NCElementSynonymsDataBean;
+import org.apache.nlpcraft.client.impl.beans.NCFeedbackAddBean;
+import org.apache.nlpcraft.client.impl.beans.NCFeedbackAllBean;
+import org.apache.nlpcraft.client.impl.beans.NCModelInfoResultBean;
+import org.apache.nlpcraft.client.impl.beans.NCProbesAllBean;
+import org.apache.nlpcraft.client.impl.beans.NCSigninBean;
+import org.apache.nlpcraft.client.impl.beans.NCStatusResponseBean;
+import org.apache.nlpcraft.client.impl.beans.NCSuggestionResultBean;
+import org.apache.nlpcraft.client.impl.beans.NCTokenCreationBean;
+import org.apache.nlpcraft.client.impl.beans.NCUserAddBean;
+import org.apache.nlpcraft.client.impl.beans.NCUserBean;
+import org.apache.nlpcraft.client.impl.beans.NCUsersAllBean;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static org.apache.nlpcraft.client.impl.NCClientImpl.EMPTY_BODY;
+import static org.apache.nlpcraft.client.impl.NCClientImpl.handleResponse;
+import static org.apache.nlpcraft.client.impl.NCClientImpl.notNull;
+import static org.apache.nlpcraft.client.impl.NCRequestWriter.NO_FIELDS;
+import static org.apache.nlpcraft.client.impl.NCRequestWriter.field;
+
+/**
+ * Asynchronous client implementation.
+ */
+@SuppressWarnings("JavaDoc")
+public class NCAsyncClientImpl implements NCAsyncClient {
+    private static final Logger log = LogManager.getLogger(NCAsyncClientImpl.class);
+
+    private Supplier<CloseableHttpAsyncClient> httpCliGen;
+    private RequestConfig reqCfg;
+    private ConnPoolControl<HttpRoute> connPool;
+    private List<String> baseUrls;
+    private NCEndpointRouter router;
+    private NCConcurrencyLimits limits;
+    private NCRetryPolicy retries;
+    private NCCircuitBreakers breakers;
+    private NCHedging hedging;
+    private NCRequestRelease reqRelease;
+    private NCBulkheads bulkheads;
+    private String email;
+    private String pwd;
+    private Boolean cancelOnExit;
+    private NCResultCache resCache;
+    private NCRequestCoalescer coalescer;
+
+    private CloseableHttpAsyncClient httpCli;
+    private NCRequestPipeline pipeline;
+    private ExecutorService decodeExec;
+    // Configuration above is written before initialization and published to other threads by the state change.
+    private final AtomicReference<NCClientState> state = new AtomicReference<>(NCClientState.NEW);
+
+    @Override
+    public String getClientUserEmail() {
+        return email;
+    }
+
+    @Override
+    public String getClientUserPassword() {
+        return pwd;
+    }
+
+    @Override
+    public boolean isClientCancelOnExit() {
+        return cancelOnExit;
+    }
+
+    @Override
+    public String getClientBaseUrl() {
+        return baseUrls.get(0);
+    }
+
+    @Override
+    public List<String> getClientBaseUrls() {
+        return baseUrls;
+    }
+
+    @Override
+    public List<NCEndpointStats> getEndpointStats() {
+        return router.getStats();
+    }
+
+    @Override
+    public List<NCConcurrencyLimitStats> getConcurrencyLimitStats() {
+        return limits != null ? limits.getStats() : Collections.emptyList();
+    }
+
+    /**
+     *
+     * @return
+     */
+    public Supplier<CloseableHttpAsyncClient> getClientSupplier() {
+        return httpCliGen;
+    }
+
+    /**
+     *
+     * @param httpCliGen
+     */
+    public void setClientSupplier(Supplier<CloseableHttpAsyncClient> httpCliGen) {
+        this.httpCliGen = httpCliGen;
+    }
+
+    /**
+     *
+     * @return
+     */
+    public ConnPoolControl<HttpRoute> getConnectionPool() {
+        return connPool;
+    }
+
+    /**
+     * Sets connection pool owned by this client. Custom HTTP clients don't provide it.
+     *
+     * @param connPool
+     */
+    public void setConnectionPool(ConnPoolControl<HttpRoute> connPool) {
+        this.connPool = connPool;
+    }
+
+    @Override
+    public NCPoolStats getPoolStats() {
+        return connPool != null ? new NCPoolStatsImpl(connPool.getTotalStats()) : null;
+    }
+
+    /**
+     *
+     * @return
+     */
+    public NCResultCache getResultCache() {
+        return resCache;
+    }
+
+    /**
+     * Sets optional <code>askSync</code> result cache.
+     *
+     * @param resCache
+     */
+    public void setResultCache(NCResultCache resCache) {
+        this.resCache = resCache;
+    }
+
+    /**
+     *
+     * @return
+     */
+    public NCRequestCoalescer getRequestCoalescer() {
+        return coalescer;
+    }
+
+    /**
+     * Sets optional coalescer of the identical concurrent <code>askSync</code> requests.
+     *
+     * @param coalescer
+     */
+    public void setRequestCoalescer(NCRequestCoalescer coalescer) {
+        this.coalescer = coalescer;
+    }
+
+    @Override
+    public NCResultCacheStats getResultCacheStats() {
+        return resCache != null ? resCache.getStats() : null;
+    }
+
+    /**
+     *
+     * @return
+     */
+    public RequestConfig getRequestConfig() {
+        return reqCfg;
+    }
+
+    /**
+     *
+     * @param reqCfg
+     */
+    public void setRequestConfig(RequestConfig reqCfg) {
+        this.reqCfg = reqCfg;
+    }
+
+    /**
+     *
+     * @return
+     */
+    public List<String> getBaseUrls() {
+        return baseUrls;
+    }
+
+    /**
+     *
+     * @param baseUrls
+     */
+    public void setBaseUrls(List<String> baseUrls) {
+        this.baseUrls = baseUrls != null ? Collections.unmodifiableList(new ArrayList<>(baseUrls)) : null;
+    }
+
+    /**
+     *
+     * @return
+     */
+    public NCEndpointRouter getRouter() {
+        return router;
+    }
+
+    /**
+     *
+     * @param router
+     */
+    public void setRouter(NCEndpointRouter router) {
+        this.router = router;
+    }
+
+    /**
+     *
+     * @return
+     */
+    public NCConcurrencyLimits getConcurrencyLimits() {
+        return limits;
+    }
+
+    /**
+     * Sets concurrency limiters. If not set, requests are not limited.
+     *
+     * @param limits
+     */
+    public void setConcurrencyLimits(NCConcurrencyLimits limits) {
+        this.limits = limits;
+    }
+
+    /**
+     *
+     * @return
+     */
+    public NCRetryPolicy getRetryPolicy() {
+        return retries;
+    }
+
+    /**
+     * Sets retry policy. If not set, failed requests are not retried.
+     *
+     * @param retries
+     */
+    public void setRetryPolicy(NCRetryPolicy retries) {
+        this.retries = retries;
+    }
+
+    /**
+     *
+     * @return
+     */
+    public NCCircuitBreakers getCircuitBreakers() {
+        return breakers;
+    }
+
+    /**
+     * Sets circuit breakers. If not set, requests are always sent.
+     *
+     * @param breakers
+     */
+    public void setCircuitBreakers(NCCircuitBreakers breakers) {
+        this.breakers = breakers;
+    }
+
+    /**
+     *
+     * @return
+     */
+    public NCHedging getHedging() {
+        return hedging;
+    }
+
+    /**
+     * Sets hedging of the synchronous requests. If not set, requests are never hedged.
+     *
+     * @param hedging
+     */
+    public void setHedging(NCHedging hedging) {
+        this.hedging = hedging;
+    }
+
+    @Override
+    public NCHedgingStats getHedgingStats() {
+        return hedging != null ? hedging.getStats() : null;
+    }
+
+    /**
+     *
+     * @return
+     */
+    public NCRequestRelease getRequestRelease() {
+        return reqRelease;
+    }
+
+    /**
+     * Sets automatic release of the server requests. If not set, requests are only released explicitly.
+     *
+     * @param reqRelease
+     */
+    public void setRequestRelease(NCRequestRelease reqRelease) {
+        this.reqRelease = reqRelease;
+    }
+
+    @Override
+    public NCRequestReleaseStats getRequestReleaseStats() {
+        return reqRelease != null ? reqRelease.getStats() : null;
+    }
+
+    /**
+     *
+     * @return
+     */
+    public NCBulkheads getBulkheads() {
+        return bulkheads;
+    }
+
+    /**
+     * Sets bulkheads. If not set, all calls share the connection pool without limits.
+     *
+     * @param bulkheads
+     */
+    public void setBulkheads(NCBulkheads bulkheads) {
+        this.bulkheads = bulkheads;
+    }
+
+    @Override
+    public List<NCBulkheadStats> getBulkheadStats() {
+        return bulkheads != null ? bulkheads.getStats() : Collections.emptyList();
+    }
+
+    @Override
+    public NCAsyncClient withDeadline(long timeoutMs) {
+        return NCDeadline.view(NCAsyncClient.class, this, timeoutMs);
+    }
+
+    /**
+     *
+     * @return
+     */
+    public String getEmail() {
+        return email;
+    }
+
+    /**
+     *
+     * @param email
+     */
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    /**
+     *
+     * @return
+     */
+    public String getPassword() {
+        return pwd;
+    }
+
+    /**
+     *
+     * @param pwd
+     */
+    public void setPassword(String pwd) {
+        this.pwd = pwd;
+    }
+
+    /**
+     *
+     * @return
+     */
+    public Boolean isCancelOnExit() {
+        return cancelOnExit;
+    }
+
+    /**
+     *
+     * @param cancelOnExit
+     */
+    public void setCancelOnExit(Boolean cancelOnExit) {
+        this.cancelOnExit = cancelOnExit;
+    }
+
+    /**
+     * Starts I/O reactor and signs in. Blocks until the sign in is finished.
+     *
+     * @throws IOException
+     * @throws NCClientException
+     */
+    public void initialize() throws IOException, NCClientException {
+        if (!state.compareAndSet(NCClientState.NEW, NCClientState.STARTING))
+            throw new IllegalStateException("Client is already initialized.");
+
+        httpCli = httpCliGen.get();
+
+        httpCli.start();
+
+        // Responses are decoded off the I/O dispatcher threads, which only read the response bodies.
+        decodeExec = NCThreads.newPerTaskExecutor("nlpcraft-client-decoder");
+
+        if (reqCfg == null)
+            reqCfg = RequestConfig.DEFAULT;
+
+        // Without routing settings endpoints are never ejected.
+        if (router == null)
+            router = new NCEndpointRouter(baseUrls, Integer.MAX_VALUE, 0, 0, NCStickyRouting.NONE, 1);
+
+        pipeline = new NCRequestPipeline(router, bulkheads, limits, breakers, retries);
+
+        try {
+            signin();
+        }
+        catch (InterruptedException e) {
+            state.set(NCClientState.CLOSED);
+
+            httpCli.close();
+            decodeExec.shutdown();
+
+            Thread.currentThread().interrupt();
+
+            throw new NCClientException("Interrupted during sign in.", e);
+        }
+        catch (ExecutionException e) {
+            state.set(NCClientState.CLOSED);
+
+            httpCli.close();
+            decodeExec.shutdown();
+
+            Throwable cause = e.getCause();
+
+            if (cause instanceof IOException)
+                throw (IOException)cause;
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException)cause;
+
+            throw new NCClientException("Unexpected sign in error.", cause);
+        }
+
+        router.start(this::checkHealth);
+
+        if (reqRelease != null)
+            reqRelease.start((ids, usrId, usrExtId) -> cancel(ids, usrId, usrExtId).get());
+
+        state.set(NCClientState.STARTED);
+    }
+
+    /**
+     * Signs in to all endpoints concurrently. Endpoints not available at the moment sign in later,
+     * with their first request.
+     *
+     * @throws InterruptedException
+     * @throws ExecutionException Thrown if no endpoint is available or sign in is rejected.
+     */
+    private void signin() throws InterruptedException, ExecutionException {
+        List<NCEndpoint> eps = router.getEndpoints();
+        List<CompletableFuture<String>> futs = new ArrayList<>(eps.size());
+
+        for (NCEndpoint ep : eps)
+            futs.add(restSignin(ep));
+
+        ExecutionException err = null;
+        boolean any = false;
+
+        for (int i = 0; i < eps.size(); i++) {
+            try {
+                eps.get(i).getSession().set(futs.get(i).get());
+
+                any = true;
+            }
+            catch (ExecutionException e) {
+                // Only unavailable endpoints are skipped, other errors, e.g. wrong credentials, fail the start.
+                if (!(e.getCause() instanceof IOException))
+                    throw e;
+
+                router.fail(eps.get(i));
+
+                if (err == null)
+                    err = e;
+            }
+        }
+
+        if (!any)
+            throw err;
+    }
+
+    /**
+     *
+     * @param ep
+     * @return
+     * @throws Exception
+     */
+    private boolean checkHealth(NCEndpoint ep) throws Exception {
+        HttpPost post = new HttpPost(ep.getBaseUrl() + NCEndpointRouter.HEALTH_CALL);
+
+        post.setConfig(reqCfg);
+        post.setEntity(new ByteArrayEntity(EMPTY_BODY, ContentType.APPLICATION_JSON));
+
+        HttpResponse resp = httpCli.execute(post, null).get(NCEndpointRouter.HEALTH_CHECK_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+
+        EntityUtils.consumeQuietly(resp.getEntity());
+
+        // Any response except server errors means the endpoint is alive.
+        return resp.getStatusLine().getStatusCode() < 500;
+    }
+
+    /**
+     *
+     * @param e
+     * @return
+     */
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+
+    /**
+     *
+     * @param url
+     * @param type
+     * @param wr
+     * @param <T>
+     * @return
+     */
+    private <T extends NCStatusResponseBean> CompletableFuture<T> post(String url, Type type, NCRequestWriter wr) {
+        return postModel(null, null, url, type, wr);
+    }
+
+    /**
+     * Posts the request of the model and retries it according to the retry policy, if any.
+     *
+     * @param mdlId Model ID, {@code null} for the request not related to any model.
+     * @param key Sticky routing key, {@code null} for the request routed by load only.
+     * @param url
+     * @param type
+     * @param wr
+     * @param <T>
+     * @return
+     */
+    private <T extends NCStatusResponseBean> CompletableFuture<T> postModel(
+        String mdlId, String key, String url, Type type, NCRequestWriter wr
+    ) {
+        return postModel(mdlId, key, url, type, wr, null);
+    }
+
+    /**
+     * Posts the request of the model and retries it according to the retry policy, if any. The call is bounded
+     * by the deadline of the current thread, if any.
+     *
+     * @param mdlId Model ID, {@code null} for the request not related to any model.
+     * @param key Sticky routing key, {@code null} for the request routed by load only.
+     * @param url
+     * @param type
+     * @param wr
+     * @param late Consumer of the result which arrived after the deadline, {@code null} if not needed.
+     * @param <T>
+     * @return
+     */
+    private <T extends NCStatusResponseBean> CompletableFuture<T> postModel(
+        String mdlId, String key, String url, Type type, NCRequestWriter wr, Consumer<T> late
+    ) {
+        return postModel(null, mdlId, key, url, type, wr, late);
+    }
+
+    /**
+     * Posts the request of the model and retries it according to the retry policy, if any. The call is bounded
+     * by the deadline of the current thread, if any.
+     *
+     * @param pinned Endpoint the request must be sent to, {@code null} for the request routed by the key or load.
+     * @param mdlId Model ID, {@code null} for the request not related to any model.
+     * @param key Sticky routing key, {@code null} for the request routed by load only.
+     * @param url
+     * @param type
+     * @param wr
+     * @param late Consumer of the result which arrived after the deadline, {@code null} if not needed.
+     * @param <T>
+     * @return
+     */
+    private <T extends NCStatusResponseBean> CompletableFuture<T> postModel(
+        NCEndpoint pinned, String mdlId, String key, String url, Type type, NCRequestWriter wr, Consumer<T> late
+    ) {
+        NCRequestPipeline.Call call = pipeline.call(pinned, mdlId, key, url);
+        NCDeadline dl = call.getDeadline();
+        CompletableFuture<T> fut = postRetried(call, type, wr);
+
+        return dl != null ? dl.bound(fut, url, late) : fut;
+    }
+
+    /**
+     *
+     * @param call
+     * @param type
+     * @param wr
+     * @param <T>
+     * @return
+     */
+    private <T extends NCStatusResponseBean> CompletableFuture<T> postRetried(
+        NCRequestPipeline.Call call, Type type, NCRequestWriter wr
+    ) {
+        return this.<T>postAttempt(call, type, wr).handle((res, e) -> {
+            if (e == null)
+                return CompletableFuture.completedFuture(res);
+
+            Throwable cause = unwrap(e);
+            long delayMs = call.retryDelay(cause);
+
+            if (delayMs < 0)
+                return CompletableFuture.<T>failedFuture(cause);
+
+            // No thread waits for the retry.
+            return CompletableFuture.runAsync(() -> {}, NCThreads.delayed(delayMs)).
+                thenCompose(v -> this.<T>postRetried(call, type, wr));
+        }).thenCompose(f -> f);
+    }
+
+    /**
+     * Posts the request of the model once, limited by the bulkhead of the call.
+     *
+     * @param call
+     * @param type
+     * @param wr
+     * @param <T>
+     * @return
+     */
+    private <T extends NCStatusResponseBean> CompletableFuture<T> postAttempt(
+        NCRequestPipeline.Call call, Type type, NCRequestWriter wr
+    ) {
+        NCClientState s = state.get();
+
+        // Closing client still accepts requests, since it cancels pending requests and signs out with the regular calls.
+        if (s != NCClientState.STARTED && s != NCClientState.CLOSING)
+            return CompletableFuture.failedFuture(new IllegalStateException("Client is not initialized."));
+
+        NCDeadline dl = call.getDeadline();
+
+        if (dl != null && dl.isExpired())
+            return CompletableFuture.failedFuture(dl.exceeded(call.getUrl()));
+
+        NCBulkhead bh = call.getBulkhead();
+
+        if (bh == null)
+            return postRouted(call, type, wr);
+
+        // Queued request is sent by the thread releasing the slot.
+        return bh.acquire().handle((v, e) -> {
+            if (e == null && dl != null && dl.isExpired()) {
+                bh.release();
+
+                e = dl.exceeded(call.getUrl());
+            }
+
+            if (e != null)
+                return CompletableFuture.<T>failedFuture(unwrap(e));
+
+            CompletableFuture<T> fut;
+
+            try {
+                fut = postRouted(call, type, wr);
+            }
+            catch (RuntimeException e1) {
+                fut = CompletableFuture.failedFuture(e1);
+            }
+
+            return fut.whenComplete((res, e1) -> bh.release());
+        }).thenCompose(f -> f);
+    }
+
+    /**
+     * Posts the request of the model once, routed by the sticky routing key and limited by the concurrency
+     * limiter of the selected endpoint and model.
+     *
+     * @param call
+     * @param type
+     * @param wr
+     * @param <T>
+     * @return
+     */
+    private <T extends NCStatusResponseBean> CompletableFuture<T> postRouted(
+        NCRequestPipeline.Call call, Type type, NCRequestWriter wr
+    ) {
+        NCRequestPipeline.Attempt att;
+
+        try {
+            att = call.route();
+        }
+        catch (NCClientException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        NCConcurrencyLimiter lim = att.getLimiter();
+
+        if (lim == null)
+            return post(call, att, type, wr);
+
+        NCDeadline dl = call.getDeadline();
+
+        // Queued request is sent by the thread releasing the slot.
+        return lim.acquire().handle((v, e) -> {
+            if (e == null && dl != null && dl.isExpired()) {
+                lim.release();
+
+                e = dl.exceeded(call.getUrl());
+            }
+
+            if (e == null)
+                return this.<T>post(call, att, type, wr);
+
+            // Request is not sent.
+            att.abort();
+
+            return CompletableFuture.<T>failedFuture(unwrap(e));
+        }).thenCompose(f -> f);
+    }
+
+    /**
+     *
+     * @param call
+     * @param att Attempt holding the concurrency limiter slot, if any.
+     * @param type
+     * @param wr
+     * @param <T>
+     * @return
+     */
+    private <T extends NCStatusResponseBean> CompletableFuture<T> post(
+        NCRequestPipeline.Call call, NCRequestPipeline.Attempt att, Type type, NCRequestWriter wr
+    ) {
+        att.start();
+
+        return this.<T>post(att.getEndpoint(), call.getUrl(), type, wr, call.getDeadline()).
+            whenComplete((res, e) -> att.finish(res, e != null ? unwrap(e) : null));
+    }
+
+    /**
+     *
+     * @param ep
+     * @param url
+     * @param type
+     * @param wr
+     * @param dl Deadline of the call, {@code null} if not bounded.
+     * @param <T>
+     * @return
+     */
+    private <T extends NCStatusResponseBean> CompletableFuture<T> post(
+        NCEndpoint ep, String url, Type type, NCRequestWriter wr, NCDeadline dl
+    ) {
+        NCSession session = ep.getSession();
+        NCSession.Token tok = session.current();
+
+        // Endpoint that was not available at start signs in with its first request.
+        if (tok.get() == null)
+            return session.refresh(tok, () -> resignin(ep)).thenCompose(t -> this.<T>post(ep, url, type, wr, dl, t, 0));
+
+        return post(ep, url, type, wr, dl, tok, 0);
+    }
+
+    /**
+     *
+     * @param ep
+     * @param url
+     * @param type
+     * @param wr
+     * @param dl Deadline of the call, {@code null} if not bounded.
+     * @param tok
+     * @param refreshes
+     * @param <T>
+     * @return
+     */
+    private <T extends NCStatusResponseBean> CompletableFuture<T> post(
+        NCEndpoint ep, String url, Type type, NCRequestWriter wr, NCDeadline dl, NCSession.Token tok, int refreshes
+    ) {
+        // Only the token is replaced on retries, endpoint fields are written again by the same writer.
+        return this.<T>postPlain(ep, url, tok.get(), wr, type, dl).handle((res, e) -> {
+            if (e == null)
+                return CompletableFuture.completedFuture(res);
+
+            Throwable cause = unwrap(e);
+
+            if (!NCRequestPipeline.isRefreshNeeded(cause, refreshes))
+                return CompletableFuture.<T>failedFuture(cause);
+
+            // Concurrent callers rejected with the same token share a single sign in.
+            return ep.getSession().refresh(tok, () -> resignin(ep)).
+                handle((newTok, e1) -> {
+                    if (e1 == null)
+                        return this.<T>post(ep, url, type, wr, dl, newTok, refreshes + 1);
+
+                    Throwable cause1 = unwrap(e1);
+
+                    // Sign in failure - reports original error.
+                    return CompletableFuture.<T>failedFuture(cause1 instanceof NCClientException ? cause : cause1);
+                }).
+                thenCompose(f -> f);
+        }).thenCompose(f -> f);
+    }
+
+    /**
+     * Signs in again after the token is rejected. Called by {@link NCSession} once per token generation.
+     *
+     * @param ep
+     * @return
+     */
+    private CompletableFuture<String> resignin(NCEndpoint ep) {
+        log.debug("Reconnect attempt because token is invalid.");
+
+        return restSignin(ep).thenApply(tok -> {
+            log.debug("Reconnected OK.");
+
+            return tok;
+        });
+    }
+
+    /**
+     *
+     * @param ep
+     * @param url
+     * @param tok
+     * @param wr
+     * @param type
+     * @param dl Deadline of the call, {@code null} if not bounded.
+     * @param <T>
+     * @return
+     */
+    private <T extends NCStatusResponseBean> CompletableFuture<T> postPlain(
+        NCEndpoint ep, String url, String tok, NCRequestWriter wr, Type type, NCDeadline dl
+    ) {
+        CompletableFuture<T> fut = new CompletableFuture<>();
+
+        try {
+            // Token refresh could take the rest of the time.
+            if (dl != null)
+                dl.check(url);
+
+            HttpPost post = new HttpPost(ep.getBaseUrl() + url);
+
+            post.setConfig(dl != null ? NCApacheTransport.bound(reqCfg, dl.remainingMs()) : reqCfg);
+
+            // Request is sent by I/O dispatcher thread later, so the buffer cannot be shared.
+            post.setEntity(new NCRequestBuffer().encode(tok, wr).toEntity());
+
+            httpCli.execute(post, new FutureCallback<>() {
+                @Override
+                public void completed(HttpResponse resp) {
+                    // Response body is buffered already, so decoding doesn't wait for I/O.
+                    try {
+                        decodeExec.execute(() -> {
+                            try {
+                                fut.complete(handleResponse(resp, type));
+                            }
+                            catch (Exception e) {
+                                fut.completeExceptionally(e);
+                            }
+                        });
+                    }
+                    catch (RejectedExecutionException e) {
+                        fut.completeExceptionally(new IllegalStateException("Client is closed.", e));
+                    }
+                }
+
+                @Override
+                public void failed(Exception e) {
+                    fut.completeExceptionally(e);
+                }
+
+                @Override
+                public void cancelled() {
+                    fut.cancel(false);
+                }
+            });
+        }
+        catch (Exception e) {
+            fut.completeExceptionally(e);
+        }
+
+        return fut;
+    }
+
+    /**
+     *
+     * @param ep
+     * @return
+     */
+    private CompletableFuture<String> restSignin(NCEndpoint ep) {
+        return this.<NCSigninBean>postPlain(
+            ep,
+            "/signin",
+            null,
+            w -> {
+                field(w, "email", email);
+                field(w, "passwd", pwd);
+            },
+            NCSigninBean.class,
+            // Sign in is shared by concurrent callers, so it isn't bounded by the deadline of any of them.
+            null
+        ).thenApply(NCSigninBean::getAccessToken);
+    }
+
+    @Override
+    public CompletableFuture<Long> addUser(
+        String email,
+        String passwd,
+        String firstName,
+        String lastName,
+        String avatarUrl,
+        boolean isAdmin,
+        Map<String, Object> properties,
+        String extId
+    ) {
+        notNull(email, "email");
+        notNull(passwd, "passwd");
+        notNull(firstName, "firstName");
+        notNull(lastName, "lastName");
+
+        return this.<NCUserAddBean>post(
+            "user/add",
+            NCUserAddBean.class,
+            w -> {
+                field(w, "email", email);
+                field(w, "passwd", passwd);
+                field(w, "firstName", firstName);
+                field(w, "lastName", lastName);
+                field(w, "isAdmin", isAdmin);
+                field(w, "avatarUrl", avatarUrl);
+                field(w, "properties", properties);
+                field(w, "extId", extId);
+            }
+        ).thenApply(NCUserAddBean::getId);
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteUser(Long id, String extId) {
+        return post(
+            "user/delete",
+            NCStatusResponseBean.class,
+            w -> {
+                field(w, "id", id);
+                field(w, "extId", extId);
+            }
+        ).thenApply(b -> null);
+    }
+
+    @Override
+    public CompletableFuture<Void> updateUser(
+        long id, String firstName, String lastName, String avatarUrl, Map<String, Object> properties
+    ) {
+        notNull(firstName, "firstName");
+        notNull(lastName, "lastName");
+
+        return post(
+            "user/update",
+            NCStatusResponseBean.class,
+            w -> {
+                field(w, "id", id);
+                field(w, "firstName", firstName);
+                field(w, "lastName", lastName);
+                field(w, "avatarUrl", avatarUrl);
+                field(w, "properties", properties);
+            }
+        ).thenApply(b -> null);
+    }
+
+    @Override
+    public CompletableFuture<Void> updateUserAdmin(Long id, boolean admin) {
+        return post(
+            "user/admin",
+            NCStatusResponseBean.class,
+            w -> {
+                field(w, "id", id);
+                field(w, "admin", admin);
+            }
+        ).thenApply(b -> null);
+    }
+
+    @Override
+    public CompletableFuture<NCUser> getUser(Long id, String extId) {
+        return this.<NCUserBean>post(
+            "user/get",
+            NCUserBean.class,
+            w -> {
+                field(w, "id", id);
+                field(w, "usrExtId", extId);
+            }
+        ).thenApply(b -> b);
+    }
+
+    @Override
+    public CompletableFuture<Void> resetUserPassword(Long id, String newPasswd) {
+        notNull(newPasswd, "newPasswd");
+
+        return post(
+            "user/passwd/reset",
+            NCStatusResponseBean.class,
+            w -> {
+                field(w, "id", id);
+                field(w, "newPasswd", newPasswd);
+            }
+        ).thenApply(b -> null);
+    }
+
+    @Override
+    public CompletableFuture<List<NCUser>> getAllUsers() {
+        return this.<NCUsersAllBean>post(
+            "user/all",
+            NCUsersAllBean.class,
+            NO_FIELDS
+        ).thenApply(b -> new ArrayList<>(b.getUsers()));
+    }
+
+    @Override
+    public CompletableFuture<List<NCProbe>> getProbes() {
+        return this.<NCProbesAllBean>post(
+            "probe/all",
+            NCProbesAllBean.class,
+            NO_FIELDS
+        ).thenApply(b -> new ArrayList<>(b.getProbes()));
+    }
+
+    @Override
+    public CompletableFuture<Void> clearConversation(String mdlId, Long usrId, String usrExtId) {
+        notNull(mdlId, "mdlId");
+
+        return postModel(
+            mdlId,
+            router.key(mdlId, usrId, usrExtId),
+            "clear/conversation",
+            NCStatusResponseBean.class,
+            w -> {
+                field(w, "mdlId", mdlId);
+                field(w, "usrId", usrId);
+                field(w, "usrExtId", usrExtId);
+            }
+        ).thenApply(b -> {
+            if (resCache != null)
+                resCache.invalidate(mdlId, usrId, usrExtId);
+
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> clearDialog(String mdlId, Long usrId, String usrExtId) {
+        notNull(mdlId, "mdlId");
+
+        return postModel(
+            mdlId,
+            router.key(mdlId, usrId, usrExtId),
+            "clear/dialog",
+            NCStatusResponseBean.class,
+            w -> {
+                field(w, "mdlId", mdlId);
+                field(w, "usrId", usrId);
+                field(w, "usrExtId", usrExtId);
+            }
+        ).thenApply(b -> {
+            if (resCache != null)
+                resCache.invalidate(mdlId, usrId, usrExtId);
+
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> close() {
+        // Only one of the concurrent callers closes the client, others get completed future.
+        if (!state.compareAndSet(NCClientState.STARTED, NCClientState.CLOSING))
+            return CompletableFuture.completedFuture(null);
+
+        if (reqRelease != null)
+            reqRelease.close();
+
+        // Pending requests are cancelled on every signed in endpoint, like sign out.
+        CompletableFuture<Void> cancelFut =
+            cancelOnExit ? cancel(null, null, null) : CompletableFuture.completedFuture(null);
+
+        return cancelFut.
+            thenCompose(v -> signout()).
+            handle((b, e) -> {
+                state.set(NCClientState.CLOSED);
+
+                router.close();
+
+                if (resCache != null)
+                    resCache.clear();
+
+                try {
+                    httpCli.close();
+                }
+                catch (IOException e1) {
+                    log.warn("Failed to close HTTP client.", e1);
+                }
+
+                decodeExec.shutdown();
+
+                if (e != null)
+                    throw e instanceof CompletionException ? (CompletionException)e : new CompletionException(e);
+
+                return null;
+            });
+    }
+
+    /**
+     * Signs out from all signed in endpoints.
+     *
+     * @return
+     */
+    private CompletableFuture<Void> signout() {
+        List<CompletableFuture<NCStatusResponseBean>> futs = new ArrayList<>();
+
+        for (NCEndpoint ep : router.getEndpoints())
+            if (ep.getSession().current().get() != null)
+                futs.add(post(ep, "signout", NCStatusResponseBean.class, NO_FIELDS, NCDeadline.current()));
+
+        return CompletableFuture.allOf(futs.toArray(new CompletableFuture<?>[0]));
+    }
+
+    @Override
+    public CompletableFuture<String> ask(
+        String mdlId, String txt, Map<String, Object> data, boolean enableLog, Long usrId, String usrExtId
+    ) {
+        notNull(mdlId, "mdlId");
+        notNull(txt, "txt");
+
+        return this.<NCAskBean>postModel(
+            mdlId,
+            router.key(mdlId, usrId, usrExtId),
+            "ask",
+            NCAskBean.class,
+            w -> {
+                field(w, "txt", txt);
+                field(w, "mdlId", mdlId);
+                field(w, "data", data);
+                field(w, "enableLog", enableLog);
+                field(w, "usrId", usrId);
+                field(w, "usrExtId", usrExtId);
+            },
+            // Request accepted after the deadline is not awaited by anyone.
+            b -> cancelLate(b.getServerRequestId(), usrId, usrExtId)
+        ).thenApply(b -> {
+            if (reqRelease != null)
+                reqRelease.onAsk(b.getServerRequestId(), usrId, usrExtId);
+
+            return b.getServerRequestId();
+        });
+    }
+
+    @Override
+    public CompletableFuture<NCResult> askSync(
+        String mdlId, String txt, Map<String, Object> data, boolean enableLog, Long usrId, String usrExtId
+    ) {
+        notNull(mdlId, "mdlId");
+        notNull(txt, "txt");
+
+        boolean coalesce = coalescer != null && coalescer.isCoalesced(mdlId);
+
+        if (resCache == null && !coalesce)
+            return askSync0(mdlId, txt, data, enableLog, usrId, usrExtId);
+
+        NCAskKey key = new NCAskKey(mdlId, txt, data, enableLog, usrId, usrExtId);
+
+        if (resCache != null) {
+            NCResult res = resCache.get(key);
+
+            if (res != null)
+                return CompletableFuture.completedFuture(res);
+        }
+
+        Supplier<CompletableFuture<NCResult>> call = () ->
+            askSync0(mdlId, txt, data, enableLog, usrId, usrExtId).thenApply(res -> {
+                if (resCache != null)
+                    resCache.put(key, res);
+
+                return res;
+            });
+
+        return coalesce ? coalescer.executeAsync(key, call) : call.get();
+    }
+
+    /**
+     *
+     * @param mdlId
+     * @param txt
+     * @param data
+     * @param enableLog
+     * @param usrId
+     * @param usrExtId
+     * @return
+     */
+    private CompletableFuture<NCResult> askSync0(
+        String mdlId, String txt, Map<String, Object> data, boolean enableLog, Long usrId, String usrExtId
+    ) {
+        if (hedging == null)
+            return askSyncOnce(mdlId, txt, data, enableLog, usrId, usrExtId);
+
+        long delayMs = hedging.onRequest();
+        long startNs = System.nanoTime();
+
+        CompletableFuture<NCResult> fut = askSyncOnce(mdlId, txt, data, enableLog, usrId, usrExtId);
+
+        if (delayMs >= 0) {
+            NCDeadline dl = NCDeadline.current();
+            // Completes with the hedge result, or fails if the hedge isn't sent.
+            CompletableFuture<NCResult> hedge = new CompletableFuture<>();
+            AtomicBoolean decided = new AtomicBoolean();
+            CompletableFuture<NCResult> orig = fut;
+
+            orig.whenComplete((r, e) -> {
+                if (decided.compareAndSet(false, true))
+                    hedge.completeExceptionally(new CancellationException("Request isn't hedged."));
+            });
+
+            NCThreads.delayed(delayMs).execute(() -> {
+                if (!decided.compareAndSet(false, true))
+                    return;
+
+                if (state.get() == NCClientState.STARTED && hedging.tryHedge()) {
+                    log.debug("Hedging request [mdlId={}, delay={}ms]", mdlId, delayMs);
+
+                    NCDeadline prev = NCDeadline.enter(dl);
+
+                    try {
+                        askSyncOnce(mdlId, txt, data, enableLog, usrId, usrExtId).whenComplete((r, e) -> {
+                            if (e == null)
+                                hedge.complete(r);
+                            else
+                                hedge.completeExceptionally(e);
+                        });
+                    }
+                    finally {
+                        NCDeadline.exit(prev);
+                    }
+                }
+                else
+                    hedge.completeExceptionally(new CancellationException("Request isn't hedged."));
+            });
+
+            fut = hedging.race(orig, hedge, loser -> cancelLate(loser.getServerRequestId(), usrId, usrExtId));
+        }
+
+        return fut.thenApply(res -> {
+            hedging.record(startNs);
+
+            return res;
+        });
+    }
+
+    /**
+     * Cancels the request which result is not needed anymore, so that it isn't kept on the server.
+     *
+     * @param srvReqId
+     * @param usrId
+     * @param usrExtId
+     */
+    private void cancelLate(String srvReqId, Long usrId, String usrExtId) {
+        if (state.get() != NCClientState.STARTED)
+            return;
+
+        // Deadline of the call, already passed possibly, doesn't apply to the cleanup.
+        NCDeadline prev = NCDeadline.enter(null);
+
+        try {
+            cancel(Collections.singleton(srvReqId), usrId, usrExtId).whenComplete((v, e) -> {
+                if (e != null)
+                    log.warn("Failed to cancel request [srvReqId={}, error={}]", srvReqId, unwrap(e).getMessage());
+            });
+        }
+        finally {
+            NCDeadline.exit(prev);
+        }
+    }
+
+    /**
+     *
+     * @param mdlId
+     * @param txt
+     * @param data
+     * @param enableLog
+     * @param usrId
+     * @param usrExtId
+     * @return
+     */
+    private CompletableFuture<NCResult> askSyncOnce(
+        String mdlId, String txt, Map<String, Object> data, boolean enableLog, Long usrId, String usrExtId
+    ) {
+        return this.<NCAskSyncBean>postModel(
+            mdlId,
+            router.key(mdlId, usrId, usrExtId),
+            "ask/sync",
+            NCAskSyncBean.class,
+            w -> {
+                field(w, "txt", txt);
+                field(w, "mdlId", mdlId);
+                field(w, "data", data);
+                field(w, "enableLog", enableLog);
+                field(w, "usrId", usrId);
+                field(w, "usrExtId", usrExtId);
+            }
+        ).thenApply(NCAskSyncBean::getState);
+    }
+
+    @Override
+    public CompletableFuture<Long> addFeedback(
+        String srvReqId, double score, String comment, Long usrId, String usrExtId
+    ) {
+        notNull(srvReqId, "srvReqId");
+
+        return this.<NCFeedbackAddBean>post(
+            "feedback/add",
+            NCFeedbackAddBean.class,
+            w -> {
+                field(w, "srvReqId", srvReqId);
+                field(w, "score", score);
+                field(w, "comment", comment);
+                field(w, "usrId", usrId);
+                field(w, "usrExtId", usrExtId);
+            }
+        ).thenApply(NCFeedbackAddBean::getId);
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteFeedback(Long id) {
+        return post(
+            "feedback/delete",
+            NCStatusResponseBean.class,
+            w -> {
+                field(w, "id", id);
+            }
+        ).thenApply(b -> null);
+    }
+
+    @Override
+    public CompletableFuture<List<NCFeedback>> getAllFeedback(String srvReqId, Long usrId, String usrExtId) {
+        return this.<NCFeedbackAllBean>post(
+            "feedback/all",
+            NCFeedbackAllBean.class,
+            w -> {
+                field(w, "srvReqId", srvReqId);
+                field(w, "usrId", usrId);
+                field(w, "usrExtId", usrExtId);
+            }
+        ).thenApply(b -> new ArrayList<>(b.getFeedback()));
+    }
+
+    @Override
+    public CompletableFuture<List<NCResult>> check(
+        Set<String> srvReqIds, Integer maxRows, Long usrId, String usrExtId
+    ) {
+        Map<NCEndpoint, Set<String>> owners = router.owners(srvReqIds);
+        List<CompletableFuture<NCCheckBean>> futs = new ArrayList<>(owners.size());
+
+        // Each request is checked on the endpoint which created it.
+        for (Map.Entry<NCEndpoint, Set<String>> e : owners.entrySet())
+            futs.add(
+                this.<NCCheckBean>postModel(
+                    e.getKey(),
+                    null,
+                    null,
+                    "check",
+                    NCCheckBean.class,
+                    w -> {
+                        field(w, "srvReqIds", e.getValue());
+                        field(w, "maxRows", maxRows);
+                        field(w, "usrId", usrId);
+                        field(w, "usrExtId", usrExtId);
+                    },
+                    null
+                )
+            );
+
+        return CompletableFuture.allOf(futs.toArray(new CompletableFuture<?>[0])).thenApply(v -> {
+            List<NCResult> res = new ArrayList<>();
+
+            for (CompletableFuture<NCCheckBean> fut : futs)
+                res.addAll(fut.join().getStates());
+
+            if (maxRows != null && res.size() > maxRows)
+                res = new ArrayList<>(res.subList(0, maxRows));
+
+            router.delivered(res);
+
+            return res;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> cancel(Set<String> srvReqIds, Long usrId, String usrExtId) {
+        Map<NCEndpoint, Set<String>> owners = router.owners(srvReqIds);
+        List<CompletableFuture<NCStatusResponseBean>> futs = new ArrayList<>(owners.size());
+
+        // Each request is cancelled on the endpoint which created it.
+        for (Map.Entry<NCEndpoint, Set<String>> e : owners.entrySet())
+            futs.add(
+                this.<NCStatusResponseBean>postModel(
+                    e.getKey(),
+                    null,
+                    null,
+                    "cancel",
+                    NCStatusResponseBean.class,
+                    w -> {
+                        field(w, "srvReqIds", e.getValue());
+                        field(w, "usrId", usrId);
+                        field(w, "usrExtId", usrExtId);
+                    },
+                    null
+                )
+            );
+
+        return CompletableFuture.allOf(futs.toArray(new CompletableFuture<?>[0])).thenApply(v -> {
+            router.disown(srvReqIds);
+
+            if (reqRelease != null)
+                reqRelease.onCancel(srvReqIds, usrId, usrExtId);
+
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<NCNewCompany> addCompany(String name, String website, String country, String region,
+        String city, String address, String postalCode, String adminEmail, String adminPasswd, String adminFirstName,
+        String adminLastName, String adminAvatarUrl, Map<String, Object> props) {
+        notNull(name, "name");
+        notNull(adminEmail, "adminEmail");
+        notNull(adminPasswd, "adminPasswd");
+        notNull(adminFirstName, "adminFirstName");
+        notNull(adminLastName, "adminLastName");
+
+        return this.<NCTokenCreationBean>post(
+            "company/add",
+            NCTokenCreationBean.class,
+            w -> {
+                field(w, "name", name);
+                field(w, "website", website);
+                field(w, "country", country);
+                field(w, "region", region);
+                field(w, "city", city);
+                field(w, "address", address);
+                field(w, "postalCode", postalCode);
+
+                field(w, "adminEmail", adminEmail);
+                field(w, "adminPasswd", adminPasswd);
+                field(w, "adminFirstName", adminFirstName);
+                field(w, "adminLastName", adminLastName);
+                field(w, "adminAvatarUrl", adminAvatarUrl);
+                field(w, "properties", props);
+            }
+        ).thenApply(b -> b);
+    }
+
+    @Override
+    public CompletableFuture<NCCompany> getCompany() {
+        return this.<NCCompanyBean>post(
+            "company/get",
+            NCCompanyBean.class,
+            NO_FIELDS
+        ).thenApply(b -> b);
+    }
+
+    @Override
+    public CompletableFuture<Void> updateCompany(
+        String name,
+        String website,
+        String country,
+        String region,
+        String city,
+        String address,
+        String postalCode,
+        Map<String, Object> props
+    ) {
+        notNull(name, "name");
+
+        return post(
+            "company/update",
+            NCStatusResponseBean.class,
+            w -> {
+                field(w, "name", name);
+                field(w, "website", website);
+                field(w, "country", country);
+                field(w, "region", region);
+                field(w, "city", city);
+                field(w, "address", address);
+                field(w, "postalCode", postalCode);
+                field(w, "properties", props);
+            }
+        ).thenApply(b -> null);
+    }
+
+    @Override
+    public CompletableFuture<String> resetCompanyToken() {
+        return this.<NCCompanyTokenResetBean>post(
+            "company/token/reset",
+            NCCompanyTokenResetBean.class,
+            NO_FIELDS
+        ).thenApply(NCCompanyTokenResetBean::getToken);
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteCompany() {
+        return post(
+            "company/delete",
+            NCStatusResponseBean.class,
+            NO_FIELDS
+        ).thenApply(b -> null);
+    }
+
+    @Override
+    public CompletableFuture<NCSuggestionData> suggestSynonyms(String mdlId, Double minScore) {
+        return this.<NCSuggestionResultBean>postModel(
+            mdlId,
+            null,
+            "model/sugsyn",
+            NCSuggestionResultBean.class,
+            w -> {
+                field(w, "mdlId", mdlId);
+                field(w, "minScore", minScore);
+            }
+        ).thenApply(NCSuggestionResultBean::getResult);
+    }
+
+    @Override
+    public CompletableFuture<NCElementSynonymsData> getSynonyms(String mdlId, String elmId) {
+        return this.<NCElementSynonymsDataBean>postModel(
+            mdlId,
+            null,
+            "model/syns",
+            NCElementSynonymsDataBean.class,
+            w -> {
+                field(w, "mdlId", mdlId);
+                field(w, "elmId", elmId);
+            }
+        ).thenApply(b -> b);
+    }
+
+    @Override
+    public CompletableFuture<NCModelInfo> getModelInfo(String mdlId) {
+        return this.<NCModelInfoResultBean>postModel(
+            mdlId,
+            null,
+            "model/info",
+            NCModelInfoResultBean.class,
+            w -> {
+                field(w, "mdlId", mdlId);
+            }
+        ).thenApply(NCModelInfoResultBean::getModel);
+    }
+}
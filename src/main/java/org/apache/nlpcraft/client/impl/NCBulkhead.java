@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client.impl;
+
+import org.apache.nlpcraft.client.NCConcurrencyLimitException;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Fixed limit of the requests in progress of one partition of the client calls. Requests over the limit wait
+ * in the bounded queue for the released slots.
+ */
+class NCBulkhead {
+    /** Shared result of the acquisition without waiting. */
+    private static final CompletableFuture<Void> ACQUIRED = CompletableFuture.completedFuture(null);
+
+    private final String name;
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final long queueTimeoutMs;
+    private final long timeoutMs;
+    private final ArrayDeque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+
+    // Guarded by 'this'.
+    private int inFlight;
+    private long rejected;
+
+    /**
+     *
+     * @param name Bulkhead name.
+     * @param maxConcurrent Maximum number of the requests in progress.
+     * @param maxQueued Maximum number of the queued requests, zero to reject requests over the limit.
+     * @param queueTimeoutMs Maximum time the request waits in the queue.
+     * @param timeoutMs Deadline of the calls, zero for none.
+     */
+    NCBulkhead(String name, int maxConcurrent, int maxQueued, long queueTimeoutMs, long timeoutMs) {
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueued = maxQueued;
+        this.queueTimeoutMs = queueTimeoutMs;
+        this.timeoutMs = timeoutMs;
+    }
+
+    /**
+     *
+     * @return
+     */
+    String getName() {
+        return name;
+    }
+
+    /**
+     *
+     * @return
+     */
+    int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    /**
+     *
+     * @return Deadline of the calls, zero for none.
+     */
+    long getTimeout() {
+        return timeoutMs;
+    }
+
+    /**
+     * Acquires the slot for the request. Returned future is completed by the thread releasing the slot if
+     * the request was queued, so its dependent actions must not block.
+     *
+     * @return Future completed when the slot is acquired, or failed with {@link NCConcurrencyLimitException}
+     *      if the request is rejected.
+     */
+    CompletableFuture<Void> acquire() {
+        CompletableFuture<Void> w;
+
+        synchronized (this) {
+            if (inFlight < maxConcurrent) {
+                inFlight++;
+
+                return ACQUIRED;
+            }
+
+            if (waiters.size() >= maxQueued) {
+                rejected++;
+
+                return CompletableFuture.failedFuture(rejection());
+            }
+
+            w = new CompletableFuture<>();
+
+            waiters.add(w);
+        }
+
+        NCThreads.delayed(queueTimeoutMs).execute(() -> {
+            if (w.completeExceptionally(rejection())) {
+                synchronized (this) {
+                    waiters.remove(w);
+
+                    rejected++;
+                }
+            }
+        });
+
+        return w;
+    }
+
+    /**
+     * Gives up the acquisition, e.g. when the waiting thread is interrupted. Releases the slot if it was
+     * acquired already.
+     *
+     * @param w Future returned by {@link #acquire()}.
+     */
+    void abandon(CompletableFuture<Void> w) {
+        if (w.cancel(false)) {
+            synchronized (this) {
+                waiters.remove(w);
+            }
+        }
+        else if (!w.isCompletedExceptionally())
+            release();
+    }
+
+    /**
+     * Releases the slot and passes it to the waiting request, if any.
+     */
+    void release() {
+        while (true) {
+            CompletableFuture<Void> w;
+
+            synchronized (this) {
+                w = waiters.poll();
+
+                // Slot passes to the waiter without being released.
+                if (w == null) {
+                    inFlight--;
+
+                    return;
+                }
+            }
+
+            // Completed outside of the lock since it runs dependent actions of the waiting request.
+            if (w.complete(null))
+                return;
+
+            // Timed out or abandoned meanwhile, the slot goes to the next waiter.
+        }
+    }
+
+    /**
+     *
+     * @return
+     */
+    private NCConcurrencyLimitException rejection() {
+        return new NCConcurrencyLimitException(
+            String.format("Bulkhead is full [name=%s, maxConcurrent=%d, maxQueued=%d]", name, maxConcurrent, maxQueued)
+        );
+    }
+
+    /**
+     *
+     * @return
+     */
+    synchronized NCBulkheadStatsImpl getStats() {
+        return new NCBulkheadStatsImpl(name, maxConcurrent, inFlight, waiters.size(), rejected);
+    }
+}
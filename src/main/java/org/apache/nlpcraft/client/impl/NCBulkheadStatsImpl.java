@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client.impl;
+
+import org.apache.nlpcraft.client.NCBulkheadStats;
+
+/**
+ * Bulkhead statistics snapshot.
+ */
+public class NCBulkheadStatsImpl implements NCBulkheadStats {
+    private final String name;
+    private final int maxConcurrent;
+    private final int inFlight;
+    private final int queued;
+    private final long rejected;
+
+    /**
+     *
+     * @param name
+     * @param maxConcurrent
+     * @param inFlight
+     * @param queued
+     * @param rejected
+     */
+    public NCBulkheadStatsImpl(String name, int maxConcurrent, int inFlight, int queued, long rejected) {
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.inFlight = inFlight;
+        this.queued = queued;
+        this.rejected = rejected;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    @Override
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    @Override
+    public int getQueued() {
+        return queued;
+    }
+
+    @Override
+    public long getRejected() {
+        return rejected;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "[name=%s, maxConcurrent=%d, inFlight=%d, queued=%d, rejected=%d]",
+            name, maxConcurrent, inFlight, queued, rejected
+        );
+    }
+}
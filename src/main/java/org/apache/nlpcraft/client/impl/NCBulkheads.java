@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client.impl;
+
+import org.apache.nlpcraft.client.NCBulkheadStats;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulkheads of the client, i.e. partitions of the REST calls with their own concurrency and queue limits, so that
+ * a burst of calls in one partition can't take all pooled connections from the others. Each REST call is routed to
+ * one bulkhead, calls not routed explicitly go to the default one.
+ */
+public class NCBulkheads {
+    /** Latency-critical NLP calls. */
+    public static final Set<String> INTERACTIVE_CALLS = Set.of(
+        "ask",
+        "ask/sync",
+        "check",
+        "cancel",
+        "clear/conversation",
+        "clear/dialog"
+    );
+
+    private final String dfltName;
+    private final Map<String, NCBulkhead> bulkheads = new LinkedHashMap<>();
+    private final Map<String, NCBulkhead> routes = new HashMap<>();
+
+    /**
+     *
+     * @param dfltName Name of the bulkhead of the calls not routed explicitly.
+     */
+    public NCBulkheads(String dfltName) {
+        this.dfltName = dfltName;
+    }
+
+    /**
+     * Adds bulkhead. Configuration methods are called before the client is initialized.
+     *
+     * @param name Bulkhead name.
+     * @param maxConcurrent Maximum number of the requests in progress.
+     * @param maxQueued Maximum number of the queued requests, zero to reject requests over the limit.
+     * @param queueTimeoutMs Maximum time the request waits in the queue.
+     * @param timeoutMs Deadline of the calls, zero for none.
+     */
+    public void add(String name, int maxConcurrent, int maxQueued, long queueTimeoutMs, long timeoutMs) {
+        bulkheads.put(name, new NCBulkhead(name, maxConcurrent, maxQueued, queueTimeoutMs, timeoutMs));
+    }
+
+    /**
+     * Routes the REST call to the bulkhead.
+     *
+     * @param call REST call, e.g. <code>ask/sync</code>.
+     * @param name Bulkhead name.
+     * @throws IllegalArgumentException If there's no such bulkhead.
+     */
+    public void route(String call, String name) {
+        NCBulkhead b = bulkheads.get(name);
+
+        if (b == null)
+            throw new IllegalArgumentException(String.format("Unknown bulkhead: %s", name));
+
+        routes.put(call, b);
+    }
+
+    /**
+     * Gets total number of the requests in progress allowed by all bulkheads, i.e. the number of the pooled
+     * connections they can use.
+     *
+     * @return Total number of the requests in progress.
+     */
+    public int getMaxConcurrent() {
+        long sum = 0;
+
+        for (NCBulkhead b : bulkheads.values())
+            sum += b.getMaxConcurrent();
+
+        return (int)Math.min(Integer.MAX_VALUE, sum);
+    }
+
+    /**
+     *
+     * @param url REST call.
+     * @return Bulkhead of the call.
+     */
+    NCBulkhead get(String url) {
+        NCBulkhead b = routes.get(url);
+
+        return b != null ? b : bulkheads.get(dfltName);
+    }
+
+    /**
+     *
+     * @return
+     */
+    List<NCBulkheadStats> getStats() {
+        List<NCBulkheadStats> res = new ArrayList<>();
+
+        for (NCBulkhead b : bulkheads.values())
+            res.add(b.getStats());
+
+        return res;
+    }
+}
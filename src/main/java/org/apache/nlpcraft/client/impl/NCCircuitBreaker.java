@@ -0,0 +1,237 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client.impl;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.nlpcraft.client.NCCircuitBreakerOpenException;
+import org.apache.nlpcraft.client.NCCircuitBreakerState;
+
+/**
+ * Circuit breaker of one endpoint, REST call and model.
+ * <p>
+ * Closed circuit breaker records outcomes of the last calls in the count-based sliding window and opens when
+ * the window is full and either the rate of the failed calls (I/O errors, timeouts, server errors) or the rate
+ * of the slow calls reaches its threshold. Open circuit breaker rejects calls immediately and becomes half-open
+ * after the open time. Half-open circuit breaker lets a few probe calls through and closes if their rates are
+ * below the thresholds, or opens again otherwise. Outcomes of the calls started before the last transition
+ * are ignored.
+ */
+class NCCircuitBreaker {
+    /** Number of the probe calls of the half-open circuit breaker. */
+    static final int HALF_OPEN_CALLS = 3;
+
+    /** Outcome flag of the failed call. */
+    private static final byte FAILED = 1;
+
+    /** Outcome flag of the slow call. */
+    private static final byte SLOW = 2;
+
+    private static final Logger log = LogManager.getLogger(NCCircuitBreaker.class);
+
+    private final NCCircuitBreakers cfg;
+    private final String baseUrl;
+    private final String call;
+    private final String mdlId;
+
+    // Guarded by 'this'.
+    private final byte[] window;
+    private NCCircuitBreakerState state = NCCircuitBreakerState.CLOSED;
+    private long gen;
+    private int pos;
+    private int cnt;
+    private int fails;
+    private int slows;
+    private int probes;
+    private long openUntil;
+
+    /**
+     *
+     * @param cfg Circuit breakers settings.
+     * @param baseUrl Endpoint base URL.
+     * @param call REST call.
+     * @param mdlId Model ID, {@code null} for the calls not related to any model.
+     */
+    NCCircuitBreaker(NCCircuitBreakers cfg, String baseUrl, String call, String mdlId) {
+        this.cfg = cfg;
+        this.baseUrl = baseUrl;
+        this.call = call;
+        this.mdlId = mdlId;
+
+        window = new byte[cfg.window];
+    }
+
+    /**
+     * Acquires permission for the call.
+     *
+     * @return Generation of the circuit breaker state to pass to {@link #record(long, long, boolean)}.
+     * @throws NCCircuitBreakerOpenException Thrown if the circuit breaker is open, or it's half-open and all
+     *      probe calls are in progress.
+     */
+    long acquire() throws NCCircuitBreakerOpenException {
+        NCCircuitBreakerEventImpl evt = null;
+        long res;
+
+        synchronized (this) {
+            if (state == NCCircuitBreakerState.OPEN) {
+                if (System.currentTimeMillis() < openUntil)
+                    throw rejection();
+
+                evt = transition(NCCircuitBreakerState.HALF_OPEN);
+            }
+
+            if (state == NCCircuitBreakerState.HALF_OPEN) {
+                if (probes == HALF_OPEN_CALLS)
+                    throw rejection();
+
+                probes++;
+            }
+
+            res = gen;
+        }
+
+        cfg.fire(evt);
+
+        return res;
+    }
+
+    /**
+     * Gives the permission back for the call that was not sent.
+     *
+     * @param gen Generation returned by {@link #acquire()}.
+     */
+    synchronized void release(long gen) {
+        if (gen == this.gen && state == NCCircuitBreakerState.HALF_OPEN)
+            probes--;
+    }
+
+    /**
+     * Records outcome of the call.
+     *
+     * @param gen Generation returned by {@link #acquire()}.
+     * @param startNs Call start timestamp in nanoseconds.
+     * @param failed Whether the call failed with I/O error, timeout or server error.
+     */
+    void record(long gen, long startNs, boolean failed) {
+        byte outcome = (byte)((failed ? FAILED : 0) | (System.nanoTime() - startNs >= cfg.slowCallNs ? SLOW : 0));
+
+        NCCircuitBreakerEventImpl evt = null;
+
+        synchronized (this) {
+            // Call started before the last transition.
+            if (gen != this.gen)
+                return;
+
+            if (cnt == window.length) {
+                byte old = window[pos];
+
+                if ((old & FAILED) != 0)
+                    fails--;
+                if ((old & SLOW) != 0)
+                    slows--;
+            }
+            else
+                cnt++;
+
+            window[pos] = outcome;
+            pos = (pos + 1) % window.length;
+
+            if ((outcome & FAILED) != 0)
+                fails++;
+            if ((outcome & SLOW) != 0)
+                slows++;
+
+            if (state == NCCircuitBreakerState.CLOSED) {
+                if (cnt == window.length && isOverThreshold())
+                    evt = transition(NCCircuitBreakerState.OPEN);
+            }
+            else if (state == NCCircuitBreakerState.HALF_OPEN && cnt == HALF_OPEN_CALLS)
+                evt = transition(isOverThreshold() ? NCCircuitBreakerState.OPEN : NCCircuitBreakerState.CLOSED);
+        }
+
+        cfg.fire(evt);
+    }
+
+    /**
+     *
+     * @return
+     */
+    private boolean isOverThreshold() {
+        return fails >= cfg.failureRate * cnt || slows >= cfg.slowCallRate * cnt;
+    }
+
+    /**
+     * Changes the state and starts new generation with empty window.
+     *
+     * @param to New state.
+     * @return Transition event.
+     */
+    private NCCircuitBreakerEventImpl transition(NCCircuitBreakerState to) {
+        NCCircuitBreakerEventImpl evt = new NCCircuitBreakerEventImpl(
+            baseUrl,
+            call,
+            mdlId,
+            state,
+            to,
+            cnt > 0 ? (double)fails / cnt : 0,
+            cnt > 0 ? (double)slows / cnt : 0
+        );
+
+        if (to == NCCircuitBreakerState.OPEN) {
+            openUntil = System.currentTimeMillis() + cfg.openTimeMs;
+
+            log.warn("Circuit breaker opened {}", evt);
+        }
+        else
+            log.info("Circuit breaker state changed {}", evt);
+
+        state = to;
+        gen++;
+        pos = 0;
+        cnt = 0;
+        fails = 0;
+        slows = 0;
+        probes = 0;
+
+        return evt;
+    }
+
+    /**
+     *
+     * @return
+     */
+    private NCCircuitBreakerOpenException rejection() {
+        return new NCCircuitBreakerOpenException(
+            String.format(
+                "Circuit breaker is open [baseUrl=%s, call=%s, mdlId=%s, retryInMs=%d]",
+                baseUrl,
+                call,
+                mdlId,
+                Math.max(0, openUntil - System.currentTimeMillis())
+            )
+        );
+    }
+
+    /**
+     *
+     * @return
+     */
+    synchronized NCCircuitBreakerState getState() {
+        return state;
+    }
+}
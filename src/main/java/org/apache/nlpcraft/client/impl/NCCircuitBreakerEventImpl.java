@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client.impl;
+
+import org.apache.nlpcraft.client.NCCircuitBreakerEvent;
+import org.apache.nlpcraft.client.NCCircuitBreakerState;
+
+/**
+ * Circuit breaker state transition event.
+ */
+public class NCCircuitBreakerEventImpl implements NCCircuitBreakerEvent {
+    private final String baseUrl;
+    private final String call;
+    private final String mdlId;
+    private final NCCircuitBreakerState from;
+    private final NCCircuitBreakerState to;
+    private final double failureRate;
+    private final double slowCallRate;
+
+    /**
+     *
+     * @param baseUrl
+     * @param call
+     * @param mdlId
+     * @param from
+     * @param to
+     * @param failureRate
+     * @param slowCallRate
+     */
+    public NCCircuitBreakerEventImpl(
+        String baseUrl,
+        String call,
+        String mdlId,
+        NCCircuitBreakerState from,
+        NCCircuitBreakerState to,
+        double failureRate,
+        double slowCallRate
+    ) {
+        this.baseUrl = baseUrl;
+        this.call = call;
+        this.mdlId = mdlId;
+        this.from = from;
+        this.to = to;
+        this.failureRate = failureRate;
+        this.slowCallRate = slowCallRate;
+    }
+
+    @Override
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    @Override
+    public String getCall() {
+        return call;
+    }
+
+    @Override
+    public String getModelId() {
+        return mdlId;
+    }
+
+    @Override
+    public NCCircuitBreakerState getFromState() {
+        return from;
+    }
+
+    @Override
+    public NCCircuitBreakerState getToState() {
+        return to;
+    }
+
+    @Override
+    public double getFailureRate() {
+        return failureRate;
+    }
+
+    @Override
+    public double getSlowCallRate() {
+        return slowCallRate;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "[baseUrl=%s, call=%s, mdlId=%s, from=%s, to=%s, failureRate=%.2f, slowCallRate=%.2f]",
+            baseUrl, call, mdlId, from, to, failureRate, slowCallRate
+        );
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client.impl;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.nlpcraft.client.NCCircuitBreakerListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Circuit breakers of the client, one per endpoint, REST call and model, and their common settings.
+ * Circuit breakers are created with the first call.
+ */
+public class NCCircuitBreakers {
+    /** Minimum number of the recorded calls, half-open circuit breaker records probe calls in the same window. */
+    public static final int MIN_WINDOW = NCCircuitBreaker.HALF_OPEN_CALLS;
+
+    private static final Logger log = LogManager.getLogger(NCCircuitBreakers.class);
+
+    final int window;
+    final double failureRate;
+    final long slowCallNs;
+    final double slowCallRate;
+    final long openTimeMs;
+
+    private final List<NCCircuitBreakerListener> lsnrs;
+    private final Map<NCEndpoint, Map<String, NCCircuitBreaker>> breakers = new ConcurrentHashMap<>();
+
+    /**
+     *
+     * @param window Number of the recent calls which outcomes are recorded.
+     * @param failureRate Failure rate opening circuit breaker.
+     * @param slowCallMs Duration of the call considered slow.
+     * @param slowCallRate Slow call rate opening circuit breaker.
+     * @param openTimeMs Time the circuit breaker stays open before probe calls.
+     * @param lsnrs State transition listeners.
+     */
+    public NCCircuitBreakers(
+        int window,
+        double failureRate,
+        long slowCallMs,
+        double slowCallRate,
+        long openTimeMs,
+        List<NCCircuitBreakerListener> lsnrs
+    ) {
+        this.window = window;
+        this.failureRate = failureRate;
+        this.slowCallNs = TimeUnit.MILLISECONDS.toNanos(slowCallMs);
+        this.slowCallRate = slowCallRate;
+        this.openTimeMs = openTimeMs;
+        this.lsnrs = List.copyOf(lsnrs);
+    }
+
+    /**
+     *
+     * @param ep Endpoint.
+     * @param call REST call.
+     * @param mdlId Model ID, {@code null} for the calls not related to any model.
+     * @return Circuit breaker.
+     */
+    NCCircuitBreaker get(NCEndpoint ep, String call, String mdlId) {
+        return breakers.
+            computeIfAbsent(ep, k -> new ConcurrentHashMap<>()).
+            computeIfAbsent(
+                mdlId != null ? call + '#' + mdlId : call,
+                k -> new NCCircuitBreaker(this, ep.getBaseUrl(), call, mdlId)
+            );
+    }
+
+    /**
+     * Notifies listeners about the state transition.
+     *
+     * @param evt Transition event, can be {@code null}.
+     */
+    void fire(NCCircuitBreakerEventImpl evt) {
+        if (evt == null)
+            return;
+
+        for (NCCircuitBreakerListener lsnr : lsnrs) {
+            try {
+                lsnr.onStateChange(evt);
+            }
+            catch (RuntimeException e) {
+                log.error("Circuit breaker listener failed [event={}]", evt, e);
+            }
+        }
+    }
+}
@@ -19,30 +19,39 @@ package org.apache.nlpcraft.client.impl;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import com.google.gson.JsonDeserializer;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.reflect.TypeToken;
-import org.apache.commons.lang3.tuple.Pair;
+import com.google.gson.stream.JsonReader;
+import org.apache.http.Header;
 import org.apache.http.HttpEntity;
-import org.apache.http.client.ResponseHandler;
+import org.apache.http.HttpResponse;
 import org.apache.http.client.config.RequestConfig;
-import org.apache.http.client.methods.HttpPost;
-import org.apache.http.entity.StringEntity;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.entity.ContentType;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.util.EntityUtils;
+import org.apache.http.pool.ConnPoolControl;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.apache.nlpcraft.client.NCAskAllOptions;
+import org.apache.nlpcraft.client.NCAskAllStats;
+import org.apache.nlpcraft.client.NCBulkheadStats;
 import org.apache.nlpcraft.client.NCClient;
 import org.apache.nlpcraft.client.NCClientException;
 import org.apache.nlpcraft.client.NCCompany;
+import org.apache.nlpcraft.client.NCConcurrencyLimitStats;
 import org.apache.nlpcraft.client.NCElementSynonymsData;
+import org.apache.nlpcraft.client.NCEndpointStats;
 import org.apache.nlpcraft.client.NCFeedback;
+import org.apache.nlpcraft.client.NCHedgingStats;
 import org.apache.nlpcraft.client.NCModelInfo;
 import org.apache.nlpcraft.client.NCNewCompany;
+import org.apache.nlpcraft.client.NCPoolStats;
 import org.apache.nlpcraft.client.NCProbe;
+import org.apache.nlpcraft.client.NCRequestReleaseStats;
 import org.apache.nlpcraft.client.NCResult;
+import org.apache.nlpcraft.client.NCResultCacheStats;
+import org.apache.nlpcraft.client.NCResultPoller;
+import org.apache.nlpcraft.client.NCStickyRouting;
 import org.apache.nlpcraft.client.NCSuggestionData;
+import org.apache.nlpcraft.client.NCTransport;
 import org.apache.nlpcraft.client.NCUser;
 import org.apache.nlpcraft.client.impl.beans.NCAskBean;
 import org.apache.nlpcraft.client.impl.beans.NCAskSyncBean;
@@ -65,79 +74,69 @@ import org.apache.nlpcraft.client.impl.beans.NCUserBean;
 import org.apache.nlpcraft.client.impl.beans.NCUsersAllBean;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
 import java.lang.reflect.Type;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.apache.nlpcraft.client.impl.NCRequestWriter.NO_FIELDS;
+import static org.apache.nlpcraft.client.impl.NCRequestWriter.field;
 
 /**
  * Client implementation.
  */
 @SuppressWarnings("JavaDoc")
 public class NCClientImpl implements NCClient {
-    private static final String STATUS_API_OK = "API_OK";
-
-    private static final Type MAP_TYPE = new TypeToken<Map<String, Object>>(){}.getType();
-
-    private static final Gson gsonExt = new Gson();
-    private static final Gson gson =
-        new GsonBuilder().registerTypeAdapter(
-            NCRequestStateBean.class,
-            (JsonDeserializer<NCRequestStateBean>) (e, type, ctx) -> {
-                JsonObject o = e.getAsJsonObject();
-                NCRequestStateBean b = new NCRequestStateBean();
-
-                b.setSrvReqId(o.get("srvReqId").getAsString());
-                b.setTxt(o.get("txt").getAsString());
-                b.setUsrId(o.get("usrId").getAsLong());
-                b.setMdlId(o.get("mdlId").getAsString());
-                b.setProbeId(convert(o, "probeId", JsonElement::getAsString));
-                b.setResultType(convert(o, "resType", JsonElement::getAsString));
-                b.setResultBody(
-                    convert(o, "resBody", (resBody) -> resBody == null ?
-                        null :
-                        resBody.isJsonObject() ?
-                            resBody.getAsJsonObject().toString() :
-                            resBody.getAsString())
-                );
-                b.setResultMeta(convert(o, "resMeta", e1 -> {
-                    Map<String, Object> m = gsonExt.fromJson(e1, MAP_TYPE);
+    static final String STATUS_API_OK = "API_OK";
 
-                    return m == null || m.isEmpty() ? null : m;
-                }));
-                b.setStatus(o.get("status").getAsString());
-                b.setErrorCode(convert(o, "errorCode", JsonElement::getAsInt));
-                b.setError(convert(o, "error", JsonElement::getAsString));
-                b.setLogHolder(convert(o, "logHolder", (logHolder) -> logHolder.getAsJsonObject().toString()));
-
-                return b;
-            }).create();
+    static final Gson gson =
+        new GsonBuilder().registerTypeAdapter(NCRequestStateBean.class, NCRequestStateBean.ADAPTER).create();
     
     private static final Logger log = LogManager.getLogger(NCClientImpl.class);
-    private static final String AUTH_ERR = "NC_INVALID_ACCESS_TOKEN";
+    static final byte[] EMPTY_BODY = "{}".getBytes(UTF_8);
     
     private Supplier<CloseableHttpClient> httpCliGen;
     private RequestConfig reqCfg;
-    private String baseUrl;
+    private ConnPoolControl<HttpRoute> connPool;
+    private List<String> baseUrls;
+    private NCEndpointRouter router;
+    private NCConcurrencyLimits limits;
+    private NCRetryPolicy retries;
+    private NCCircuitBreakers breakers;
+    private NCHedging hedging;
+    private NCRequestRelease reqRelease;
+    private NCBulkheads bulkheads;
     private String email;
     private String pwd;
     private Boolean cancelOnExit;
+    private long pollIntervalMs;
+    private long minPollIntervalMs;
 
-    private CloseableHttpClient httpCli;
-    private String acsTok;
-    private volatile boolean started = false;
-    
-    private static<T> T convert(JsonObject o, String name, Function<JsonElement, T> converter) {
-        JsonElement e = o.get(name);
+    private NCTransport transport;
+    private NCRequestPipeline pipeline;
+    // Configuration above is written before initialization and published to other threads by the state change.
+    private final AtomicReference<NCClientState> state = new AtomicReference<>(NCClientState.NEW);
+    private NCResultPollerImpl poller;
+    private NCResultCache resCache;
+    private NCRequestCoalescer coalescer;
+    private ExecutorService hedgeExec;
     
-        return e != null ? converter.apply(e) : null;
-    }
-
     @Override
     public String getClientUserEmail() {
         return email;
@@ -155,7 +154,22 @@ public class NCClientImpl implements NCClient {
 
     @Override
     public String getClientBaseUrl() {
-        return baseUrl;
+        return baseUrls.get(0);
+    }
+
+    @Override
+    public List<String> getClientBaseUrls() {
+        return baseUrls;
+    }
+
+    @Override
+    public List<NCEndpointStats> getEndpointStats() {
+        return router.getStats();
+    }
+
+    @Override
+    public List<NCConcurrencyLimitStats> getConcurrencyLimitStats() {
+        return limits != null ? limits.getStats() : Collections.emptyList();
     }
 
     /**
@@ -174,6 +188,84 @@ public class NCClientImpl implements NCClient {
         this.httpCliGen = httpCliGen;
     }
     
+    /**
+     *
+     * @return
+     */
+    public NCTransport getTransport() {
+        return transport;
+    }
+
+    /**
+     * Sets custom transport. If not set, Apache HTTP client from the client supplier is used.
+     *
+     * @param transport
+     */
+    public void setTransport(NCTransport transport) {
+        this.transport = transport;
+    }
+
+    /**
+     *
+     * @return
+     */
+    public ConnPoolControl<HttpRoute> getConnectionPool() {
+        return connPool;
+    }
+
+    /**
+     * Sets connection pool owned by this client. Custom HTTP clients don't provide it.
+     *
+     * @param connPool
+     */
+    public void setConnectionPool(ConnPoolControl<HttpRoute> connPool) {
+        this.connPool = connPool;
+    }
+
+    @Override
+    public NCPoolStats getPoolStats() {
+        return connPool != null ? new NCPoolStatsImpl(connPool.getTotalStats()) : null;
+    }
+
+    /**
+     *
+     * @return
+     */
+    public NCResultCache getResultCache() {
+        return resCache;
+    }
+
+    /**
+     * Sets optional <code>askSync</code> result cache.
+     *
+     * @param resCache
+     */
+    public void setResultCache(NCResultCache resCache) {
+        this.resCache = resCache;
+    }
+
+    /**
+     *
+     * @return
+     */
+    public NCRequestCoalescer getRequestCoalescer() {
+        return coalescer;
+    }
+
+    /**
+     * Sets optional coalescer of the identical concurrent <code>askSync</code> requests.
+     *
+     * @param coalescer
+     */
+    public void setRequestCoalescer(NCRequestCoalescer coalescer) {
+        this.coalescer = coalescer;
+    }
+
+    @Override
+    public NCResultCacheStats getResultCacheStats() {
+        return resCache != null ? resCache.getStats() : null;
+    }
+
     /**
      *
      * @return
@@ -194,16 +286,154 @@ public class NCClientImpl implements NCClient {
      *
      * @return
      */
-    public String getBaseUrl() {
-        return baseUrl;
+    public List<String> getBaseUrls() {
+        return baseUrls;
     }
     
     /**
      *
-     * @param baseUrl
+     * @param baseUrls
+     */
+    public void setBaseUrls(List<String> baseUrls) {
+        this.baseUrls = baseUrls != null ? Collections.unmodifiableList(new ArrayList<>(baseUrls)) : null;
+    }
+
+    /**
+     *
+     * @return
+     */
+    public NCEndpointRouter getRouter() {
+        return router;
+    }
+
+    /**
+     *
+     * @param router
+     */
+    public void setRouter(NCEndpointRouter router) {
+        this.router = router;
+    }
+
+    /**
+     *
+     * @return
+     */
+    public NCConcurrencyLimits getConcurrencyLimits() {
+        return limits;
+    }
+
+    /**
+     * Sets concurrency limiters. If not set, requests are not limited.
+     *
+     * @param limits
+     */
+    public void setConcurrencyLimits(NCConcurrencyLimits limits) {
+        this.limits = limits;
+    }
+
+    /**
+     *
+     * @return
+     */
+    public NCRetryPolicy getRetryPolicy() {
+        return retries;
+    }
+
+    /**
+     * Sets retry policy. If not set, failed requests are not retried.
+     *
+     * @param retries
+     */
+    public void setRetryPolicy(NCRetryPolicy retries) {
+        this.retries = retries;
+    }
+
+    /**
+     *
+     * @return
+     */
+    public NCCircuitBreakers getCircuitBreakers() {
+        return breakers;
+    }
+
+    /**
+     * Sets circuit breakers. If not set, requests are always sent.
+     *
+     * @param breakers
+     */
+    public void setCircuitBreakers(NCCircuitBreakers breakers) {
+        this.breakers = breakers;
+    }
+
+    /**
+     *
+     * @return
      */
-    public void setBaseUrl(String baseUrl) {
-        this.baseUrl = baseUrl;
+    public NCHedging getHedging() {
+        return hedging;
+    }
+
+    /**
+     * Sets hedging of the synchronous requests. If not set, requests are never hedged.
+     *
+     * @param hedging
+     */
+    public void setHedging(NCHedging hedging) {
+        this.hedging = hedging;
+    }
+
+    @Override
+    public NCHedgingStats getHedgingStats() {
+        return hedging != null ? hedging.getStats() : null;
+    }
+
+    /**
+     *
+     * @return
+     */
+    public NCRequestRelease getRequestRelease() {
+        return reqRelease;
+    }
+
+    /**
+     * Sets automatic release of the server requests. If not set, requests are only released explicitly.
+     *
+     * @param reqRelease
+     */
+    public void setRequestRelease(NCRequestRelease reqRelease) {
+        this.reqRelease = reqRelease;
+    }
+
+    @Override
+    public NCRequestReleaseStats getRequestReleaseStats() {
+        return reqRelease != null ? reqRelease.getStats() : null;
+    }
+
+    /**
+     *
+     * @return
+     */
+    public NCBulkheads getBulkheads() {
+        return bulkheads;
+    }
+
+    /**
+     * Sets bulkheads. If not set, all calls share the connection pool without limits.
+     *
+     * @param bulkheads
+     */
+    public void setBulkheads(NCBulkheads bulkheads) {
+        this.bulkheads = bulkheads;
+    }
+
+    @Override
+    public List<NCBulkheadStats> getBulkheadStats() {
+        return bulkheads != null ? bulkheads.getStats() : Collections.emptyList();
+    }
+
+    @Override
+    public NCClient withDeadline(long timeoutMs) {
+        return NCDeadline.view(NCClient.class, this, timeoutMs);
     }
 
     /**
@@ -254,158 +484,600 @@ public class NCClientImpl implements NCClient {
         this.cancelOnExit = cancelOnExit;
     }
     
+    /**
+     *
+     * @return
+     */
+    public long getResultPollInterval() {
+        return pollIntervalMs;
+    }
+
+    /**
+     *
+     * @param pollIntervalMs
+     */
+    public void setResultPollInterval(long pollIntervalMs) {
+        this.pollIntervalMs = pollIntervalMs;
+    }
+
+    /**
+     *
+     * @return
+     */
+    public long getResultMinPollInterval() {
+        return minPollIntervalMs;
+    }
+
+    /**
+     *
+     * @param minPollIntervalMs
+     */
+    public void setResultMinPollInterval(long minPollIntervalMs) {
+        this.minPollIntervalMs = minPollIntervalMs;
+    }
+
+    @Override
+    public synchronized NCResultPoller getResultPoller() {
+        if (state.get() != NCClientState.STARTED)
+            throw new IllegalStateException("Client is not initialized.");
+
+        if (poller == null)
+            poller = new NCResultPollerImpl(this, reqRelease, minPollIntervalMs, pollIntervalMs);
+
+        return poller;
+    }
+
+    @Override
+    public NCAskAllStats askAll(String mdlId, Iterable<String> txts, NCAskAllOptions opts, Consumer<NCResult> consumer)
+        throws NCClientException, IOException {
+        notNull(mdlId, "mdlId");
+
+        if (txts == null)
+            throw new IllegalArgumentException("Parameter cannot be null: 'txts'");
+        if (consumer == null)
+            throw new IllegalArgumentException("Parameter cannot be null: 'consumer'");
+
+        NCResultPollerImpl poller = (NCResultPollerImpl)getResultPoller();
+
+        return new NCAskAll(this, poller, reqRelease, mdlId, opts != null ? opts : new NCAskAllOptions()).
+            run(txts.iterator(), consumer);
+    }
+
     /**
      *
      * @throws IOException
      * @throws NCClientException
      */
     public void initialize() throws IOException, NCClientException {
-        httpCli = httpCliGen.get();
-    
+        if (!state.compareAndSet(NCClientState.NEW, NCClientState.STARTING))
+            throw new IllegalStateException("Client is already initialized.");
+
         if (reqCfg == null)
             reqCfg = RequestConfig.DEFAULT;
-    
-        acsTok = restSignin();
-        
-        started = true;
+
+        if (transport == null)
+            transport = new NCApacheTransport(httpCliGen.get(), reqCfg, connPool != null);
+
+        // Without routing settings endpoints are never ejected.
+        if (router == null)
+            router = new NCEndpointRouter(baseUrls, Integer.MAX_VALUE, 0, 0, NCStickyRouting.NONE, 1);
+
+        pipeline = new NCRequestPipeline(router, bulkheads, limits, breakers, retries);
+
+        boolean ok = false;
+
+        try {
+            signin();
+
+            ok = true;
+        }
+        finally {
+            if (!ok) {
+                state.set(NCClientState.CLOSED);
+
+                transport.close();
+            }
+        }
+
+        router.start(this::checkHealth);
+
+        // Original and hedge requests both run in the background while the caller waits for the first result.
+        if (hedging != null)
+            hedgeExec = NCThreads.newPerTaskExecutor("nlpcraft-client-hedge");
+
+        if (reqRelease != null)
+            reqRelease.start(this::cancel);
+
+        state.set(NCClientState.STARTED);
     }
-    
+
     /**
+     * Signs in to all endpoints. Endpoints not available at the moment sign in later, with their first request.
      *
-     * @param r
+     * @throws IOException Thrown if no endpoint is available.
      * @throws NCClientException
      */
-    private static void checkStatus(NCStatusResponseBean r) throws NCClientException {
-        checkStatus(r.getStatus());
+    private void signin() throws IOException, NCClientException {
+        IOException err = null;
+        boolean any = false;
+
+        for (NCEndpoint ep : router.getEndpoints()) {
+            try {
+                ep.getSession().set(restSignin(ep));
+
+                any = true;
+            }
+            catch (IOException e) {
+                router.fail(ep);
+
+                if (err == null)
+                    err = e;
+                else
+                    err.addSuppressed(e);
+            }
+        }
+
+        if (!any)
+            throw err;
+    }
+
+    /**
+     *
+     * @param ep
+     * @return
+     * @throws IOException
+     */
+    private boolean checkHealth(NCEndpoint ep) throws IOException {
+        // Any response except server errors means the endpoint is alive.
+        return transport.post(ep.getBaseUrl() + NCEndpointRouter.HEALTH_CALL, EMPTY_BODY, EMPTY_BODY.length, (code, in, cs, hdrs) -> code < 500);
+    }
+
+    /**
+     * Checks whether this client accepts requests. Closing client still accepts them, since it cancels
+     * pending requests and signs out with the regular calls.
+     *
+     * @return Whether requests are accepted.
+     */
+    private boolean isActive() {
+        NCClientState s = state.get();
+
+        return s == NCClientState.STARTED || s == NCClientState.CLOSING;
     }
     
     /**
      *
      * @param status
      */
-    private static void checkStatus(String status) {
-        if (!status.equals(STATUS_API_OK))
+    static void checkStatus(String status) {
+        if (!STATUS_API_OK.equals(status))
             throw new NCClientException(String.format("Unexpected message status: %s", status));
     }
-    
+    
+    /**
+     *
+     * @param url
+     * @param type
+     * @param wr
+     * @param <T>
+     * @return
+     * @throws NCClientException
+     * @throws IOException
+     * @throws IllegalStateException
+     */
+    private <T extends NCStatusResponseBean> T post(String url, Type type, NCRequestWriter wr)
+        throws NCClientException, IOException {
+        return postModel(null, null, url, type, wr);
+    }
+
+    /**
+     * Posts the request of the model and retries it according to the retry policy, if any.
+     *
+     * @param mdlId Model ID, {@code null} for the request not related to any model.
+     * @param key Sticky routing key, {@code null} for the request routed by load only.
+     * @param url
+     * @param type
+     * @param wr
+     * @param <T>
+     * @return
+     * @throws NCClientException
+     * @throws IOException
+     * @throws IllegalStateException
+     */
+    private <T extends NCStatusResponseBean> T postModel(String mdlId, String key, String url, Type type, NCRequestWriter wr)
+        throws NCClientException, IOException {
+        return postModel(null, mdlId, key, url, type, wr);
+    }
+
+    /**
+     * Posts the request of the model and retries it according to the retry policy, if any.
+     *
+     * @param pinned Endpoint the request must be sent to, {@code null} for the request routed by the key or load.
+     * @param mdlId Model ID, {@code null} for the request not related to any model.
+     * @param key Sticky routing key, {@code null} for the request routed by load only.
+     * @param url
+     * @param type
+     * @param wr
+     * @param <T>
+     * @return
+     * @throws NCClientException
+     * @throws IOException
+     * @throws IllegalStateException
+     */
+    private <T extends NCStatusResponseBean> T postModel(
+        NCEndpoint pinned, String mdlId, String key, String url, Type type, NCRequestWriter wr
+    ) throws NCClientException, IOException {
+        NCRequestPipeline.Call call = pipeline.call(pinned, mdlId, key, url);
+
+        while (true) {
+            try {
+                return postAttempt(call, type, wr);
+            }
+            catch (IOException | NCClientException e) {
+                long delayMs = call.retryDelay(e);
+
+                if (delayMs < 0)
+                    throw e;
+
+                try {
+                    Thread.sleep(delayMs);
+                }
+                catch (InterruptedException e1) {
+                    Thread.currentThread().interrupt();
+
+                    InterruptedIOException err = new InterruptedIOException("Interrupted while waiting for retry.");
+
+                    err.addSuppressed(e);
+
+                    throw err;
+                }
+            }
+        }
+    }
+
+    /**
+     * Posts the request of the model once, limited by the bulkhead of the call.
+     *
+     * @param call
+     * @param type
+     * @param wr
+     * @param <T>
+     * @return
+     * @throws NCClientException
+     * @throws IOException
+     * @throws IllegalStateException
+     */
+    private <T extends NCStatusResponseBean> T postAttempt(NCRequestPipeline.Call call, Type type, NCRequestWriter wr)
+        throws NCClientException, IOException {
+        if (!isActive())
+            throw new IllegalStateException("Client is not initialized.");
+
+        NCDeadline dl = call.getDeadline();
+
+        if (dl != null)
+            dl.check(call.getUrl());
+
+        NCBulkhead bh = call.getBulkhead();
+
+        if (bh == null)
+            return postRouted(call, type, wr);
+
+        acquire(bh.acquire(), bh::abandon, dl, call.getUrl());
+
+        try {
+            return postRouted(call, type, wr);
+        }
+        finally {
+            bh.release();
+        }
+    }
+
+    /**
+     * Posts the request of the model once, routed by the sticky routing key and limited by the concurrency
+     * limiter of the selected endpoint and model.
+     *
+     * @param call
+     * @param type
+     * @param wr
+     * @param <T>
+     * @return
+     * @throws NCClientException
+     * @throws IOException
+     * @throws IllegalStateException
+     */
+    private <T extends NCStatusResponseBean> T postRouted(NCRequestPipeline.Call call, Type type, NCRequestWriter wr)
+        throws NCClientException, IOException {
+        NCRequestPipeline.Attempt att = call.route();
+        NCConcurrencyLimiter lim = att.getLimiter();
+
+        if (lim != null) {
+            try {
+                acquire(lim.acquire(), lim::abandon, call.getDeadline(), call.getUrl());
+            }
+            catch (IOException | RuntimeException e) {
+                // Request is not sent.
+                att.abort();
+
+                throw e;
+            }
+        }
+
+        att.start();
+
+        T res = null;
+        Throwable err = null;
+
+        try {
+            res = post(att.getEndpoint(), call.getUrl(), type, wr, call.getDeadline());
+
+            return res;
+        }
+        catch (Throwable e) {
+            err = e;
+
+            throw e;
+        }
+        finally {
+            att.finish(res, err);
+        }
+    }
+
+    /**
+     * Waits for the slot of the concurrency limiter or bulkhead.
+     *
+     * @param fut Slot acquisition future.
+     * @param abandon Action giving up the acquisition.
+     * @param dl Deadline of the call, {@code null} if not bounded.
+     * @param url
+     * @throws IOException
+     * @throws NCClientException
+     */
+    private static void acquire(
+        CompletableFuture<Void> fut, Consumer<CompletableFuture<Void>> abandon, NCDeadline dl, String url
+    ) throws IOException, NCClientException {
+        try {
+            if (dl == null)
+                fut.get();
+            else
+                fut.get(dl.remainingMs(), TimeUnit.MILLISECONDS);
+        }
+        catch (TimeoutException e) {
+            abandon.accept(fut);
+
+            throw dl.exceeded(url);
+        }
+        catch (InterruptedException e) {
+            abandon.accept(fut);
+
+            Thread.currentThread().interrupt();
+
+            throw new InterruptedIOException("Interrupted while waiting for concurrency limit.");
+        }
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException)cause;
+
+            throw new NCClientException("Unexpected concurrency limiter error.", cause);
+        }
+    }
+
+    /**
+     *
+     * @param ep
+     * @param url
+     * @param type
+     * @param wr
+     * @param dl Deadline of the call, {@code null} if not bounded.
+     * @param <T>
+     * @return
+     * @throws NCClientException
+     * @throws IOException
+     */
+    private <T extends NCStatusResponseBean> T post(NCEndpoint ep, String url, Type type, NCRequestWriter wr, NCDeadline dl)
+        throws NCClientException, IOException {
+        NCSession session = ep.getSession();
+        NCSession.Token tok = session.current();
+
+        // Endpoint that was not available at start signs in with its first request.
+        if (tok.get() == null)
+            tok = await(session.refresh(tok, () -> resignin(ep)));
+
+        for (int i = 0; ; i++) {
+            try {
+                // Only the token is replaced on retries, endpoint fields are written again by the same writer.
+                return postPlain(ep, url, tok.get(), wr, type, dl);
+            }
+            catch (NCClientException e) {
+                if (!NCRequestPipeline.isRefreshNeeded(e, i))
+                    throw e;
+
+                try {
+                    // Concurrent callers rejected with the same token share a single sign in.
+                    tok = await(session.refresh(tok, () -> resignin(ep)));
+                }
+                catch (NCClientException e1) {
+                    // Sign in failure - reports original error.
+                    throw e;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Signs in again after the token is rejected. Called by {@link NCSession} once per token generation.
+     *
+     * @param ep
+     * @return
+     */
+    private CompletableFuture<String> resignin(NCEndpoint ep) {
+        log.debug("Reconnect attempt because token is invalid.");
+
+        try {
+            String tok = restSignin(ep);
+
+            log.debug("Reconnected OK.");
+
+            return CompletableFuture.completedFuture(tok);
+        }
+        catch (IOException | NCClientException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     *
+     * @param fut
+     * @return
+     * @throws IOException
+     * @throws NCClientException
+     */
+    private static NCSession.Token await(CompletableFuture<NCSession.Token> fut) throws IOException, NCClientException {
+        try {
+            return fut.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            throw new InterruptedIOException("Interrupted while waiting for sign in.");
+        }
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+
+            if (cause instanceof IOException)
+                throw (IOException)cause;
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException)cause;
+
+            throw new NCClientException("Unexpected sign in error.", cause);
+        }
+    }
+
     /**
      *
-     * @param js
+     * @param ep
+     * @param url
+     * @param tok
+     * @param wr
      * @param type
+     * @param dl Deadline of the call, {@code null} if not bounded.
      * @param <T>
      * @return
      * @throws NCClientException
+     * @throws IOException
      */
-    private <T extends NCStatusResponseBean> T checkAndExtract(String js, Type type) throws NCClientException {
-        T t = gson.fromJson(js, type);
+    private <T extends NCStatusResponseBean> T postPlain(NCEndpoint ep, String url, String tok, NCRequestWriter wr, Type type, NCDeadline dl)
+        throws NCClientException, IOException {
+        // Thread-local buffer is safe here since the request is sent synchronously by this thread.
+        NCRequestBuffer buf = NCRequestBuffer.local().encode(tok, wr);
 
-        checkStatus(t.getStatus());
-        
-        return t;
+        NCTransport.Handler<T> h = (code, in, cs, hdrs) -> handleResponse(code, in, cs, hdrs, type);
+
+        if (dl == null)
+            return transport.post(ep.getBaseUrl() + url, buf.array(), buf.size(), h);
+
+        // Token refresh could take the rest of the time.
+        dl.check(url);
+
+        return transport.post(ep.getBaseUrl() + url, buf.array(), buf.size(), dl.remainingMs(), h);
     }
     
     /**
+     * Decodes Apache HTTP client response, see {@link #handleResponse(int, InputStream, Charset, Function, Type)}.
      *
-     * @param url
-     * @param ps
+     * @param resp
+     * @param type
+     * @param <T>
      * @return
-     * @throws NCClientException
      * @throws IOException
-     * @throws IllegalStateException
+     * @throws NCClientException
      */
-    @SafeVarargs
-    private String post(String url, Pair<String, Object>... ps) throws NCClientException, IOException {
-        if (!started)
-            throw new IllegalStateException("Client is not initialized.");
-        
-        List<Pair<String, ?>> psList =
-            Arrays.stream(ps).filter(p -> p != null && p.getRight() != null).collect(Collectors.toList());
-    
-        try {
-            return postPlain(url, psList);
-        }
-        catch (NCClientException e) {
-            if (!AUTH_ERR.equals(e.getServerCode()))
-                throw e;
-            
-            try {
-                log.debug("Reconnect attempt because token is invalid.");
-    
-                acsTok = restSignin();
-    
-                log.debug("Reconnected OK.");
-    
-                // Replaces token.
-                return postPlain(url, psList.stream().
-                    map(p -> p.getLeft().equals("acsTok") ? Pair.of("acsTok", acsTok) : p).
-                    collect(Collectors.toList()));
-            }
-            catch (NCClientException e1) {
-                throw e;
-            }
+    static <T extends NCStatusResponseBean> T handleResponse(HttpResponse resp, Type type)
+        throws IOException, NCClientException {
+        int code = resp.getStatusLine().getStatusCode();
+
+        Function<String, String> hdrs = name -> {
+            Header hdr = resp.getFirstHeader(name);
+
+            return hdr != null ? hdr.getValue() : null;
+        };
+
+        HttpEntity e = resp.getEntity();
+
+        if (e == null) {
+            if (code != 200)
+                throw serverError(String.format("Unexpected server error [code=%d]", code), null, code, hdrs);
+
+            throw new NCClientException(String.format("Unexpected empty response [code=%d]", code));
         }
+
+        return handleResponse(code, e.getContent(), ContentType.getOrDefault(e).getCharset(), hdrs, type);
     }
-    
+
     /**
+     * Decodes the response body straight from the stream into the bean of given type, without
+     * buffering it into the intermediate string, and checks its status. Server errors are converted
+     * into {@link NCServerErrorException}.
      *
-     * @param url
-     * @param ps
+     * @param code
+     * @param in
+     * @param cs
+     * @param hdrs
+     * @param type
+     * @param <T>
      * @return
-     * @throws NCClientException
      * @throws IOException
+     * @throws NCClientException
      */
-    private String postPlain(String url, List<Pair<String, ?>> ps) throws NCClientException, IOException {
-        HttpPost post = new HttpPost(baseUrl + url);
-        
-        try {
-            post.setConfig(reqCfg);
-    
-            StringEntity entity = new StringEntity(
-                gson.toJson(ps.stream().collect(Collectors.toMap(Pair::getKey, Pair::getValue))),
-                "UTF-8"
-            );
-            
-            post.setHeader("Content-Type", "application/json");
-            post.setEntity(entity);
-            
-            ResponseHandler<String> h = resp -> {
-                int code = resp.getStatusLine().getStatusCode();
-                
-                HttpEntity e = resp.getEntity();
-                
-                String js = e != null ? EntityUtils.toString(e) : null;
-    
-                if (js == null)
+    static <T extends NCStatusResponseBean> T handleResponse(
+        int code, InputStream in, Charset cs, Function<String, String> hdrs, Type type
+    ) throws IOException, NCClientException {
+        try (JsonReader r = new JsonReader(new InputStreamReader(in, cs != null ? cs : UTF_8))) {
+            if (code == 200) {
+                T t = gson.fromJson(r, type);
+
+                if (t == null)
                     throw new NCClientException(String.format("Unexpected empty response [code=%d]", code));
 
-                if (code == 200)
-                    return js;
+                checkStatus(t.getStatus());
 
-                NCErrorMessageBean err;
-                
-                try {
-                     err = gson.fromJson(js, NCErrorMessageBean.class);
-                }
-                catch (Exception e1) {
-                    throw new NCClientException(String.format("Unexpected server error [code=%d]", code));
-                }
+                return t;
+            }
 
-                throw new NCClientException(err.getMessage(), err.getCode());
-            };
-            
-            return httpCli.execute(post, h);
-        }
-        finally {
-            post.releaseConnection();
+            NCErrorMessageBean err;
+
+            try {
+                err = gson.fromJson(r, NCErrorMessageBean.class);
+            }
+            catch (Exception e1) {
+                throw serverError(String.format("Unexpected server error [code=%d]", code), null, code, hdrs);
+            }
+
+            if (err == null)
+                throw serverError(String.format("Unexpected server error [code=%d]", code), null, code, hdrs);
+
+            throw serverError(err.getMessage(), err.getCode(), code, hdrs);
         }
     }
-    
+
+    /**
+     *
+     * @param msg
+     * @param srvCode
+     * @param code
+     * @param hdrs
+     * @return
+     */
+    private static NCServerErrorException serverError(String msg, String srvCode, int code, Function<String, String> hdrs) {
+        return new NCServerErrorException(msg, srvCode, code, NCRetryPolicy.parseRetryAfter(hdrs.apply("Retry-After")));
+    }
+
     /**
      * @param v
      * @param name
      * @throws IllegalArgumentException
      */
-    private void notNull(String v, String name) throws IllegalArgumentException {
+    static void notNull(String v, String name) throws IllegalArgumentException {
         if (v == null || v.trim().isEmpty())
             throw new IllegalArgumentException(String.format("Parameter cannot be null or empty: '%s'", name));
     }
@@ -416,17 +1088,19 @@ public class NCClientImpl implements NCClient {
      * @throws IOException
      * @throws NCClientException
      */
-    private String restSignin() throws IOException, NCClientException {
+    private String restSignin(NCEndpoint ep) throws IOException, NCClientException {
         NCSigninBean b =
-            checkAndExtract(
-                postPlain(
-                    "/signin",
-                    Arrays.asList(
-                        Pair.of("email", email),
-                        Pair.of("passwd", pwd)
-                    )
-                ),
-                NCSigninBean.class
+            postPlain(
+                ep,
+                "/signin",
+                null,
+                w -> {
+                    field(w, "email", email);
+                    field(w, "passwd", pwd);
+                },
+                NCSigninBean.class,
+                // Sign in is shared by concurrent callers, so it isn't bounded by the deadline of any of them.
+                null
             );
         
         return b.getAccessToken();
@@ -450,20 +1124,19 @@ public class NCClientImpl implements NCClient {
         notNull(lastName, "lastName");
     
         NCUserAddBean b =
-            checkAndExtract(
-                post(
-                    "user/add",
-                    Pair.of("acsTok", acsTok),
-                    Pair.of("email", email),
-                    Pair.of("passwd", passwd),
-                    Pair.of("firstName", firstName),
-                    Pair.of("lastName", lastName),
-                    Pair.of("isAdmin", isAdmin),
-                    Pair.of("avatarUrl", avatarUrl),
-                    Pair.of("properties", properties),
-                    Pair.of("extId", extId)
-                ),
-                NCUserAddBean.class
+            post(
+                "user/add",
+                NCUserAddBean.class,
+                w -> {
+                    field(w, "email", email);
+                    field(w, "passwd", passwd);
+                    field(w, "firstName", firstName);
+                    field(w, "lastName", lastName);
+                    field(w, "isAdmin", isAdmin);
+                    field(w, "avatarUrl", avatarUrl);
+                    field(w, "properties", properties);
+                    field(w, "extId", extId);
+                }
             );
         
         return b.getId();
@@ -471,16 +1144,13 @@ public class NCClientImpl implements NCClient {
     
     @Override
     public void deleteUser(Long id, String extId) throws NCClientException, IOException {
-        checkStatus(
-            gson.fromJson(
-                post(
-                    "user/delete",
-                    Pair.of("acsTok", acsTok),
-                    Pair.of("id", id),
-                    Pair.of("extId", extId)
-                ),
-                NCStatusResponseBean.class
-            )
+        post(
+            "user/delete",
+            NCStatusResponseBean.class,
+            w -> {
+                field(w, "id", id);
+                field(w, "extId", extId);
+            }
         );
     }
     
@@ -491,48 +1161,41 @@ public class NCClientImpl implements NCClient {
         notNull(firstName, "firstName");
         notNull(lastName, "lastName");
     
-        checkStatus(
-            gson.fromJson(
-                post(
-                    "user/update",
-                    Pair.of("acsTok", acsTok),
-                    Pair.of("id", id),
-                    Pair.of("firstName", firstName),
-                    Pair.of("lastName", lastName),
-                    Pair.of("avatarUrl", avatarUrl),
-                    Pair.of("properties", properties)
-                ),
-                NCStatusResponseBean.class
-            )
+        post(
+            "user/update",
+            NCStatusResponseBean.class,
+            w -> {
+                field(w, "id", id);
+                field(w, "firstName", firstName);
+                field(w, "lastName", lastName);
+                field(w, "avatarUrl", avatarUrl);
+                field(w, "properties", properties);
+            }
         );
     }
     
     @Override
     public void updateUserAdmin(Long id, boolean admin) throws NCClientException, IOException {
-        checkStatus(
-            gson.fromJson(
-                post(
-                    "user/admin",
-                    Pair.of("acsTok", acsTok),
-                    Pair.of("id", id),
-                    Pair.of("admin", admin)
-                ),
-                NCStatusResponseBean.class
-            )
+        post(
+            "user/admin",
+            NCStatusResponseBean.class,
+            w -> {
+                field(w, "id", id);
+                field(w, "admin", admin);
+            }
         );
     }
     
     @Override
     public NCUser getUser(Long id, String extId) throws NCClientException, IOException {
         return
-            checkAndExtract(
-                post(
-                    "user/get",
-                    Pair.of("acsTok", acsTok),
-                    Pair.of("id", id),
-                    Pair.of("usrExtId", extId)
-                ),
-                NCUserBean.class
+            post(
+                "user/get",
+                NCUserBean.class,
+                w -> {
+                    field(w, "id", id);
+                    field(w, "usrExtId", extId);
+                }
             );
     }
     
@@ -540,28 +1203,23 @@ public class NCClientImpl implements NCClient {
     public void resetUserPassword(Long id, String newPasswd) throws NCClientException, IOException {
         notNull(newPasswd, "newPasswd");
     
-        checkStatus(
-            gson.fromJson(
-                post(
-                    "user/passwd/reset",
-                    Pair.of("acsTok", acsTok),
-                    Pair.of("id", id),
-                    Pair.of("newPasswd", newPasswd)
-                ),
-                NCStatusResponseBean.class
-            )
+        post(
+            "user/passwd/reset",
+            NCStatusResponseBean.class,
+            w -> {
+                field(w, "id", id);
+                field(w, "newPasswd", newPasswd);
+            }
         );
     }
     
     @Override
     public List<NCUser> getAllUsers() throws NCClientException, IOException {
         NCUsersAllBean b =
-            checkAndExtract(
-                post(
-                    "user/all",
-                    Pair.of("acsTok", acsTok)
-                ),
-                NCUsersAllBean.class
+            post(
+                "user/all",
+                NCUsersAllBean.class,
+                NO_FIELDS
             );
         
         return new ArrayList<>(b.getUsers());
@@ -570,12 +1228,10 @@ public class NCClientImpl implements NCClient {
     @Override
     public List<NCProbe> getProbes() throws NCClientException, IOException {
         NCProbesAllBean b =
-            checkAndExtract(
-                post(
-                    "probe/all",
-                    Pair.of("acsTok", acsTok)
-                ),
-                NCProbesAllBean.class
+            post(
+                "probe/all",
+                NCProbesAllBean.class,
+                NO_FIELDS
             );
     
         return new ArrayList<>(b.getProbes());
@@ -585,54 +1241,116 @@ public class NCClientImpl implements NCClient {
     public void clearConversation(String mdlId, Long usrId, String usrExtId) throws NCClientException, IOException {
         notNull(mdlId, "mdlId");
         
-        checkStatus(
-            gson.fromJson(
-                post(
-                    "clear/conversation",
-                    Pair.of("acsTok", acsTok),
-                    Pair.of("mdlId", mdlId),
-                    Pair.of("usrId", usrId),
-                    Pair.of("usrExtId", usrExtId)
-                ),
-                NCStatusResponseBean.class
-            )
+        postModel(
+            mdlId,
+            router.key(mdlId, usrId, usrExtId),
+            "clear/conversation",
+            NCStatusResponseBean.class,
+            w -> {
+                field(w, "mdlId", mdlId);
+                field(w, "usrId", usrId);
+                field(w, "usrExtId", usrExtId);
+            }
         );
+
+        if (resCache != null)
+            resCache.invalidate(mdlId, usrId, usrExtId);
     }
     
     @Override
     public void clearDialog(String mdlId, Long usrId, String usrExtId) throws NCClientException, IOException {
         notNull(mdlId, "mdlId");
         
-        checkStatus(
-            gson.fromJson(
-                post(
-                    "clear/dialog",
-                    Pair.of("acsTok", acsTok),
-                    Pair.of("mdlId", mdlId),
-                    Pair.of("usrId", usrId),
-                    Pair.of("usrExtId", usrExtId)
-                ),
-                NCStatusResponseBean.class
-            )
+        postModel(
+            mdlId,
+            router.key(mdlId, usrId, usrExtId),
+            "clear/dialog",
+            NCStatusResponseBean.class,
+            w -> {
+                field(w, "mdlId", mdlId);
+                field(w, "usrId", usrId);
+                field(w, "usrExtId", usrExtId);
+            }
         );
+
+        if (resCache != null)
+            resCache.invalidate(mdlId, usrId, usrExtId);
     }
     
     @Override
     public void close() throws IOException, NCClientException {
-        if (cancelOnExit)
-            cancel(null, null, null);
-    
-        checkStatus(
-            gson.fromJson(
+        // Only one of the concurrent callers closes the client, others return immediately.
+        if (!state.compareAndSet(NCClientState.STARTED, NCClientState.CLOSING))
+            return;
+
+        synchronized (this) {
+            if (poller != null) {
+                poller.close();
+
+                poller = null;
+            }
+        }
+
+        if (reqRelease != null)
+            reqRelease.close();
+
+        try {
+            // Pending requests are cancelled on every signed in endpoint, like sign out.
+            if (cancelOnExit)
+                cancel(null, null, null);
+
+            signout();
+        }
+        finally {
+            state.set(NCClientState.CLOSED);
+
+            router.close();
+
+            if (hedgeExec != null)
+                hedgeExec.shutdown();
+
+            if (resCache != null)
+                resCache.clear();
+
+            // Releases pooled connections owned by this client.
+            transport.close();
+        }
+    }
+
+    /**
+     * Signs out from all signed in endpoints. Reports the first error, if any.
+     *
+     * @throws IOException
+     * @throws NCClientException
+     */
+    private void signout() throws IOException, NCClientException {
+        Exception err = null;
+
+        for (NCEndpoint ep : router.getEndpoints()) {
+            if (ep.getSession().current().get() == null)
+                continue;
+
+            try {
                 post(
+                    ep,
                     "signout",
-                    Pair.of("acsTok", acsTok)
-                ),
-                NCStatusResponseBean.class
-            )
-        );
-    
-        started = false;
+                    NCStatusResponseBean.class,
+                    NO_FIELDS,
+                    NCDeadline.current()
+                );
+            }
+            catch (IOException | NCClientException e) {
+                if (err == null)
+                    err = e;
+                else
+                    err.addSuppressed(e);
+            }
+        }
+
+        if (err instanceof IOException)
+            throw (IOException)err;
+        if (err != null)
+            throw (NCClientException)err;
     }
 
     @Override
@@ -641,20 +1359,33 @@ public class NCClientImpl implements NCClient {
         notNull(txt, "txt");
 
         NCAskBean b =
-            checkAndExtract(
-                post(
-                    "ask",
-                    Pair.of("acsTok", acsTok),
-                    Pair.of("txt", txt),
-                    Pair.of("mdlId", mdlId),
-                    Pair.of("data", data),
-                    Pair.of("enableLog", enableLog),
-                    Pair.of("usrId", usrId),
-                    Pair.of("usrExtId", usrExtId)
-                ),
-                NCAskBean.class
+            postModel(
+                mdlId,
+                router.key(mdlId, usrId, usrExtId),
+                "ask",
+                NCAskBean.class,
+                w -> {
+                    field(w, "txt", txt);
+                    field(w, "mdlId", mdlId);
+                    field(w, "data", data);
+                    field(w, "enableLog", enableLog);
+                    field(w, "usrId", usrId);
+                    field(w, "usrExtId", usrExtId);
+                }
             );
 
+        NCDeadline dl = NCDeadline.current();
+
+        // Request accepted after the deadline is not awaited by anyone.
+        if (dl != null && dl.isExpired()) {
+            cancelLate(b.getServerRequestId(), usrId, usrExtId);
+
+            throw dl.exceeded("ask");
+        }
+
+        if (reqRelease != null)
+            reqRelease.onAsk(b.getServerRequestId(), usrId, usrExtId);
+
         return b.getServerRequestId();
     }
 
@@ -663,23 +1394,190 @@ public class NCClientImpl implements NCClient {
         notNull(mdlId, "mdlId");
         notNull(txt, "txt");
 
+        boolean coalesce = coalescer != null && coalescer.isCoalesced(mdlId);
+
+        if (resCache == null && !coalesce)
+            return askSync0(mdlId, txt, data, enableLog, usrId, usrExtId);
+
+        NCAskKey key = new NCAskKey(mdlId, txt, data, enableLog, usrId, usrExtId);
+
+        if (resCache != null) {
+            NCResult res = resCache.get(key);
+
+            if (res != null)
+                return res;
+        }
+
+        NCRequestCoalescer.Call call = () -> {
+            NCResult res = askSync0(mdlId, txt, data, enableLog, usrId, usrExtId);
+
+            if (resCache != null)
+                resCache.put(key, res);
+
+            return res;
+        };
+
+        return coalesce ? coalescer.execute(key, call) : call.call();
+    }
+
+    /**
+     *
+     * @param mdlId
+     * @param txt
+     * @param data
+     * @param enableLog
+     * @param usrId
+     * @param usrExtId
+     * @return
+     * @throws NCClientException
+     * @throws IOException
+     */
+    private NCResult askSync0(String mdlId, String txt, Map<String, Object> data, boolean enableLog, Long usrId, String usrExtId) throws NCClientException, IOException {
+        if (hedging == null)
+            return askSyncOnce(mdlId, txt, data, enableLog, usrId, usrExtId);
+
+        long delayMs = hedging.onRequest();
+        long startNs = System.nanoTime();
+
+        if (delayMs < 0) {
+            NCResult res = askSyncOnce(mdlId, txt, data, enableLog, usrId, usrExtId);
+
+            hedging.record(startNs);
+
+            return res;
+        }
+
+        CompletableFuture<NCResult> fut = submitAskSync(mdlId, txt, data, enableLog, usrId, usrExtId);
+
+        try {
+            try {
+                NCResult res = fut.get(delayMs, TimeUnit.MILLISECONDS);
+
+                hedging.record(startNs);
+
+                return res;
+            }
+            catch (TimeoutException e) {
+                if (hedging.tryHedge()) {
+                    log.debug("Hedging request [mdlId={}, delay={}ms]", mdlId, delayMs);
+
+                    fut = hedging.race(
+                        fut,
+                        submitAskSync(mdlId, txt, data, enableLog, usrId, usrExtId),
+                        loser -> cancelLate(loser.getServerRequestId(), usrId, usrExtId)
+                    );
+                }
+            }
+
+            NCResult res = fut.get();
+
+            hedging.record(startNs);
+
+            return res;
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            throw new InterruptedIOException("Interrupted while waiting for the result.");
+        }
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+
+            if (cause instanceof IOException)
+                throw (IOException)cause;
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException)cause;
+
+            throw new NCClientException("Unexpected request error.", cause);
+        }
+    }
+
+    /**
+     *
+     * @param mdlId
+     * @param txt
+     * @param data
+     * @param enableLog
+     * @param usrId
+     * @param usrExtId
+     * @return
+     */
+    private CompletableFuture<NCResult> submitAskSync(String mdlId, String txt, Map<String, Object> data, boolean enableLog, Long usrId, String usrExtId) {
+        CompletableFuture<NCResult> fut = new CompletableFuture<>();
+        NCDeadline dl = NCDeadline.current();
+
+        hedgeExec.execute(() -> {
+            NCDeadline prev = NCDeadline.enter(dl);
+
+            try {
+                fut.complete(askSyncOnce(mdlId, txt, data, enableLog, usrId, usrExtId));
+            }
+            catch (Throwable e) {
+                fut.completeExceptionally(e);
+            }
+            finally {
+                NCDeadline.exit(prev);
+            }
+        });
+
+        return fut;
+    }
+
+    /**
+     * Cancels the request which result is not needed anymore, so that it isn't kept on the server.
+     *
+     * @param srvReqId
+     * @param usrId
+     * @param usrExtId
+     */
+    private void cancelLate(String srvReqId, Long usrId, String usrExtId) {
+        if (state.get() != NCClientState.STARTED)
+            return;
+
+        // Deadline of the call, already passed possibly, doesn't apply to the cleanup.
+        NCDeadline prev = NCDeadline.enter(null);
+
+        try {
+            cancel(Collections.singleton(srvReqId), usrId, usrExtId);
+        }
+        catch (Exception e) {
+            log.warn("Failed to cancel request [srvReqId={}, error={}]", srvReqId, e.getMessage());
+        }
+        finally {
+            NCDeadline.exit(prev);
+        }
+    }
+
+    /**
+     *
+     * @param mdlId
+     * @param txt
+     * @param data
+     * @param enableLog
+     * @param usrId
+     * @param usrExtId
+     * @return
+     * @throws NCClientException
+     * @throws IOException
+     */
+    private NCResult askSyncOnce(String mdlId, String txt, Map<String, Object> data, boolean enableLog, Long usrId, String usrExtId) throws NCClientException, IOException {
         NCAskSyncBean b =
-            checkAndExtract(
-                post(
-                    "ask/sync",
-                    Pair.of("acsTok", acsTok),
-                    Pair.of("txt", txt),
-                    Pair.of("mdlId", mdlId),
-                    Pair.of("data", data),
-                    Pair.of("enableLog", enableLog),
-                    Pair.of("usrId", usrId),
-                    Pair.of("usrExtId", usrExtId)
-                ),
-                NCAskSyncBean.class
+            postModel(
+                mdlId,
+                router.key(mdlId, usrId, usrExtId),
+                "ask/sync",
+                NCAskSyncBean.class,
+                w -> {
+                    field(w, "txt", txt);
+                    field(w, "mdlId", mdlId);
+                    field(w, "data", data);
+                    field(w, "enableLog", enableLog);
+                    field(w, "usrId", usrId);
+                    field(w, "usrExtId", usrExtId);
+                }
             );
 
         return b.getState();
-
     }
 
     @Override
@@ -688,17 +1586,16 @@ public class NCClientImpl implements NCClient {
         notNull(srvReqId, "srvReqId");
         
         NCFeedbackAddBean b =
-            checkAndExtract(
-                post(
-                    "feedback/add",
-                    Pair.of("acsTok", acsTok),
-                    Pair.of("srvReqId", srvReqId),
-                    Pair.of("score", score),
-                    Pair.of("comment", comment),
-                    Pair.of("usrId", usrId),
-                    Pair.of("usrExtId", usrExtId)
-                ),
-                NCFeedbackAddBean.class
+            post(
+                "feedback/add",
+                NCFeedbackAddBean.class,
+                w -> {
+                    field(w, "srvReqId", srvReqId);
+                    field(w, "score", score);
+                    field(w, "comment", comment);
+                    field(w, "usrId", usrId);
+                    field(w, "usrExtId", usrExtId);
+                }
             );
         
         return b.getId();
@@ -706,30 +1603,26 @@ public class NCClientImpl implements NCClient {
     
     @Override
     public void deleteFeedback(Long id) throws NCClientException, IOException {
-        checkStatus(
-            gson.fromJson(
-                post(
-                    "feedback/delete",
-                    Pair.of("acsTok", acsTok),
-                    Pair.of("id", id)
-                ),
-                NCStatusResponseBean.class
-            )
+        post(
+            "feedback/delete",
+            NCStatusResponseBean.class,
+            w -> {
+                field(w, "id", id);
+            }
         );
     }
     
     @Override
     public List<NCFeedback> getAllFeedback(String srvReqId, Long usrId, String usrExtId) throws NCClientException, IOException {
         NCFeedbackAllBean b =
-            checkAndExtract(
-                post(
-                    "feedback/all",
-                    Pair.of("acsTok", acsTok),
-                    Pair.of("srvReqId", srvReqId),
-                    Pair.of("usrId", usrId),
-                    Pair.of("usrExtId", usrExtId)
-                ),
-                NCFeedbackAllBean.class
+            post(
+                "feedback/all",
+                NCFeedbackAllBean.class,
+                w -> {
+                    field(w, "srvReqId", srvReqId);
+                    field(w, "usrId", usrId);
+                    field(w, "usrExtId", usrExtId);
+                }
             );
         
         return new ArrayList<>(b.getFeedback());
@@ -737,36 +1630,73 @@ public class NCClientImpl implements NCClient {
     
     @Override
     public List<NCResult> check(Set<String> srvReqIds, Integer maxRows, Long usrId, String usrExtId) throws NCClientException, IOException {
-        NCCheckBean b =
-            checkAndExtract(
-                post(
+        List<NCResult> res = new ArrayList<>();
+
+        // Each request is checked on the endpoint which created it.
+        for (Map.Entry<NCEndpoint, Set<String>> e : router.owners(srvReqIds).entrySet()) {
+            NCCheckBean b =
+                postModel(
+                    e.getKey(),
+                    null,
+                    null,
                     "check",
-                    Pair.of("acsTok", acsTok),
-                    Pair.of("srvReqIds", srvReqIds),
-                    Pair.of("maxRows", maxRows),
-                    Pair.of("usrId", usrId),
-                    Pair.of("usrExtId", usrExtId)
-                ),
-                NCCheckBean.class
-            );
-        
-        return new ArrayList<>(b.getStates());
+                    NCCheckBean.class,
+                    w -> {
+                        field(w, "srvReqIds", e.getValue());
+                        field(w, "maxRows", maxRows);
+                        field(w, "usrId", usrId);
+                        field(w, "usrExtId", usrExtId);
+                    }
+                );
+
+            res.addAll(b.getStates());
+        }
+
+        if (maxRows != null && res.size() > maxRows)
+            res = new ArrayList<>(res.subList(0, maxRows));
+
+        router.delivered(res);
+
+        return res;
     }
     
     @Override
     public void cancel(Set<String> srvReqIds, Long usrId, String usrExtId) throws NCClientException, IOException {
-        checkStatus(
-            gson.fromJson(
-                post(
+        Exception err = null;
+
+        // Each request is cancelled on the endpoint which created it. Reports the first error, if any.
+        for (Map.Entry<NCEndpoint, Set<String>> e : router.owners(srvReqIds).entrySet()) {
+            try {
+                postModel(
+                    e.getKey(),
+                    null,
+                    null,
                     "cancel",
-                    Pair.of("acsTok", acsTok),
-                    Pair.of("srvReqIds", srvReqIds),
-                    Pair.of("usrId", usrId),
-                    Pair.of("usrExtId", usrExtId)
-                ),
-                NCStatusResponseBean.class
-            )
-        );
+                    NCStatusResponseBean.class,
+                    w -> {
+                        field(w, "srvReqIds", e.getValue());
+                        field(w, "usrId", usrId);
+                        field(w, "usrExtId", usrExtId);
+                    }
+                );
+            }
+            catch (IOException | NCClientException e1) {
+                if (err == null)
+                    err = e1;
+                else
+                    err.addSuppressed(e1);
+            }
+        }
+
+        if (err instanceof IOException)
+            throw (IOException)err;
+        if (err != null)
+            throw (NCClientException)err;
+
+        router.disown(srvReqIds);
+
+        if (reqRelease != null)
+            reqRelease.onCancel(srvReqIds, usrId, usrExtId);
     }
     
     @Override
@@ -780,38 +1710,35 @@ public class NCClientImpl implements NCClient {
         notNull(adminLastName, "adminLastName");
         
         return
-            checkAndExtract(
-                post(
-                    "company/add",
-                    Pair.of("acsTok", acsTok),
-                    Pair.of("name", name),
-                    Pair.of("website", website),
-                    Pair.of("country", country),
-                    Pair.of("region", region),
-                    Pair.of("city", city),
-                    Pair.of("address", address),
-                    Pair.of("postalCode", postalCode),
-    
-                    Pair.of("adminEmail", adminEmail),
-                    Pair.of("adminPasswd", adminPasswd),
-                    Pair.of("adminFirstName", adminFirstName),
-                    Pair.of("adminLastName", adminLastName),
-                    Pair.of("postalCode", adminAvatarUrl),
-                    Pair.of("properties", props)
-                ),
-                NCTokenCreationBean.class
+            post(
+                "company/add",
+                NCTokenCreationBean.class,
+                w -> {
+                    field(w, "name", name);
+                    field(w, "website", website);
+                    field(w, "country", country);
+                    field(w, "region", region);
+                    field(w, "city", city);
+                    field(w, "address", address);
+                    field(w, "postalCode", postalCode);
+
+                    field(w, "adminEmail", adminEmail);
+                    field(w, "adminPasswd", adminPasswd);
+                    field(w, "adminFirstName", adminFirstName);
+                    field(w, "adminLastName", adminLastName);
+                    field(w, "adminAvatarUrl", adminAvatarUrl);
+                    field(w, "properties", props);
+                }
             );
     }
     
     @Override
     public NCCompany getCompany() throws IOException, NCClientException {
         return
-            checkAndExtract(
-                post(
-                    "company/get",
-                    Pair.of("acsTok", acsTok)
-                ),
-                NCCompanyBean.class
+            post(
+                "company/get",
+                NCCompanyBean.class,
+                NO_FIELDS
             );
     }
     
@@ -828,34 +1755,29 @@ public class NCClientImpl implements NCClient {
     ) throws IOException, NCClientException {
         notNull(name, "name");
     
-        checkStatus(
-            gson.fromJson(
-                post(
-                    "company/update",
-                    Pair.of("acsTok", acsTok),
-                    Pair.of("name", name),
-                    Pair.of("website", website),
-                    Pair.of("country", country),
-                    Pair.of("region", region),
-                    Pair.of("city", city),
-                    Pair.of("address", address),
-                    Pair.of("postalCode", postalCode),
-                    Pair.of("properties", props)
-                ),
-                NCStatusResponseBean.class
-            )
+        post(
+            "company/update",
+            NCStatusResponseBean.class,
+            w -> {
+                field(w, "name", name);
+                field(w, "website", website);
+                field(w, "country", country);
+                field(w, "region", region);
+                field(w, "city", city);
+                field(w, "address", address);
+                field(w, "postalCode", postalCode);
+                field(w, "properties", props);
+            }
         );
     }
     
     @Override
     public String resetCompanyToken() throws IOException, NCClientException {
         NCCompanyTokenResetBean b =
-            checkAndExtract(
-                post(
-                    "company/token/reset",
-                    Pair.of("acsTok", acsTok)
-                ),
-                NCCompanyTokenResetBean.class
+            post(
+                "company/token/reset",
+                NCCompanyTokenResetBean.class,
+                NO_FIELDS
             );
         
         return b.getToken();
@@ -863,27 +1785,24 @@ public class NCClientImpl implements NCClient {
     
     @Override
     public void deleteCompany() throws IOException, NCClientException {
-        checkStatus(
-            gson.fromJson(
-                post(
-                    "company/delete",
-                    Pair.of("acsTok", acsTok)
-                ),
-                NCStatusResponseBean.class
-            )
+        post(
+            "company/delete",
+            NCStatusResponseBean.class,
+            NO_FIELDS
         );
     }
 
     @Override
     public NCSuggestionData suggestSynonyms(String mdlId, Double minScore) throws NCClientException, IOException {
-        NCSuggestionResultBean res = checkAndExtract(
-            post(
-                "model/sugsyn",
-                Pair.of("acsTok", acsTok),
-                Pair.of("mdlId", mdlId),
-                Pair.of("minScore", minScore)
-            ),
-            NCSuggestionResultBean.class
+        NCSuggestionResultBean res = postModel(
+            mdlId,
+            null,
+            "model/sugsyn",
+            NCSuggestionResultBean.class,
+            w -> {
+                field(w, "mdlId", mdlId);
+                field(w, "minScore", minScore);
+            }
         );
 
         return res.getResult();
@@ -891,26 +1810,28 @@ public class NCClientImpl implements NCClient {
 
     @Override
     public NCElementSynonymsData getSynonyms(String mdlId, String elmId) throws NCClientException, IOException {
-        return checkAndExtract(
-            post(
-                "model/syns",
-                Pair.of("acsTok", acsTok),
-                Pair.of("mdlId", mdlId),
-                Pair.of("elmId", elmId)
-            ),
-            NCElementSynonymsDataBean.class
+        return postModel(
+            mdlId,
+            null,
+            "model/syns",
+            NCElementSynonymsDataBean.class,
+            w -> {
+                field(w, "mdlId", mdlId);
+                field(w, "elmId", elmId);
+            }
         );
     }
 
     @Override
     public NCModelInfo getModelInfo(String mdlId) throws NCClientException, IOException {
-        NCModelInfoResultBean res = checkAndExtract(
-            post(
-                "model/info",
-                Pair.of("acsTok", acsTok),
-                Pair.of("mdlId", mdlId)
-            ),
-            NCModelInfoResultBean.class
+        NCModelInfoResultBean res = postModel(
+            mdlId,
+            null,
+            "model/info",
+            NCModelInfoResultBean.class,
+            w -> {
+                field(w, "mdlId", mdlId);
+            }
         );
 
         return res.getModel();
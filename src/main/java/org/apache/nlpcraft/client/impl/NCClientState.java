@@ -0,0 +1,39 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client.impl;
+
+/**
+ * Client lifecycle state. Transitions are only done by compare-and-set:
+ * {@code NEW -> STARTING -> STARTED -> CLOSING -> CLOSED}, failed start goes {@code STARTING -> CLOSED}.
+ */
+enum NCClientState {
+    /** Created, not signed in yet. */
+    NEW,
+
+    /** Signing in. */
+    STARTING,
+
+    /** Signed in and accepting requests. */
+    STARTED,
+
+    /** Closing, still accepts requests to cancel pending ones and sign out. */
+    CLOSING,
+
+    /** Closed or failed to start. */
+    CLOSED
+}
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client.impl;
+
+import org.apache.nlpcraft.client.NCConcurrencyLimitStats;
+
+/**
+ * Concurrency limiter statistics snapshot.
+ */
+public class NCConcurrencyLimitStatsImpl implements NCConcurrencyLimitStats {
+    private final String baseUrl;
+    private final String mdlId;
+    private final int limit;
+    private final int inFlight;
+    private final int queued;
+    private final long rejected;
+
+    /**
+     *
+     * @param baseUrl
+     * @param mdlId
+     * @param limit
+     * @param inFlight
+     * @param queued
+     * @param rejected
+     */
+    public NCConcurrencyLimitStatsImpl(String baseUrl, String mdlId, int limit, int inFlight, int queued, long rejected) {
+        this.baseUrl = baseUrl;
+        this.mdlId = mdlId;
+        this.limit = limit;
+        this.inFlight = inFlight;
+        this.queued = queued;
+        this.rejected = rejected;
+    }
+
+    @Override
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    @Override
+    public String getModelId() {
+        return mdlId;
+    }
+
+    @Override
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    @Override
+    public int getQueued() {
+        return queued;
+    }
+
+    @Override
+    public long getRejected() {
+        return rejected;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "[baseUrl=%s, mdlId=%s, limit=%d, inFlight=%d, queued=%d, rejected=%d]",
+            baseUrl, mdlId, limit, inFlight, queued, rejected
+        );
+    }
+}
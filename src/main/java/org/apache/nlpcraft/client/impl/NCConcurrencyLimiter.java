@@ -0,0 +1,258 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client.impl;
+
+import org.apache.nlpcraft.client.NCConcurrencyLimitException;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adaptive limit of the requests in progress to one endpoint and model (AIMD).
+ * <p>
+ * The limit grows by one per limit of successful requests (additive increase) while the smoothed latency stays
+ * within the tolerance of the no-load latency, i.e. the minimum latency seen recently, and is multiplied by the
+ * backoff ratio (multiplicative decrease) when the latency rises above it, or the request fails with I/O error,
+ * timeout or server error. Only requests started after the previous decrease can decrease it again, so that
+ * one overload episode decreases the limit about once per round trip. Requests over the limit wait in the
+ * queue for the released slots.
+ */
+class NCConcurrencyLimiter {
+    /** Maximum ratio of the smoothed latency to the no-load latency considered stable. */
+    private static final double LATENCY_TOLERANCE = 2;
+
+    /** Latency rise ignored regardless of the tolerance, protects very fast endpoints from the jitter. */
+    private static final long LATENCY_SLACK_NS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /** Weight of the new latency sample in the smoothed latency. */
+    private static final double ALPHA = 0.1;
+
+    /** Limit decrease ratio on the latency rise. */
+    private static final double BACKOFF = 0.9;
+
+    /** Limit decrease ratio on the request failure. */
+    private static final double FAILURE_BACKOFF = 0.5;
+
+    /** Number of samples after which the no-load latency is measured again, so that it follows the changes. */
+    private static final int MIN_LATENCY_WINDOW = 1000;
+
+    /** Shared result of the acquisition without waiting. */
+    private static final CompletableFuture<Void> ACQUIRED = CompletableFuture.completedFuture(null);
+
+    private final String baseUrl;
+    private final String mdlId;
+    private final int maxLimit;
+    private final long queueTimeoutMs;
+    private final ArrayDeque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+
+    // Guarded by 'this'.
+    private double limit;
+    private int inFlight;
+    private double latencyNs;
+    private long minLatencyNs = Long.MAX_VALUE;
+    private long prevMinLatencyNs = Long.MAX_VALUE;
+    private int samples;
+    private long lastDecreaseNs;
+    private long rejected;
+
+    /**
+     *
+     * @param baseUrl Endpoint base URL.
+     * @param mdlId Model ID, {@code null} for the requests not related to any model.
+     * @param initLimit Initial limit.
+     * @param maxLimit Maximum limit.
+     * @param queueTimeoutMs Maximum time the request waits in the queue, zero to reject requests over the limit.
+     */
+    NCConcurrencyLimiter(String baseUrl, String mdlId, int initLimit, int maxLimit, long queueTimeoutMs) {
+        this.baseUrl = baseUrl;
+        this.mdlId = mdlId;
+        this.maxLimit = maxLimit;
+        this.queueTimeoutMs = queueTimeoutMs;
+
+        limit = Math.min(initLimit, maxLimit);
+        lastDecreaseNs = System.nanoTime();
+    }
+
+    /**
+     * Acquires the slot for the request. Returned future is completed by the thread releasing the slot if
+     * the request was queued, so its dependent actions must not block.
+     *
+     * @return Future completed when the slot is acquired, or failed with {@link NCConcurrencyLimitException}
+     *      if the request is rejected.
+     */
+    CompletableFuture<Void> acquire() {
+        CompletableFuture<Void> w;
+
+        synchronized (this) {
+            if (inFlight < (int)limit) {
+                inFlight++;
+
+                return ACQUIRED;
+            }
+
+            if (queueTimeoutMs <= 0) {
+                rejected++;
+
+                return CompletableFuture.failedFuture(rejection());
+            }
+
+            w = new CompletableFuture<>();
+
+            waiters.add(w);
+        }
+
+        NCThreads.delayed(queueTimeoutMs).execute(() -> {
+            if (w.completeExceptionally(rejection())) {
+                synchronized (this) {
+                    waiters.remove(w);
+
+                    rejected++;
+                }
+            }
+        });
+
+        return w;
+    }
+
+    /**
+     * Gives up the acquisition, e.g. when the waiting thread is interrupted. Releases the slot if it was
+     * acquired already.
+     *
+     * @param w Future returned by {@link #acquire()}.
+     */
+    void abandon(CompletableFuture<Void> w) {
+        if (w.cancel(false)) {
+            synchronized (this) {
+                waiters.remove(w);
+            }
+        }
+        else if (!w.isCompletedExceptionally())
+            release();
+    }
+
+    /**
+     * Releases the slot of the request that was not sent, without changing the limit.
+     */
+    void release() {
+        synchronized (this) {
+            inFlight--;
+        }
+
+        wakeUp();
+    }
+
+    /**
+     * Releases the slot of the completed request and adjusts the limit.
+     *
+     * @param startNs Request start timestamp in nanoseconds.
+     * @param failed Whether the request failed because of the overload, i.e. with I/O error, timeout or server error.
+     */
+    void release(long startNs, boolean failed) {
+        long now = System.nanoTime();
+
+        synchronized (this) {
+            // Limit is checked against the requests in progress including this one.
+            int cur = inFlight--;
+
+            if (failed)
+                decrease(startNs, now, FAILURE_BACKOFF);
+            else {
+                long ns = now - startNs;
+
+                latencyNs = latencyNs == 0 ? ns : latencyNs + ALPHA * (ns - latencyNs);
+
+                if (++samples == MIN_LATENCY_WINDOW) {
+                    prevMinLatencyNs = minLatencyNs;
+                    minLatencyNs = ns;
+                    samples = 0;
+                }
+                else
+                    minLatencyNs = Math.min(minLatencyNs, ns);
+
+                long noLoadNs = Math.min(minLatencyNs, prevMinLatencyNs);
+
+                if (latencyNs > noLoadNs * LATENCY_TOLERANCE + LATENCY_SLACK_NS)
+                    decrease(startNs, now, BACKOFF);
+                // Limit not used by the caller at least by half tells nothing about the server capacity.
+                else if (cur * 2 >= limit)
+                    limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+        }
+
+        wakeUp();
+    }
+
+    /**
+     *
+     * @param startNs
+     * @param now
+     * @param backoff
+     */
+    private void decrease(long startNs, long now, double backoff) {
+        // Requests sent before the previous decrease saw the overload it reacted to already.
+        if (startNs - lastDecreaseNs > 0) {
+            limit = Math.max(1, limit * backoff);
+            lastDecreaseNs = now;
+        }
+    }
+
+    /**
+     * Passes released slots to the waiting requests.
+     */
+    private void wakeUp() {
+        while (true) {
+            CompletableFuture<Void> w;
+
+            synchronized (this) {
+                if (waiters.isEmpty() || inFlight >= (int)limit)
+                    return;
+
+                w = waiters.poll();
+
+                inFlight++;
+            }
+
+            // Completed outside of the lock since it runs dependent actions of the waiting request.
+            if (!w.complete(null)) {
+                // Timed out or abandoned meanwhile.
+                synchronized (this) {
+                    inFlight--;
+                }
+            }
+        }
+    }
+
+    /**
+     *
+     * @return
+     */
+    private synchronized NCConcurrencyLimitException rejection() {
+        return new NCConcurrencyLimitException(
+            String.format("Too many concurrent requests [baseUrl=%s, mdlId=%s, limit=%d]", baseUrl, mdlId, (int)limit)
+        );
+    }
+
+    /**
+     *
+     * @return
+     */
+    synchronized NCConcurrencyLimitStatsImpl getStats() {
+        return new NCConcurrencyLimitStatsImpl(baseUrl, mdlId, (int)limit, inFlight, waiters.size(), rejected);
+    }
+}
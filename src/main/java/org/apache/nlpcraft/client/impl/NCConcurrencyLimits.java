@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client.impl;
+
+import org.apache.nlpcraft.client.NCConcurrencyLimitStats;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Concurrency limiters of the client, one per endpoint and model. Limiters are created with the first request.
+ */
+public class NCConcurrencyLimits {
+    private final int initLimit;
+    private final int maxLimit;
+    private final long queueTimeoutMs;
+    private final Map<NCEndpoint, Map<String, NCConcurrencyLimiter>> limiters = new ConcurrentHashMap<>();
+
+    /**
+     *
+     * @param initLimit Initial limit.
+     * @param maxLimit Maximum limit.
+     * @param queueTimeoutMs Maximum time the request waits in the queue, zero to reject requests over the limit.
+     */
+    public NCConcurrencyLimits(int initLimit, int maxLimit, long queueTimeoutMs) {
+        this.initLimit = initLimit;
+        this.maxLimit = maxLimit;
+        this.queueTimeoutMs = queueTimeoutMs;
+    }
+
+    /**
+     *
+     * @param ep Endpoint.
+     * @param mdlId Model ID, {@code null} for the requests not related to any model.
+     * @return Limiter.
+     */
+    NCConcurrencyLimiter get(NCEndpoint ep, String mdlId) {
+        return limiters.
+            computeIfAbsent(ep, k -> new ConcurrentHashMap<>()).
+            computeIfAbsent(
+                mdlId != null ? mdlId : "",
+                k -> new NCConcurrencyLimiter(ep.getBaseUrl(), mdlId, initLimit, maxLimit, queueTimeoutMs)
+            );
+    }
+
+    /**
+     *
+     * @return
+     */
+    List<NCConcurrencyLimitStats> getStats() {
+        List<NCConcurrencyLimitStats> res = new ArrayList<>();
+
+        for (Map<String, NCConcurrencyLimiter> m : limiters.values())
+            for (NCConcurrencyLimiter lim : m.values())
+                res.add(lim.getStats());
+
+        return res;
+    }
+}
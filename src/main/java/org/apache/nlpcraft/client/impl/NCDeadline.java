@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client.impl;
+
+import org.apache.nlpcraft.client.NCDeadlineExceededException;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Deadline of the client call.
+ * <p>
+ * Deadline is set for the current thread by the client view returned by {@link #view(Class, Object, long)} for
+ * the duration of each call. Client picks it up when the call posts its request, and bounds waiting for the
+ * concurrency limit, retries and the HTTP exchange by the time left.
+ */
+final class NCDeadline {
+    private static final ThreadLocal<NCDeadline> CUR = new ThreadLocal<>();
+
+    private final long timeoutMs;
+    private final long deadlineNs;
+
+    /**
+     *
+     * @param timeoutMs Timeout from now.
+     */
+    private NCDeadline(long timeoutMs) {
+        this.timeoutMs = timeoutMs;
+
+        deadlineNs = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+    }
+
+    /**
+     *
+     * @param timeoutMs Timeout from now.
+     * @return New deadline.
+     */
+    static NCDeadline after(long timeoutMs) {
+        return new NCDeadline(timeoutMs);
+    }
+
+    /**
+     * Gets the deadline of the current thread call.
+     *
+     * @return Deadline, or {@code null} if the call is not bounded.
+     */
+    static NCDeadline current() {
+        return CUR.get();
+    }
+
+    /**
+     * Sets the deadline of the current thread, e.g. when the call continues in another thread.
+     *
+     * @param dl Deadline, {@code null} for none.
+     * @return Previous deadline to be restored by {@link #exit(NCDeadline)}.
+     */
+    static NCDeadline enter(NCDeadline dl) {
+        NCDeadline prev = CUR.get();
+
+        if (dl == null)
+            CUR.remove();
+        else
+            CUR.set(dl);
+
+        return prev;
+    }
+
+    /**
+     * Restores the deadline of the current thread.
+     *
+     * @param prev Deadline returned by {@link #enter(NCDeadline)}.
+     */
+    static void exit(NCDeadline prev) {
+        enter(prev);
+    }
+
+    /**
+     * Creates view of the client which runs each call of the given interface with the new deadline.
+     *
+     * @param itf Client interface.
+     * @param cli Client.
+     * @param timeoutMs Timeout of each call.
+     * @param <T> Type of the client interface.
+     * @return Client view.
+     */
+    static <T> T view(Class<T> itf, T cli, long timeoutMs) {
+        if (timeoutMs <= 0)
+            throw new IllegalArgumentException("Deadline timeout must be positive.");
+
+        Object view = Proxy.newProxyInstance(itf.getClassLoader(), new Class<?>[] { itf }, (proxy, m, args) -> {
+            if (m.getDeclaringClass() == Object.class) {
+                switch (m.getName()) {
+                    case "equals": return proxy == args[0];
+                    case "hashCode": return System.identityHashCode(proxy);
+                    default: return "Client view [timeout=" + timeoutMs + "ms, client=" + cli + ']';
+                }
+            }
+
+            NCDeadline prev = enter(new NCDeadline(timeoutMs));
+
+            try {
+                return m.invoke(cli, args);
+            }
+            catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            finally {
+                exit(prev);
+            }
+        });
+
+        return itf.cast(view);
+    }
+
+    /**
+     *
+     * @return Time left in milliseconds, zero if the deadline passed.
+     */
+    long remainingMs() {
+        long ns = deadlineNs - System.nanoTime();
+
+        return ns > 0 ? Math.max(1, TimeUnit.NANOSECONDS.toMillis(ns)) : 0;
+    }
+
+    /**
+     *
+     * @return Whether the deadline passed.
+     */
+    boolean isExpired() {
+        return deadlineNs - System.nanoTime() <= 0;
+    }
+
+    /**
+     *
+     * @param url REST call.
+     * @return Exception to report the passed deadline.
+     */
+    NCDeadlineExceededException exceeded(String url) {
+        return new NCDeadlineExceededException(String.format("Deadline exceeded [url=%s, timeout=%dms]", url, timeoutMs));
+    }
+
+    /**
+     * Checks the deadline before the request is sent.
+     *
+     * @param url REST call.
+     * @throws NCDeadlineExceededException If the deadline passed.
+     */
+    void check(String url) throws NCDeadlineExceededException {
+        if (isExpired())
+            throw exceeded(url);
+    }
+
+    /**
+     * Bounds the asynchronous call by the time left. Result that arrives after the deadline is passed to the
+     * given consumer, e.g. to release it on the server.
+     *
+     * @param fut Call future.
+     * @param url REST call.
+     * @param late Consumer of the late result, {@code null} if not needed.
+     * @param <T> Type of the result.
+     * @return Bounded future.
+     */
+    <T> CompletableFuture<T> bound(CompletableFuture<T> fut, String url, Consumer<T> late) {
+        CompletableFuture<T> res = new CompletableFuture<>();
+
+        NCThreads.delayed(remainingMs()).execute(() -> {
+            if (!res.isDone())
+                res.completeExceptionally(exceeded(url));
+        });
+
+        fut.whenComplete((r, e) -> {
+            if (e != null)
+                res.completeExceptionally(e);
+            else if (!res.complete(r) && late != null)
+                late.accept(r);
+        });
+
+        return res;
+    }
+}
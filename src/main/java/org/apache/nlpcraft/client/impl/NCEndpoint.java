@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client.impl;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * REST endpoint, i.e. one of the servers the client is configured with. Keeps its own session and the
+ * routing metrics: outstanding requests, latency moving average and consecutive failures.
+ */
+class NCEndpoint {
+    /** Weight of the new latency sample in the moving average. */
+    private static final double ALPHA = 0.2;
+
+    private final String baseUrl;
+    private final NCSession session = new NCSession();
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicLong latencyBits = new AtomicLong(Double.doubleToLongBits(0));
+    private final AtomicInteger consecutiveFails = new AtomicInteger();
+    private final AtomicLong reqs = new AtomicLong();
+    private final AtomicLong fails = new AtomicLong();
+    private final AtomicLong ejections = new AtomicLong();
+    private volatile long ejectedUntil;
+
+    /**
+     *
+     * @param baseUrl
+     */
+    NCEndpoint(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    /**
+     *
+     * @return
+     */
+    String getBaseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     *
+     * @return
+     */
+    NCSession getSession() {
+        return session;
+    }
+
+    /**
+     * Gets routing score, lower is better: expected latency multiplied by the number of outstanding
+     * requests including the new one.
+     *
+     * @return Routing score.
+     */
+    double score() {
+        // Endpoint without samples yet is assumed to be as fast as possible, so that it's tried soon.
+        return (getLatency() + 1) * (outstanding.get() + 1);
+    }
+
+    /**
+     *
+     * @return
+     */
+    int getOutstanding() {
+        return outstanding.get();
+    }
+
+    /**
+     *
+     * @param now
+     * @return
+     */
+    boolean isEjected(long now) {
+        return ejectedUntil > now;
+    }
+
+    /**
+     *
+     * @return
+     */
+    long getEjectedUntil() {
+        return ejectedUntil;
+    }
+
+    /**
+     * Registers request start.
+     *
+     * @return Start timestamp in nanoseconds.
+     */
+    long start() {
+        outstanding.incrementAndGet();
+        reqs.incrementAndGet();
+
+        return System.nanoTime();
+    }
+
+    /**
+     * Registers request that got the response, successful or not.
+     *
+     * @param startNs Start timestamp returned by {@link #start()}.
+     */
+    void succeed(long startNs) {
+        outstanding.decrementAndGet();
+        consecutiveFails.set(0);
+
+        double ms = (System.nanoTime() - startNs) / 1_000_000.0;
+
+        latencyBits.getAndUpdate(bits -> {
+            double avg = Double.longBitsToDouble(bits);
+
+            return Double.doubleToLongBits(avg == 0 ? ms : avg + ALPHA * (ms - avg));
+        });
+    }
+
+    /**
+     * Registers request that failed to get any response.
+     *
+     * @return Number of consecutive failures.
+     */
+    int failRequest() {
+        outstanding.decrementAndGet();
+
+        return fail();
+    }
+
+    /**
+     * Registers failure not related to the routed request, e.g. failed health check.
+     *
+     * @return Number of consecutive failures.
+     */
+    int fail() {
+        fails.incrementAndGet();
+
+        return consecutiveFails.incrementAndGet();
+    }
+
+    /**
+     *
+     * @param until
+     */
+    void eject(long until) {
+        ejections.incrementAndGet();
+
+        ejectedUntil = until;
+    }
+
+    /**
+     * Returns ejected endpoint back to routing.
+     */
+    void reinstate() {
+        consecutiveFails.set(0);
+
+        ejectedUntil = 0;
+    }
+
+    /**
+     *
+     * @return
+     */
+    double getLatency() {
+        return Double.longBitsToDouble(latencyBits.get());
+    }
+
+    /**
+     *
+     * @return
+     */
+    NCEndpointStatsImpl getStats() {
+        return new NCEndpointStatsImpl(
+            baseUrl,
+            isEjected(System.currentTimeMillis()),
+            outstanding.get(),
+            getLatency(),
+            reqs.get(),
+            fails.get(),
+            ejections.get()
+        );
+    }
+}
@@ -0,0 +1,493 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client.impl;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.nlpcraft.client.NCEndpointStats;
+import org.apache.nlpcraft.client.NCResult;
+import org.apache.nlpcraft.client.NCStickyRouting;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client-side load balancer over several REST endpoints.
+ * <p>
+ * Each request is routed to the endpoint with the lowest product of the latency moving average and the number
+ * of outstanding requests, so that slower or busier endpoints get proportionally less load. Endpoint failing
+ * to respond several times in a row is ejected from routing for the ejection time (passive ejection).
+ * Background health checks return ejected endpoints back as soon as they respond, and count failures of the
+ * idle ones (active health checks). If all endpoints are ejected, the one to be returned first is used anyway.
+ * <p>
+ * Requests with the sticky routing key are routed by consistent hashing with bounded load: the key is mapped to
+ * the ring of endpoint virtual nodes and the first endpoint clockwise which is not ejected and has less than
+ * the load factor times the average outstanding requests is selected.
+ * <p>
+ * Server requests are known only to the endpoint which created them, so the router remembers that endpoint
+ * and checks and cancels of the request are sent to it regardless of the load. The endpoint is forgotten once
+ * the request is cancelled or its ready result is delivered. Checks and cancels of the requests with unknown
+ * endpoints, and of all requests, are sent to every signed in endpoint.
+ */
+public class NCEndpointRouter {
+    /** REST call used for health checks. */
+    static final String HEALTH_CALL = "health";
+
+    /** Maximum time the health check waits for the response, unless the request config sets shorter timeouts. */
+    static final long HEALTH_CHECK_TIMEOUT_MS = 5000;
+
+    /** Number of virtual nodes of each endpoint on the hash ring. */
+    private static final int VNODES = 100;
+
+    /**
+     * Maximum number of pending server requests which endpoints are remembered, the eldest ones are forgotten first.
+     */
+    private static final int MAX_OWNED = 100_000;
+
+    private static final Logger log = LogManager.getLogger(NCEndpointRouter.class);
+
+    /**
+     * Endpoint health check.
+     */
+    @FunctionalInterface
+    interface Checker {
+        /**
+         *
+         * @param ep Endpoint to check.
+         * @return Whether endpoint responded.
+         * @throws Exception Thrown if check failed.
+         */
+        boolean check(NCEndpoint ep) throws Exception;
+    }
+
+    private final List<NCEndpoint> eps;
+    private final int ejectThreshold;
+    private final long ejectTimeMs;
+    private final long healthIntervalMs;
+    private final NCStickyRouting sticky;
+    private final double loadFactor;
+    private final long[] ringHashes;
+    private final NCEndpoint[] ringEps;
+    private final Map<String, NCEndpoint> owners;
+    private ScheduledExecutorService healthExec;
+
+    /**
+     *
+     * @param baseUrls Endpoint base URLs.
+     * @param ejectThreshold Number of consecutive failures ejecting endpoint.
+     * @param ejectTimeMs Ejection time.
+     * @param healthIntervalMs Health checks interval, non-positive to disable them.
+     * @param sticky Sticky routing mode.
+     * @param loadFactor Maximum load of the endpoint selected by the sticky routing relative to the average load.
+     */
+    public NCEndpointRouter(
+        List<String> baseUrls,
+        int ejectThreshold,
+        long ejectTimeMs,
+        long healthIntervalMs,
+        NCStickyRouting sticky,
+        double loadFactor
+    ) {
+        List<NCEndpoint> eps = new ArrayList<>(baseUrls.size());
+
+        for (String url : baseUrls)
+            eps.add(new NCEndpoint(url));
+
+        this.eps = Collections.unmodifiableList(eps);
+        this.ejectThreshold = ejectThreshold;
+        this.ejectTimeMs = ejectTimeMs;
+        this.healthIntervalMs = healthIntervalMs;
+        this.sticky = sticky;
+        this.loadFactor = loadFactor;
+
+        // Single endpoint owns all the requests.
+        owners = eps.size() > 1 ? new LinkedHashMap<>() : null;
+
+        // Sorted ring of virtual nodes.
+        long[][] nodes = new long[eps.size() * VNODES][];
+
+        for (int i = 0; i < eps.size(); i++)
+            for (int j = 0; j < VNODES; j++)
+                nodes[i * VNODES + j] = new long[] { hash(eps.get(i).getBaseUrl() + '#' + j), i };
+
+        Arrays.sort(nodes, Comparator.comparingLong(n -> n[0]));
+
+        ringHashes = new long[nodes.length];
+        ringEps = new NCEndpoint[nodes.length];
+
+        for (int i = 0; i < nodes.length; i++) {
+            ringHashes[i] = nodes[i][0];
+            ringEps[i] = eps.get((int)nodes[i][1]);
+        }
+    }
+
+    /**
+     * 64-bit FNV-1a hash with the final avalanche mix of MurmurHash3.
+     *
+     * @param s String to hash.
+     * @return Hash.
+     */
+    static long hash(String s) {
+        long h = 0xcbf29ce484222325L;
+
+        for (int i = 0; i < s.length(); i++) {
+            h ^= s.charAt(i);
+            h *= 0x100000001b3L;
+        }
+
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+
+        return h;
+    }
+
+    /**
+     * Gets sticky routing key of the conversation-related request.
+     *
+     * @param mdlId Model ID.
+     * @param usrId User ID.
+     * @param usrExtId External user ID.
+     * @return Routing key, or {@code null} if sticky routing is not used.
+     */
+    String key(String mdlId, Long usrId, String usrExtId) {
+        if (sticky == NCStickyRouting.NONE || eps.size() == 1)
+            return null;
+
+        // Request without user IDs is done on behalf of the signed in user.
+        String usr = usrId != null ? "id:" + usrId : usrExtId != null ? "ext:" + usrExtId : "";
+
+        return sticky == NCStickyRouting.USER_MODEL ? usr + '|' + mdlId : usr;
+    }
+
+    /**
+     * Selects endpoint for the request with sticky routing key.
+     *
+     * @param key Routing key, {@code null} for the request routed by load only.
+     * @return Endpoint.
+     */
+    NCEndpoint select(String key) {
+        if (key == null)
+            return select();
+
+        long now = System.currentTimeMillis();
+        int avail = 0;
+        long total = 0;
+
+        for (NCEndpoint ep : eps)
+            if (!ep.isEjected(now)) {
+                avail++;
+                total += ep.getOutstanding();
+            }
+
+        if (avail == 0)
+            return select();
+
+        // Bounded load: endpoint can't take more than load factor times average load, including this request.
+        double cap = Math.ceil(loadFactor * (total + 1) / avail);
+
+        int n = ringHashes.length;
+        int i = Arrays.binarySearch(ringHashes, hash(key));
+
+        if (i < 0)
+            i = -i - 1;
+
+        for (int k = 0; k < n; k++) {
+            NCEndpoint ep = ringEps[(i + k) % n];
+
+            if (!ep.isEjected(now) && ep.getOutstanding() < cap)
+                return ep;
+        }
+
+        return select();
+    }
+
+    /**
+     *
+     * @return
+     */
+    List<NCEndpoint> getEndpoints() {
+        return eps;
+    }
+
+    /**
+     * Selects endpoint for the next request.
+     *
+     * @return Endpoint.
+     */
+    NCEndpoint select() {
+        int n = eps.size();
+
+        if (n == 1)
+            return eps.get(0);
+
+        long now = System.currentTimeMillis();
+
+        // Random starting point spreads the requests between endpoints with equal scores.
+        int off = ThreadLocalRandom.current().nextInt(n);
+
+        NCEndpoint best = null;
+        double bestScore = Double.MAX_VALUE;
+
+        for (int i = 0; i < n; i++) {
+            NCEndpoint ep = eps.get((off + i) % n);
+
+            if (ep.isEjected(now))
+                continue;
+
+            double score = ep.score();
+
+            if (score < bestScore) {
+                best = ep;
+                bestScore = score;
+            }
+        }
+
+        if (best != null)
+            return best;
+
+        // All ejected - fails open with the endpoint to be returned first.
+        for (NCEndpoint ep : eps)
+            if (best == null || ep.getEjectedUntil() < best.getEjectedUntil())
+                best = ep;
+
+        return best;
+    }
+
+    /**
+     * Remembers the endpoint which created the server request.
+     *
+     * @param srvReqId Server request ID, {@code null} if the call didn't create any request.
+     * @param ep Endpoint.
+     */
+    void own(String srvReqId, NCEndpoint ep) {
+        if (owners == null || srvReqId == null)
+            return;
+
+        synchronized (owners) {
+            owners.put(srvReqId, ep);
+
+            if (owners.size() > MAX_OWNED) {
+                Iterator<NCEndpoint> it = owners.values().iterator();
+
+                it.next();
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Forgets the endpoints of the cancelled server requests.
+     *
+     * @param srvReqIds Server request IDs, {@code null} for all requests.
+     */
+    void disown(Set<String> srvReqIds) {
+        if (owners == null || srvReqIds == null)
+            return;
+
+        synchronized (owners) {
+            owners.keySet().removeAll(srvReqIds);
+        }
+    }
+
+    /**
+     * Forgets the endpoints of the server requests which ready results are delivered.
+     *
+     * @param res Delivered results.
+     */
+    void delivered(List<? extends NCResult> res) {
+        if (owners == null)
+            return;
+
+        synchronized (owners) {
+            for (NCResult r : res)
+                if (r.isReady())
+                    owners.remove(r.getServerRequestId());
+        }
+    }
+
+    /**
+     * Groups server requests by the endpoints which created them.
+     *
+     * @param srvReqIds Server request IDs, {@code null} for all requests.
+     * @return Server request IDs by endpoint. Requests with unknown endpoint, and all requests if the set is
+     *      {@code null}, are mapped to every signed in endpoint, since only those can have any requests. If no
+     *      endpoint is signed in, they are mapped to the {@code null} endpoint and routed by load.
+     */
+    Map<NCEndpoint, Set<String>> owners(Set<String> srvReqIds) {
+        if (owners == null || srvReqIds != null && srvReqIds.isEmpty())
+            return Collections.singletonMap(null, srvReqIds);
+
+        if (srvReqIds == null)
+            return toSignedIn(null);
+
+        Map<NCEndpoint, Set<String>> res = new LinkedHashMap<>();
+        Set<String> unknown = new HashSet<>();
+
+        synchronized (owners) {
+            for (String id : srvReqIds) {
+                NCEndpoint ep = owners.get(id);
+
+                if (ep != null)
+                    res.computeIfAbsent(ep, k -> new HashSet<>()).add(id);
+                else
+                    unknown.add(id);
+            }
+        }
+
+        if (!unknown.isEmpty())
+            for (Map.Entry<NCEndpoint, Set<String>> e : toSignedIn(unknown).entrySet())
+                res.computeIfAbsent(e.getKey(), k -> new HashSet<>()).addAll(e.getValue());
+
+        return res;
+    }
+
+    /**
+     * Maps server requests to every signed in endpoint.
+     *
+     * @param srvReqIds Server request IDs, {@code null} for all requests.
+     * @return Server request IDs by endpoint, or by the {@code null} endpoint if no endpoint is signed in.
+     */
+    private Map<NCEndpoint, Set<String>> toSignedIn(Set<String> srvReqIds) {
+        Map<NCEndpoint, Set<String>> res = new LinkedHashMap<>();
+
+        for (NCEndpoint ep : eps)
+            if (ep.getSession().current().get() != null)
+                res.put(ep, srvReqIds);
+
+        return res.isEmpty() ? Collections.singletonMap(null, srvReqIds) : res;
+    }
+
+    /**
+     * Registers routed request that failed to get any response.
+     *
+     * @param ep Endpoint.
+     */
+    void failRequest(NCEndpoint ep) {
+        ejectIfNeeded(ep, ep.failRequest());
+    }
+
+    /**
+     * Registers failure not related to the routed request, e.g. failed sign in.
+     *
+     * @param ep Endpoint.
+     */
+    void fail(NCEndpoint ep) {
+        ejectIfNeeded(ep, ep.fail());
+    }
+
+    /**
+     *
+     * @param ep
+     * @param fails
+     */
+    private void ejectIfNeeded(NCEndpoint ep, int fails) {
+        // Single endpoint is never ejected, there is nothing to fail over to.
+        if (eps.size() > 1 && fails >= ejectThreshold) {
+            long now = System.currentTimeMillis();
+
+            if (!ep.isEjected(now)) {
+                ep.eject(now + ejectTimeMs);
+
+                log.warn("REST endpoint ejected [baseUrl={}, failures={}]", ep.getBaseUrl(), fails);
+            }
+        }
+    }
+
+    /**
+     * Starts periodic health checks, if enabled.
+     *
+     * @param checker Health check.
+     */
+    synchronized void start(Checker checker) {
+        if (eps.size() == 1 || healthIntervalMs <= 0)
+            return;
+
+        healthExec = NCThreads.newScheduledExecutor("nlpcraft-client-health-check");
+
+        healthExec.scheduleWithFixedDelay(() -> check(checker), healthIntervalMs, healthIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     *
+     * @param checker
+     */
+    private void check(Checker checker) {
+        long now = System.currentTimeMillis();
+
+        for (NCEndpoint ep : eps) {
+            boolean ok;
+
+            try {
+                ok = checker.check(ep);
+            }
+            catch (Exception e) {
+                log.debug("REST endpoint health check failed [baseUrl={}, error={}]", ep.getBaseUrl(), e.getMessage());
+
+                ok = false;
+            }
+
+            if (ok) {
+                if (ep.isEjected(now)) {
+                    ep.reinstate();
+
+                    log.info("REST endpoint reinstated [baseUrl={}]", ep.getBaseUrl());
+                }
+            }
+            else
+                fail(ep);
+        }
+    }
+
+    /**
+     *
+     * @return
+     */
+    List<NCEndpointStats> getStats() {
+        List<NCEndpointStats> res = new ArrayList<>(eps.size());
+
+        for (NCEndpoint ep : eps)
+            res.add(ep.getStats());
+
+        return res;
+    }
+
+    /**
+     * Stops health checks.
+     */
+    synchronized void close() {
+        if (healthExec != null) {
+            healthExec.shutdownNow();
+
+            healthExec = null;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client.impl;
+
+import org.apache.nlpcraft.client.NCEndpointStats;
+
+/**
+ * Endpoint statistics snapshot.
+ */
+public class NCEndpointStatsImpl implements NCEndpointStats {
+    private final String baseUrl;
+    private final boolean ejected;
+    private final int outstanding;
+    private final double latency;
+    private final long reqs;
+    private final long fails;
+    private final long ejections;
+
+    /**
+     *
+     * @param baseUrl
+     * @param ejected
+     * @param outstanding
+     * @param latency
+     * @param reqs
+     * @param fails
+     * @param ejections
+     */
+    public NCEndpointStatsImpl(
+        String baseUrl, boolean ejected, int outstanding, double latency, long reqs, long fails, long ejections
+    ) {
+        this.baseUrl = baseUrl;
+        this.ejected = ejected;
+        this.outstanding = outstanding;
+        this.latency = latency;
+        this.reqs = reqs;
+        this.fails = fails;
+        this.ejections = ejections;
+    }
+
+    @Override
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    @Override
+    public boolean isEjected() {
+        return ejected;
+    }
+
+    @Override
+    public int getOutstanding() {
+        return outstanding;
+    }
+
+    @Override
+    public double getLatency() {
+        return latency;
+    }
+
+    @Override
+    public long getRequests() {
+        return reqs;
+    }
+
+    @Override
+    public long getFailures() {
+        return fails;
+    }
+
+    @Override
+    public long getEjections() {
+        return ejections;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "[baseUrl=%s, ejected=%b, outstanding=%d, latency=%.2fms, requests=%d, failures=%d, ejections=%d]",
+            baseUrl, ejected, outstanding, latency, reqs, fails, ejections
+        );
+    }
+}
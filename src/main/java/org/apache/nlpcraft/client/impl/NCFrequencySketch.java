@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client.impl;
+
+/**
+ * Count-min sketch of the recent key frequencies with periodic aging. Counters are capped at 15
+ * and all of them are halved after the sample of 10 increments per counter, so that frequencies
+ * reflect recent popularity only.
+ */
+class NCFrequencySketch {
+    private static final int DEPTH = 4;
+    private static final int MAX = 15;
+    private static final int[] SEEDS = { 0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F };
+
+    private final int[] tbl;
+    private final int mask;
+    private final int sampleSize;
+    private int size;
+
+    /**
+     *
+     * @param width Minimal number of counters per row.
+     */
+    NCFrequencySketch(int width) {
+        int w = Integer.highestOneBit(Math.max(16, width - 1) << 1);
+
+        tbl = new int[w * DEPTH];
+        mask = w - 1;
+        sampleSize = 10 * w;
+    }
+
+    /**
+     *
+     * @param hash
+     * @param row
+     * @return
+     */
+    private int index(int hash, int row) {
+        int h = (hash ^ (hash >>> 16)) * SEEDS[row];
+
+        return row * (mask + 1) + ((h ^ (h >>> 15)) & mask);
+    }
+
+    /**
+     *
+     * @param hash Key hash.
+     */
+    void increment(int hash) {
+        boolean added = false;
+
+        for (int i = 0; i < DEPTH; i++) {
+            int idx = index(hash, i);
+
+            if (tbl[idx] < MAX) {
+                tbl[idx]++;
+
+                added = true;
+            }
+        }
+
+        if (added && ++size >= sampleSize) {
+            for (int i = 0; i < tbl.length; i++)
+                tbl[i] >>>= 1;
+
+            size /= 2;
+        }
+    }
+
+    /**
+     *
+     * @param hash Key hash.
+     * @return Estimated recent frequency of the key.
+     */
+    int frequency(int hash) {
+        int min = MAX;
+
+        for (int i = 0; i < DEPTH; i++)
+            min = Math.min(min, tbl[index(hash, i)]);
+
+        return min;
+    }
+}
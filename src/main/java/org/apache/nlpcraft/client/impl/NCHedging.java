@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client.impl;
+
+import org.apache.nlpcraft.client.NCResult;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Hedging of the <code>askSync</code> requests.
+ * <p>
+ * Request which doesn't return within the configured percentile of the recent latency is duplicated, and the
+ * first successful result of the two is used. Result of the other request is cancelled on the server. Hedges are
+ * limited by the budget: each request deposits the budget ratio of the token, each hedge withdraws the whole
+ * token, so that hedges add at most the budget share of the load.
+ */
+public class NCHedging {
+    /** Number of the recent latency samples. */
+    private static final int WINDOW = 1000;
+
+    /** Minimum number of the latency samples before hedging. */
+    static final int MIN_SAMPLES = 20;
+
+    /** Number of samples after which the percentile is recalculated. */
+    private static final int RECALC_SAMPLES = 50;
+
+    /** Maximum number of tokens in the budget, i.e. hedges allowed in a row. */
+    private static final double MAX_TOKENS = 5;
+
+    private final double percentile;
+    private final double budget;
+
+    // Guarded by 'this'.
+    private final long[] samples = new long[WINDOW];
+    private int pos;
+    private int cnt;
+    private int sinceCalc;
+    private long delayMs = -1;
+    private double tokens;
+    private long reqs;
+    private long hedges;
+    private long won;
+
+    /**
+     *
+     * @param percentile Percentile of the recent latency after which the request is hedged.
+     * @param budget Number of hedges allowed per request on average.
+     */
+    public NCHedging(double percentile, double budget) {
+        this.percentile = percentile;
+        this.budget = budget;
+    }
+
+    /**
+     * Registers new request, depositing to the hedging budget.
+     *
+     * @return Hedging delay in milliseconds, or negative value if the request should not be hedged.
+     */
+    synchronized long onRequest() {
+        reqs++;
+
+        tokens = Math.min(MAX_TOKENS, tokens + budget);
+
+        return tokens >= 1 ? delayMs : -1;
+    }
+
+    /**
+     * Withdraws the hedge from the budget.
+     *
+     * @return Whether the hedge is allowed.
+     */
+    synchronized boolean tryHedge() {
+        if (tokens < 1)
+            return false;
+
+        tokens--;
+        hedges++;
+
+        return true;
+    }
+
+    /**
+     * Records latency of the successful request.
+     *
+     * @param startNs Request start timestamp in nanoseconds.
+     */
+    void record(long startNs) {
+        long ms = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNs);
+
+        synchronized (this) {
+            samples[pos] = ms;
+            pos = (pos + 1) % WINDOW;
+
+            if (cnt < WINDOW)
+                cnt++;
+
+            if (cnt >= MIN_SAMPLES && (delayMs < 0 || ++sinceCalc >= RECALC_SAMPLES)) {
+                long[] sorted = Arrays.copyOf(samples, cnt);
+
+                Arrays.sort(sorted);
+
+                delayMs = sorted[Math.max(0, (int)Math.ceil(percentile * cnt) - 1)];
+                sinceCalc = 0;
+            }
+        }
+    }
+
+    /**
+     * Races the original request with the hedge. Result of the request which loses, if successful, is passed
+     * to the given consumer to be cancelled.
+     *
+     * @param orig Original request.
+     * @param hedge Hedge request.
+     * @param cancel Consumer of the losing result.
+     * @return First successful result, or the error of the original request if both failed.
+     */
+    CompletableFuture<NCResult> race(
+        CompletableFuture<NCResult> orig, CompletableFuture<NCResult> hedge, Consumer<NCResult> cancel
+    ) {
+        CompletableFuture<NCResult> res = new CompletableFuture<>();
+        AtomicInteger fails = new AtomicInteger();
+
+        orig.whenComplete((r, e) -> {
+            if (e == null) {
+                if (!res.complete(r))
+                    cancel.accept(r);
+            }
+            else if (fails.incrementAndGet() == 2)
+                res.completeExceptionally(e);
+        });
+
+        hedge.whenComplete((r, e) -> {
+            if (e == null) {
+                if (res.complete(r)) {
+                    synchronized (this) {
+                        won++;
+                    }
+                }
+                else
+                    cancel.accept(r);
+            }
+            else if (fails.incrementAndGet() == 2)
+                orig.whenComplete((r1, e1) -> res.completeExceptionally(e1));
+        });
+
+        return res;
+    }
+
+    /**
+     *
+     * @return
+     */
+    synchronized NCHedgingStatsImpl getStats() {
+        return new NCHedgingStatsImpl(delayMs, reqs, hedges, won);
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client.impl;
+
+import org.apache.nlpcraft.client.NCHedgingStats;
+
+/**
+ * Hedging statistics snapshot.
+ */
+public class NCHedgingStatsImpl implements NCHedgingStats {
+    private final long delayMs;
+    private final long reqs;
+    private final long hedges;
+    private final long won;
+
+    /**
+     *
+     * @param delayMs
+     * @param reqs
+     * @param hedges
+     * @param won
+     */
+    public NCHedgingStatsImpl(long delayMs, long reqs, long hedges, long won) {
+        this.delayMs = delayMs;
+        this.reqs = reqs;
+        this.hedges = hedges;
+        this.won = won;
+    }
+
+    @Override
+    public long getDelay() {
+        return delayMs;
+    }
+
+    @Override
+    public long getRequests() {
+        return reqs;
+    }
+
+    @Override
+    public long getHedges() {
+        return hedges;
+    }
+
+    @Override
+    public long getHedgesWon() {
+        return won;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[delay=%dms, requests=%d, hedges=%d, won=%d]", delayMs, reqs, hedges, won);
+    }
+}
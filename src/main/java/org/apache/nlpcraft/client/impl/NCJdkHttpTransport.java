@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client.impl;
+
+import org.apache.nlpcraft.client.NCClientException;
+import org.apache.nlpcraft.client.NCTransport;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.Charset;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Transport on JDK <code>java.net.http.HttpClient</code>. Prefers HTTP/2, so that concurrent requests are
+ * multiplexed over a few connections, and falls back to HTTP/1.1 if the server doesn't support it.
+ */
+public class NCJdkHttpTransport implements NCTransport {
+    private final HttpClient httpCli;
+    private final Duration reqTimeout;
+    private final ExecutorService exec;
+
+    /**
+     * Creates transport on the given HTTP client. The client is owned by the caller and isn't closed with
+     * this transport.
+     *
+     * @param httpCli HTTP client.
+     * @param reqTimeout Optional request timeout.
+     */
+    public NCJdkHttpTransport(HttpClient httpCli, Duration reqTimeout) {
+        this(httpCli, reqTimeout, null);
+    }
+
+    /**
+     *
+     * @param httpCli HTTP client.
+     * @param reqTimeout Optional request timeout.
+     * @param exec Executor of the HTTP client owned by this transport, {@code null} if the client isn't owned.
+     */
+    private NCJdkHttpTransport(HttpClient httpCli, Duration reqTimeout, ExecutorService exec) {
+        this.httpCli = httpCli;
+        this.reqTimeout = reqTimeout;
+        this.exec = exec;
+    }
+
+    /**
+     * Creates HTTP/2 transport with the given timeouts.
+     *
+     * @param connTimeoutMs Connect timeout, non-positive for none.
+     * @param reqTimeoutMs Request timeout, non-positive for none.
+     * @return Transport.
+     */
+    public static NCJdkHttpTransport create(int connTimeoutMs, int reqTimeoutMs) {
+        ExecutorService exec = NCThreads.newPerTaskExecutor("nlpcraft-client-http");
+        HttpClient.Builder b = HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).executor(exec);
+
+        if (connTimeoutMs > 0)
+            b.connectTimeout(Duration.ofMillis(connTimeoutMs));
+
+        return new NCJdkHttpTransport(b.build(), reqTimeoutMs > 0 ? Duration.ofMillis(reqTimeoutMs) : null, exec);
+    }
+
+    @Override
+    public <T> T post(String url, byte[] body, int len, Handler<T> h) throws IOException, NCClientException {
+        return post(url, body, len, reqTimeout, h);
+    }
+
+    @Override
+    public <T> T post(String url, byte[] body, int len, long timeoutMs, Handler<T> h)
+        throws IOException, NCClientException {
+        Duration timeout = Duration.ofMillis(Math.max(1, timeoutMs));
+
+        // Request timeout covers connect as well.
+        return post(url, body, len, reqTimeout != null && reqTimeout.compareTo(timeout) < 0 ? reqTimeout : timeout, h);
+    }
+
+    /**
+     *
+     * @param url
+     * @param body
+     * @param len
+     * @param timeout
+     * @param h
+     * @param <T>
+     * @return
+     * @throws IOException
+     * @throws NCClientException
+     */
+    private <T> T post(String url, byte[] body, int len, Duration timeout, Handler<T> h)
+        throws IOException, NCClientException {
+        HttpRequest.Builder b = HttpRequest.newBuilder(URI.create(url)).
+            header("Content-Type", "application/json; charset=UTF-8").
+            // Body is sent asynchronously by the client, so it can't refer to the caller's buffer.
+            POST(HttpRequest.BodyPublishers.ofByteArray(Arrays.copyOf(body, len)));
+
+        if (timeout != null)
+            b.timeout(timeout);
+
+        HttpResponse<InputStream> resp;
+
+        try {
+            resp = httpCli.send(b.build(), HttpResponse.BodyHandlers.ofInputStream());
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            throw new InterruptedIOException("Interrupted while waiting for response.");
+        }
+        catch (IllegalArgumentException e) {
+            throw new IOException(String.format("Invalid request URL: %s", url), e);
+        }
+
+        try (InputStream in = resp.body()) {
+            return h.handle(resp.statusCode(), in, charset(resp), name -> resp.headers().firstValue(name).orElse(null));
+        }
+    }
+
+    /**
+     *
+     * @param resp
+     * @return
+     */
+    private static Charset charset(HttpResponse<?> resp) {
+        String ct = resp.headers().firstValue("Content-Type").orElse(null);
+
+        if (ct == null)
+            return null;
+
+        for (String part : ct.split(";")) {
+            String p = part.trim();
+
+            if (p.toLowerCase(Locale.ROOT).startsWith("charset=")) {
+                try {
+                    return Charset.forName(p.substring(8).replace("\"", "").trim());
+                }
+                catch (IllegalArgumentException e) {
+                    return null;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public void close() {
+        if (exec != null) {
+            NCThreads.close(httpCli);
+
+            exec.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client.impl;
+
+import org.apache.http.pool.PoolStats;
+import org.apache.nlpcraft.client.NCPoolStats;
+
+/**
+ * Connection pool statistics snapshot.
+ */
+public class NCPoolStatsImpl implements NCPoolStats {
+    private final int leased;
+    private final int pending;
+    private final int available;
+    private final int max;
+
+    /**
+     *
+     * @param s HTTP pool statistics.
+     */
+    public NCPoolStatsImpl(PoolStats s) {
+        leased = s.getLeased();
+        pending = s.getPending();
+        available = s.getAvailable();
+        max = s.getMax();
+    }
+
+    @Override
+    public int getLeased() {
+        return leased;
+    }
+
+    @Override
+    public int getPending() {
+        return pending;
+    }
+
+    @Override
+    public int getAvailable() {
+        return available;
+    }
+
+    @Override
+    public int getMax() {
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[leased=%d, pending=%d, available=%d, max=%d]", leased, pending, available, max);
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client.impl;
+
+import com.google.gson.stream.JsonWriter;
+import org.apache.http.HttpEntity;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * Growable request body buffer. Encodes characters written by {@link JsonWriter} to UTF-8 bytes in place,
+ * so that request body is produced without intermediate strings. Blocking client reuses one buffer per
+ * thread, see {@link #local()}.
+ */
+public class NCRequestBuffer extends Writer {
+    /** Buffers grown above this size are not retained by the thread. */
+    private static final int MAX_RETAINED_SIZE = 64 * 1024;
+
+    private static final ThreadLocal<NCRequestBuffer> LOCAL = ThreadLocal.withInitial(NCRequestBuffer::new);
+
+    private byte[] buf = new byte[1024];
+    private int cnt;
+    private char hiSurrogate;
+
+    /**
+     * Gets the buffer reused by the current thread. Its content is only valid until the next
+     * {@link #encode(String, NCRequestWriter)} call on the same thread.
+     *
+     * @return Thread-local buffer.
+     */
+    public static NCRequestBuffer local() {
+        NCRequestBuffer b = LOCAL.get();
+
+        if (b.buf.length > MAX_RETAINED_SIZE) {
+            b = new NCRequestBuffer();
+
+            LOCAL.set(b);
+        }
+
+        return b;
+    }
+
+    /**
+     * Encodes request body, replacing the previous content of this buffer.
+     *
+     * @param acsTok Optional access token.
+     * @param wr Endpoint fields writer.
+     * @return This buffer.
+     * @throws IOException Thrown in case of any I/O errors.
+     */
+    public NCRequestBuffer encode(String acsTok, NCRequestWriter wr) throws IOException {
+        cnt = 0;
+        hiSurrogate = 0;
+
+        JsonWriter w = new JsonWriter(this);
+
+        w.beginObject();
+
+        if (acsTok != null)
+            w.name("acsTok").value(acsTok);
+
+        wr.write(w);
+
+        w.endObject();
+
+        return this;
+    }
+
+    /**
+     * Wraps current content into HTTP entity without copying it.
+     *
+     * @return HTTP entity.
+     */
+    public HttpEntity toEntity() {
+        return new ByteArrayEntity(buf, 0, cnt, ContentType.APPLICATION_JSON);
+    }
+
+    /**
+     * Gets internal array holding the encoded bytes without copying it. It is only valid until next encoding.
+     *
+     * @return Internal array, first {@link #size()} bytes of which are the encoded content.
+     */
+    public byte[] array() {
+        return buf;
+    }
+
+    /**
+     * Gets number of encoded bytes.
+     *
+     * @return Number of encoded bytes.
+     */
+    public int size() {
+        return cnt;
+    }
+
+    /**
+     *
+     * @param n
+     */
+    private void ensure(int n) {
+        if (cnt + n > buf.length)
+            buf = Arrays.copyOf(buf, Math.max(buf.length << 1, cnt + n));
+    }
+
+    /**
+     *
+     * @param c
+     */
+    private void put(char c) {
+        if (hiSurrogate != 0) {
+            char hi = hiSurrogate;
+
+            hiSurrogate = 0;
+
+            if (Character.isLowSurrogate(c)) {
+                int cp = Character.toCodePoint(hi, c);
+
+                ensure(4);
+
+                buf[cnt++] = (byte)(0xF0 | (cp >> 18));
+                buf[cnt++] = (byte)(0x80 | ((cp >> 12) & 0x3F));
+                buf[cnt++] = (byte)(0x80 | ((cp >> 6) & 0x3F));
+                buf[cnt++] = (byte)(0x80 | (cp & 0x3F));
+
+                return;
+            }
+
+            // Unpaired surrogate.
+            put('?');
+        }
+
+        if (c < 0x80) {
+            ensure(1);
+
+            buf[cnt++] = (byte)c;
+        }
+        else if (c < 0x800) {
+            ensure(2);
+
+            buf[cnt++] = (byte)(0xC0 | (c >> 6));
+            buf[cnt++] = (byte)(0x80 | (c & 0x3F));
+        }
+        else if (Character.isHighSurrogate(c))
+            hiSurrogate = c;
+        else if (Character.isLowSurrogate(c))
+            put('?');
+        else {
+            ensure(3);
+
+            buf[cnt++] = (byte)(0xE0 | (c >> 12));
+            buf[cnt++] = (byte)(0x80 | ((c >> 6) & 0x3F));
+            buf[cnt++] = (byte)(0x80 | (c & 0x3F));
+        }
+    }
+
+    @Override
+    public void write(int c) {
+        put((char)c);
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) {
+        for (int i = off; i < off + len; i++)
+            put(cbuf[i]);
+    }
+
+    @Override
+    public void write(String str, int off, int len) {
+        for (int i = off; i < off + len; i++)
+            put(str.charAt(i));
+    }
+
+    @Override
+    public void flush() {
+        // No-op.
+    }
+
+    @Override
+    public void close() {
+        // No-op.
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client.impl;
+
+import org.apache.nlpcraft.client.NCClientException;
+import org.apache.nlpcraft.client.NCResult;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight coalescing of the identical concurrent <code>askSync</code> requests. While the request is
+ * in flight, identical requests of the same model and user wait for its result instead of being sent to
+ * the server. Only enabled for the configured stateless models.
+ */
+public class NCRequestCoalescer {
+    /**
+     * Blocking <code>askSync</code> call.
+     */
+    @FunctionalInterface
+    public interface Call {
+        /**
+         *
+         * @return
+         * @throws NCClientException
+         * @throws IOException
+         */
+        NCResult call() throws NCClientException, IOException;
+    }
+
+    private final Set<String> mdlIds;
+    private final Map<NCAskKey, CompletableFuture<NCResult>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    /**
+     *
+     * @param mdlIds IDs of the models which requests can be coalesced.
+     */
+    public NCRequestCoalescer(Set<String> mdlIds) {
+        this.mdlIds = new HashSet<>(mdlIds);
+    }
+
+    /**
+     *
+     * @param mdlId Model ID.
+     * @return Whether requests to the given model are coalesced.
+     */
+    public boolean isCoalesced(String mdlId) {
+        return mdlIds.contains(mdlId);
+    }
+
+    /**
+     * Gets number of requests that were not sent because identical request was already in flight.
+     *
+     * @return
+     */
+    public long getCoalescedCount() {
+        return coalesced.get();
+    }
+
+    /**
+     * Executes blocking call, or waits for the result of identical call already in flight.
+     *
+     * @param key Request key.
+     * @param call Call.
+     * @return Result.
+     * @throws NCClientException
+     * @throws IOException
+     */
+    public NCResult execute(NCAskKey key, Call call) throws NCClientException, IOException {
+        CompletableFuture<NCResult> fut = new CompletableFuture<>();
+        CompletableFuture<NCResult> prev = inFlight.putIfAbsent(key, fut);
+
+        if (prev != null) {
+            coalesced.incrementAndGet();
+
+            try {
+                return prev.get();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+
+                throw new InterruptedIOException("Interrupted while waiting for coalesced request.");
+            }
+            catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+
+                if (cause instanceof IOException)
+                    throw (IOException)cause;
+
+                if (cause instanceof RuntimeException)
+                    throw (RuntimeException)cause;
+
+                throw new NCClientException("Coalesced request failed.", cause);
+            }
+        }
+
+        try {
+            NCResult res = call.call();
+
+            fut.complete(res);
+
+            return res;
+        }
+        catch (Throwable e) {
+            fut.completeExceptionally(e);
+
+            throw e;
+        }
+        finally {
+            inFlight.remove(key, fut);
+        }
+    }
+
+    /**
+     * Starts asynchronous call, or joins the identical call already in flight.
+     *
+     * @param key Request key.
+     * @param call Call.
+     * @return Future of the result. Each caller gets its own dependent future, so cancelling it
+     *      doesn't affect the other callers.
+     */
+    public CompletableFuture<NCResult> executeAsync(NCAskKey key, Supplier<CompletableFuture<NCResult>> call) {
+        CompletableFuture<NCResult> fut = new CompletableFuture<>();
+        CompletableFuture<NCResult> prev = inFlight.putIfAbsent(key, fut);
+
+        if (prev != null) {
+            coalesced.incrementAndGet();
+
+            return prev.thenApply(res -> res);
+        }
+
+        CompletableFuture<NCResult> res;
+
+        try {
+            res = call.get();
+        }
+        catch (RuntimeException e) {
+            res = CompletableFuture.failedFuture(e);
+        }
+
+        res.whenComplete((r, e) -> {
+            inFlight.remove(key, fut);
+
+            if (e != null)
+                fut.completeExceptionally(e);
+            else
+                fut.complete(r);
+        });
+
+        return fut.thenApply(r -> r);
+    }
+}
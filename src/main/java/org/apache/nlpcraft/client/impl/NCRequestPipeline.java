@@ -0,0 +1,292 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.nlpcraft.client.impl;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.nlpcraft.client.NCClientException;
+import org.apache.nlpcraft.client.impl.beans.NCStatusResponseBean;
+
+/**
+ * Policies of the REST calls shared by the blocking and non-blocking clients: call deadlines, retries, bulkheads,
+ * endpoint routing, circuit breakers, concurrency limits, owners of the created server requests and session
+ * refresh. Pipeline decides what happens with the call and keeps the state of the policies, while the clients
+ * only wait for the slots, retries and responses, each in its own way: blocking client on the calling thread,
+ * non-blocking one by composing the futures.
+ */
+final class NCRequestPipeline {
+    /** Server code of the rejected access token. */
+    static final String AUTH_ERR = "NC_INVALID_ACCESS_TOKEN";
+
+    private static final Logger log = LogManager.getLogger(NCRequestPipeline.class);
+
+    private final NCEndpointRouter router;
+    private final NCBulkheads bulkheads;
+    private final NCConcurrencyLimits limits;
+    private final NCCircuitBreakers breakers;
+    private final NCRetryPolicy retries;
+
+    /**
+     *
+     * @param router Endpoint router.
+     * @param bulkheads Bulkheads, {@code null} if disabled.
+     * @param limits Concurrency limits, {@code null} if disabled.
+     * @param breakers Circuit breakers, {@code null} if disabled.
+     * @param retries Retry policy, {@code null} if calls are not retried.
+     */
+    NCRequestPipeline(
+        NCEndpointRouter router,
+        NCBulkheads bulkheads,
+        NCConcurrencyLimits limits,
+        NCCircuitBreakers breakers,
+        NCRetryPolicy retries
+    ) {
+        this.router = router;
+        this.bulkheads = bulkheads;
+        this.limits = limits;
+        this.breakers = breakers;
+        this.retries = retries;
+    }
+
+    /**
+     * Starts the call. The call is bounded by the deadline of the current thread, or by the one of the call
+     * bulkhead.
+     *
+     * @param pinned Endpoint the request must be sent to, {@code null} for the request routed by the key or load.
+     * @param mdlId Model ID, {@code null} for the request not related to any model.
+     * @param key Sticky routing key, {@code null} for the request routed by load only.
+     * @param url REST call.
+     * @return Call.
+     */
+    Call call(NCEndpoint pinned, String mdlId, String key, String url) {
+        NCBulkhead bh = bulkheads != null ? bulkheads.get(url) : null;
+        NCDeadline dl = NCDeadline.current();
+
+        if (dl == null && bh != null && bh.getTimeout() > 0)
+            dl = NCDeadline.after(bh.getTimeout());
+
+        if (retries != null)
+            retries.onCall();
+
+        return new Call(pinned, mdlId, key, url, bh, dl);
+    }
+
+    /**
+     * Checks whether the call rejected with the error should be sent again with the refreshed access token.
+     *
+     * @param e Error.
+     * @param refreshes Number of the token refreshes done already by this call.
+     * @return Whether the token should be refreshed.
+     */
+    static boolean isRefreshNeeded(Throwable e, int refreshes) {
+        return
+            e instanceof NCClientException &&
+            AUTH_ERR.equals(((NCClientException)e).getServerCode()) &&
+            refreshes < NCSession.MAX_REFRESHES;
+    }
+
+    /**
+     * Checks whether the error response means that the server failed to process the request or rejected it
+     * because of the overload, as opposed to the invalid request.
+     *
+     * @param e
+     * @return
+     */
+    static boolean isServerError(NCClientException e) {
+        return e instanceof NCServerErrorException && ((NCServerErrorException)e).isServerFailure();
+    }
+
+    /**
+     * REST call, including all its retries.
+     */
+    final class Call {
+        private final NCEndpoint pinned;
+        private final String mdlId;
+        private final String key;
+        private final String url;
+        private final NCBulkhead bh;
+        private final NCDeadline dl;
+        private final boolean idempotent;
+        private int attempts;
+        private long delayMs;
+
+        /**
+         *
+         * @param pinned
+         * @param mdlId
+         * @param key
+         * @param url
+         * @param bh
+         * @param dl
+         */
+        private Call(NCEndpoint pinned, String mdlId, String key, String url, NCBulkhead bh, NCDeadline dl) {
+            this.pinned = pinned;
+            this.mdlId = mdlId;
+            this.key = key;
+            this.url = url;
+            this.bh = bh;
+            this.dl = dl;
+            this.idempotent = NCRetryPolicy.isIdempotent(url);
+        }
+
+        /**
+         *
+         * @return REST call.
+         */
+        String getUrl() {
+            return url;
+        }
+
+        /**
+         *
+         * @return Bulkhead of the call, {@code null} if not limited.
+         */
+        NCBulkhead getBulkhead() {
+            return bh;
+        }
+
+        /**
+         *
+         * @return Deadline of the call, {@code null} if not bounded.
+         */
+        NCDeadline getDeadline() {
+            return dl;
+        }
+
+        /**
+         * Routes the next attempt of the call to the endpoint and acquires the permission of its circuit breaker.
+         *
+         * @return Attempt.
+         * @throws NCClientException Thrown if circuit breaker is open.
+         */
+        Attempt route() throws NCClientException {
+            NCEndpoint ep = pinned != null ? pinned : router.select(key);
+            NCCircuitBreaker cb = breakers != null ? breakers.get(ep, url, mdlId) : null;
+            long cbGen = cb != null ? cb.acquire() : 0;
+
+            return new Attempt(ep, limits != null ? limits.get(ep, mdlId) : null, cb, cbGen);
+        }
+
+        /**
+         * Decides whether the failed call is retried. Retry which can't be sent before the deadline is not
+         * waited for.
+         *
+         * @param e Error of the last attempt.
+         * @return Delay in milliseconds before the retry, or negative value if the call should not be retried.
+         */
+        long retryDelay(Throwable e) {
+            if (retries == null)
+                return -1;
+
+            long ms = retries.delay(attempts, delayMs, e, idempotent);
+
+            if (ms < 0 || dl != null && ms >= dl.remainingMs())
+                return -1;
+
+            attempts++;
+            delayMs = ms;
+
+            log.debug("Retrying request [url={}, attempt={}, delayMs={}, error={}]", url, attempts, ms, e.toString());
+
+            return ms;
+        }
+    }
+
+    /**
+     * Single attempt of the call routed to the endpoint.
+     */
+    final class Attempt {
+        private final NCEndpoint ep;
+        private final NCConcurrencyLimiter lim;
+        private final NCCircuitBreaker cb;
+        private final long cbGen;
+        private long startNs;
+
+        /**
+         *
+         * @param ep
+         * @param lim
+         * @param cb
+         * @param cbGen
+         */
+        private Attempt(NCEndpoint ep, NCConcurrencyLimiter lim, NCCircuitBreaker cb, long cbGen) {
+            this.ep = ep;
+            this.lim = lim;
+            this.cb = cb;
+            this.cbGen = cbGen;
+        }
+
+        /**
+         *
+         * @return Endpoint of the attempt.
+         */
+        NCEndpoint getEndpoint() {
+            return ep;
+        }
+
+        /**
+         *
+         * @return Concurrency limiter of the endpoint and model, {@code null} if not limited.
+         */
+        NCConcurrencyLimiter getLimiter() {
+            return lim;
+        }
+
+        /**
+         * Gives up the attempt which was not sent, e.g. rejected by the concurrency limiter.
+         */
+        void abort() {
+            if (cb != null)
+                cb.release(cbGen);
+        }
+
+        /**
+         * Registers the request sent to the endpoint. Concurrency limiter slot, if any, is held by the attempt.
+         */
+        void start() {
+            startNs = ep.start();
+        }
+
+        /**
+         * Registers the outcome of the sent request and releases the concurrency limiter slot.
+         *
+         * @param res Response, {@code null} if the request failed.
+         * @param e Error, {@code null} if the request succeeded.
+         */
+        void finish(NCStatusResponseBean res, Throwable e) {
+            // Created request is checked and cancelled on the same endpoint.
+            if (res != null)
+                router.own(res.getCreatedRequestId(), ep);
+
+            // Endpoint responded, unless the request failed with I/O error.
+            if (e == null || e instanceof NCClientException)
+                ep.succeed(startNs);
+            else
+                router.failRequest(ep);
+
+            boolean failed = e != null && (!(e instanceof NCClientException) || isServerError((NCClientException)e));
+
+            if (lim != null)
+                lim.release(startNs, failed);
+
+            if (cb != null)
+                cb.record(cbGen, startNs, failed);
+        }
+    }
+}
@@ -0,0 +1,259 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client.impl;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Automatic release of the server requests. Tracks all requests created by the client's <code>ask</code> calls
+ * and periodically releases, with the batched <code>cancel</code> calls, the ones whose results were delivered
+ * by the result poller or result stream that has submitted them, and the ones not released within the
+ * abandonment timeout. Results got by the caller's own <code>check</code> calls aren't released, since the
+ * caller can check them again. Requests cancelled explicitly, or released by the bulk ask itself, are not
+ * tracked anymore.
+ */
+public class NCRequestRelease {
+    private static final Logger log = LogManager.getLogger(NCRequestRelease.class);
+
+    /** Maximum number of the request IDs per <code>cancel</code> call. */
+    private static final int MAX_BATCH = 1000;
+
+    /**
+     * Cancel call.
+     */
+    interface Canceller {
+        /**
+         *
+         * @param srvReqIds
+         * @param usrId
+         * @param usrExtId
+         * @throws Exception
+         */
+        void cancel(Set<String> srvReqIds, Long usrId, String usrExtId) throws Exception;
+    }
+
+    /**
+     * User IDs the request was submitted on behalf of. Server cancels requests per user.
+     */
+    private static class UserKey {
+        private final Long usrId;
+        private final String usrExtId;
+
+        UserKey(Long usrId, String usrExtId) {
+            this.usrId = usrId;
+            this.usrExtId = usrExtId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+
+            if (o == null || getClass() != o.getClass())
+                return false;
+
+            UserKey k = (UserKey)o;
+
+            return Objects.equals(usrId, k.usrId) && Objects.equals(usrExtId, k.usrExtId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(usrId, usrExtId);
+        }
+    }
+
+    /**
+     * Tracked request.
+     */
+    private static class Tracked {
+        private final UserKey usr;
+        private final long createTs;
+        private volatile boolean delivered;
+
+        Tracked(UserKey usr, long createTs) {
+            this.usr = usr;
+            this.createTs = createTs;
+        }
+    }
+
+    private final long abandonTimeoutMs;
+    private final long intervalMs;
+    private final Map<String, Tracked> tracked = new ConcurrentHashMap<>();
+
+    private final AtomicLong releasedDelivered = new AtomicLong();
+    private final AtomicLong releasedAbandoned = new AtomicLong();
+    private final AtomicLong cancelCalls = new AtomicLong();
+
+    private ScheduledExecutorService exec;
+
+    /**
+     *
+     * @param abandonTimeoutMs Time in milliseconds after which the request is released even if its result
+     *      was not delivered.
+     * @param intervalMs Interval in milliseconds between the releases.
+     */
+    public NCRequestRelease(long abandonTimeoutMs, long intervalMs) {
+        this.abandonTimeoutMs = abandonTimeoutMs;
+        this.intervalMs = intervalMs;
+    }
+
+    /**
+     * Starts periodic releases.
+     *
+     * @param canceller Cancel call.
+     */
+    synchronized void start(Canceller canceller) {
+        exec = NCThreads.newScheduledExecutor("nlpcraft-client-request-release");
+
+        exec.scheduleWithFixedDelay(() -> release(canceller), intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops periodic releases.
+     */
+    synchronized void close() {
+        if (exec != null) {
+            exec.shutdownNow();
+
+            exec = null;
+        }
+    }
+
+    /**
+     * Starts tracking of the created request.
+     *
+     * @param srvReqId Server request ID.
+     * @param usrId
+     * @param usrExtId
+     */
+    void onAsk(String srvReqId, Long usrId, String usrExtId) {
+        tracked.put(srvReqId, new Tracked(new UserKey(usrId, usrExtId), System.currentTimeMillis()));
+    }
+
+    /**
+     * Marks the tracked request whose result was delivered by the client itself.
+     *
+     * @param srvReqId Server request ID.
+     */
+    void onDelivered(String srvReqId) {
+        Tracked t = tracked.get(srvReqId);
+
+        if (t != null)
+            t.delivered = true;
+    }
+
+    /**
+     * Stops tracking of the request released by its creator itself.
+     *
+     * @param srvReqId Server request ID.
+     */
+    void onOwned(String srvReqId) {
+        tracked.remove(srvReqId);
+    }
+
+    /**
+     * Stops tracking of the cancelled requests.
+     *
+     * @param srvReqIds Server request IDs, {@code null} for all requests of the user.
+     * @param usrId
+     * @param usrExtId
+     */
+    void onCancel(Set<String> srvReqIds, Long usrId, String usrExtId) {
+        if (srvReqIds != null)
+            tracked.keySet().removeAll(srvReqIds);
+        else {
+            UserKey usr = new UserKey(usrId, usrExtId);
+
+            tracked.values().removeIf(t -> t.usr.equals(usr));
+        }
+    }
+
+    /**
+     * Releases delivered and abandoned requests.
+     *
+     * @param canceller
+     */
+    private void release(Canceller canceller) {
+        long abandonTs = System.currentTimeMillis() - abandonTimeoutMs;
+
+        Map<UserKey, List<Map.Entry<String, Tracked>>> byUsr = new HashMap<>();
+
+        for (Map.Entry<String, Tracked> e : tracked.entrySet()) {
+            Tracked t = e.getValue();
+
+            if (t.delivered || t.createTs <= abandonTs)
+                byUsr.computeIfAbsent(t.usr, k -> new ArrayList<>()).add(e);
+        }
+
+        for (Map.Entry<UserKey, List<Map.Entry<String, Tracked>>> e : byUsr.entrySet()) {
+            UserKey usr = e.getKey();
+            List<Map.Entry<String, Tracked>> reqs = e.getValue();
+
+            for (int i = 0; i < reqs.size(); i += MAX_BATCH) {
+                List<Map.Entry<String, Tracked>> batch = reqs.subList(i, Math.min(reqs.size(), i + MAX_BATCH));
+                Set<String> ids = new HashSet<>();
+
+                for (Map.Entry<String, Tracked> req : batch)
+                    ids.add(req.getKey());
+
+                try {
+                    cancelCalls.incrementAndGet();
+
+                    canceller.cancel(ids, usr.usrId, usr.usrExtId);
+                }
+                catch (Exception ex) {
+                    // Will be retried on the next release.
+                    log.warn("Failed to release server requests [count={}, error={}]", ids.size(), ex.getMessage());
+
+                    continue;
+                }
+
+                for (Map.Entry<String, Tracked> req : batch) {
+                    tracked.remove(req.getKey());
+
+                    (req.getValue().delivered ? releasedDelivered : releasedAbandoned).incrementAndGet();
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets statistics snapshot.
+     *
+     * @return Statistics.
+     */
+    NCRequestReleaseStatsImpl getStats() {
+        return new NCRequestReleaseStatsImpl(
+            tracked.size(), releasedDelivered.get(), releasedAbandoned.get(), cancelCalls.get()
+        );
+    }
+}
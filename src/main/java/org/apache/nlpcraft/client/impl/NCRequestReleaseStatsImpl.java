@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client.impl;
+
+import org.apache.nlpcraft.client.NCRequestReleaseStats;
+
+/**
+ * Request release statistics snapshot.
+ */
+public class NCRequestReleaseStatsImpl implements NCRequestReleaseStats {
+    private final long tracked;
+    private final long delivered;
+    private final long abandoned;
+    private final long cancelCalls;
+
+    /**
+     *
+     * @param tracked
+     * @param delivered
+     * @param abandoned
+     * @param cancelCalls
+     */
+    public NCRequestReleaseStatsImpl(long tracked, long delivered, long abandoned, long cancelCalls) {
+        this.tracked = tracked;
+        this.delivered = delivered;
+        this.abandoned = abandoned;
+        this.cancelCalls = cancelCalls;
+    }
+
+    @Override
+    public long getTracked() {
+        return tracked;
+    }
+
+    @Override
+    public long getReleasedDelivered() {
+        return delivered;
+    }
+
+    @Override
+    public long getReleasedAbandoned() {
+        return abandoned;
+    }
+
+    @Override
+    public long getCancelCalls() {
+        return cancelCalls;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "[tracked=%d, releasedDelivered=%d, releasedAbandoned=%d, cancelCalls=%d]",
+            tracked, delivered, abandoned, cancelCalls
+        );
+    }
+}
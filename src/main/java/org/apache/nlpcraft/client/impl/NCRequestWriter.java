@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client.impl;
+
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+
+import static org.apache.nlpcraft.client.impl.NCClientImpl.gson;
+
+/**
+ * Per-endpoint request body writer. Streams endpoint fields straight into the request body. Access token
+ * field is written by the client itself so that it can be replaced without rebuilding the other fields.
+ */
+@FunctionalInterface
+public interface NCRequestWriter {
+    /** Writer for the endpoints that don't have any fields except the access token. */
+    NCRequestWriter NO_FIELDS = w -> {};
+
+    /**
+     * Writes endpoint fields into the already opened JSON object.
+     *
+     * @param w JSON writer.
+     * @throws IOException Thrown in case of any I/O errors.
+     */
+    void write(JsonWriter w) throws IOException;
+
+    /**
+     * Writes string field, skipping {@code null} value.
+     *
+     * @param w JSON writer.
+     * @param name Field name.
+     * @param v Field value.
+     * @throws IOException Thrown in case of any I/O errors.
+     */
+    static void field(JsonWriter w, String name, String v) throws IOException {
+        if (v != null)
+            w.name(name).value(v);
+    }
+
+    /**
+     * Writes numeric field, skipping {@code null} value.
+     *
+     * @param w JSON writer.
+     * @param name Field name.
+     * @param v Field value.
+     * @throws IOException Thrown in case of any I/O errors.
+     */
+    static void field(JsonWriter w, String name, Number v) throws IOException {
+        if (v != null)
+            w.name(name).value(v);
+    }
+
+    /**
+     * Writes long field.
+     *
+     * @param w JSON writer.
+     * @param name Field name.
+     * @param v Field value.
+     * @throws IOException Thrown in case of any I/O errors.
+     */
+    static void field(JsonWriter w, String name, long v) throws IOException {
+        w.name(name).value(v);
+    }
+
+    /**
+     * Writes double field.
+     *
+     * @param w JSON writer.
+     * @param name Field name.
+     * @param v Field value.
+     * @throws IOException Thrown in case of any I/O errors.
+     */
+    static void field(JsonWriter w, String name, double v) throws IOException {
+        w.name(name).value(v);
+    }
+
+    /**
+     * Writes boolean field.
+     *
+     * @param w JSON writer.
+     * @param name Field name.
+     * @param v Field value.
+     * @throws IOException Thrown in case of any I/O errors.
+     */
+    static void field(JsonWriter w, String name, boolean v) throws IOException {
+        w.name(name).value(v);
+    }
+
+    /**
+     * Writes collection of strings as JSON array, skipping {@code null} value.
+     *
+     * @param w JSON writer.
+     * @param name Field name.
+     * @param v Field value.
+     * @throws IOException Thrown in case of any I/O errors.
+     */
+    static void field(JsonWriter w, String name, Collection<String> v) throws IOException {
+        if (v != null) {
+            w.name(name).beginArray();
+
+            for (String s : v)
+                w.value(s);
+
+            w.endArray();
+        }
+    }
+
+    /**
+     * Writes map as JSON object, skipping {@code null} value.
+     *
+     * @param w JSON writer.
+     * @param name Field name.
+     * @param v Field value.
+     * @throws IOException Thrown in case of any I/O errors.
+     */
+    static void field(JsonWriter w, String name, Map<String, Object> v) throws IOException {
+        if (v != null) {
+            w.name(name);
+
+            gson.toJson(v, Map.class, w);
+        }
+    }
+}
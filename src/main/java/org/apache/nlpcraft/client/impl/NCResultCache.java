@@ -0,0 +1,242 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client.impl;
+
+import org.apache.nlpcraft.client.NCResult;
+import org.apache.nlpcraft.client.NCResultCacheStats;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Client-side cache of the <code>askSync</code> results.
+ * <p>
+ * Entries expire after the configured TTL. Total weight of the entries (approximate size in bytes) is bounded,
+ * least recently used entries are evicted first. New entry is only admitted at the cost of the evicted ones
+ * if it was requested more often recently, according to the small frequency sketch, so that one-off requests
+ * don't flush frequently repeated ones out of the cache.
+ */
+public class NCResultCache {
+    /** Fixed weight of the entry, i.e. approximate size of the key and result objects. */
+    private static final int ENTRY_WEIGHT = 256;
+
+    /**
+     * Cache entry.
+     */
+    private static class Entry {
+        private final NCResult res;
+        private final long weight;
+        private final long expireTs;
+
+        Entry(NCResult res, long weight, long expireTs) {
+            this.res = res;
+            this.weight = weight;
+            this.expireTs = expireTs;
+        }
+    }
+
+    private final long ttlMs;
+    private final long maxWeight;
+
+    // Access ordered, eldest entry is the least recently used one.
+    private final LinkedHashMap<NCAskKey, Entry> map = new LinkedHashMap<>(16, 0.75f, true);
+    private final NCFrequencySketch freq;
+
+    private long weight;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     *
+     * @param ttlMs Time-to-live of the cached results in milliseconds.
+     * @param maxWeight Maximum total weight of the cached results.
+     */
+    public NCResultCache(long ttlMs, long maxWeight) {
+        this.ttlMs = ttlMs;
+        this.maxWeight = maxWeight;
+
+        freq = new NCFrequencySketch((int)Math.min(1 << 16, Math.max(1024, maxWeight / ENTRY_WEIGHT)));
+    }
+
+    /**
+     * Gets approximate size of the cached result in bytes.
+     *
+     * @param k Key.
+     * @param res Result.
+     * @return Entry weight.
+     */
+    private static long weigh(NCAskKey k, NCResult res) {
+        long chars = k.getText().length() + k.getModelId().length();
+
+        if (res.getResultBody() != null)
+            chars += res.getResultBody().length();
+
+        if (res.getLogHolder() != null)
+            chars += res.getLogHolder().length();
+
+        if (res.getResultMeta() != null)
+            chars += String.valueOf(res.getResultMeta()).length();
+
+        return ENTRY_WEIGHT + 2 * chars;
+    }
+
+    /**
+     * Gets cached result.
+     *
+     * @param k Key.
+     * @return Cached result or <code>null</code> if there is no valid cached result.
+     */
+    public synchronized NCResult get(NCAskKey k) {
+        freq.increment(k.hashCode());
+
+        Entry e = map.get(k);
+
+        if (e != null && e.expireTs < System.currentTimeMillis()) {
+            remove(k);
+
+            e = null;
+        }
+
+        if (e == null) {
+            misses++;
+
+            return null;
+        }
+
+        hits++;
+
+        return e.res;
+    }
+
+    /**
+     * Caches result. Only successful ready results are cached.
+     *
+     * @param k Key.
+     * @param res Result.
+     */
+    public synchronized void put(NCAskKey k, NCResult res) {
+        if (res == null || !res.isReady() || res.getErrorCode() != null)
+            return;
+
+        long w = weigh(k, res);
+
+        if (w > maxWeight)
+            return;
+
+        long now = System.currentTimeMillis();
+
+        remove(k);
+
+        if (weight + w > maxWeight) {
+            removeExpired(now);
+
+            int candFreq = freq.frequency(k.hashCode());
+
+            // Checks admission first so that rejected candidate doesn't evict anything.
+            long need = weight + w - maxWeight;
+
+            for (Map.Entry<NCAskKey, Entry> e : map.entrySet()) {
+                if (need <= 0)
+                    break;
+
+                if (freq.frequency(e.getKey().hashCode()) >= candFreq)
+                    return;
+
+                need -= e.getValue().weight;
+            }
+
+            for (Iterator<Map.Entry<NCAskKey, Entry>> it = map.entrySet().iterator(); it.hasNext() && weight + w > maxWeight;) {
+                weight -= it.next().getValue().weight;
+
+                it.remove();
+
+                evictions++;
+            }
+        }
+
+        map.put(k, new Entry(res, w, now + ttlMs));
+
+        weight += w;
+    }
+
+    /**
+     * Removes all cached results of the given model and user.
+     *
+     * @param mdlId Model ID.
+     * @param usrId Optional user ID.
+     * @param usrExtId Optional external user ID.
+     */
+    public synchronized void invalidate(String mdlId, Long usrId, String usrExtId) {
+        for (Iterator<Map.Entry<NCAskKey, Entry>> it = map.entrySet().iterator(); it.hasNext();) {
+            Map.Entry<NCAskKey, Entry> e = it.next();
+            NCAskKey k = e.getKey();
+
+            if (k.isUser(mdlId, usrId, usrExtId)) {
+                weight -= e.getValue().weight;
+
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Removes all cached results.
+     */
+    public synchronized void clear() {
+        map.clear();
+
+        weight = 0;
+    }
+
+    /**
+     *
+     * @return
+     */
+    public synchronized NCResultCacheStats getStats() {
+        return new NCResultCacheStatsImpl(hits, misses, evictions, map.size(), weight);
+    }
+
+    /**
+     *
+     * @param k
+     */
+    private void remove(NCAskKey k) {
+        Entry e = map.remove(k);
+
+        if (e != null)
+            weight -= e.weight;
+    }
+
+    /**
+     *
+     * @param now
+     */
+    private void removeExpired(long now) {
+        for (Iterator<Entry> it = map.values().iterator(); it.hasNext();) {
+            Entry e = it.next();
+
+            if (e.expireTs < now) {
+                weight -= e.weight;
+
+                it.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,424 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client.impl;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.nlpcraft.client.NCClient;
+import org.apache.nlpcraft.client.NCClientException;
+import org.apache.nlpcraft.client.NCResult;
+import org.apache.nlpcraft.client.NCResultPoller;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Result poller implementation. Single daemon thread wakes up every minimal interval and runs one
+ * coalesced <code>check</code> call per distinct user for the requests that are due.
+ * <p>
+ * Each request is first checked near the expected completion time learned from the past results of
+ * its model (median of the recent completion times), then near the 90th percentile, and after that
+ * with exponential backoff from the minimal up to the maximum interval.
+ */
+public class NCResultPollerImpl implements NCResultPoller {
+    private static final Logger log = LogManager.getLogger(NCResultPollerImpl.class);
+
+    /** Number of recent completion times kept per model. */
+    private static final int SAMPLES = 64;
+
+    /** Minimal number of samples before the model estimate is used. */
+    private static final int MIN_SAMPLES = 5;
+
+    /**
+     * User IDs the request was submitted on behalf of. Server checks requests per user.
+     */
+    private static class UserKey {
+        private final Long usrId;
+        private final String usrExtId;
+
+        UserKey(Long usrId, String usrExtId) {
+            this.usrId = usrId;
+            this.usrExtId = usrExtId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+
+            if (o == null || getClass() != o.getClass())
+                return false;
+
+            UserKey k = (UserKey)o;
+
+            return Objects.equals(usrId, k.usrId) && Objects.equals(usrExtId, k.usrExtId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(usrId, usrExtId);
+        }
+    }
+
+    /**
+     * Completion time distribution of the model.
+     */
+    private static class ModelStats {
+        private final long[] samples = new long[SAMPLES];
+        private int cnt;
+        private int pos;
+
+        // Cached estimates, -1 if not enough samples yet.
+        private volatile long p50 = -1;
+        private volatile long p90 = -1;
+
+        /**
+         *
+         * @param ms Observed completion time.
+         */
+        synchronized void add(long ms) {
+            samples[pos] = ms;
+
+            pos = (pos + 1) % SAMPLES;
+
+            if (cnt < SAMPLES)
+                cnt++;
+
+            if (cnt >= MIN_SAMPLES) {
+                long[] sorted = Arrays.copyOf(samples, cnt);
+
+                Arrays.sort(sorted);
+
+                p50 = sorted[(cnt - 1) / 2];
+                p90 = sorted[(int)((cnt - 1) * 0.9)];
+            }
+        }
+    }
+
+    /**
+     * Pending request. Scheduling fields are only accessed by the polling thread after registration.
+     */
+    private static class Pending {
+        private final String srvReqId;
+        private final UserKey usr;
+        private final long submitTs;
+        private final boolean release;
+        private final CompletableFuture<NCResult> fut = new CompletableFuture<>();
+
+        private String mdlId;
+        private long nextPollTs;
+        private long lastPollTs;
+        private int misses;
+
+        Pending(String srvReqId, String mdlId, UserKey usr, long submitTs, boolean release) {
+            this.srvReqId = srvReqId;
+            this.mdlId = mdlId;
+            this.usr = usr;
+            this.submitTs = submitTs;
+            this.release = release;
+        }
+    }
+
+    private final NCClient cli;
+    private final NCRequestRelease reqRelease;
+    private final long minIntervalMs;
+    private final long maxIntervalMs;
+    private final Map<String, Pending> pending = new ConcurrentHashMap<>();
+    private final Map<String, ModelStats> mdlStats = new ConcurrentHashMap<>();
+
+    private final AtomicLong checkCalls = new AtomicLong();
+    private final AtomicLong reqPolls = new AtomicLong();
+    private final AtomicLong results = new AtomicLong();
+
+    private ScheduledExecutorService exec;
+    private boolean closed = false;
+
+    /**
+     *
+     * @param cli Client to use for <code>ask</code> and <code>check</code> calls.
+     * @param reqRelease Client's automatic release of the server requests, {@code null} if disabled.
+     * @param minIntervalMs Minimal polling interval in milliseconds.
+     * @param maxIntervalMs Maximum polling interval in milliseconds.
+     */
+    public NCResultPollerImpl(NCClient cli, NCRequestRelease reqRelease, long minIntervalMs, long maxIntervalMs) {
+        this.cli = cli;
+        this.reqRelease = reqRelease;
+        this.minIntervalMs = minIntervalMs;
+        this.maxIntervalMs = Math.max(minIntervalMs, maxIntervalMs);
+    }
+
+    @Override
+    public CompletableFuture<NCResult> ask(
+        String mdlId, String txt, Map<String, Object> data, boolean enableLog, Long usrId, String usrExtId
+    ) throws NCClientException, IOException {
+        long now = System.currentTimeMillis();
+
+        return track0(cli.ask(mdlId, txt, data, enableLog, usrId, usrExtId), mdlId, usrId, usrExtId, now, true);
+    }
+
+    @Override
+    public CompletableFuture<NCResult> track(String srvReqId, Long usrId, String usrExtId) {
+        // Caller's own request can be checked again by the caller.
+        return track0(srvReqId, null, usrId, usrExtId, System.currentTimeMillis(), false);
+    }
+
+    /**
+     *
+     * @param srvReqId
+     * @param mdlId Model ID, if known.
+     * @param usrId
+     * @param usrExtId
+     * @param submitTs
+     * @param release Whether the request is released automatically once its result is delivered.
+     * @return
+     */
+    CompletableFuture<NCResult> track0(
+        String srvReqId, String mdlId, Long usrId, String usrExtId, long submitTs, boolean release
+    ) {
+        NCClientImpl.notNull(srvReqId, "srvReqId");
+
+        Pending p = new Pending(srvReqId, mdlId, new UserKey(usrId, usrExtId), submitTs, release);
+
+        p.nextPollTs = submitTs + firstDelay(mdlId);
+
+        synchronized (this) {
+            if (closed)
+                throw new IllegalStateException("Result poller is closed.");
+
+            if (exec == null) {
+                exec = NCThreads.newScheduledExecutor("nlpcraft-result-poller");
+
+                exec.scheduleWithFixedDelay(this::poll, minIntervalMs, minIntervalMs, TimeUnit.MILLISECONDS);
+            }
+
+            Pending prev = pending.putIfAbsent(srvReqId, p);
+
+            if (prev != null)
+                return prev.fut;
+        }
+
+        return p.fut;
+    }
+
+    /**
+     * Gets delay of the first check, i.e. expected completion time of the model request.
+     *
+     * @param mdlId Model ID, if known.
+     * @return Delay in milliseconds.
+     */
+    private long firstDelay(String mdlId) {
+        ModelStats s = mdlId != null ? mdlStats.get(mdlId) : null;
+
+        return s != null && s.p50 >= 0 ? clamp(s.p50) : minIntervalMs;
+    }
+
+    /**
+     * Gets delay of the next check after the given number of misses.
+     *
+     * @param p Pending request.
+     * @return Delay in milliseconds.
+     */
+    private long nextDelay(Pending p) {
+        ModelStats s = p.mdlId != null ? mdlStats.get(p.mdlId) : null;
+
+        // Second attempt is scheduled near the tail of the model distribution.
+        if (p.misses == 1 && s != null && s.p90 >= 0) {
+            long d = p.submitTs + s.p90 - p.lastPollTs;
+
+            if (d >= minIntervalMs)
+                return clamp(d);
+        }
+
+        return clamp(minIntervalMs << Math.min(p.misses - 1, 20));
+    }
+
+    /**
+     *
+     * @param ms
+     * @return
+     */
+    private long clamp(long ms) {
+        return Math.max(minIntervalMs, Math.min(maxIntervalMs, ms));
+    }
+
+    @Override
+    public Flow.Publisher<NCResult> stream(
+        String mdlId,
+        Flow.Publisher<String> txts,
+        int maxPending,
+        Map<String, Object> data,
+        boolean enableLog,
+        Long usrId,
+        String usrExtId
+    ) {
+        NCClientImpl.notNull(mdlId, "mdlId");
+
+        if (txts == null)
+            throw new IllegalArgumentException("Parameter cannot be null: 'txts'");
+
+        if (maxPending <= 0)
+            throw new IllegalArgumentException(String.format("Maximum pending requests must be positive: %d", maxPending));
+
+        return new NCResultStream(cli, this, mdlId, txts, maxPending, data, enableLog, usrId, usrExtId);
+    }
+
+    @Override
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    @Override
+    public long getCheckCalls() {
+        return checkCalls.get();
+    }
+
+    @Override
+    public long getRequestPolls() {
+        return reqPolls.get();
+    }
+
+    @Override
+    public long getResults() {
+        return results.get();
+    }
+
+    @Override
+    public long getExpectedLatency(String mdlId) {
+        ModelStats s = mdlStats.get(mdlId);
+
+        return s != null ? s.p50 : -1;
+    }
+
+    /**
+     * Runs single polling tick.
+     */
+    private void poll() {
+        long now = System.currentTimeMillis();
+
+        Map<UserKey, Set<String>> byUsr = new HashMap<>();
+
+        for (Pending p : pending.values()) {
+            // Cancelled by the caller.
+            if (p.fut.isDone())
+                pending.remove(p.srvReqId);
+            else if (p.nextPollTs <= now)
+                byUsr.computeIfAbsent(p.usr, k -> new HashSet<>()).add(p.srvReqId);
+        }
+
+        for (Map.Entry<UserKey, Set<String>> e : byUsr.entrySet()) {
+            UserKey usr = e.getKey();
+            Set<String> ids = e.getValue();
+
+            List<NCResult> res;
+
+            try {
+                checkCalls.incrementAndGet();
+                reqPolls.addAndGet(ids.size());
+
+                res = cli.check(ids, null, usr.usrId, usr.usrExtId);
+            }
+            catch (Exception ex) {
+                // Will be retried on the next tick.
+                log.warn("Failed to check request results [count={}, error={}]", ids.size(), ex.getMessage());
+
+                continue;
+            }
+
+            long ts = System.currentTimeMillis();
+
+            Set<String> unknown = new HashSet<>(ids);
+
+            for (NCResult r : res) {
+                String id = r.getServerRequestId();
+
+                unknown.remove(id);
+
+                Pending p = pending.get(id);
+
+                if (p == null)
+                    continue;
+
+                if (p.mdlId == null)
+                    p.mdlId = r.getModelId();
+
+                if (r.isReady()) {
+                    pending.remove(id);
+
+                    results.incrementAndGet();
+
+                    // Completion happened somewhere between the last miss and this poll. Without misses
+                    // only the upper bound is known, otherwise the estimate would drift down.
+                    long doneTs = p.misses > 0 ? (p.lastPollTs + ts) / 2 : ts;
+
+                    mdlStats.computeIfAbsent(p.mdlId, k -> new ModelStats()).add(doneTs - p.submitTs);
+
+                    p.fut.complete(r);
+
+                    if (p.release && reqRelease != null)
+                        reqRelease.onDelivered(id);
+                }
+                else {
+                    p.misses++;
+                    p.lastPollTs = ts;
+                    p.nextPollTs = ts + nextDelay(p);
+                }
+            }
+
+            for (String id : unknown) {
+                Pending p = pending.remove(id);
+
+                if (p != null)
+                    p.fut.completeExceptionally(
+                        new NCClientException(String.format("Unknown server request ID: %s", id))
+                    );
+            }
+        }
+    }
+
+    /**
+     * Stops polling. All pending futures are completed exceptionally.
+     */
+    public void close() {
+        synchronized (this) {
+            closed = true;
+
+            if (exec != null)
+                exec.shutdownNow();
+        }
+
+        List<Pending> ps = new ArrayList<>(pending.values());
+
+        pending.clear();
+
+        for (Pending p : ps)
+            p.fut.completeExceptionally(new NCClientException("Result poller is closed."));
+    }
+}
@@ -0,0 +1,426 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client.impl;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.nlpcraft.client.NCClient;
+import org.apache.nlpcraft.client.NCResult;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Publisher of the results of the streamed texts. Each subscription subscribes to the texts publisher,
+ * submits received texts with <code>ask</code> calls and gets their results with the poller's coalesced
+ * <code>check</code> calls. Texts are only requested from the upstream while the number of the submitted
+ * requests whose results are not emitted yet is below both the downstream demand and the pending limit.
+ * Results are emitted in the order of completion.
+ */
+class NCResultStream implements Flow.Publisher<NCResult> {
+    private static final Logger log = LogManager.getLogger(NCResultStream.class);
+
+    private final NCClient cli;
+    private final NCResultPollerImpl poller;
+    private final String mdlId;
+    private final Flow.Publisher<String> txts;
+    private final int maxPending;
+    private final Map<String, Object> data;
+    private final boolean enableLog;
+    private final Long usrId;
+    private final String usrExtId;
+
+    /**
+     *
+     * @param cli Client to use for <code>ask</code> and <code>cancel</code> calls.
+     * @param poller Poller to get the results with.
+     * @param mdlId Model ID.
+     * @param txts Texts publisher.
+     * @param maxPending Maximum number of the submitted requests whose results are not emitted yet.
+     * @param data Optional JSON data to be passed to the model.
+     * @param enableLog Enable processing log collection.
+     * @param usrId Optional user ID.
+     * @param usrExtId Optional external "on-behalf-of" user ID.
+     */
+    NCResultStream(
+        NCClient cli,
+        NCResultPollerImpl poller,
+        String mdlId,
+        Flow.Publisher<String> txts,
+        int maxPending,
+        Map<String, Object> data,
+        boolean enableLog,
+        Long usrId,
+        String usrExtId
+    ) {
+        this.cli = cli;
+        this.poller = poller;
+        this.mdlId = mdlId;
+        this.txts = txts;
+        this.maxPending = maxPending;
+        this.data = data;
+        this.enableLog = enableLog;
+        this.usrId = usrId;
+        this.usrExtId = usrExtId;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super NCResult> sub) {
+        Objects.requireNonNull(sub, "Subscriber cannot be null.");
+
+        Subscription s = new Subscription(sub);
+
+        sub.onSubscribe(s);
+
+        txts.subscribe(s);
+    }
+
+    /**
+     * Subscription of the downstream subscriber, which is the subscriber of the texts at the same time.
+     */
+    private class Subscription implements Flow.Subscription, Flow.Subscriber<String> {
+        private final Flow.Subscriber<? super NCResult> down;
+        // Blocking 'ask' calls run outside of the upstream's 'onNext' calls.
+        private final ExecutorService exec = NCThreads.newPerTaskExecutor("nlpcraft-result-stream");
+        private final Map<String, CompletableFuture<NCResult>> pending = new ConcurrentHashMap<>();
+        private final Queue<NCResult> ready = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger wip = new AtomicInteger();
+
+        private Flow.Subscription up;
+        private long demand;
+        // Texts requested from the upstream, but not received yet.
+        private long requested;
+        // Texts received, whose results are not emitted yet.
+        private long active;
+        private boolean upDone;
+        private Throwable err;
+        private boolean terminated;
+        private volatile boolean cancelled;
+
+        /**
+         *
+         * @param down
+         */
+        Subscription(Flow.Subscriber<? super NCResult> down) {
+            this.down = down;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                fail(new IllegalArgumentException(String.format("Non-positive number of results requested: %d", n)));
+
+                return;
+            }
+
+            synchronized (this) {
+                demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+            }
+
+            requestTexts();
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+
+            release();
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription up) {
+            synchronized (this) {
+                if (this.up == null && !cancelled && err == null) {
+                    this.up = up;
+
+                    up = null;
+                }
+            }
+
+            if (up != null)
+                up.cancel();
+            else
+                requestTexts();
+        }
+
+        @Override
+        public void onNext(String txt) {
+            synchronized (this) {
+                requested--;
+                active++;
+            }
+
+            if (cancelled)
+                return;
+
+            try {
+                exec.execute(() -> ask(txt));
+            }
+            catch (RejectedExecutionException e) {
+                // Terminated meanwhile.
+            }
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            synchronized (this) {
+                upDone = true;
+                requested = 0;
+            }
+
+            fail(e);
+        }
+
+        @Override
+        public void onComplete() {
+            synchronized (this) {
+                upDone = true;
+                requested = 0;
+            }
+
+            drain();
+        }
+
+        /**
+         * Requests more texts from the upstream, if the demand and the pending limit allow.
+         */
+        private void requestTexts() {
+            Flow.Subscription s;
+            long n;
+
+            synchronized (this) {
+                n = Math.min(demand, maxPending) - requested - active;
+
+                if (up == null || upDone || terminated || cancelled || n <= 0)
+                    return;
+
+                requested += n;
+
+                s = up;
+            }
+
+            s.request(n);
+        }
+
+        /**
+         * Submits the text and registers the request with the poller.
+         *
+         * @param txt Text.
+         */
+        private void ask(String txt) {
+            String srvReqId;
+            CompletableFuture<NCResult> fut;
+
+            try {
+                srvReqId = cli.ask(mdlId, txt, data, enableLog, usrId, usrExtId);
+                fut = poller.track0(srvReqId, mdlId, usrId, usrExtId, System.currentTimeMillis(), true);
+            }
+            catch (Exception e) {
+                fail(e);
+
+                return;
+            }
+
+            pending.put(srvReqId, fut);
+
+            // Released meanwhile, the request is cancelled here unless the release got it.
+            if ((cancelled || isFailed()) && pending.remove(srvReqId) != null) {
+                fut.cancel(false);
+
+                cancelRequests(Collections.singleton(srvReqId));
+
+                return;
+            }
+
+            fut.whenComplete((res, e) -> {
+                if (pending.remove(srvReqId) == null)
+                    return;
+
+                if (e != null)
+                    fail(e);
+                else {
+                    ready.add(res);
+
+                    drain();
+                }
+            });
+        }
+
+        /**
+         *
+         * @return
+         */
+        private synchronized boolean isFailed() {
+            return err != null;
+        }
+
+        /**
+         * Fails the stream. Error is delivered ahead of the results not emitted yet.
+         *
+         * @param e Error.
+         */
+        private void fail(Throwable e) {
+            synchronized (this) {
+                if (err != null || terminated)
+                    return;
+
+                err = e;
+            }
+
+            release();
+            drain();
+        }
+
+        /**
+         * Cancels the upstream subscription and the pending server requests.
+         */
+        private void release() {
+            Flow.Subscription s;
+
+            synchronized (this) {
+                s = up;
+            }
+
+            if (s != null)
+                s.cancel();
+
+            Set<String> ids = new HashSet<>();
+
+            for (String id : new HashSet<>(pending.keySet())) {
+                CompletableFuture<NCResult> fut = pending.remove(id);
+
+                if (fut != null) {
+                    fut.cancel(false);
+
+                    ids.add(id);
+                }
+            }
+
+            if (!ids.isEmpty()) {
+                try {
+                    exec.execute(() -> cancelRequests(ids));
+                }
+                catch (RejectedExecutionException e) {
+                    cancelRequests(ids);
+                }
+            }
+
+            exec.shutdown();
+        }
+
+        /**
+         *
+         * @param ids
+         */
+        private void cancelRequests(Set<String> ids) {
+            try {
+                cli.cancel(ids, usrId, usrExtId);
+            }
+            catch (Exception e) {
+                log.warn("Failed to cancel streamed requests [count={}, error={}]", ids.size(), e.getMessage());
+            }
+        }
+
+        /**
+         * Emits ready results and terminal signals. Only one thread at a time emits, others leave their
+         * work to it.
+         */
+        private void drain() {
+            if (wip.getAndIncrement() != 0)
+                return;
+
+            int missed = 1;
+
+            while (true) {
+                while (true) {
+                    if (cancelled) {
+                        ready.clear();
+
+                        return;
+                    }
+
+                    Throwable e = null;
+                    NCResult res = null;
+                    boolean done = false;
+
+                    synchronized (this) {
+                        if (terminated)
+                            return;
+
+                        if (err != null) {
+                            terminated = true;
+
+                            e = err;
+                        }
+                        else if (demand > 0 && (res = ready.poll()) != null) {
+                            if (demand != Long.MAX_VALUE)
+                                demand--;
+
+                            active--;
+                        }
+                        else if (upDone && active == 0) {
+                            terminated = true;
+
+                            done = true;
+                        }
+                    }
+
+                    if (e != null) {
+                        ready.clear();
+
+                        down.onError(e);
+
+                        return;
+                    }
+
+                    if (done) {
+                        exec.shutdown();
+
+                        down.onComplete();
+
+                        return;
+                    }
+
+                    if (res == null)
+                        break;
+
+                    down.onNext(res);
+
+                    requestTexts();
+                }
+
+                missed = wip.addAndGet(-missed);
+
+                if (missed == 0)
+                    break;
+            }
+        }
+    }
+}
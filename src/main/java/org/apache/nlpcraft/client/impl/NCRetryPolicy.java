@@ -0,0 +1,196 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client.impl;
+
+import org.apache.http.conn.ConnectTimeoutException;
+import org.apache.nlpcraft.client.NCClientException;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.http.HttpConnectTimeoutException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retry policy of the failed REST calls.
+ * <p>
+ * Idempotent calls are retried after any I/O error or server failure. Other calls are only retried when the
+ * request certainly wasn't processed: the connection couldn't be established, or the server rejected it with
+ * <code>429 Too Many Requests</code> or <code>503 Service Unavailable</code>. Retry delays grow with decorrelated
+ * jitter, i.e. random value between the base delay and three times the previous delay, and are not shorter than
+ * the delay requested by the <code>Retry-After</code> header. Retries are limited by the budget: each call
+ * deposits the budget ratio of the token, each retry withdraws the whole token, so that retries can't multiply
+ * the load of the failing server.
+ */
+public class NCRetryPolicy {
+    /** REST calls which can be repeated without changing the result. */
+    private static final Set<String> IDEMPOTENT_CALLS = Set.of(
+        "check",
+        "cancel",
+        "clear/conversation",
+        "clear/dialog",
+        "model/info",
+        "model/syns",
+        "probe/all",
+        "user/get",
+        "user/all",
+        "company/get",
+        "feedback/all"
+    );
+
+    /** Maximum number of tokens in the budget, i.e. retries allowed in a row regardless of the calls number. */
+    private static final double MAX_TOKENS = 10;
+
+    private final int maxRetries;
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+    private final double budgetRatio;
+
+    // Guarded by 'this'.
+    private double tokens = MAX_TOKENS;
+
+    /**
+     *
+     * @param maxRetries Maximum number of retries of one call.
+     * @param baseDelayMs Minimum delay before the retry.
+     * @param maxDelayMs Maximum delay before the retry.
+     * @param budgetRatio Number of retries allowed per call on average.
+     */
+    public NCRetryPolicy(int maxRetries, long baseDelayMs, long maxDelayMs, double budgetRatio) {
+        this.maxRetries = maxRetries;
+        this.baseDelayMs = baseDelayMs;
+        this.maxDelayMs = Math.max(baseDelayMs, maxDelayMs);
+        this.budgetRatio = budgetRatio;
+    }
+
+    /**
+     *
+     * @param url REST call.
+     * @return Whether the call is idempotent.
+     */
+    static boolean isIdempotent(String url) {
+        return IDEMPOTENT_CALLS.contains(url);
+    }
+
+    /**
+     * Registers new call, depositing to the retry budget.
+     */
+    synchronized void onCall() {
+        tokens = Math.min(MAX_TOKENS, tokens + budgetRatio);
+    }
+
+    /**
+     * Decides whether the failed call is retried and gets the delay before the retry. Withdraws from the retry
+     * budget if the call is retried.
+     *
+     * @param retries Number of retries of this call done already.
+     * @param prevDelayMs Previous delay, zero before the first retry.
+     * @param e Error of the last attempt.
+     * @param idempotent Whether the call is idempotent.
+     * @return Delay in milliseconds, or negative value if the call should not be retried.
+     */
+    long delay(int retries, long prevDelayMs, Throwable e, boolean idempotent) {
+        if (retries >= maxRetries || !isRetryable(e, idempotent))
+            return -1;
+
+        long retryAfterMs = e instanceof NCServerErrorException ? ((NCServerErrorException)e).getRetryAfterMs() : -1;
+
+        // Server asks to wait longer than we are ready to.
+        if (retryAfterMs > maxDelayMs)
+            return -1;
+
+        synchronized (this) {
+            if (tokens < 1)
+                return -1;
+
+            tokens--;
+        }
+
+        // Decorrelated jitter.
+        long hi = Math.min(maxDelayMs, Math.max(baseDelayMs, prevDelayMs) * 3);
+        long delayMs = ThreadLocalRandom.current().nextLong(baseDelayMs, hi + 1);
+
+        return Math.max(delayMs, retryAfterMs);
+    }
+
+    /**
+     *
+     * @param e
+     * @param idempotent
+     * @return
+     */
+    private static boolean isRetryable(Throwable e, boolean idempotent) {
+        if (e instanceof NCServerErrorException) {
+            int code = ((NCServerErrorException)e).getHttpCode();
+
+            // Rejected before processing.
+            if (code == 429 || code == 503)
+                return true;
+
+            return idempotent && code >= 500 && code != 501;
+        }
+
+        // Other client errors, e.g. rejection by the concurrency limiter, don't depend on the server.
+        if (e instanceof NCClientException)
+            return false;
+
+        // Request wasn't sent.
+        if (e instanceof ConnectException || e instanceof ConnectTimeoutException || e instanceof HttpConnectTimeoutException)
+            return true;
+
+        // Interrupted caller.
+        if (e instanceof InterruptedIOException && !(e instanceof SocketTimeoutException))
+            return false;
+
+        return idempotent && e instanceof IOException;
+    }
+
+    /**
+     * Parses <code>Retry-After</code> header value, either delay in seconds or HTTP date.
+     *
+     * @param val Header value, can be {@code null}.
+     * @return Delay in milliseconds, or negative value if the header is missing or invalid.
+     */
+    static long parseRetryAfter(String val) {
+        if (val == null)
+            return -1;
+
+        val = val.trim();
+
+        try {
+            return Math.max(0, Long.parseLong(val) * 1000);
+        }
+        catch (NumberFormatException e) {
+            try {
+                return Math.max(
+                    0,
+                    ZonedDateTime.parse(val, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli() -
+                    System.currentTimeMillis()
+                );
+            }
+            catch (DateTimeParseException e1) {
+                return -1;
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client.impl;
+
+import org.apache.nlpcraft.client.NCClientException;
+
+/**
+ * Error response of the REST server or a proxy in front of it. Keeps the HTTP status and the
+ * <code>Retry-After</code> delay, so that the client can tell overload and transient errors from the invalid
+ * requests. Thrown to the callers as a regular {@link NCClientException}.
+ */
+class NCServerErrorException extends NCClientException {
+    private final int httpCode;
+    private final long retryAfterMs;
+
+    /**
+     *
+     * @param msg Error message.
+     * @param code REST server error code, {@code null} if the response is not a REST server error.
+     * @param httpCode HTTP status code.
+     * @param retryAfterMs Delay requested by <code>Retry-After</code> header, negative if not requested.
+     */
+    NCServerErrorException(String msg, String code, int httpCode, long retryAfterMs) {
+        super(msg, code);
+
+        this.httpCode = httpCode;
+        this.retryAfterMs = retryAfterMs;
+    }
+
+    /**
+     *
+     * @return
+     */
+    int getHttpCode() {
+        return httpCode;
+    }
+
+    /**
+     *
+     * @return
+     */
+    long getRetryAfterMs() {
+        return retryAfterMs;
+    }
+
+    /**
+     * Checks whether the server failed to process the request or rejected it because of the overload,
+     * as opposed to the invalid request.
+     *
+     * @return Whether this error is the server failure.
+     */
+    boolean isServerFailure() {
+        return httpCode >= 500 || httpCode == 429;
+    }
+}
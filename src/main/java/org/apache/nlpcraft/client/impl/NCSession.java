@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client.impl;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Session access token with single-flight refresh. Each token is a generation: when the token is rejected,
+ * only the first caller of {@link #refresh(Token, Supplier)} signs in again, concurrent callers rejected with
+ * the same token wait for its result, and callers rejected with an already replaced token get the current one
+ * without signing in. Current token could be rejected as well if it expired meanwhile, so callers are expected
+ * to refresh it again, up to {@link #MAX_REFRESHES} times per request.
+ */
+class NCSession {
+    /** Maximum number of token refreshes per request. */
+    static final int MAX_REFRESHES = 2;
+
+    /**
+     * Token generation.
+     */
+    static class Token {
+        private final String tok;
+        private final AtomicReference<CompletableFuture<Token>> refresh = new AtomicReference<>();
+
+        /**
+         *
+         * @param tok
+         */
+        Token(String tok) {
+            this.tok = tok;
+        }
+
+        /**
+         *
+         * @return
+         */
+        String get() {
+            return tok;
+        }
+    }
+
+    private final AtomicReference<Token> cur = new AtomicReference<>(new Token(null));
+
+    /**
+     * Gets current token generation.
+     *
+     * @return Current token generation.
+     */
+    Token current() {
+        return cur.get();
+    }
+
+    /**
+     * Sets new token, e.g. after initial sign in.
+     *
+     * @param tok Access token.
+     */
+    void set(String tok) {
+        cur.set(new Token(tok));
+    }
+
+    /**
+     * Refreshes rejected token. Sign in function is called at most once at a time per token generation,
+     * by the calling thread. Failed refresh is not remembered, the next caller rejected with the same
+     * token tries to sign in again.
+     *
+     * @param stale Rejected token generation.
+     * @param signin Sign in function returning new token.
+     * @return Future of the new token generation.
+     */
+    CompletableFuture<Token> refresh(Token stale, Supplier<CompletableFuture<String>> signin) {
+        while (true) {
+            Token t = cur.get();
+
+            if (t != stale)
+                return CompletableFuture.completedFuture(t);
+
+            CompletableFuture<Token> fut = stale.refresh.get();
+
+            if (fut != null)
+                return fut;
+
+            CompletableFuture<Token> newFut = new CompletableFuture<>();
+
+            if (!stale.refresh.compareAndSet(null, newFut))
+                continue;
+
+            CompletableFuture<String> res;
+
+            try {
+                res = signin.get();
+            }
+            catch (RuntimeException e) {
+                res = CompletableFuture.failedFuture(e);
+            }
+
+            res.whenComplete((tok, e) -> {
+                if (e == null) {
+                    Token newTok = new Token(tok);
+
+                    // New generation is published before waiters are released.
+                    cur.compareAndSet(stale, newTok);
+
+                    newFut.complete(newTok);
+                }
+                else {
+                    stale.refresh.compareAndSet(newFut, null);
+
+                    newFut.completeExceptionally(e);
+                }
+            });
+
+            return newFut;
+        }
+    }
+}
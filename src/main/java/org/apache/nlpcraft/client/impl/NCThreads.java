@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client.impl;
+
+import java.net.http.HttpClient;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Threads of the client's background work. This is Java 11 version using daemon platform threads, the
+ * multi-release jar replaces it on Java 21 with the version using virtual threads.
+ */
+final class NCThreads {
+    /**
+     *
+     */
+    private NCThreads() {
+        // No-op.
+    }
+
+    /**
+     * Creates factory of the threads with given name.
+     *
+     * @param name Thread name.
+     * @return Thread factory.
+     */
+    static ThreadFactory factory(String name) {
+        return r -> {
+            Thread t = new Thread(r, name);
+
+            t.setDaemon(true);
+
+            return t;
+        };
+    }
+
+    /**
+     * Creates executor running each task in its own, possibly reused, thread.
+     *
+     * @param name Thread name.
+     * @return Executor.
+     */
+    static ExecutorService newPerTaskExecutor(String name) {
+        return Executors.newCachedThreadPool(factory(name));
+    }
+
+    /**
+     * Creates single thread scheduled executor.
+     *
+     * @param name Thread name.
+     * @return Executor.
+     */
+    static ScheduledExecutorService newScheduledExecutor(String name) {
+        return Executors.newSingleThreadScheduledExecutor(factory(name));
+    }
+
+    /**
+     * Gets executor running tasks after the given delay, e.g. retries, hedges and timeouts.
+     *
+     * @param delayMs Delay.
+     * @return Executor.
+     */
+    static Executor delayed(long delayMs) {
+        return CompletableFuture.delayedExecutor(delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Closes the JDK HTTP client. This version has nothing to call, since the client can't be closed before
+     * Java 21: its selector thread and idle connections are released when it's collected.
+     *
+     * @param cli HTTP client.
+     */
+    static void close(HttpClient cli) {
+        // No-op.
+    }
+}
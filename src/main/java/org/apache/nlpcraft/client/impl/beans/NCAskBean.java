@@ -29,4 +29,9 @@ public class NCAskBean extends NCStatusResponseBean {
     public String getServerRequestId() {
         return srvReqId;
     }
+
+    @Override
+    public String getCreatedRequestId() {
+        return srvReqId;
+    }
 }
@@ -29,6 +29,11 @@ public class NCAskSyncBean extends NCStatusResponseBean {
     public NCRequestStateBean getState() {
         return state;
     }
+
+    @Override
+    public String getCreatedRequestId() {
+        return state != null ? state.getServerRequestId() : null;
+    }
 }
 
 
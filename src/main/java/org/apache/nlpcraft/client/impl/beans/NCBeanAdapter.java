@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client.impl.beans;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Base streaming JSON adapter of the REST response beans which are decoded often enough for reflection
+ * to matter. The adapter reads the known fields straight from the stream into the bean fields. Unknown
+ * fields and JSON nulls are skipped. Beans are written with the reflective adapter of Gson.
+ *
+ * @param <T> Bean type.
+ */
+public abstract class NCBeanAdapter<T> extends TypeAdapter<T> {
+    private static final Gson gson = new Gson();
+
+    private final Class<T> cls;
+
+    /**
+     *
+     * @param cls Bean class.
+     */
+    protected NCBeanAdapter(Class<T> cls) {
+        this.cls = cls;
+    }
+
+    /**
+     * Creates new bean.
+     *
+     * @return
+     */
+    protected abstract T create();
+
+    /**
+     * Reads non-null value of the field.
+     *
+     * @param b Bean.
+     * @param name JSON field name.
+     * @param in Reader positioned at the field value.
+     * @return Whether the field is known and its value was consumed.
+     * @throws IOException
+     */
+    protected abstract boolean read(T b, String name, JsonReader in) throws IOException;
+
+    @Override
+    public T read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+
+            return null;
+        }
+
+        T b = create();
+
+        in.beginObject();
+
+        while (in.hasNext()) {
+            String name = in.nextName();
+
+            if (in.peek() == JsonToken.NULL)
+                in.nextNull();
+            else if (!read(b, name, in))
+                in.skipValue();
+        }
+
+        in.endObject();
+
+        return b;
+    }
+
+    @Override
+    public void write(JsonWriter out, T b) throws IOException {
+        gson.getAdapter(cls).write(out, b);
+    }
+}
@@ -17,26 +17,72 @@
 
 package org.apache.nlpcraft.client.impl.beans;
 
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
 import org.apache.nlpcraft.client.NCResult;
 
+import java.io.IOException;
+import java.lang.reflect.Type;
 import java.util.Map;
 
 /**
- * REST bean.
+ * REST bean. Result body, metadata and processing log are kept as parsed JSON and only
+ * materialized on the first access.
  */
 public class NCRequestStateBean implements NCResult {
+    /** Streaming JSON adapter. */
+    public static final NCBeanAdapter<NCRequestStateBean> ADAPTER = new NCBeanAdapter<>(NCRequestStateBean.class) {
+        @Override
+        protected NCRequestStateBean create() {
+            return new NCRequestStateBean();
+        }
+
+        @Override
+        protected boolean read(NCRequestStateBean b, String name, JsonReader in) throws IOException {
+            switch (name) {
+                case "srvReqId": b.srvReqId = in.nextString(); return true;
+                case "txt": b.txt = in.nextString(); return true;
+                case "usrId": b.usrId = in.nextLong(); return true;
+                case "mdlId": b.mdlId = in.nextString(); return true;
+                case "probeId": b.probeId = in.nextString(); return true;
+                case "resType": b.resType = in.nextString(); return true;
+                case "status": b.status = in.nextString(); return true;
+                case "errorCode": b.errorCode = in.nextInt(); return true;
+                case "error": b.error = in.nextString(); return true;
+                case "resBody": b.resBodyJson = JsonParser.parseReader(in); return true;
+                case "resMeta": b.resMetaJson = JsonParser.parseReader(in); return true;
+                case "logHolder": b.logHolderJson = JsonParser.parseReader(in); return true;
+
+                default: return false;
+            }
+        }
+    };
+
+    private static final Type MAP_TYPE = new TypeToken<Map<String, Object>>(){}.getType();
+    private static final Gson gson = new Gson();
+
     private String srvReqId;
     private String txt;
     private long usrId;
     private String mdlId;
     private String probeId;
     private String resType;
-    private String resBody;
     private String status;
     private Integer errorCode;
     private String error;
-    private String logHolder;
-    private Map<String, Object> resMeta;
+
+    private JsonElement resBodyJson;
+    private JsonElement resMetaJson;
+    private JsonElement logHolderJson;
+
+    // Lazily materialized values. Races are benign, values are computed from immutable JSON.
+    private volatile String resBody;
+    private volatile Map<String, Object> resMeta;
+    private volatile boolean resMetaDone;
+    private volatile String logHolder;
 
     @Override
     public String getServerRequestId() {
@@ -78,11 +124,44 @@ public class NCRequestStateBean implements NCResult {
 
     @Override
     public String getResultBody() {
-        return resBody;
+        String s = resBody;
+
+        if (s == null && resBodyJson != null)
+            resBody = s = resBodyJson.isJsonPrimitive() ? resBodyJson.getAsString() : resBodyJson.toString();
+
+        return s;
+    }
+
+    @Override
+    public <T> T getResultBodyAs(Class<T> cls) {
+        return getResultBodyAs((Type)cls);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T getResultBodyAs(Type type) {
+        if (resBodyJson == null)
+            return null;
+
+        // Same string as the one returned by 'getResultBody()', for any result type.
+        if (type == String.class)
+            return (T)getResultBody();
+
+        // Stringified JSON body.
+        if ("json".equalsIgnoreCase(resType) &&
+            resBodyJson.isJsonPrimitive() && resBodyJson.getAsJsonPrimitive().isString()
+        )
+            return gson.fromJson(resBodyJson.getAsString(), type);
+
+        return gson.fromJson(resBodyJson, type);
+    }
+
+    public JsonElement getResultBodyJson() {
+        return resBodyJson;
     }
 
-    public void setResultBody(String resBody) {
-        this.resBody = resBody;
+    public void setResultBodyJson(JsonElement resBodyJson) {
+        this.resBodyJson = resBodyJson;
     }
 
     @Override
@@ -106,20 +185,44 @@ public class NCRequestStateBean implements NCResult {
 
     @Override
     public String getLogHolder() {
-        return logHolder;
+        String s = logHolder;
+
+        if (s == null && logHolderJson != null)
+            logHolder = s = logHolderJson.toString();
+
+        return s;
+    }
+
+    public JsonElement getLogHolderJson() {
+        return logHolderJson;
     }
 
-    public void setLogHolder(String logHolder) {
-        this.logHolder = logHolder;
+    public void setLogHolderJson(JsonElement logHolderJson) {
+        this.logHolderJson = logHolderJson;
     }
 
     @Override
     public Map<String, Object> getResultMeta() {
+        if (!resMetaDone) {
+            Map<String, Object> m = resMetaJson != null ? gson.fromJson(resMetaJson, MAP_TYPE) : null;
+
+            resMeta = m == null || m.isEmpty() ? null : m;
+            resMetaDone = true;
+        }
+
         return resMeta;
     }
 
-    public void setResultMeta(Map<String, Object> resMeta) {
-        this.resMeta = resMeta;
+    public JsonElement getResultMetaJson() {
+        return resMetaJson;
+    }
+
+    public void setResultMetaJson(JsonElement resMetaJson) {
+        this.resMetaJson = resMetaJson;
+    }
+
+    public String getStatus() {
+        return status;
     }
 
     public void setSrvReqId(String srvReqId) {
@@ -29,4 +29,13 @@ public class NCStatusResponseBean {
     public String getStatus() {
         return status;
     }
+
+    /**
+     * Gets ID of the server request created by the call, if any.
+     *
+     * @return Server request ID, {@code null} if the call doesn't create any request.
+     */
+    public String getCreatedRequestId() {
+        return null;
+    }
 }
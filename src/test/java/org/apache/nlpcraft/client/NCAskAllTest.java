@@ -0,0 +1,284 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client;
+
+import com.google.gson.JsonElement;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * REST client test. Bulk ask of the stub server with random request completion times.
+ */
+class NCAskAllTest {
+    /** */
+    private static final int TXT_CNT = 1000;
+
+    /** */
+    private static final int MAX_IN_FLIGHT = 50;
+
+    /** */
+    private static final long MAX_READY_MS = 30;
+
+    private NCStubServer srv;
+    private final AtomicInteger reqGen = new AtomicInteger();
+    private final Map<String, String> txts = new ConcurrentHashMap<>();
+    private final Map<String, Long> readyTs = new ConcurrentHashMap<>();
+    private final Set<String> cancelled = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    /**
+     *
+     * @throws Exception
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        srv = new NCStubServer();
+
+        srv.handle("ask", req -> {
+            String id = String.valueOf(reqGen.incrementAndGet());
+
+            txts.put(id, req.get("txt").getAsString());
+            readyTs.put(id, System.currentTimeMillis() + ThreadLocalRandom.current().nextLong(MAX_READY_MS));
+
+            // Requests known to the server and not released yet.
+            maxInFlight.accumulateAndGet(txts.size() - cancelled.size(), Math::max);
+
+            return "{\"status\":\"API_OK\",\"srvReqId\":\"" + id + "\"}";
+        });
+        srv.handle("check", req -> {
+            long now = System.currentTimeMillis();
+
+            List<String> states = new ArrayList<>();
+
+            for (JsonElement e : req.getAsJsonArray("srvReqIds")) {
+                String id = e.getAsString();
+
+                states.add(
+                    "{\"srvReqId\":\"" + id + "\",\"txt\":\"" + txts.get(id) + "\"," +
+                    (now >= readyTs.get(id) ?
+                        "\"status\":\"QRY_READY\",\"resType\":\"text\",\"resBody\":\"OK\"}" :
+                        "\"status\":\"QRY_ENLISTED\"}")
+                );
+            }
+
+            return "{\"status\":\"API_OK\",\"states\":[" + String.join(",", states) + "]}";
+        });
+        srv.handle("cancel", req -> {
+            if (req.has("srvReqIds"))
+                for (JsonElement id : req.getAsJsonArray("srvReqIds"))
+                    cancelled.add(id.getAsString());
+
+            return "{\"status\":\"API_OK\"}";
+        });
+    }
+
+    /**
+     *
+     */
+    @AfterEach
+    void tearDown() {
+        if (srv != null)
+            srv.close();
+    }
+
+    /**
+     *
+     * @return
+     * @throws Exception
+     */
+    private NCClient mkClient() throws Exception {
+        return new NCClientBuilder().setBaseUrl(srv.getBaseUrl()).setResultMinPollInterval(10).build();
+    }
+
+    /**
+     *
+     * @return
+     */
+    private static List<String> mkTexts() {
+        return IntStream.range(0, TXT_CNT).mapToObj(i -> "txt" + i).collect(Collectors.toList());
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testOrdered() throws Exception {
+        NCClient cli = mkClient();
+
+        try {
+            List<String> in = mkTexts();
+            List<String> out = new ArrayList<>();
+
+            NCAskAllStats stats = cli.askAll(
+                "mdl",
+                in,
+                new NCAskAllOptions().setMaxInFlight(MAX_IN_FLIGHT),
+                res -> out.add(res.getText())
+            );
+
+            System.out.println("Ordered bulk ask stats: " + stats);
+
+            assertEquals(in, out);
+            assertEquals(TXT_CNT, stats.getSubmitted());
+            assertEquals(TXT_CNT, stats.getResults());
+            assertEquals(TXT_CNT / NCAskAllOptions.DFLT_CANCEL_BATCH_SIZE, stats.getCancelCalls());
+            assertTrue(stats.getThroughput() > 0);
+
+            // All requests are released on the server.
+            assertEquals(txts.keySet(), cancelled);
+            assertTrue(maxInFlight.get() <= MAX_IN_FLIGHT + NCAskAllOptions.DFLT_CANCEL_BATCH_SIZE);
+        }
+        finally {
+            cli.close();
+        }
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testUnordered() throws Exception {
+        NCClient cli = mkClient();
+
+        try {
+            AtomicInteger pulled = new AtomicInteger();
+            AtomicInteger maxWindow = new AtomicInteger();
+            Set<String> out = new HashSet<>();
+
+            NCAskAllStats stats = cli.askAll(
+                "mdl",
+                IntStream.range(0, TXT_CNT).peek(i -> pulled.incrementAndGet()).mapToObj(i -> "txt" + i),
+                new NCAskAllOptions().setMaxInFlight(MAX_IN_FLIGHT).setOrdered(false).setCancelBatchSize(10),
+                res -> {
+                    out.add(res.getText());
+
+                    maxWindow.accumulateAndGet(pulled.get() - out.size() + 1, Math::max);
+                }
+            );
+
+            System.out.println("Unordered bulk ask stats: " + stats);
+
+            assertEquals(new HashSet<>(mkTexts()), out);
+            assertEquals(TXT_CNT / 10, stats.getCancelCalls());
+            assertEquals(txts.keySet(), cancelled);
+
+            // Texts are read lazily, only as the window allows.
+            assertTrue(maxWindow.get() <= MAX_IN_FLIGHT);
+        }
+        finally {
+            cli.close();
+        }
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testStream() throws Exception {
+        NCClient cli = mkClient();
+
+        try {
+            AtomicBoolean closed = new AtomicBoolean();
+            List<String> out = new ArrayList<>();
+
+            NCAskAllStats stats = cli.askAll(
+                "mdl",
+                mkTexts().stream().onClose(() -> closed.set(true)),
+                new NCAskAllOptions().setMaxInFlight(MAX_IN_FLIGHT),
+                res -> out.add(res.getText())
+            );
+
+            assertEquals(mkTexts(), out);
+            assertEquals(TXT_CNT, stats.getResults());
+            assertTrue(closed.get());
+
+            // Closed on failure as well.
+            closed.set(false);
+
+            assertThrows(
+                IllegalStateException.class,
+                () -> cli.askAll(
+                    "mdl",
+                    mkTexts().stream().onClose(() -> closed.set(true)),
+                    null,
+                    res -> {
+                        throw new IllegalStateException("Test.");
+                    }
+                )
+            );
+
+            assertTrue(closed.get());
+        }
+        finally {
+            cli.close();
+        }
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testAbort() throws Exception {
+        NCClient cli = mkClient();
+
+        try {
+            AtomicInteger cnt = new AtomicInteger();
+
+            assertThrows(
+                IllegalStateException.class,
+                () -> cli.askAll(
+                    "mdl",
+                    mkTexts(),
+                    new NCAskAllOptions().setMaxInFlight(MAX_IN_FLIGHT),
+                    res -> {
+                        if (cnt.incrementAndGet() == 10)
+                            throw new IllegalStateException("Test.");
+                    }
+                )
+            );
+
+            // Window is refilled after each of 9 delivered results, all requests are cancelled.
+            assertEquals(MAX_IN_FLIGHT + 9, txts.size());
+            assertEquals(txts.keySet(), cancelled);
+        }
+        finally {
+            cli.close();
+        }
+    }
+}
@@ -21,10 +21,13 @@ import org.apache.nlpcraft.client.models.NCCommonSpecModel;
 import org.apache.nlpcraft.model.NCModel;
 import org.junit.jupiter.api.Test;
 
+import java.lang.reflect.Type;
 import java.util.Optional;
 import java.util.function.Consumer;
 
 import static org.apache.nlpcraft.client.models.NCCommonSpecModel.MDL_ID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 /**
  * REST client test. Method `ask/sync`.
@@ -69,4 +72,24 @@ class NCAskSyncTest extends NCTestAdapter {
         check("test", res -> checkOk(res, null));
         check("meta", res -> checkOk(res, NCCommonSpecModel.MAP));
     }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testResultBodyAs() throws Exception {
+        NCResult res = admCli.askSync(MDL_ID, "test");
+
+        checkOk(res, null);
+
+        assertEquals(res.getResultBody(), res.getResultBodyAs(String.class));
+        assertEquals(res.getResultBody(), res.getResultBodyAs((Type)String.class));
+
+        NCResult err = admCli.askSync(MDL_ID, "El tiempo en España");
+
+        checkError(err);
+
+        assertNull(err.getResultBodyAs(String.class));
+    }
 }
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client;
+
+import org.apache.nlpcraft.client.models.NCCommonSpecModel;
+import org.apache.nlpcraft.model.NCModel;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.apache.nlpcraft.client.models.NCCommonSpecModel.MDL_ID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * REST asynchronous client test.
+ */
+class NCAsyncClientTest extends NCTestAdapter {
+    /** */
+    private static final int REQ_CNT = 100;
+
+    @Override
+    Optional<Class<? extends NCModel>> getModelClass() {
+        return Optional.of(NCCommonSpecModel.class);
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void test() throws Exception {
+        NCAsyncClient cli = new NCClientBuilder().buildAsync();
+
+        try {
+            List<CompletableFuture<NCResult>> futs = new ArrayList<>();
+
+            for (int i = 0; i < REQ_CNT; i++)
+                futs.add(cli.askSync(MDL_ID, "test"));
+
+            CompletableFuture.allOf(futs.toArray(new CompletableFuture[0])).join();
+
+            for (CompletableFuture<NCResult> fut : futs)
+                checkOk(fut.join(), null);
+
+            checkOk(cli.askSync(MDL_ID, "meta").join(), NCCommonSpecModel.MAP);
+            checkError(cli.askSync(MDL_ID, "El tiempo en España").join());
+
+            String srvReqId = cli.ask(MDL_ID, "test").join();
+
+            assertTrue(cli.check(Collections.singleton(srvReqId), null, null, null).join().stream().
+                allMatch(p -> srvReqId.equals(p.getServerRequestId())));
+
+            cli.cancel(Collections.singleton(srvReqId), null, null).join();
+
+            assertEquals(admUsrId, (long)cli.getUser(null, null).join().getId());
+        }
+        finally {
+            cli.close().join();
+        }
+    }
+}
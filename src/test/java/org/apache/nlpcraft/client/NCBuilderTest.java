@@ -17,10 +17,15 @@
 
 package org.apache.nlpcraft.client;
 
+import org.apache.http.impl.client.HttpClients;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 /**
  * REST client builder test.
  */
@@ -48,4 +53,47 @@ class NCBuilderTest extends NCTestAdapter {
             "NC_SIGNIN_FAILURE"
         );
     }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testPool() throws Exception {
+        testException(() -> new NCClientBuilder().setMaxConnections(0), IllegalArgumentException.class);
+        testException(() -> new NCClientBuilder().setMaxConnectionsPerRoute(-1), IllegalArgumentException.class);
+        testException(() -> new NCClientBuilder().setKeepAlive(0), IllegalArgumentException.class);
+
+        NCClient cli = new NCClientBuilder().
+            setMaxConnections(10).
+            setMaxConnectionsPerRoute(5).
+            setValidateAfterInactivity(1000).
+            setKeepAlive(5000).
+            build();
+
+        try {
+            cli.getAllUsers();
+
+            NCPoolStats stats = cli.getPoolStats();
+
+            System.out.println("Pool stats: " + stats);
+
+            assertEquals(10, stats.getMax());
+            assertEquals(0, stats.getLeased());
+            assertEquals(0, stats.getPending());
+            assertTrue(stats.getAvailable() > 0);
+        }
+        finally {
+            cli.close();
+        }
+
+        NCClient custCli = new NCClientBuilder().setClientSupplier(HttpClients::createDefault).build();
+
+        try {
+            assertNull(custCli.getPoolStats());
+        }
+        finally {
+            custCli.close();
+        }
+    }
 }
@@ -0,0 +1,345 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client;
+
+import org.apache.http.impl.client.HttpClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.apache.nlpcraft.client.NCClientBuilder.ADMIN_BULKHEAD;
+import static org.apache.nlpcraft.client.NCClientBuilder.DFLT_MAX_CONN_PER_ROUTE;
+import static org.apache.nlpcraft.client.NCClientBuilder.INTERACTIVE_BULKHEAD;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * REST client test. Bulkheads isolating NLP calls from the slow management calls of the stub server.
+ */
+class NCBulkheadTest {
+    /** */
+    private static final long SLOW_MS = 300;
+
+    /** */
+    private static final int BURST = 10;
+
+    private NCStubServer srv;
+    private final ExecutorService exec = Executors.newFixedThreadPool(BURST);
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger maxActive = new AtomicInteger();
+
+    /**
+     *
+     * @throws Exception
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        srv = new NCStubServer();
+
+        srv.handle("user/all", req -> {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+
+            try {
+                Thread.sleep(SLOW_MS);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            finally {
+                active.decrementAndGet();
+            }
+
+            return "{\"status\":\"API_OK\",\"users\":[]}";
+        });
+        srv.handle("ask/sync", req ->
+            "{\"status\":\"API_OK\",\"state\":{\"srvReqId\":\"1\",\"status\":\"QRY_READY\"," +
+            "\"resType\":\"text\",\"resBody\":\"OK\"}}"
+        );
+    }
+
+    /**
+     *
+     */
+    @AfterEach
+    void tearDown() {
+        exec.shutdownNow();
+
+        if (srv != null)
+            srv.close();
+    }
+
+    /**
+     *
+     * @param cli
+     * @param name
+     * @return
+     */
+    private static NCBulkheadStats stats(NCClient cli, String name) {
+        return cli.getBulkheadStats().stream().filter(s -> s.getName().equals(name)).findFirst().orElseThrow();
+    }
+
+    /**
+     *
+     * @param cli
+     * @return
+     */
+    private CompletableFuture<List<NCUser>> getAllUsers(NCClient cli) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return cli.getAllUsers();
+            }
+            catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, exec);
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testIsolation() throws Exception {
+        NCClient cli = new NCClientBuilder().
+            setBaseUrl(srv.getBaseUrl()).
+            setBulkheadsEnabled(true).
+            setBulkhead(ADMIN_BULKHEAD, 2, 100, 10000).
+            build();
+
+        try {
+            List<CompletableFuture<List<NCUser>>> futs = new ArrayList<>();
+
+            for (int i = 0; i < BURST; i++)
+                futs.add(getAllUsers(cli));
+
+            while (srv.getCalls("user/all") == 0)
+                Thread.sleep(10);
+
+            // NLP calls don't wait for the management calls.
+            for (int i = 0; i < BURST; i++) {
+                long start = System.currentTimeMillis();
+
+                assertEquals("OK", cli.askSync("mdl", "test").getResultBody());
+                assertTrue(System.currentTimeMillis() - start < SLOW_MS);
+            }
+
+            NCBulkheadStats s = stats(cli, ADMIN_BULKHEAD);
+
+            System.out.println("Bulkhead stats: " + cli.getBulkheadStats());
+
+            assertTrue(s.getQueued() > 0, s.toString());
+            assertTrue(s.getInFlight() <= 2, s.toString());
+
+            for (CompletableFuture<List<NCUser>> fut : futs)
+                assertTrue(fut.get().isEmpty());
+
+            assertEquals(2, maxActive.get());
+            assertEquals(0, stats(cli, ADMIN_BULKHEAD).getInFlight());
+            assertEquals(0, stats(cli, INTERACTIVE_BULKHEAD).getInFlight());
+        }
+        finally {
+            cli.close();
+        }
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testReject() throws Exception {
+        NCClient cli = new NCClientBuilder().
+            setBaseUrl(srv.getBaseUrl()).
+            setBulkheadsEnabled(true).
+            setBulkhead(ADMIN_BULKHEAD, 1, 0, 1000).
+            build();
+
+        try {
+            CompletableFuture<List<NCUser>> fut = getAllUsers(cli);
+
+            while (srv.getCalls("user/all") == 0)
+                Thread.sleep(10);
+
+            assertThrows(NCConcurrencyLimitException.class, cli::getAllUsers);
+            assertTrue(fut.get().isEmpty());
+            assertEquals(1, stats(cli, ADMIN_BULKHEAD).getRejected());
+            assertEquals(1, srv.getCalls("user/all"));
+        }
+        finally {
+            cli.close();
+        }
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testDefaultLimits() throws Exception {
+        try (NCStubServer srv2 = new NCStubServer()) {
+            // Default limits split the connections of all endpoints.
+            checkDefaultLimits(new NCClientBuilder().setBaseUrl(srv.getBaseUrl()), DFLT_MAX_CONN_PER_ROUTE);
+            checkDefaultLimits(
+                new NCClientBuilder().setBaseUrls(srv.getBaseUrl(), srv2.getBaseUrl()), 2 * DFLT_MAX_CONN_PER_ROUTE
+            );
+            checkDefaultLimits(
+                new NCClientBuilder().setBaseUrls(srv.getBaseUrl(), srv2.getBaseUrl()).setMaxConnections(150), 150
+            );
+
+            // Pool not created by the builder isn't limited by default.
+            checkDefaultLimits(
+                new NCClientBuilder().setBaseUrl(srv.getBaseUrl()).setTransportType(NCTransportType.JDK_HTTP_CLIENT),
+                0
+            );
+            checkDefaultLimits(
+                new NCClientBuilder().setBaseUrl(srv.getBaseUrl()).setClientSupplier(HttpClients::createDefault), 0
+            );
+        }
+    }
+
+    /**
+     *
+     * @param b Client builder.
+     * @param conn Expected number of the connections split by the bulkheads, zero if not limited.
+     * @throws Exception
+     */
+    private static void checkDefaultLimits(NCClientBuilder b, int conn) throws Exception {
+        NCClient cli = b.setBulkheadsEnabled(true).build();
+
+        try {
+            int admin = conn > 0 ? (int)Math.round(conn * NCClientBuilder.DFLT_ADMIN_BULKHEAD_SHARE) : Integer.MAX_VALUE;
+
+            assertEquals(admin, stats(cli, ADMIN_BULKHEAD).getMaxConcurrent());
+            assertEquals(conn > 0 ? conn - admin : Integer.MAX_VALUE, stats(cli, INTERACTIVE_BULKHEAD).getMaxConcurrent());
+        }
+        finally {
+            cli.close();
+        }
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testRouting() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> new NCClientBuilder().setBulkheadCalls("bulk", "user/all"));
+        assertThrows(IllegalArgumentException.class, () -> new NCClientBuilder().setBulkhead("bulk", 0, 0, 1000));
+
+        NCClient cli = new NCClientBuilder().
+            setBaseUrl(srv.getBaseUrl()).
+            setBulkheadsEnabled(true).
+            setBulkhead("bulk", 1, 0, 1000).
+            setBulkheadCalls("bulk", "user/all").
+            setBulkheadTimeout("bulk", SLOW_MS / 3).
+            build();
+
+        try {
+            assertEquals(
+                List.of(INTERACTIVE_BULKHEAD, ADMIN_BULKHEAD, "bulk"),
+                cli.getBulkheadStats().stream().map(NCBulkheadStats::getName).collect(Collectors.toList())
+            );
+
+            // Bulkhead deadline applies.
+            long start = System.currentTimeMillis();
+
+            assertThrows(IOException.class, cli::getAllUsers);
+            assertTrue(System.currentTimeMillis() - start < SLOW_MS);
+
+            // Own deadline of the call wins.
+            assertTrue(cli.withDeadline(10 * SLOW_MS).getAllUsers().isEmpty());
+
+            assertEquals(1, stats(cli, "bulk").getMaxConcurrent());
+            assertEquals(0, stats(cli, "bulk").getInFlight());
+        }
+        finally {
+            cli.close();
+        }
+
+        // Bulkheads are disabled by default, even if configured.
+        cli = new NCClientBuilder().setBaseUrl(srv.getBaseUrl()).setBulkhead("bulk", 1, 0, 1000).build();
+
+        try {
+            assertTrue(cli.getBulkheadStats().isEmpty());
+        }
+        finally {
+            cli.close();
+        }
+
+        cli = new NCClientBuilder().
+            setBaseUrl(srv.getBaseUrl()).
+            setBulkheadsEnabled(true).
+            setBulkheadsEnabled(false).
+            build();
+
+        try {
+            assertTrue(cli.getBulkheadStats().isEmpty());
+        }
+        finally {
+            cli.close();
+        }
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testAsync() throws Exception {
+        NCAsyncClient cli =
+            new NCClientBuilder().
+                setBaseUrl(srv.getBaseUrl()).
+                setBulkheadsEnabled(true).
+                setBulkhead(ADMIN_BULKHEAD, 2, 100, 10000).
+                buildAsync();
+
+        try {
+            List<CompletableFuture<List<NCUser>>> futs = new ArrayList<>();
+
+            for (int i = 0; i < BURST; i++)
+                futs.add(cli.getAllUsers());
+
+            for (int i = 0; i < BURST; i++) {
+                long start = System.currentTimeMillis();
+
+                assertEquals("OK", cli.askSync("mdl", "test").join().getResultBody());
+                assertTrue(System.currentTimeMillis() - start < SLOW_MS);
+            }
+
+            for (CompletableFuture<List<NCUser>> fut : futs)
+                assertTrue(fut.join().isEmpty());
+
+            assertEquals(2, maxActive.get());
+            assertTrue(cli.getBulkheadStats().stream().allMatch(s -> s.getInFlight() == 0 && s.getQueued() == 0));
+        }
+        finally {
+            cli.close().join();
+        }
+    }
+}
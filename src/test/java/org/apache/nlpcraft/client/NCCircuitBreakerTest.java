@@ -0,0 +1,250 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.apache.nlpcraft.client.NCCircuitBreakerState.CLOSED;
+import static org.apache.nlpcraft.client.NCCircuitBreakerState.HALF_OPEN;
+import static org.apache.nlpcraft.client.NCCircuitBreakerState.OPEN;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * REST client test. Circuit breakers against the fault-injecting stub server.
+ */
+class NCCircuitBreakerTest {
+    /** */
+    private static final String USER = "{\"status\":\"API_OK\",\"id\":1,\"email\":\"admin@admin.com\"}";
+
+    /** */
+    private static final int WINDOW = 4;
+
+    /** */
+    private static final long OPEN_TIME_MS = 500;
+
+    private final List<NCCircuitBreakerEvent> evts = new CopyOnWriteArrayList<>();
+
+    /** Processing time of the request on the stub server, milliseconds. */
+    private volatile long procMs;
+
+    private NCStubServer srv;
+
+    /**
+     *
+     * @throws Exception
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        srv = new NCStubServer();
+
+        srv.handle("user/get", req -> {
+            if (procMs > 0) {
+                try {
+                    Thread.sleep(procMs);
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            return USER;
+        });
+        srv.handle("user/all", req -> "{\"status\":\"API_OK\",\"users\":[]}");
+    }
+
+    /**
+     *
+     */
+    @AfterEach
+    void tearDown() {
+        if (srv != null)
+            srv.close();
+    }
+
+    /**
+     *
+     * @return
+     */
+    private NCClientBuilder builder() {
+        return new NCClientBuilder().
+            setBaseUrl(srv.getBaseUrl()).
+            setCircuitBreakerFailureRate(0.5).
+            setCircuitBreakerWindow(WINDOW).
+            setCircuitBreakerOpenTime(OPEN_TIME_MS).
+            addCircuitBreakerListener(evts::add);
+    }
+
+    /**
+     *
+     * @param states
+     */
+    private void checkTransitions(NCCircuitBreakerState... states) {
+        assertEquals(states.length - 1, evts.size(), "Events: " + evts);
+
+        for (int i = 0; i < evts.size(); i++) {
+            assertEquals(states[i], evts.get(i).getFromState());
+            assertEquals(states[i + 1], evts.get(i).getToState());
+            assertEquals("user/get", evts.get(i).getCall());
+            assertEquals(srv.getBaseUrl(), evts.get(i).getBaseUrl());
+        }
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testFailureRate() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> new NCClientBuilder().setCircuitBreakerFailureRate(0));
+        assertThrows(IllegalArgumentException.class, () -> new NCClientBuilder().setCircuitBreakerWindow(1));
+        assertThrows(IllegalArgumentException.class, () -> new NCClientBuilder().addCircuitBreakerListener(null));
+
+        NCClient cli = builder().build();
+
+        try {
+            srv.inject("user/get", WINDOW, 500, null);
+
+            for (int i = 0; i < WINDOW; i++)
+                assertThrows(NCClientException.class, () -> cli.getUser(null, null));
+
+            checkTransitions(CLOSED, OPEN);
+            assertEquals(1.0, evts.get(0).getFailureRate());
+
+            // Fails fast without sending the request.
+            assertThrows(NCCircuitBreakerOpenException.class, () -> cli.getUser(null, null));
+            assertEquals(WINDOW, srv.getCalls("user/get"));
+
+            // Other calls are not affected.
+            assertTrue(cli.getAllUsers().isEmpty());
+
+            Thread.sleep(OPEN_TIME_MS + 100);
+
+            // Probe calls succeed.
+            for (int i = 0; i < 3; i++)
+                assertEquals(1, (long)cli.getUser(null, null).getId());
+
+            checkTransitions(CLOSED, OPEN, HALF_OPEN, CLOSED);
+
+            // Probe calls fail.
+            srv.inject("user/get", WINDOW + 3, 500, null);
+
+            for (int i = 0; i < WINDOW; i++)
+                assertThrows(NCClientException.class, () -> cli.getUser(null, null));
+
+            Thread.sleep(OPEN_TIME_MS + 100);
+
+            for (int i = 0; i < 3; i++)
+                assertThrows(NCClientException.class, () -> cli.getUser(null, null));
+
+            checkTransitions(CLOSED, OPEN, HALF_OPEN, CLOSED, OPEN, HALF_OPEN, OPEN);
+
+            assertThrows(NCCircuitBreakerOpenException.class, () -> cli.getUser(null, null));
+        }
+        finally {
+            cli.close();
+        }
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testSlowCalls() throws Exception {
+        procMs = 200;
+
+        NCClient cli = builder().setCircuitBreakerSlowCallDuration(100).build();
+
+        try {
+            for (int i = 0; i < WINDOW; i++)
+                cli.getUser(null, null);
+
+            checkTransitions(CLOSED, OPEN);
+            assertEquals(1.0, evts.get(0).getSlowCallRate());
+            assertEquals(0.0, evts.get(0).getFailureRate());
+
+            long start = System.currentTimeMillis();
+
+            assertThrows(NCCircuitBreakerOpenException.class, () -> cli.getUser(null, null));
+            assertTrue(System.currentTimeMillis() - start < procMs);
+        }
+        finally {
+            cli.close();
+        }
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testDown() throws Exception {
+        NCClient cli = builder().build();
+
+        try {
+            srv.setDown(true);
+
+            for (int i = 0; i < WINDOW; i++)
+                assertThrows(IOException.class, () -> cli.getUser(null, null));
+
+            assertThrows(NCCircuitBreakerOpenException.class, () -> cli.getUser(null, null));
+
+            checkTransitions(CLOSED, OPEN);
+        }
+        finally {
+            srv.setDown(false);
+
+            cli.close();
+        }
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testAsync() throws Exception {
+        NCAsyncClient cli = builder().buildAsync();
+
+        try {
+            srv.inject("user/get", WINDOW, 503, null);
+
+            for (int i = 0; i < WINDOW; i++)
+                assertThrows(CompletionException.class, () -> cli.getUser(null, null).join());
+
+            CompletionException e = assertThrows(CompletionException.class, () -> cli.getUser(null, null).join());
+
+            assertTrue(e.getCause() instanceof NCCircuitBreakerOpenException);
+            assertEquals(WINDOW, srv.getCalls("user/get"));
+
+            checkTransitions(CLOSED, OPEN);
+        }
+        finally {
+            cli.close().join();
+        }
+    }
+}
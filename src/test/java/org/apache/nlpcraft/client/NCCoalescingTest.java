@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client;
+
+import org.apache.nlpcraft.client.impl.NCClientImpl;
+import org.apache.nlpcraft.client.models.NCCommonSpecModel;
+import org.apache.nlpcraft.model.NCModel;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.apache.nlpcraft.client.models.NCCommonSpecModel.MDL_ID;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * REST client test. Coalescing of the identical concurrent requests.
+ */
+class NCCoalescingTest extends NCTestAdapter {
+    /** */
+    private static final int THREADS = 20;
+
+    /** */
+    private static final int REQ_CNT = 100;
+
+    @Override
+    Optional<Class<? extends NCModel>> getModelClass() {
+        return Optional.of(NCCommonSpecModel.class);
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void test() throws Exception {
+        testException(() -> new NCClientBuilder().setCoalescedModels((String)null), IllegalArgumentException.class);
+
+        assertNull(((NCClientImpl)admCli).getRequestCoalescer());
+
+        NCClientImpl cli = (NCClientImpl)new NCClientBuilder().setCoalescedModels(MDL_ID).build();
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+
+        try {
+            List<Future<NCResult>> futs = new ArrayList<>();
+
+            for (int i = 0; i < REQ_CNT; i++)
+                futs.add(pool.submit(() -> cli.askSync(MDL_ID, "test")));
+
+            for (Future<NCResult> fut : futs)
+                checkOk(fut.get(), null);
+
+            System.out.println("Coalesced requests: " + cli.getRequestCoalescer().getCoalescedCount());
+
+            // Errors are delivered to all coalesced callers.
+            List<Future<NCResult>> errFuts = new ArrayList<>();
+
+            for (int i = 0; i < THREADS; i++)
+                errFuts.add(pool.submit(() -> cli.askSync(MDL_ID, "El tiempo en España")));
+
+            for (Future<NCResult> fut : errFuts)
+                checkError(fut.get());
+
+            assertTrue(cli.getRequestCoalescer().isCoalesced(MDL_ID));
+            assertFalse(cli.getRequestCoalescer().isCoalesced("other.model.id"));
+        }
+        finally {
+            pool.shutdown();
+
+            cli.close();
+        }
+    }
+}
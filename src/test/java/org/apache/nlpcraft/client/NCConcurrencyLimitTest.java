@@ -0,0 +1,301 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * REST client test. Client-side adaptive concurrency limiting.
+ */
+class NCConcurrencyLimitTest {
+    /** */
+    private static final String USER = "{\"status\":\"API_OK\",\"id\":1,\"email\":\"admin@admin.com\"}";
+
+    /** Number of requests the stub server processes in parallel, others wait for them. */
+    private static final int SRV_WORKERS = 4;
+
+    private final Semaphore workers = new Semaphore(SRV_WORKERS);
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger maxActive = new AtomicInteger();
+
+    /** Processing time of the request on the stub server, milliseconds. */
+    private volatile long procMs;
+
+    private NCStubServer srv;
+
+    /**
+     *
+     * @throws Exception
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        srv = new NCStubServer();
+
+        srv.handle("user/get", req -> {
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+
+            try {
+                if (procMs > 0) {
+                    workers.acquireUninterruptibly();
+
+                    try {
+                        Thread.sleep(procMs);
+                    }
+                    finally {
+                        workers.release();
+                    }
+                }
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            finally {
+                active.decrementAndGet();
+            }
+
+            return USER;
+        });
+    }
+
+    /**
+     *
+     */
+    @AfterEach
+    void tearDown() {
+        if (srv != null)
+            srv.close();
+    }
+
+    /**
+     *
+     * @param cli
+     * @param threads
+     * @param durMs
+     * @throws Exception
+     */
+    private static void load(NCClient cli, int threads, long durMs) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+        long end = System.currentTimeMillis() + durMs;
+
+        try {
+            List<Future<?>> futs = new ArrayList<>();
+
+            for (int i = 0; i < threads; i++)
+                futs.add(pool.submit(() -> {
+                    while (System.currentTimeMillis() < end)
+                        cli.getUser(null, null);
+
+                    return null;
+                }));
+
+            for (Future<?> fut : futs)
+                fut.get();
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     *
+     * @param cli
+     * @return
+     */
+    private static NCConcurrencyLimitStats stats(NCClient cli) {
+        List<NCConcurrencyLimitStats> stats = cli.getConcurrencyLimitStats();
+
+        assertEquals(1, stats.size());
+
+        return stats.get(0);
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testDecrease() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> new NCClientBuilder().setConcurrencyLimit(0));
+        assertThrows(IllegalArgumentException.class, () -> new NCClientBuilder().setInitialConcurrencyLimit(0));
+        assertThrows(IllegalArgumentException.class, () -> new NCClientBuilder().setConcurrencyQueueTimeout(-1));
+
+        procMs = 20;
+
+        NCClient cli = new NCClientBuilder().
+            setBaseUrl(srv.getBaseUrl()).
+            setConcurrencyLimit(100).
+            setInitialConcurrencyLimit(50).
+            setConcurrencyQueueTimeout(60000).
+            build();
+
+        try {
+            // Warm up: latency grows over the server capacity, and the limit shrinks.
+            load(cli, 50, 2000);
+
+            maxActive.set(0);
+
+            load(cli, 50, 2000);
+
+            NCConcurrencyLimitStats s = stats(cli);
+
+            System.out.println("Limit stats: " + s + ", server max active: " + maxActive.get());
+
+            assertTrue(s.getLimit() < 20);
+            assertTrue(maxActive.get() < 25);
+            assertEquals(0, s.getRejected());
+            assertEquals(0, s.getInFlight());
+        }
+        finally {
+            cli.close();
+        }
+
+        // Disabled by default.
+        cli = new NCClientBuilder().setBaseUrl(srv.getBaseUrl()).build();
+
+        try {
+            cli.getUser(null, null);
+
+            assertTrue(cli.getConcurrencyLimitStats().isEmpty());
+        }
+        finally {
+            cli.close();
+        }
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testIncrease() throws Exception {
+        procMs = 10;
+
+        NCClient cli = new NCClientBuilder().
+            setBaseUrl(srv.getBaseUrl()).
+            setConcurrencyLimit(16).
+            setInitialConcurrencyLimit(2).
+            build();
+
+        try {
+            load(cli, 16, 2000);
+
+            NCConcurrencyLimitStats s = stats(cli);
+
+            System.out.println("Limit stats: " + s);
+
+            // Server has spare capacity, the limit grows.
+            assertTrue(s.getLimit() > SRV_WORKERS);
+        }
+        finally {
+            cli.close();
+        }
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testReject() throws Exception {
+        procMs = 500;
+
+        NCClient cli = new NCClientBuilder().
+            setBaseUrl(srv.getBaseUrl()).
+            setConcurrencyLimit(1).
+            setConcurrencyQueueTimeout(0).
+            build();
+
+        try {
+            CompletableFuture<NCUser> fut = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return cli.getUser(null, null);
+                }
+                catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            });
+
+            while (cli.getConcurrencyLimitStats().isEmpty() || stats(cli).getInFlight() == 0)
+                Thread.sleep(10);
+
+            assertThrows(NCConcurrencyLimitException.class, () -> cli.getUser(null, null));
+
+            assertEquals(1, (long)fut.get().getId());
+            assertEquals(1, stats(cli).getRejected());
+        }
+        finally {
+            cli.close();
+        }
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testAsync() throws Exception {
+        procMs = 200;
+
+        NCAsyncClient cli = new NCClientBuilder().
+            setBaseUrl(srv.getBaseUrl()).
+            setConcurrencyLimit(1).
+            setConcurrencyQueueTimeout(300).
+            buildAsync();
+
+        try {
+            // First one is sent, second one waits for it, third one waits too long.
+            List<CompletableFuture<NCUser>> futs = new ArrayList<>();
+
+            for (int i = 0; i < 3; i++)
+                futs.add(cli.getUser(null, null));
+
+            assertEquals(1, (long)futs.get(0).get().getId());
+            assertEquals(1, (long)futs.get(1).get().getId());
+
+            CompletionException e = assertThrows(CompletionException.class, () -> futs.get(2).join());
+
+            assertTrue(e.getCause() instanceof NCConcurrencyLimitException);
+
+            NCConcurrencyLimitStats s = cli.getConcurrencyLimitStats().get(0);
+
+            assertEquals(1, s.getRejected());
+            assertEquals(0, s.getQueued());
+            assertEquals(1, maxActive.get());
+        }
+        finally {
+            cli.close().join();
+        }
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client;
+
+import com.google.gson.JsonElement;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * REST client test. Per-call deadlines against the stub server with slow requests.
+ */
+class NCDeadlineTest {
+    /** */
+    private static final long SLOW_MS = 500;
+
+    /** */
+    private static final long DEADLINE_MS = 100;
+
+    private NCStubServer srv;
+    private final List<String> cancelled = new CopyOnWriteArrayList<>();
+
+    /**
+     *
+     * @throws Exception
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        srv = new NCStubServer();
+
+        srv.handle("ask", req -> {
+            sleep(SLOW_MS);
+
+            return "{\"status\":\"API_OK\",\"srvReqId\":\"1\"}";
+        });
+        srv.handle("ask/sync", req -> {
+            sleep(SLOW_MS);
+
+            return
+                "{\"status\":\"API_OK\",\"state\":{\"srvReqId\":\"2\",\"status\":\"QRY_READY\"," +
+                "\"resType\":\"text\",\"resBody\":\"OK\"}}";
+        });
+        srv.handle("cancel", req -> {
+            // Cancel of all requests on close has no IDs.
+            if (req.has("srvReqIds"))
+                for (JsonElement id : req.getAsJsonArray("srvReqIds"))
+                    cancelled.add(id.getAsString());
+
+            return "{\"status\":\"API_OK\"}";
+        });
+    }
+
+    /**
+     *
+     */
+    @AfterEach
+    void tearDown() {
+        if (srv != null)
+            srv.close();
+    }
+
+    /**
+     *
+     * @param ms
+     */
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testDeadline() throws Exception {
+        for (NCTransportType type : NCTransportType.values())
+            testDeadline(type);
+    }
+
+    /**
+     *
+     * @param type
+     * @throws Exception
+     */
+    private void testDeadline(NCTransportType type) throws Exception {
+        NCClient cli = new NCClientBuilder().setBaseUrl(srv.getBaseUrl()).setTransportType(type).build();
+
+        try {
+            assertThrows(IllegalArgumentException.class, () -> cli.withDeadline(0));
+
+            long start = System.currentTimeMillis();
+
+            assertThrows(IOException.class, () -> cli.withDeadline(DEADLINE_MS).askSync("mdl", "test"));
+            assertTrue(System.currentTimeMillis() - start < SLOW_MS, "Deadline is not applied: " + type);
+
+            // Longer deadline, and the client itself, are not bounded.
+            assertEquals("OK", cli.withDeadline(5 * SLOW_MS).askSync("mdl", "test").getResultBody());
+            assertEquals("OK", cli.askSync("mdl", "test").getResultBody());
+        }
+        finally {
+            cli.close();
+        }
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testNotSent() throws Exception {
+        NCClient cli = new NCClientBuilder().
+            setBaseUrl(srv.getBaseUrl()).
+            setConcurrencyLimit(1).
+            setInitialConcurrencyLimit(1).
+            setConcurrencyQueueTimeout(10 * SLOW_MS).
+            build();
+
+        try {
+            // Takes the only slot.
+            CompletableFuture<NCResult> fut = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return cli.askSync("mdl", "test");
+                }
+                catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+            });
+
+            while (srv.getCalls("ask/sync") == 0)
+                Thread.sleep(10);
+
+            long start = System.currentTimeMillis();
+
+            assertThrows(NCDeadlineExceededException.class, () -> cli.withDeadline(DEADLINE_MS).askSync("mdl", "test"));
+            assertTrue(System.currentTimeMillis() - start < SLOW_MS, "Deadline is not applied.");
+
+            assertEquals("OK", fut.get().getResultBody());
+            assertEquals(1, srv.getCalls("ask/sync"));
+        }
+        finally {
+            cli.close();
+        }
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testAsync() throws Exception {
+        NCAsyncClient cli = new NCClientBuilder().setBaseUrl(srv.getBaseUrl()).buildAsync();
+
+        try {
+            long start = System.currentTimeMillis();
+
+            CompletionException e = assertThrows(
+                CompletionException.class,
+                () -> cli.withDeadline(DEADLINE_MS).ask("mdl", "test").join()
+            );
+
+            assertTrue(e.getCause() instanceof NCDeadlineExceededException, e.toString());
+            assertTrue(System.currentTimeMillis() - start < SLOW_MS, "Deadline is not applied.");
+
+            // Request accepted late is cancelled.
+            long deadline = System.currentTimeMillis() + 10 * SLOW_MS;
+
+            while (cancelled.isEmpty() && System.currentTimeMillis() < deadline)
+                Thread.sleep(10);
+
+            assertEquals(List.of("1"), cancelled);
+
+            assertEquals("OK", cli.withDeadline(5 * SLOW_MS).askSync("mdl", "test").join().getResultBody());
+        }
+        finally {
+            cli.close().join();
+        }
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * REST client test. Hedging of the synchronous requests against the stub server with occasional slow requests.
+ */
+class NCHedgingTest {
+    /** Every such request is slow. */
+    private static final int SLOW_EVERY = 10;
+
+    /** */
+    private static final long SLOW_MS = 1000;
+
+    /** */
+    private static final int REQ_CNT = 100;
+
+    private NCStubServer srv;
+    private final AtomicInteger cnt = new AtomicInteger();
+    private volatile long procMs;
+
+    /**
+     *
+     * @throws Exception
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        srv = new NCStubServer();
+
+        srv.handle("ask/sync", req -> {
+            int n = cnt.incrementAndGet();
+
+            sleep(n % SLOW_EVERY == 0 ? SLOW_MS : procMs);
+
+            return
+                "{\"status\":\"API_OK\",\"state\":{\"srvReqId\":\"" + n +
+                "\",\"status\":\"QRY_READY\",\"resType\":\"text\",\"resBody\":\"OK\"}}";
+        });
+    }
+
+    /**
+     *
+     */
+    @AfterEach
+    void tearDown() {
+        if (srv != null)
+            srv.close();
+    }
+
+    /**
+     *
+     * @param ms
+     */
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     *
+     * @param budget
+     * @return
+     */
+    private NCClientBuilder builder(double budget) {
+        return new NCClientBuilder().setBaseUrl(srv.getBaseUrl()).setHedgingPercentile(0.8).setHedgingBudget(budget);
+    }
+
+    /**
+     *
+     * @param stats
+     * @throws Exception
+     */
+    private void checkHedged(NCHedgingStats stats) throws Exception {
+        assertEquals(REQ_CNT, stats.getRequests());
+        assertTrue(stats.getDelay() >= 0 && stats.getDelay() < SLOW_MS, stats.toString());
+        assertTrue(stats.getHedges() > 0, stats.toString());
+        assertTrue(stats.getHedgesWon() > 0 && stats.getHedgesWon() <= stats.getHedges(), stats.toString());
+
+        // Slow requests which lost are cancelled once they return.
+        long deadline = System.currentTimeMillis() + 5 * SLOW_MS;
+
+        while (srv.getCalls("cancel") < stats.getHedgesWon() && System.currentTimeMillis() < deadline)
+            Thread.sleep(50);
+
+        assertTrue(srv.getCalls("cancel") >= stats.getHedgesWon());
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testHedging() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> new NCClientBuilder().setHedgingPercentile(1));
+        assertThrows(IllegalArgumentException.class, () -> new NCClientBuilder().setHedgingBudget(0));
+
+        NCClient cli = builder(0.5).build();
+
+        try {
+            long maxMs = 0;
+
+            for (int i = 0; i < REQ_CNT; i++) {
+                long start = System.currentTimeMillis();
+
+                assertEquals("OK", cli.askSync("mdl", "test").getResultBody());
+
+                // Hedging starts after enough latency samples.
+                if (i >= 2 * SLOW_EVERY)
+                    maxMs = Math.max(maxMs, System.currentTimeMillis() - start);
+            }
+
+            NCHedgingStats stats = cli.getHedgingStats();
+
+            checkHedged(stats);
+
+            // Tail latency is cut for every request but the ones run out of the budget.
+            assertTrue(stats.getHedges() < REQ_CNT / SLOW_EVERY || maxMs < SLOW_MS, "Max latency: " + maxMs);
+        }
+        finally {
+            cli.close();
+        }
+
+        NCClient plain = new NCClientBuilder().setBaseUrl(srv.getBaseUrl()).build();
+
+        try {
+            assertEquals(null, plain.getHedgingStats());
+        }
+        finally {
+            plain.close();
+        }
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testBudget() throws Exception {
+        procMs = 5;
+
+        NCClient cli = builder(0.05).build();
+
+        try {
+            for (int i = 0; i < REQ_CNT; i++)
+                cli.askSync("mdl", "test");
+
+            NCHedgingStats stats = cli.getHedgingStats();
+
+            assertTrue(stats.getHedges() > 0, stats.toString());
+            assertTrue(stats.getHedges() <= REQ_CNT * 0.05, stats.toString());
+        }
+        finally {
+            cli.close();
+        }
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testAsync() throws Exception {
+        NCAsyncClient cli = builder(0.5).buildAsync();
+
+        try {
+            for (int i = 0; i < REQ_CNT; i++)
+                assertEquals("OK", cli.askSync("mdl", "test").join().getResultBody());
+
+            checkHedged(cli.getHedgingStats());
+        }
+        finally {
+            cli.close().join();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.nlpcraft.client;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.eclipse.jetty.http.UriCompliance;
+import org.eclipse.jetty.http2.HTTP2Connection;
+import org.eclipse.jetty.http2.server.HTTP2CServerConnectionFactory;
+import org.eclipse.jetty.io.Connection;
+import org.eclipse.jetty.io.EndPoint;
+import org.eclipse.jetty.server.HttpConfiguration;
+import org.eclipse.jetty.server.HttpConnectionFactory;
+import org.eclipse.jetty.server.Request;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.server.handler.AbstractHandler;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Local stub of the REST server speaking both HTTP/1.1 and cleartext HTTP/2 (h2c), for the transport
+ * benchmark. It's Jetty server switching HTTP/1.1 connections to HTTP/2 when client asks for <code>h2c</code>
+ * upgrade, as JDK HTTP client does for <code>http</code> URLs. Unlike {@link NCStubServer}, any access token
+ * is accepted.
+ */
+class NCHttp2StubServer implements AutoCloseable {
+    /** Enough for all concurrent callers of the benchmark, so that streams are never queued by the server. */
+    private static final int MAX_STREAMS = 10000;
+
+    private final Server srv;
+    private final ServerConnector conn;
+    private final Map<String, Function<JsonObject, String>> handlers = new ConcurrentHashMap<>();
+    private final Set<EndPoint> endpoints = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger h2Conns = new AtomicInteger();
+
+    /**
+     *
+     * @throws Exception
+     */
+    NCHttp2StubServer() throws Exception {
+        srv = new Server(new QueuedThreadPool(MAX_STREAMS));
+
+        HttpConfiguration cfg = new HttpConfiguration();
+
+        // Client can add extra slashes, e.g. '/api/v1//signin'.
+        cfg.setUriCompliance(UriCompliance.LEGACY);
+        HTTP2CServerConnectionFactory h2c = new HTTP2CServerConnectionFactory(cfg);
+
+        h2c.setMaxConcurrentStreams(MAX_STREAMS);
+
+        conn = new ServerConnector(srv, new HttpConnectionFactory(cfg), h2c);
+
+        conn.setHost("localhost");
+        conn.setAcceptQueueSize(1000);
+
+        // Upgraded connection replaces HTTP/1.1 one on the same endpoint.
+        conn.addBean(new Connection.Listener() {
+            @Override
+            public void onOpened(Connection c) {
+                endpoints.add(c.getEndPoint());
+
+                if (c instanceof HTTP2Connection)
+                    h2Conns.incrementAndGet();
+            }
+
+            @Override
+            public void onClosed(Connection c) {
+                // No-op.
+            }
+        });
+
+        srv.addConnector(conn);
+        srv.setHandler(new AbstractHandler() {
+            @Override
+            public void handle(String target, Request base, HttpServletRequest req, HttpServletResponse resp)
+                throws IOException {
+                base.setHandled(true);
+
+                byte[] b = respond(target, req).getBytes(UTF_8);
+
+                resp.setContentType("application/json; charset=UTF-8");
+                resp.setContentLength(b.length);
+                resp.getOutputStream().write(b);
+            }
+        });
+
+        srv.start();
+    }
+
+    /**
+     *
+     * @return
+     */
+    String getBaseUrl() {
+        return "http://localhost:" + conn.getLocalPort() + NCStubServer.API;
+    }
+
+    /**
+     * Registers response body supplier for the given REST call.
+     *
+     * @param call REST call, e.g. <code>ask/sync</code>.
+     * @param h Function of the request JSON returning response JSON.
+     */
+    void handle(String call, Function<JsonObject, String> h) {
+        handlers.put(call, h);
+    }
+
+    /**
+     * Gets number of the accepted TCP connections.
+     *
+     * @return
+     */
+    int getConnections() {
+        return endpoints.size();
+    }
+
+    /**
+     * Gets number of the connections switched to HTTP/2.
+     *
+     * @return
+     */
+    int getHttp2Connections() {
+        return h2Conns.get();
+    }
+
+    /**
+     *
+     * @param path
+     * @param req
+     * @return
+     * @throws IOException
+     */
+    private String respond(String path, HttpServletRequest req) throws IOException {
+        String call = path.substring(NCStubServer.API.length()).replaceAll("^/+", "");
+
+        if (call.equals("signin"))
+            return "{\"status\":\"API_OK\",\"acsTok\":\"tok\"}";
+
+        Function<JsonObject, String> h = handlers.get(call);
+
+        if (h == null)
+            return "{\"status\":\"API_OK\"}";
+
+        try (InputStreamReader r = new InputStreamReader(req.getInputStream(), UTF_8)) {
+            return h.apply(JsonParser.parseReader(r).getAsJsonObject());
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        srv.stop();
+    }
+}
@@ -0,0 +1,404 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client;
+
+import com.google.gson.JsonElement;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * REST client test. Routing between several stub servers.
+ */
+class NCMultiEndpointTest {
+    /** */
+    private static final String USER = "{\"status\":\"API_OK\",\"id\":1,\"email\":\"admin@admin.com\"}";
+
+    /** */
+    private static final int REQ_CNT = 200;
+
+    private NCStubServer srv1;
+    private NCStubServer srv2;
+    private final Set<String> cancelled = ConcurrentHashMap.newKeySet();
+    private final Set<String> unknown = ConcurrentHashMap.newKeySet();
+
+    /**
+     *
+     * @throws Exception
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        srv1 = new NCStubServer();
+        srv2 = new NCStubServer();
+
+        srv1.handle("user/get", req -> USER);
+        srv2.handle("user/get", req -> USER);
+    }
+
+    /**
+     *
+     */
+    @AfterEach
+    void tearDown() {
+        if (srv1 != null)
+            srv1.close();
+
+        if (srv2 != null)
+            srv2.close();
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testRouting() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> new NCClientBuilder().setBaseUrls());
+        assertThrows(IllegalArgumentException.class, () -> new NCClientBuilder().setBaseUrls(srv1.getBaseUrl(), null));
+        assertThrows(IllegalArgumentException.class, () -> new NCClientBuilder().setEjectionThreshold(0));
+        assertThrows(IllegalArgumentException.class, () -> new NCClientBuilder().setEjectionTime(0));
+        assertThrows(IllegalArgumentException.class, () -> new NCClientBuilder().setHealthCheckInterval(-1));
+
+        NCClient cli = new NCClientBuilder().setBaseUrls(srv1.getBaseUrl(), srv2.getBaseUrl()).build();
+
+        ExecutorService pool = Executors.newFixedThreadPool(10);
+
+        try {
+            assertEquals(srv1.getBaseUrl(), cli.getClientBaseUrl());
+            assertEquals(2, cli.getClientBaseUrls().size());
+
+            // Each endpoint has its own session.
+            assertEquals(1, srv1.getCalls("signin"));
+            assertEquals(1, srv2.getCalls("signin"));
+
+            List<Future<NCUser>> futs = new ArrayList<>();
+
+            for (int i = 0; i < REQ_CNT; i++)
+                futs.add(pool.submit(() -> cli.getUser(null, null)));
+
+            for (Future<NCUser> fut : futs)
+                assertEquals(1, fut.get().getId());
+
+            System.out.println("Endpoint stats: " + cli.getEndpointStats());
+
+            assertTrue(srv1.getCalls("user/get") > 0);
+            assertTrue(srv2.getCalls("user/get") > 0);
+            assertEquals(REQ_CNT, srv1.getCalls("user/get") + srv2.getCalls("user/get"));
+        }
+        finally {
+            pool.shutdown();
+
+            cli.close();
+        }
+
+        // Pending requests are cancelled on all endpoints.
+        assertEquals(1, srv1.getCalls("cancel"));
+        assertEquals(1, srv2.getCalls("cancel"));
+        assertEquals(1, srv1.getCalls("signout"));
+        assertEquals(1, srv2.getCalls("signout"));
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testEjection() throws Exception {
+        int threshold = 2;
+
+        NCClient cli = new NCClientBuilder().
+            setBaseUrls(srv1.getBaseUrl(), srv2.getBaseUrl()).
+            setEjectionThreshold(threshold).
+            // Only health check can return the endpoint.
+            setEjectionTime(60000).
+            setHealthCheckInterval(100).
+            build();
+
+        try {
+            srv2.setDown(true);
+
+            int errs = 0;
+
+            for (int i = 0; i < REQ_CNT; i++) {
+                try {
+                    cli.getUser(null, null);
+                }
+                catch (IOException e) {
+                    errs++;
+                }
+            }
+
+            System.out.println("Endpoint stats: " + cli.getEndpointStats());
+
+            // Requests routed to unavailable endpoint fail until it's ejected.
+            assertTrue(errs <= threshold);
+            assertTrue(cli.getEndpointStats().get(1).isEjected());
+
+            int calls = srv2.getCalls("user/get");
+
+            srv2.setDown(false);
+
+            waitReinstated(cli);
+
+            for (int i = 0; i < REQ_CNT; i++)
+                cli.getUser(null, null);
+
+            assertTrue(srv2.getCalls("user/get") > calls);
+        }
+        finally {
+            cli.close();
+        }
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testDownAtStart() throws Exception {
+        srv2.setDown(true);
+
+        NCClient cli = new NCClientBuilder().
+            setBaseUrls(srv1.getBaseUrl(), srv2.getBaseUrl()).
+            setEjectionThreshold(1).
+            setHealthCheckInterval(100).
+            build();
+
+        try {
+            assertTrue(cli.getEndpointStats().get(1).isEjected());
+
+            for (int i = 0; i < REQ_CNT; i++)
+                cli.getUser(null, null);
+
+            assertEquals(0, srv2.getCalls("signin"));
+
+            srv2.setDown(false);
+
+            waitReinstated(cli);
+
+            for (int i = 0; i < REQ_CNT; i++)
+                cli.getUser(null, null);
+
+            // Signed in with the first routed request.
+            assertEquals(1, srv2.getCalls("signin"));
+            assertTrue(srv2.getCalls("user/get") > 0);
+        }
+        finally {
+            cli.close();
+        }
+
+        srv1.setDown(true);
+        srv2.setDown(true);
+
+        // No endpoint available.
+        assertThrows(
+            IOException.class,
+            () -> new NCClientBuilder().setBaseUrls(srv1.getBaseUrl(), srv2.getBaseUrl()).build()
+        );
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testAsync() throws Exception {
+        NCAsyncClient cli = new NCClientBuilder().setBaseUrls(srv1.getBaseUrl(), srv2.getBaseUrl()).buildAsync();
+
+        try {
+            List<CompletableFuture<NCUser>> futs = new ArrayList<>();
+
+            for (int i = 0; i < REQ_CNT; i++)
+                futs.add(cli.getUser(null, null));
+
+            for (CompletableFuture<NCUser> fut : futs)
+                assertEquals(1, fut.join().getId());
+
+            assertTrue(srv1.getCalls("user/get") > 0);
+            assertTrue(srv2.getCalls("user/get") > 0);
+        }
+        finally {
+            cli.close().join();
+        }
+
+        // Pending requests are cancelled on all endpoints.
+        assertEquals(1, srv1.getCalls("cancel"));
+        assertEquals(1, srv2.getCalls("cancel"));
+        assertEquals(1, srv1.getCalls("signout"));
+        assertEquals(1, srv2.getCalls("signout"));
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testOwnedRequests() throws Exception {
+        handleRequests(srv1, "A-");
+        handleRequests(srv2, "B-");
+
+        NCClient cli = new NCClientBuilder().setBaseUrls(srv1.getBaseUrl(), srv2.getBaseUrl()).build();
+
+        try {
+            NCResultPoller poller = cli.getResultPoller();
+
+            List<CompletableFuture<NCResult>> futs = new ArrayList<>();
+
+            for (int i = 0; i < REQ_CNT; i++)
+                futs.add(poller.ask("mdl", "test"));
+
+            for (CompletableFuture<NCResult> fut : futs)
+                assertEquals("OK", fut.join().getResultBody());
+
+            assertTrue(srv1.getCalls("ask") > 0);
+            assertTrue(srv2.getCalls("ask") > 0);
+
+            Set<String> ids = new HashSet<>();
+
+            for (int i = 0; i < REQ_CNT; i++)
+                ids.add(cli.ask("mdl", "test"));
+
+            // Each endpoint gets only the requests it created.
+            assertEquals(REQ_CNT, cli.check(ids, null, null, null).size());
+            assertTrue(unknown.isEmpty(), "Unknown requests: " + unknown);
+
+            // Endpoints of the delivered results are forgotten, so the requests are sent to all endpoints.
+            assertEquals(REQ_CNT, cli.check(ids, null, null, null).size());
+            assertEquals(ids, unknown);
+
+            cli.cancel(ids, null, null);
+
+            assertEquals(ids, cancelled);
+        }
+        finally {
+            cli.close();
+        }
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testOwnedRequestsAsync() throws Exception {
+        handleRequests(srv1, "A-");
+        handleRequests(srv2, "B-");
+
+        NCAsyncClient cli = new NCClientBuilder().setBaseUrls(srv1.getBaseUrl(), srv2.getBaseUrl()).buildAsync();
+
+        try {
+            List<CompletableFuture<String>> futs = new ArrayList<>();
+
+            for (int i = 0; i < REQ_CNT; i++)
+                futs.add(cli.ask("mdl", "test"));
+
+            Set<String> ids = new HashSet<>();
+
+            for (CompletableFuture<String> fut : futs)
+                ids.add(fut.join());
+
+            assertTrue(srv1.getCalls("ask") > 0);
+            assertTrue(srv2.getCalls("ask") > 0);
+
+            assertEquals(REQ_CNT, cli.check(ids, null, null, null).join().size());
+            assertTrue(unknown.isEmpty(), "Unknown requests: " + unknown);
+
+            assertEquals(REQ_CNT, cli.check(ids, null, null, null).join().size());
+            assertEquals(ids, unknown);
+
+            cli.cancel(ids, null, null).join();
+
+            assertEquals(ids, cancelled);
+        }
+        finally {
+            cli.close().join();
+        }
+    }
+
+    /**
+     * Registers handlers of the server knowing only the requests it created.
+     *
+     * @param srv Stub server.
+     * @param prefix Prefix of the server request IDs.
+     */
+    private void handleRequests(NCStubServer srv, String prefix) {
+        AtomicInteger gen = new AtomicInteger();
+
+        srv.handle("ask", req -> "{\"status\":\"API_OK\",\"srvReqId\":\"" + prefix + gen.incrementAndGet() + "\"}");
+        srv.handle("check", req -> {
+            List<String> states = new ArrayList<>();
+
+            for (JsonElement e : req.getAsJsonArray("srvReqIds")) {
+                String id = e.getAsString();
+
+                if (id.startsWith(prefix))
+                    states.add(
+                        "{\"srvReqId\":\"" + id + "\",\"mdlId\":\"mdl\",\"status\":\"QRY_READY\"," +
+                        "\"resType\":\"text\",\"resBody\":\"OK\"}"
+                    );
+                else
+                    unknown.add(id);
+            }
+
+            return "{\"status\":\"API_OK\",\"states\":[" + String.join(",", states) + "]}";
+        });
+        srv.handle("cancel", req -> {
+            // Cancel of all requests on close has no IDs.
+            if (req.has("srvReqIds"))
+                for (JsonElement e : req.getAsJsonArray("srvReqIds")) {
+                    String id = e.getAsString();
+
+                    if (id.startsWith(prefix))
+                        cancelled.add(id);
+                    else
+                        unknown.add(id);
+                }
+
+            return "{\"status\":\"API_OK\"}";
+        });
+    }
+
+    /**
+     *
+     * @param cli
+     * @throws InterruptedException
+     */
+    private static void waitReinstated(NCClient cli) throws InterruptedException {
+        for (int i = 0; i < 50 && cli.getEndpointStats().get(1).isEjected(); i++)
+            Thread.sleep(100);
+
+        assertFalse(cli.getEndpointStats().get(1).isEjected());
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * REST client test. Re-authentication of many concurrent callers against the stub server expiring tokens.
+ */
+class NCReauthTest {
+    /** */
+    private static final int THREADS = 500;
+
+    /** */
+    private static final String USER = "{\"status\":\"API_OK\",\"id\":1,\"email\":\"admin@admin.com\"}";
+
+    private NCStubServer srv;
+
+    /**
+     *
+     * @throws Exception
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        srv = new NCStubServer();
+
+        srv.handle("user/get", req -> USER);
+    }
+
+    /**
+     *
+     */
+    @AfterEach
+    void tearDown() {
+        if (srv != null)
+            srv.close();
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testBurst() throws Exception {
+        NCClient cli = new NCClientBuilder().setBaseUrl(srv.getBaseUrl()).build();
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+
+        try {
+            srv.expireTokens();
+
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<NCUser>> futs = new ArrayList<>();
+
+            for (int i = 0; i < THREADS; i++)
+                futs.add(pool.submit(() -> {
+                    start.await();
+
+                    return cli.getUser(null, null);
+                }));
+
+            start.countDown();
+
+            for (Future<NCUser> fut : futs)
+                assertEquals(1, fut.get().getId());
+
+            // Initial sign in and one re-sign in for all the rejected callers.
+            assertEquals(2, srv.getCalls("signin"));
+        }
+        finally {
+            pool.shutdown();
+
+            cli.close();
+        }
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testLoad() throws Exception {
+        // Fewer threads than in the burst keep stub server tail latency well below token lifetime.
+        int threads = 100;
+        int reqCnt = 100;
+        long ttl = 2000;
+
+        srv.setTokenTtl(ttl);
+
+        NCClient cli = new NCClientBuilder().setBaseUrl(srv.getBaseUrl()).build();
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long t;
+
+        try {
+            List<Future<?>> futs = new ArrayList<>();
+
+            t = System.currentTimeMillis();
+
+            for (int i = 0; i < threads; i++)
+                futs.add(pool.submit(() -> {
+                    for (int j = 0; j < reqCnt; j++)
+                        assertEquals(1, cli.getUser(null, null).getId());
+
+                    return null;
+                }));
+
+            for (Future<?> fut : futs)
+                fut.get();
+
+            t = System.currentTimeMillis() - t;
+        }
+        finally {
+            pool.shutdown();
+
+            srv.setTokenTtl(0);
+
+            cli.close();
+        }
+
+        int signins = srv.getCalls("signin");
+
+        System.out.printf(
+            "Re-authentication [requests=%d, duration=%dms, tokenTtl=%dms, signins=%d]%n",
+            threads * reqCnt, t, ttl, signins
+        );
+
+        // Each token generation lives for TTL at least and is refreshed once.
+        assertTrue(signins <= t / ttl + 2);
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testAsync() throws Exception {
+        NCAsyncClient cli = new NCClientBuilder().setBaseUrl(srv.getBaseUrl()).buildAsync();
+
+        try {
+            srv.expireTokens();
+
+            List<CompletableFuture<NCUser>> futs = new ArrayList<>();
+
+            for (int i = 0; i < THREADS; i++)
+                futs.add(cli.getUser(null, null));
+
+            for (CompletableFuture<NCUser> fut : futs)
+                assertEquals(1, fut.join().getId());
+
+            assertEquals(2, srv.getCalls("signin"));
+        }
+        finally {
+            cli.close().join();
+        }
+    }
+}
@@ -0,0 +1,331 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client;
+
+import com.google.gson.JsonElement;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * REST client test. Automatic release of the delivered and abandoned requests of the stub server.
+ */
+class NCRequestReleaseTest {
+    /** */
+    private static final int REQ_CNT = 20;
+
+    /** */
+    private static final long INTERVAL_MS = 50;
+
+    private NCStubServer srv;
+    private final AtomicInteger reqGen = new AtomicInteger();
+    private final Set<String> cancelled = ConcurrentHashMap.newKeySet();
+    private final Map<String, AtomicInteger> cancels = new ConcurrentHashMap<>();
+    private final AtomicInteger cancelCalls = new AtomicInteger();
+
+    /** While set, the stub reports all requests as not ready yet. */
+    private volatile boolean held;
+
+    /**
+     *
+     * @throws Exception
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        srv = new NCStubServer();
+
+        srv.handle("ask", req -> "{\"status\":\"API_OK\",\"srvReqId\":\"" + reqGen.incrementAndGet() + "\"}");
+        srv.handle("check", req -> {
+            List<String> states = new ArrayList<>();
+
+            for (JsonElement e : req.getAsJsonArray("srvReqIds"))
+                states.add(
+                    held ?
+                        "{\"srvReqId\":\"" + e.getAsString() + "\",\"mdlId\":\"mdl\",\"status\":\"QRY_ENLISTED\"}" :
+                        "{\"srvReqId\":\"" + e.getAsString() + "\",\"mdlId\":\"mdl\",\"status\":\"QRY_READY\"," +
+                        "\"resType\":\"text\",\"resBody\":\"OK\"}"
+                );
+
+            return "{\"status\":\"API_OK\",\"states\":[" + String.join(",", states) + "]}";
+        });
+        srv.handle("cancel", req -> {
+            // Cancel of all requests on close has no IDs.
+            if (req.has("srvReqIds")) {
+                cancelCalls.incrementAndGet();
+
+                for (JsonElement id : req.getAsJsonArray("srvReqIds")) {
+                    cancelled.add(id.getAsString());
+                    cancels.computeIfAbsent(id.getAsString(), k -> new AtomicInteger()).incrementAndGet();
+                }
+            }
+
+            return "{\"status\":\"API_OK\"}";
+        });
+    }
+
+    /**
+     *
+     */
+    @AfterEach
+    void tearDown() {
+        if (srv != null)
+            srv.close();
+    }
+
+    /**
+     *
+     * @return
+     */
+    private NCClientBuilder mkBuilder() {
+        return new NCClientBuilder().setBaseUrl(srv.getBaseUrl()).setRequestReleaseInterval(INTERVAL_MS);
+    }
+
+    /**
+     *
+     * @param cond
+     * @throws InterruptedException
+     */
+    private static void await(BooleanSupplier cond) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+
+        while (!cond.getAsBoolean() && System.currentTimeMillis() < deadline)
+            Thread.sleep(10);
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testDelivered() throws Exception {
+        NCClient cli = mkBuilder().setRequestAbandonTimeout(60000).build();
+
+        try {
+            Set<String> ids = new HashSet<>();
+            List<CompletableFuture<NCResult>> futs = new ArrayList<>();
+
+            // Results aren't delivered (and released) before all requests are tracked.
+            held = true;
+
+            for (int i = 0; i < REQ_CNT; i++)
+                futs.add(cli.getResultPoller().ask("mdl", "test"));
+
+            assertEquals(REQ_CNT, cli.getRequestReleaseStats().getTracked());
+
+            held = false;
+
+            for (CompletableFuture<NCResult> fut : futs)
+                ids.add(fut.get().getServerRequestId());
+
+            await(() -> cli.getRequestReleaseStats().getTracked() == 0);
+
+            NCRequestReleaseStats stats = cli.getRequestReleaseStats();
+
+            System.out.println("Request release stats: " + stats);
+
+            assertEquals(ids, cancelled);
+            assertEquals(REQ_CNT, stats.getReleasedDelivered());
+            assertEquals(0, stats.getReleasedAbandoned());
+            assertEquals(REQ_CNT, stats.getReclaimed());
+            assertEquals(cancelCalls.get(), stats.getCancelCalls());
+        }
+        finally {
+            cli.close();
+        }
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testChecked() throws Exception {
+        NCClient cli = mkBuilder().setRequestAbandonTimeout(60000).build();
+
+        try {
+            Set<String> ids = new HashSet<>();
+
+            for (int i = 0; i < REQ_CNT; i++)
+                ids.add(cli.ask("mdl", "test"));
+
+            // Results got by the caller's own checks can be checked again, also via the poller.
+            assertEquals(REQ_CNT, cli.check(ids, null, null, null).size());
+
+            cli.getResultPoller().track(ids.iterator().next(), null, null).get();
+
+            Thread.sleep(INTERVAL_MS * 4);
+
+            assertTrue(cancelled.isEmpty());
+            assertEquals(REQ_CNT, cli.check(ids, null, null, null).size());
+            assertEquals(REQ_CNT, cli.getRequestReleaseStats().getTracked());
+        }
+        finally {
+            cli.close();
+        }
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testAskAll() throws Exception {
+        NCClient cli = mkBuilder().setRequestAbandonTimeout(60000).build();
+
+        try {
+            List<String> txts = new ArrayList<>();
+
+            for (int i = 0; i < REQ_CNT; i++)
+                txts.add("test");
+
+            Set<String> ids = new HashSet<>();
+
+            cli.askAll(
+                "mdl", txts, new NCAskAllOptions().setCancelBatchSize(5), res -> ids.add(res.getServerRequestId())
+            );
+
+            // Bulk ask releases its requests itself, each of them is cancelled once.
+            Thread.sleep(INTERVAL_MS * 4);
+
+            assertEquals(ids, cancels.keySet());
+            assertTrue(cancels.values().stream().allMatch(cnt -> cnt.get() == 1));
+
+            NCRequestReleaseStats stats = cli.getRequestReleaseStats();
+
+            assertEquals(0, stats.getTracked());
+            assertEquals(0, stats.getReclaimed());
+        }
+        finally {
+            cli.close();
+        }
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testAbandoned() throws Exception {
+        NCClient cli = mkBuilder().setRequestAbandonTimeout(300).build();
+
+        try {
+            Set<String> ids = new HashSet<>();
+
+            for (int i = 0; i < REQ_CNT; i++)
+                ids.add(cli.ask("mdl", "test"));
+
+            Thread.sleep(100);
+
+            // Not abandoned yet.
+            assertTrue(cancelled.isEmpty());
+
+            await(() -> cli.getRequestReleaseStats().getTracked() == 0);
+
+            assertEquals(ids, cancelled);
+            assertEquals(REQ_CNT, cli.getRequestReleaseStats().getReleasedAbandoned());
+        }
+        finally {
+            cli.close();
+        }
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testExplicit() throws Exception {
+        NCClient cli = mkBuilder().setRequestAbandonTimeout(60000).build();
+
+        try {
+            String id1 = cli.ask("mdl", "test");
+            String id2 = cli.ask("mdl", "test");
+
+            cli.cancel(Set.of(id1), null, null);
+
+            assertEquals(1, cli.getRequestReleaseStats().getTracked());
+
+            // Poller delivers the result of the request it has submitted.
+            String id3 = cli.getResultPoller().ask("mdl", "test").get().getServerRequestId();
+
+            await(() -> cli.getRequestReleaseStats().getReleasedDelivered() == 1);
+
+            // Request 'id2' is still tracked, until the timeout.
+            assertEquals(Set.of(id1, id3), cancelled);
+            assertEquals(1, cli.getRequestReleaseStats().getTracked());
+        }
+        finally {
+            cli.close();
+        }
+
+        NCClient dfltCli = mkBuilder().build();
+
+        try {
+            assertNull(dfltCli.getRequestReleaseStats());
+        }
+        finally {
+            dfltCli.close();
+        }
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testAsync() throws Exception {
+        NCAsyncClient cli = mkBuilder().setRequestAbandonTimeout(300).buildAsync();
+
+        try {
+            Set<String> ids = new HashSet<>();
+
+            for (int i = 0; i < REQ_CNT; i++)
+                ids.add(cli.ask("mdl", "test").get());
+
+            // Checked results are only released by the timeout.
+            cli.check(ids, null, null, null).get();
+
+            Thread.sleep(100);
+
+            assertTrue(cancelled.isEmpty());
+
+            await(() -> cli.getRequestReleaseStats().getTracked() == 0);
+
+            assertEquals(ids, cancelled);
+            assertEquals(0, cli.getRequestReleaseStats().getReleasedDelivered());
+            assertEquals(REQ_CNT, cli.getRequestReleaseStats().getReleasedAbandoned());
+        }
+        finally {
+            cli.close().get();
+        }
+    }
+}
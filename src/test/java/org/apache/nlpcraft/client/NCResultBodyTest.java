@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.nlpcraft.client;
+
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * REST client test. Result body of the different result types returned by the stub server.
+ */
+class NCResultBodyTest {
+    /** */
+    private static final long SLOW_MS = 50;
+
+    private NCStubServer srv;
+    private NCClient cli;
+
+    /**
+     *
+     * @throws Exception
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        srv = new NCStubServer();
+
+        srv.handle("ask/sync", req -> {
+            String txt = req.get("txt").getAsString();
+            String body;
+
+            // Future is completed only after dependent stages are added.
+            try {
+                Thread.sleep(SLOW_MS);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            switch (txt) {
+                case "text": body = "\"text\",\"resBody\":\"hello world\""; break;
+                case "json": body = "\"json\",\"resBody\":\"{\\\"a\\\":1}\""; break;
+                case "obj": body = "\"json\",\"resBody\":{\"a\":1}"; break;
+
+                default: throw new AssertionError(txt);
+            }
+
+            return
+                "{\"status\":\"API_OK\",\"state\":{\"srvReqId\":\"1\",\"status\":\"QRY_READY\",\"resType\":" +
+                body + "}}";
+        });
+
+        cli = new NCClientBuilder().setBaseUrl(srv.getBaseUrl()).build();
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @AfterEach
+    void tearDown() throws Exception {
+        if (cli != null)
+            cli.close();
+
+        if (srv != null)
+            srv.close();
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testText() throws Exception {
+        NCResult res = cli.askSync("mdl", "text");
+
+        assertEquals("hello world", res.getResultBody());
+        assertEquals("hello world", res.getResultBodyAs(String.class));
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testJson() throws Exception {
+        for (String txt : new String[] { "json", "obj" }) {
+            NCResult res = cli.askSync("mdl", txt);
+
+            assertEquals("{\"a\":1}", res.getResultBody());
+            assertEquals("{\"a\":1}", res.getResultBodyAs(String.class));
+            assertEquals(1, res.getResultBodyAs(JsonObject.class).get("a").getAsInt());
+            assertEquals(1.0, res.getResultBodyAs(Map.class).get("a"));
+        }
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testAsync() throws Exception {
+        NCAsyncClient asyncCli = new NCClientBuilder().setBaseUrl(srv.getBaseUrl()).buildAsync();
+
+        try {
+            String thread = asyncCli.askSync("mdl", "text").thenApply(res -> {
+                assertEquals("hello world", res.getResultBodyAs(String.class));
+
+                return Thread.currentThread().getName();
+            }).get();
+
+            // Response is decoded off the I/O dispatcher threads.
+            assertFalse(thread.startsWith("I/O dispatcher"), thread);
+        }
+        finally {
+            asyncCli.close().get();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client;
+
+import org.apache.nlpcraft.client.models.NCCommonSpecModel;
+import org.apache.nlpcraft.model.NCModel;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.apache.nlpcraft.client.models.NCCommonSpecModel.MDL_ID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * REST client test. Result cache.
+ */
+class NCResultCacheTest extends NCTestAdapter {
+    /** */
+    private static final long TTL = 2000;
+
+    @Override
+    Optional<Class<? extends NCModel>> getModelClass() {
+        return Optional.of(NCCommonSpecModel.class);
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void test() throws Exception {
+        testException(() -> new NCClientBuilder().setResultCacheTtl(0), IllegalArgumentException.class);
+        testException(() -> new NCClientBuilder().setResultCacheMaxWeight(-1), IllegalArgumentException.class);
+
+        assertNull(admCli.getResultCacheStats());
+
+        NCClient cli = new NCClientBuilder().setResultCacheTtl(TTL).build();
+
+        try {
+            NCResult res = cli.askSync(MDL_ID, "test");
+
+            checkOk(res, null);
+
+            // Normalized text hits the same entry.
+            assertSame(res, cli.askSync(MDL_ID, "  test "));
+
+            NCResultCacheStats stats = cli.getResultCacheStats();
+
+            System.out.println("Cache stats: " + stats);
+
+            assertEquals(1, stats.getHits());
+            assertEquals(1, stats.getMisses());
+            assertEquals(1, stats.getSize());
+
+            // Errors are not cached.
+            checkError(cli.askSync(MDL_ID, "El tiempo en España"));
+            checkError(cli.askSync(MDL_ID, "El tiempo en España"));
+
+            assertEquals(1, cli.getResultCacheStats().getSize());
+
+            // Cleared conversation invalidates cached results of the model and user.
+            cli.clearConversation(MDL_ID, null, null);
+
+            assertEquals(0, cli.getResultCacheStats().getSize());
+            assertNotSame(res, res = cli.askSync(MDL_ID, "test"));
+
+            cli.clearDialog(MDL_ID, null, null);
+
+            assertNotSame(res, res = cli.askSync(MDL_ID, "test"));
+
+            Thread.sleep(TTL + 100);
+
+            // Expired.
+            assertNotSame(res, cli.askSync(MDL_ID, "test"));
+        }
+        finally {
+            cli.close();
+        }
+    }
+}
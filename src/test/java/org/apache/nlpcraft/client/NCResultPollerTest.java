@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client;
+
+import org.apache.nlpcraft.client.models.NCCommonSpecModel;
+import org.apache.nlpcraft.model.NCModel;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.nlpcraft.client.models.NCCommonSpecModel.MDL_ID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * REST client test. Result poller.
+ */
+class NCResultPollerTest extends NCTestAdapter {
+    /** */
+    private static final int MAX_TEST_TIME = 20000;
+
+    /** */
+    private static final int REQ_CNT = 20;
+
+    @Override
+    Optional<Class<? extends NCModel>> getModelClass() {
+        return Optional.of(NCCommonSpecModel.class);
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void test() throws Exception {
+        NCResultPoller poller = admCli.getResultPoller();
+
+        List<CompletableFuture<NCResult>> futs = new ArrayList<>();
+
+        for (int i = 0; i < REQ_CNT; i++)
+            futs.add(poller.ask(MDL_ID, "test"));
+
+        CompletableFuture<NCResult> metaFut = poller.ask(MDL_ID, "meta");
+        CompletableFuture<NCResult> errFut = poller.ask(MDL_ID, "El tiempo en España");
+
+        for (CompletableFuture<NCResult> fut : futs)
+            checkOk(fut.get(MAX_TEST_TIME, TimeUnit.MILLISECONDS), null);
+
+        checkOk(metaFut.get(MAX_TEST_TIME, TimeUnit.MILLISECONDS), NCCommonSpecModel.MAP);
+        checkError(errFut.get(MAX_TEST_TIME, TimeUnit.MILLISECONDS));
+
+        assertEquals(0, poller.getPendingCount());
+
+        testException(
+            () -> poller.track("unknown", null, null).get(MAX_TEST_TIME, TimeUnit.MILLISECONDS),
+            ExecutionException.class
+        );
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testAdaptive() throws Exception {
+        NCResultPoller poller = admCli.getResultPoller();
+
+        // Sequential requests, so that each next one is scheduled with the estimate of the previous ones.
+        for (int i = 0; i < REQ_CNT; i++)
+            checkOk(poller.ask(MDL_ID, "test").get(MAX_TEST_TIME, TimeUnit.MILLISECONDS), null);
+
+        assertTrue(poller.getExpectedLatency(MDL_ID) >= 0);
+        assertEquals(-1, poller.getExpectedLatency("unknown.model"));
+
+        assertTrue(poller.getResults() >= REQ_CNT);
+        assertTrue(poller.getRequestPolls() >= poller.getResults());
+        assertTrue(poller.getCheckCalls() > 0);
+        assertTrue(poller.getPollsPerResult() >= 1.0);
+
+        System.out.printf(
+            "Poller stats [checks=%d, polls=%d, results=%d, pollsPerResult=%.2f, expectedLatency=%d]%n",
+            poller.getCheckCalls(),
+            poller.getRequestPolls(),
+            poller.getResults(),
+            poller.getPollsPerResult(),
+            poller.getExpectedLatency(MDL_ID)
+        );
+    }
+}
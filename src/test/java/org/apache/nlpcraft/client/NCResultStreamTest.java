@@ -0,0 +1,318 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client;
+
+import com.google.gson.JsonElement;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * REST client test. Results of the streamed texts gathered with coalesced <code>check</code> calls of the stub server.
+ */
+class NCResultStreamTest {
+    /** */
+    private static final int TXT_CNT = 100;
+
+    /** */
+    private static final int MAX_PENDING = 10;
+
+    /** */
+    private static final long READY_MS = 50;
+
+    private NCStubServer srv;
+    private final AtomicInteger reqGen = new AtomicInteger();
+    private final Map<String, String> txts = new ConcurrentHashMap<>();
+    private final Map<String, Long> submitTs = new ConcurrentHashMap<>();
+    private final Set<String> cancelled = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final AtomicInteger maxOutstanding = new AtomicInteger();
+    private volatile long readyMs = READY_MS;
+
+    /**
+     * Subscriber collecting results.
+     */
+    private class Collector implements Flow.Subscriber<NCResult> {
+        private final List<NCResult> res = new CopyOnWriteArrayList<>();
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private final long initDemand;
+        private volatile Flow.Subscription sub;
+
+        /**
+         *
+         * @param initDemand
+         */
+        Collector(long initDemand) {
+            this.initDemand = initDemand;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription sub) {
+            this.sub = sub;
+
+            sub.request(initDemand);
+        }
+
+        @Override
+        public void onNext(NCResult r) {
+            outstanding.decrementAndGet();
+
+            res.add(r);
+        }
+
+        @Override
+        public void onError(Throwable e) {
+            done.completeExceptionally(e);
+        }
+
+        @Override
+        public void onComplete() {
+            done.complete(null);
+        }
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        srv = new NCStubServer();
+
+        srv.handle("ask", req -> {
+            String id = String.valueOf(reqGen.incrementAndGet());
+
+            txts.put(id, req.get("txt").getAsString());
+            submitTs.put(id, System.currentTimeMillis());
+
+            maxOutstanding.accumulateAndGet(outstanding.incrementAndGet(), Math::max);
+
+            return "{\"status\":\"API_OK\",\"srvReqId\":\"" + id + "\"}";
+        });
+        srv.handle("check", req -> {
+            StringBuilder sb = new StringBuilder("{\"status\":\"API_OK\",\"states\":[");
+            long now = System.currentTimeMillis();
+            boolean first = true;
+
+            for (JsonElement e : req.getAsJsonArray("srvReqIds")) {
+                String id = e.getAsString();
+                boolean ready = now - submitTs.get(id) >= readyMs;
+
+                if (!first)
+                    sb.append(',');
+
+                first = false;
+
+                sb.append("{\"srvReqId\":\"").append(id).append("\",\"txt\":\"").append(txts.get(id)).append("\",");
+                sb.append(
+                    ready ?
+                        "\"status\":\"QRY_READY\",\"resType\":\"text\",\"resBody\":\"OK\"}" :
+                        "\"status\":\"QRY_ENLISTED\"}"
+                );
+            }
+
+            return sb.append("]}").toString();
+        });
+        srv.handle("cancel", req -> {
+            if (req.has("srvReqIds"))
+                for (JsonElement id : req.getAsJsonArray("srvReqIds"))
+                    cancelled.add(id.getAsString());
+
+            return "{\"status\":\"API_OK\"}";
+        });
+    }
+
+    /**
+     *
+     */
+    @AfterEach
+    void tearDown() {
+        if (srv != null)
+            srv.close();
+    }
+
+    /**
+     *
+     * @return
+     * @throws Exception
+     */
+    private NCClient mkClient() throws Exception {
+        return new NCClientBuilder().setBaseUrl(srv.getBaseUrl()).setResultMinPollInterval(10).build();
+    }
+
+    /**
+     *
+     * @param pub
+     * @param cnt
+     */
+    private static void publish(SubmissionPublisher<String> pub, int cnt) {
+        CompletableFuture.runAsync(() -> {
+            for (int i = 0; i < cnt; i++)
+                pub.submit("txt" + i);
+
+            pub.close();
+        });
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testStream() throws Exception {
+        NCClient cli = mkClient();
+
+        try {
+            NCResultPoller poller = cli.getResultPoller();
+            SubmissionPublisher<String> pub = new SubmissionPublisher<>();
+            Collector c = new Collector(Long.MAX_VALUE);
+
+            poller.stream("mdl", pub, MAX_PENDING).subscribe(c);
+
+            publish(pub, TXT_CNT);
+
+            c.done.get(30, TimeUnit.SECONDS);
+
+            Set<String> got = new HashSet<>();
+
+            for (NCResult r : c.res) {
+                assertEquals("OK", r.getResultBody());
+
+                got.add(r.getText());
+            }
+
+            assertEquals(TXT_CNT, c.res.size());
+            assertEquals(TXT_CNT, got.size());
+
+            System.out.printf(
+                "Stream [texts=%d, maxOutstanding=%d, checkCalls=%d]%n",
+                TXT_CNT, maxOutstanding.get(), poller.getCheckCalls()
+            );
+
+            assertTrue(maxOutstanding.get() <= MAX_PENDING);
+            assertTrue(poller.getCheckCalls() < TXT_CNT);
+        }
+        finally {
+            cli.close();
+        }
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testBackpressure() throws Exception {
+        NCClient cli = mkClient();
+
+        try {
+            SubmissionPublisher<String> pub = new SubmissionPublisher<>();
+            Collector c = new Collector(3);
+
+            cli.getResultPoller().stream("mdl", pub, MAX_PENDING).subscribe(c);
+
+            publish(pub, TXT_CNT);
+
+            Thread.sleep(500);
+
+            assertEquals(3, reqGen.get());
+            assertEquals(3, c.res.size());
+
+            c.sub.request(5);
+
+            Thread.sleep(500);
+
+            assertEquals(8, reqGen.get());
+            assertEquals(8, c.res.size());
+
+            c.sub.request(Long.MAX_VALUE);
+
+            c.done.get(30, TimeUnit.SECONDS);
+
+            assertEquals(TXT_CNT, c.res.size());
+        }
+        finally {
+            cli.close();
+        }
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testCancel() throws Exception {
+        readyMs = Long.MAX_VALUE;
+
+        NCClient cli = mkClient();
+
+        try {
+            SubmissionPublisher<String> pub = new SubmissionPublisher<>();
+            Collector c = new Collector(Long.MAX_VALUE);
+
+            cli.getResultPoller().stream("mdl", pub, MAX_PENDING).subscribe(c);
+
+            publish(pub, TXT_CNT);
+
+            long deadline = System.currentTimeMillis() + 5000;
+
+            while (reqGen.get() < MAX_PENDING && System.currentTimeMillis() < deadline)
+                Thread.sleep(10);
+
+            // Lets the last requests register with the poller.
+            Thread.sleep(200);
+
+            assertEquals(MAX_PENDING, reqGen.get());
+
+            c.sub.cancel();
+
+            deadline = System.currentTimeMillis() + 5000;
+
+            while (cancelled.size() < MAX_PENDING && System.currentTimeMillis() < deadline)
+                Thread.sleep(10);
+
+            assertEquals(txts.keySet(), cancelled);
+
+            // Poller drops cancelled requests on its next tick.
+            Thread.sleep(200);
+
+            assertEquals(0, cli.getResultPoller().getPendingCount());
+            assertTrue(c.res.isEmpty());
+            assertFalse(c.done.isDone());
+        }
+        finally {
+            cli.close();
+        }
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * REST client test. Retries of the failed requests against the fault-injecting stub server.
+ */
+class NCRetryTest {
+    /** */
+    private static final String USER = "{\"status\":\"API_OK\",\"id\":1,\"email\":\"admin@admin.com\"}";
+
+    private NCStubServer srv;
+
+    /**
+     *
+     * @throws Exception
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        srv = new NCStubServer();
+
+        srv.handle("user/get", req -> USER);
+        srv.handle("user/add", req -> "{\"status\":\"API_OK\",\"id\":2}");
+    }
+
+    /**
+     *
+     */
+    @AfterEach
+    void tearDown() {
+        if (srv != null)
+            srv.close();
+    }
+
+    /**
+     *
+     * @return
+     */
+    private NCClientBuilder builder() {
+        return new NCClientBuilder().setBaseUrl(srv.getBaseUrl()).setMaxRetries(3).setRetryDelay(10).setMaxRetryDelay(2000);
+    }
+
+    /**
+     *
+     * @param cli
+     * @return
+     * @throws Exception
+     */
+    private static long addUser(NCClient cli) throws Exception {
+        return cli.addUser("u@test.com", "pwd", "first", "last", null, false, null, null);
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testIdempotent() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> new NCClientBuilder().setMaxRetries(0));
+        assertThrows(IllegalArgumentException.class, () -> new NCClientBuilder().setRetryDelay(-1));
+        assertThrows(IllegalArgumentException.class, () -> new NCClientBuilder().setRetryBudget(1.5));
+
+        NCClient cli = builder().build();
+
+        try {
+            // Server errors and lost responses are retried.
+            srv.inject("user/get", 2, 500, null);
+
+            assertEquals(1, cli.getUser(null, null).getId());
+            assertEquals(3, srv.getCalls("user/get"));
+
+            srv.inject("user/get", 1, 0, null);
+
+            assertEquals(1, cli.getUser(null, null).getId());
+            assertEquals(5, srv.getCalls("user/get"));
+
+            // Attempts are bounded.
+            srv.inject("user/get", 10, 500, null);
+
+            assertThrows(NCClientException.class, () -> cli.getUser(null, null));
+            assertEquals(9, srv.getCalls("user/get"));
+
+            // Invalid requests are not retried.
+            srv.inject("user/get", 1, 400, null);
+
+            assertThrows(NCClientException.class, () -> cli.getUser(null, null));
+            assertEquals(10, srv.getCalls("user/get"));
+        }
+        finally {
+            cli.close();
+        }
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testNonIdempotent() throws Exception {
+        NCClient cli = builder().build();
+
+        try {
+            // Request could be processed.
+            srv.inject("user/add", 1, 500, null);
+
+            assertThrows(NCClientException.class, () -> addUser(cli));
+            assertEquals(1, srv.getCalls("user/add"));
+
+            srv.inject("user/add", 1, 0, null);
+
+            assertThrows(IOException.class, () -> addUser(cli));
+            assertEquals(2, srv.getCalls("user/add"));
+
+            // Request was rejected before processing.
+            srv.inject("user/add", 2, 503, null);
+
+            assertEquals(2, addUser(cli));
+            assertEquals(5, srv.getCalls("user/add"));
+
+            srv.inject("user/add", 1, 429, null);
+
+            assertEquals(2, addUser(cli));
+            assertEquals(7, srv.getCalls("user/add"));
+        }
+        finally {
+            cli.close();
+        }
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testRetryAfter() throws Exception {
+        NCClient cli = builder().build();
+
+        try {
+            srv.inject("user/get", 1, 503, "1");
+
+            long start = System.currentTimeMillis();
+
+            assertEquals(1, cli.getUser(null, null).getId());
+            assertTrue(System.currentTimeMillis() - start >= 1000);
+
+            // Longer than maximum retry delay.
+            srv.inject("user/get", 1, 503, "60");
+
+            start = System.currentTimeMillis();
+
+            assertThrows(NCClientException.class, () -> cli.getUser(null, null));
+            assertTrue(System.currentTimeMillis() - start < 1000);
+            assertEquals(3, srv.getCalls("user/get"));
+        }
+        finally {
+            cli.close();
+        }
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testBudget() throws Exception {
+        int reqs = 200;
+
+        NCClient cli = builder().setRetryDelay(0).setMaxRetryDelay(0).setRetryBudget(0.1).build();
+
+        try {
+            srv.inject("user/get", Integer.MAX_VALUE, 500, null);
+
+            for (int i = 0; i < reqs; i++)
+                assertThrows(NCClientException.class, () -> cli.getUser(null, null));
+
+            int calls = srv.getCalls("user/get");
+
+            System.out.println("Calls of failing server: " + calls);
+
+            // Initial reserve of 10 retries and 10% of the requests, instead of 3 retries of each request.
+            assertTrue(calls <= reqs + 10 + reqs / 10 + 1);
+            assertTrue(calls > reqs);
+        }
+        finally {
+            cli.close();
+        }
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testAsync() throws Exception {
+        NCAsyncClient cli = builder().buildAsync();
+
+        try {
+            srv.inject("user/get", 2, 503, null);
+
+            assertEquals(1, cli.getUser(null, null).get().getId());
+            assertEquals(3, srv.getCalls("user/get"));
+
+            srv.inject("user/add", 1, 500, null);
+
+            CompletionException e = assertThrows(
+                CompletionException.class,
+                () -> cli.addUser("u@test.com", "pwd", "first", "last", null, false, null, null).join()
+            );
+
+            assertTrue(e.getCause() instanceof NCClientException);
+            assertEquals(1, srv.getCalls("user/add"));
+        }
+        finally {
+            cli.close().join();
+        }
+    }
+}
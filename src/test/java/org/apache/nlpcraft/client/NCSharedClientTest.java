@@ -0,0 +1,217 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client;
+
+import org.apache.nlpcraft.client.impl.NCJdkHttpTransport;
+import org.apache.nlpcraft.client.models.NCCommonSpecModel;
+import org.apache.nlpcraft.model.NCModel;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.apache.nlpcraft.client.models.NCCommonSpecModel.MDL_ID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * REST client test. One client instance shared by many threads.
+ */
+class NCSharedClientTest extends NCTestAdapter {
+    /** Requests per thread. */
+    private static final int REQ_CNT = 50;
+
+    /** Thread counts, each next one doubles the previous. */
+    private static final int[] THREADS = { 1, 2, 4, 8, 16 };
+
+    /** Fixed latency of the stub server. */
+    private static final long LATENCY_MS = 10;
+
+    @Override
+    Optional<Class<? extends NCModel>> getModelClass() {
+        return Optional.of(NCCommonSpecModel.class);
+    }
+
+    /**
+     * Throughput depends on the machine, so it's only logged. Checks that no response is lost, duplicated
+     * or returned to the wrong thread, and that the shared client signs in once.
+     *
+     * @throws Exception
+     */
+    @Test
+    void testScaling() throws Exception {
+        try (NCStubServer srv = new NCStubServer()) {
+            AtomicInteger reqGen = new AtomicInteger();
+
+            srv.handle("ask/sync", req -> {
+                try {
+                    Thread.sleep(LATENCY_MS);
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+
+                return
+                    "{\"status\":\"API_OK\",\"state\":{\"srvReqId\":\"" + reqGen.incrementAndGet() + "\"," +
+                    "\"status\":\"QRY_READY\",\"resType\":\"text\",\"resBody\":\"" +
+                    req.get("txt").getAsString() + "\"}}";
+            });
+
+            NCClient cli = new NCClientBuilder().setBaseUrl(srv.getBaseUrl()).build();
+
+            try {
+                Set<String> srvReqIds = ConcurrentHashMap.newKeySet();
+                int total = 0;
+
+                // Warm up.
+                run(cli, 4, srvReqIds);
+
+                total += 4 * REQ_CNT;
+
+                for (int threads : THREADS) {
+                    double tput = run(cli, threads, srvReqIds);
+
+                    total += threads * REQ_CNT;
+
+                    System.out.printf("Shared client [threads=%d, throughput=%.1f req/s]%n", threads, tput);
+                }
+
+                assertEquals(total, srvReqIds.size());
+                assertEquals(total, srv.getCalls("ask/sync"));
+                assertEquals(1, srv.getCalls("signin"));
+            }
+            finally {
+                cli.close();
+            }
+        }
+    }
+
+    /**
+     *
+     * @param cli
+     * @param threads
+     * @param srvReqIds Server request IDs of all responses.
+     * @return Throughput in requests per second.
+     * @throws Exception
+     */
+    private double run(NCClient cli, int threads, Set<String> srvReqIds) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        try {
+            List<Future<?>> futs = new ArrayList<>();
+
+            for (int i = 0; i < threads; i++) {
+                int thread = i;
+
+                futs.add(pool.submit(() -> {
+                    start.await();
+
+                    for (int j = 0; j < REQ_CNT; j++) {
+                        String txt = thread + "-" + j;
+                        NCResult res = cli.askSync("mdl", txt);
+
+                        // Response of this very request.
+                        assertEquals(txt, res.getResultBody());
+                        assertTrue(srvReqIds.add(res.getServerRequestId()), "Duplicated response: " + txt);
+                    }
+
+                    return null;
+                }));
+            }
+
+            long t = System.nanoTime();
+
+            start.countDown();
+
+            for (Future<?> fut : futs)
+                fut.get();
+
+            return threads * REQ_CNT * 1_000_000_000.0 / (System.nanoTime() - t);
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testClose() throws Exception {
+        int threads = 16;
+
+        AtomicInteger signouts = new AtomicInteger();
+        NCTransport jdk = NCJdkHttpTransport.create(0, 0);
+
+        NCClient cli = new NCClientBuilder().setTransport(() -> new NCTransport() {
+            @Override
+            public <T> T post(String url, byte[] body, int len, Handler<T> h) throws IOException {
+                if (url.endsWith("signout"))
+                    signouts.incrementAndGet();
+
+                return jdk.post(url, body, len, h);
+            }
+
+            @Override
+            public void close() {
+                // No-op.
+            }
+        }).build();
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        try {
+            List<Future<?>> futs = new ArrayList<>();
+
+            for (int i = 0; i < threads; i++)
+                futs.add(pool.submit(() -> {
+                    start.await();
+
+                    cli.close();
+
+                    return null;
+                }));
+
+            start.countDown();
+
+            for (Future<?> fut : futs)
+                fut.get();
+        }
+        finally {
+            pool.shutdown();
+        }
+
+        // Concurrent close signs out once.
+        assertEquals(1, signouts.get());
+
+        testException(() -> cli.askSync(MDL_ID, "test"), IllegalStateException.class);
+        testException(cli::getResultPoller, IllegalStateException.class);
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * REST client test. Sticky routing between several stub servers.
+ */
+class NCStickyRoutingTest {
+    /** */
+    private static final int SRV_CNT = 3;
+
+    /** */
+    private static final int USR_CNT = 60;
+
+    /** */
+    private static final String MDL_ID = "test.model";
+
+    private final List<NCStubServer> srvs = new ArrayList<>();
+
+    /** Server index by the external user ID of the last request it got. */
+    private final Map<String, Integer> usrSrvs = new ConcurrentHashMap<>();
+
+    /** Users served by more than one server. */
+    private final Set<String> movedUsrs = ConcurrentHashMap.newKeySet();
+
+    /** Delay of the responses, milliseconds. */
+    private volatile long delayMs;
+
+    /**
+     *
+     * @throws Exception
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        for (int i = 0; i < SRV_CNT; i++) {
+            NCStubServer srv = new NCStubServer();
+            int idx = i;
+
+            srv.handle("ask/sync", req -> {
+                String usr = req.get("usrExtId").getAsString();
+                Integer prev = usrSrvs.put(usr, idx);
+
+                if (prev != null && prev != idx)
+                    movedUsrs.add(usr);
+
+                if (delayMs > 0) {
+                    try {
+                        Thread.sleep(delayMs);
+                    }
+                    catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+
+                return "{\"status\":\"API_OK\",\"state\":{\"srvReqId\":\"1\",\"status\":\"QRY_READY\",\"resType\":\"text\",\"resBody\":\"OK\"}}";
+            });
+
+            srvs.add(srv);
+        }
+    }
+
+    /**
+     *
+     */
+    @AfterEach
+    void tearDown() {
+        for (NCStubServer srv : srvs)
+            srv.close();
+    }
+
+    /**
+     *
+     * @return
+     */
+    private NCClientBuilder builder() {
+        return new NCClientBuilder().
+            setBaseUrls(srvs.stream().map(NCStubServer::getBaseUrl).toArray(String[]::new)).
+            setStickyRouting(NCStickyRouting.USER);
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testSticky() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> new NCClientBuilder().setStickyRouting(null));
+        assertThrows(IllegalArgumentException.class, () -> new NCClientBuilder().setStickyLoadFactor(0.9));
+
+        NCClient cli = builder().build();
+
+        try {
+            for (int i = 0; i < 5; i++)
+                for (int j = 0; j < USR_CNT; j++)
+                    assertEquals("OK", cli.askSync(MDL_ID, "test", null, false, null, "u" + j).getResultBody());
+        }
+        finally {
+            cli.close();
+        }
+
+        // Each user is served by one server, and all servers serve somebody.
+        assertTrue(movedUsrs.isEmpty(), "Moved users: " + movedUsrs);
+        assertEquals(SRV_CNT, usrSrvs.values().stream().distinct().count());
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testRebalance() throws Exception {
+        NCClient cli = builder().
+            setEjectionThreshold(1).
+            setEjectionTime(60000).
+            setHealthCheckInterval(0).
+            build();
+
+        try {
+            for (int i = 0; i < USR_CNT; i++)
+                cli.askSync(MDL_ID, "test", null, false, null, "u" + i);
+
+            Map<String, Integer> before = new HashMap<>(usrSrvs);
+
+            srvs.get(0).setDown(true);
+
+            int errs = 0;
+
+            for (int i = 0; i < USR_CNT; i++) {
+                try {
+                    cli.askSync(MDL_ID, "test", null, false, null, "u" + i);
+                }
+                catch (IOException e) {
+                    errs++;
+                }
+            }
+
+            // Only the first request to the failed server fails before it's ejected.
+            assertEquals(1, errs);
+
+            // Only the users of the failed server moved.
+            for (String usr : movedUsrs)
+                assertEquals(0, (int)before.get(usr));
+
+            for (Map.Entry<String, Integer> e : before.entrySet())
+                if (e.getValue() != 0)
+                    assertEquals(e.getValue(), usrSrvs.get(e.getKey()));
+        }
+        finally {
+            srvs.get(0).setDown(false);
+
+            cli.close();
+        }
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testBoundedLoad() throws Exception {
+        int threads = 30;
+
+        delayMs = 50;
+
+        NCClient cli = builder().build();
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+        try {
+            List<Future<NCResult>> futs = new ArrayList<>();
+
+            // Single heavy user.
+            for (int i = 0; i < threads * 5; i++)
+                futs.add(pool.submit(() -> cli.askSync(MDL_ID, "test", null, false, null, "heavy")));
+
+            for (Future<NCResult> fut : futs)
+                assertNotNull(fut.get());
+
+            System.out.println("Endpoint stats: " + cli.getEndpointStats());
+
+            // Heavy user spills over to other servers.
+            for (NCEndpointStats s : cli.getEndpointStats())
+                assertTrue(s.getRequests() > 0);
+        }
+        finally {
+            pool.shutdown();
+
+            cli.close();
+        }
+    }
+}
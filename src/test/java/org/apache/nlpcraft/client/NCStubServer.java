@@ -0,0 +1,243 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Local stub of the REST server for the tests that need to control server behaviour. Issues access tokens
+ * on sign in, rejects unknown tokens like the real server does and answers other calls with the registered
+ * handlers, or with plain <code>API_OK</code> status.
+ */
+class NCStubServer implements AutoCloseable {
+    /** */
+    static final String API = "/api/v1/";
+
+    static {
+        // Avoids delayed ACK stalls of small responses written in several chunks.
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final HttpServer srv;
+    private final ExecutorService exec = Executors.newCachedThreadPool();
+    private final Map<String, Long> toks = new ConcurrentHashMap<>();
+    private final Map<String, Function<JsonObject, String>> handlers = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> calls = new ConcurrentHashMap<>();
+    private final Map<String, Fault> faults = new ConcurrentHashMap<>();
+    private final AtomicInteger tokGen = new AtomicInteger();
+    private volatile long tokTtlMs;
+    private volatile boolean down;
+
+    /**
+     *
+     * @throws IOException
+     */
+    NCStubServer() throws IOException {
+        srv = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+
+        srv.createContext(API, this::handle);
+        srv.setExecutor(exec);
+        srv.start();
+    }
+
+    /**
+     *
+     * @return
+     */
+    String getBaseUrl() {
+        return "http://localhost:" + srv.getAddress().getPort() + API;
+    }
+
+    /**
+     * Registers response body supplier for the given REST call.
+     *
+     * @param call REST call, e.g. <code>user/get</code>.
+     * @param h Function of the request JSON returning response JSON.
+     */
+    void handle(String call, Function<JsonObject, String> h) {
+        handlers.put(call, h);
+    }
+
+    /**
+     * Sets lifetime of the issued access tokens.
+     *
+     * @param tokTtlMs Token lifetime in milliseconds, zero for unlimited.
+     */
+    void setTokenTtl(long tokTtlMs) {
+        this.tokTtlMs = tokTtlMs;
+    }
+
+    /**
+     * Simulates unavailable server: when down, connections are closed without any response.
+     *
+     * @param down Whether server is down.
+     */
+    void setDown(boolean down) {
+        this.down = down;
+    }
+
+    /**
+     * Injects faults into the next calls.
+     *
+     * @param call REST call, e.g. <code>user/get</code>.
+     * @param cnt Number of the next calls to fail.
+     * @param code HTTP status code of the failed calls, zero to close connection without any response.
+     * @param retryAfter Optional <code>Retry-After</code> header value.
+     */
+    void inject(String call, int cnt, int code, String retryAfter) {
+        faults.put(call, new Fault(cnt, code, retryAfter));
+    }
+
+    /**
+     * Invalidates all issued access tokens.
+     */
+    void expireTokens() {
+        toks.clear();
+    }
+
+    /**
+     *
+     * @param call
+     * @return
+     */
+    int getCalls(String call) {
+        AtomicInteger cnt = calls.get(call);
+
+        return cnt != null ? cnt.get() : 0;
+    }
+
+    /**
+     *
+     * @param ex
+     * @throws IOException
+     */
+    private void handle(HttpExchange ex) throws IOException {
+        try (ex) {
+            if (down)
+                return;
+
+            // Client can add extra slashes, e.g. '/api/v1//signin'.
+            String call = ex.getRequestURI().getPath().substring(API.length()).replaceAll("^/+", "");
+
+            JsonObject req;
+
+            try (InputStreamReader r = new InputStreamReader(ex.getRequestBody(), UTF_8)) {
+                req = JsonParser.parseReader(r).getAsJsonObject();
+            }
+
+            calls.computeIfAbsent(call, k -> new AtomicInteger()).incrementAndGet();
+
+            Fault f = faults.get(call);
+
+            if (f != null && f.left.getAndDecrement() > 0) {
+                if (f.code == 0)
+                    return;
+
+                if (f.retryAfter != null)
+                    ex.getResponseHeaders().add("Retry-After", f.retryAfter);
+
+                // Errors of the REST server itself have error codes, others come from proxies.
+                send(ex, f.code, f.code == 500 ? "{\"code\":\"NC_ERROR\",\"msg\":\"Server error.\"}" : "Unavailable");
+
+                return;
+            }
+
+            if (call.equals("signin")) {
+                String tok = "tok-" + tokGen.incrementAndGet();
+
+                toks.put(tok, System.currentTimeMillis());
+
+                send(ex, 200, "{\"status\":\"API_OK\",\"acsTok\":\"" + tok + "\"}");
+
+                return;
+            }
+
+            JsonElement tok = req.get("acsTok");
+            Long issued = tok != null ? toks.get(tok.getAsString()) : null;
+            long ttl = tokTtlMs;
+
+            if (issued == null || ttl > 0 && System.currentTimeMillis() - issued >= ttl) {
+                send(ex, 401, "{\"code\":\"NC_INVALID_ACCESS_TOKEN\",\"msg\":\"Invalid access token.\"}");
+
+                return;
+            }
+
+            Function<JsonObject, String> h = handlers.get(call);
+
+            send(ex, 200, h != null ? h.apply(req) : "{\"status\":\"API_OK\"}");
+        }
+    }
+
+    /**
+     *
+     * @param ex
+     * @param code
+     * @param body
+     * @throws IOException
+     */
+    private static void send(HttpExchange ex, int code, String body) throws IOException {
+        byte[] b = body.getBytes(UTF_8);
+
+        ex.getResponseHeaders().add("Content-Type", "application/json; charset=UTF-8");
+        ex.sendResponseHeaders(code, b.length);
+        ex.getResponseBody().write(b);
+    }
+
+    /**
+     * Injected fault.
+     */
+    private static class Fault {
+        final AtomicInteger left;
+        final int code;
+        final String retryAfter;
+
+        /**
+         *
+         * @param cnt
+         * @param code
+         * @param retryAfter
+         */
+        Fault(int cnt, int code, String retryAfter) {
+            this.left = new AtomicInteger(cnt);
+            this.code = code;
+            this.retryAfter = retryAfter;
+        }
+    }
+
+    @Override
+    public void close() {
+        srv.stop(0);
+        exec.shutdownNow();
+    }
+}
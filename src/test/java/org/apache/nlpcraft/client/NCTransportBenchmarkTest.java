@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.nlpcraft.client;
+
+import org.apache.nlpcraft.client.impl.NCJdkHttpTransport;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * REST client benchmark. Compares connections used and latency of the transports for many concurrent
+ * blocking <code>askSync</code> callers of the local h2c stub server. Excluded from the default test run.
+ */
+class NCTransportBenchmarkTest {
+    /** */
+    private static final int CALLERS = 1000;
+
+    /** */
+    private static final long LATENCY_MS = 10;
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testConnections() throws Exception {
+        for (NCTransportType type : NCTransportType.values()) {
+            try (NCHttp2StubServer srv = new NCHttp2StubServer()) {
+                srv.handle("ask/sync", req -> {
+                    try {
+                        Thread.sleep(LATENCY_MS);
+                    }
+                    catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+
+                    return "{\"status\":\"API_OK\",\"state\":{\"srvReqId\":\"1\",\"status\":\"QRY_READY\"," +
+                        "\"resType\":\"text\",\"resBody\":\"OK\"}}";
+                });
+
+                NCClientBuilder b = new NCClientBuilder().setBaseUrl(srv.getBaseUrl()).setBulkheadsEnabled(true);
+
+                if (type == NCTransportType.JDK_HTTP_CLIENT) {
+                    HttpClient httpCli = HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).build();
+
+                    // Jetty ignores h2c upgrade of the requests with body, and JDK client doesn't try to upgrade
+                    // again after that. All REST calls are POST, so HTTP/2 connection is set up beforehand.
+                    httpCli.send(
+                        HttpRequest.newBuilder(URI.create(srv.getBaseUrl())).build(), BodyHandlers.discarding()
+                    );
+
+                    b.setTransport(() -> new NCJdkHttpTransport(httpCli, null));
+                }
+                else
+                    b.setTransportType(type);
+
+                NCClient cli = b.build();
+                ExecutorService exec = Executors.newFixedThreadPool(CALLERS);
+
+                try {
+                    CountDownLatch start = new CountDownLatch(1);
+                    List<Future<Long>> futs = new ArrayList<>(CALLERS);
+
+                    for (int i = 0; i < CALLERS; i++)
+                        futs.add(exec.submit(() -> {
+                            start.await();
+
+                            long t = System.nanoTime();
+
+                            assertEquals("OK", cli.askSync("mdl", "test").getResultBody());
+
+                            return System.nanoTime() - t;
+                        }));
+
+                    long t = System.nanoTime();
+
+                    start.countDown();
+
+                    long[] lats = new long[CALLERS];
+
+                    for (int i = 0; i < CALLERS; i++)
+                        lats[i] = futs.get(i).get(2, TimeUnit.MINUTES);
+
+                    long ms = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t);
+
+                    Arrays.sort(lats);
+
+                    System.out.printf(
+                        "Benchmark [transport=%s, callers=%d, connections=%d, http2=%d, time=%dms, p50=%dms, p99=%dms]%n",
+                        type,
+                        CALLERS,
+                        srv.getConnections(),
+                        srv.getHttp2Connections(),
+                        ms,
+                        TimeUnit.NANOSECONDS.toMillis(lats[CALLERS / 2]),
+                        TimeUnit.NANOSECONDS.toMillis(lats[CALLERS * 99 / 100])
+                    );
+
+                    if (type == NCTransportType.JDK_HTTP_CLIENT)
+                        assertEquals(srv.getConnections(), srv.getHttp2Connections());
+                    else
+                        assertEquals(0, srv.getHttp2Connections());
+
+                    assertTrue(cli.getBulkheadStats().stream().allMatch(s -> s.getRejected() == 0));
+                }
+                finally {
+                    exec.shutdownNow();
+
+                    cli.close();
+                }
+            }
+        }
+    }
+}
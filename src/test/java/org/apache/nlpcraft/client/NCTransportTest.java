@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client;
+
+import org.apache.nlpcraft.client.impl.NCJdkHttpTransport;
+import org.apache.nlpcraft.client.models.NCCommonSpecModel;
+import org.apache.nlpcraft.model.NCModel;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.apache.nlpcraft.client.models.NCCommonSpecModel.MDL_ID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * REST client test. Transports.
+ */
+class NCTransportTest extends NCTestAdapter {
+    /** */
+    private static final int REQ_CNT = 100;
+
+    @Override
+    Optional<Class<? extends NCModel>> getModelClass() {
+        return Optional.of(NCCommonSpecModel.class);
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testJdk() throws Exception {
+        testException(() -> new NCClientBuilder().setTransportType(null), IllegalArgumentException.class);
+
+        // Non-blocking client has its own transport.
+        testException(
+            () -> new NCClientBuilder().setTransportType(NCTransportType.JDK_HTTP_CLIENT).buildAsync(),
+            IllegalArgumentException.class
+        );
+        testException(
+            () -> new NCClientBuilder().setTransport(() -> NCJdkHttpTransport.create(0, 0)).buildAsync(),
+            IllegalArgumentException.class
+        );
+
+        NCClient cli = new NCClientBuilder().setTransportType(NCTransportType.JDK_HTTP_CLIENT).build();
+
+        try {
+            // No Apache connection pool.
+            assertNull(cli.getPoolStats());
+
+            ExecutorService pool = Executors.newFixedThreadPool(20);
+
+            try {
+                List<Future<NCResult>> futs = new ArrayList<>();
+
+                for (int i = 0; i < REQ_CNT; i++)
+                    futs.add(pool.submit(() -> cli.askSync(MDL_ID, "test")));
+
+                for (Future<NCResult> fut : futs)
+                    checkOk(fut.get(), null);
+            }
+            finally {
+                pool.shutdown();
+            }
+
+            checkOk(cli.askSync(MDL_ID, "meta"), NCCommonSpecModel.MAP);
+            checkError(cli.askSync(MDL_ID, "El tiempo en España"));
+
+            String srvReqId = cli.ask(MDL_ID, "test");
+
+            assertTrue(cli.check(Collections.singleton(srvReqId), null, null, null).stream().
+                allMatch(p -> srvReqId.equals(p.getServerRequestId())));
+
+            cli.cancel(Collections.singleton(srvReqId), null, null);
+
+            assertEquals(admUsrId, (long)cli.getUser(null, null).getId());
+        }
+        finally {
+            cli.close();
+        }
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testCustom() throws Exception {
+        AtomicInteger posts = new AtomicInteger();
+        AtomicInteger closes = new AtomicInteger();
+
+        NCTransport jdk = NCJdkHttpTransport.create(0, 0);
+
+        NCClient cli = new NCClientBuilder().setTransport(() -> new NCTransport() {
+            @Override
+            public <T> T post(String url, byte[] body, int len, Handler<T> h) throws IOException {
+                posts.incrementAndGet();
+
+                return jdk.post(url, body, len, h);
+            }
+
+            @Override
+            public void close() {
+                closes.incrementAndGet();
+            }
+        }).build();
+
+        try {
+            checkOk(cli.askSync(MDL_ID, "test"), null);
+
+            // Signin and askSync at least.
+            assertTrue(posts.get() >= 2);
+        }
+        finally {
+            cli.close();
+        }
+
+        assertEquals(1, closes.get());
+    }
+}
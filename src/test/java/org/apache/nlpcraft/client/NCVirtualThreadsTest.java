@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * REST client benchmark. Many concurrent blocking <code>askSync</code> callers of the stub server, running on
+ * virtual threads on Java 21 or later, and on platform threads otherwise. Excluded from the default test run.
+ */
+class NCVirtualThreadsTest {
+    /** */
+    private static final int CALLERS = 10000;
+
+    /** */
+    private static final long LATENCY_MS = 10;
+
+    private NCStubServer srv;
+
+    /**
+     *
+     * @throws Exception
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        srv = new NCStubServer();
+
+        srv.handle("ask/sync", req -> {
+            try {
+                Thread.sleep(LATENCY_MS);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            return "{\"status\":\"API_OK\",\"state\":{\"srvReqId\":\"1\",\"status\":\"QRY_READY\"," +
+                "\"resType\":\"text\",\"resBody\":\"OK\"}}";
+        });
+    }
+
+    /**
+     *
+     */
+    @AfterEach
+    void tearDown() {
+        if (srv != null)
+            srv.close();
+    }
+
+    /**
+     * Gets factory method of the virtual thread executor. It's looked up reflectively since tests are compiled
+     * for Java 11.
+     *
+     * @return Factory method or <code>null</code> if virtual threads aren't supported.
+     */
+    private static Method virtualExecutor() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        }
+        catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testAskSync() throws Exception {
+        Method virtExec = virtualExecutor();
+
+        for (NCTransportType type : NCTransportType.values()) {
+            // Bulkheads keep the callers waiting for the connections off the pool monitor.
+            NCClient cli = new NCClientBuilder().
+                setBaseUrl(srv.getBaseUrl()).
+                setTransportType(type).
+                setBulkheadsEnabled(true).
+                build();
+            ExecutorService exec =
+                virtExec != null ? (ExecutorService)virtExec.invoke(null) : Executors.newCachedThreadPool();
+
+            try {
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Long>> futs = new ArrayList<>(CALLERS);
+
+                for (int i = 0; i < CALLERS; i++)
+                    futs.add(exec.submit(() -> {
+                        start.await();
+
+                        long t = System.nanoTime();
+
+                        assertEquals("OK", cli.askSync("mdl", "test").getResultBody());
+
+                        return System.nanoTime() - t;
+                    }));
+
+                long t = System.nanoTime();
+
+                start.countDown();
+
+                long[] lats = new long[CALLERS];
+
+                for (int i = 0; i < CALLERS; i++)
+                    lats[i] = futs.get(i).get(2, TimeUnit.MINUTES);
+
+                long ms = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t);
+
+                Arrays.sort(lats);
+
+                System.out.printf(
+                    "Benchmark [transport=%s, callers=%d, virtual=%b, time=%dms, throughput=%d/s, p50=%dms, p99=%dms]%n",
+                    type,
+                    CALLERS,
+                    virtExec != null,
+                    ms,
+                    CALLERS * 1000L / Math.max(1, ms),
+                    TimeUnit.NANOSECONDS.toMillis(lats[CALLERS / 2]),
+                    TimeUnit.NANOSECONDS.toMillis(lats[CALLERS * 99 / 100])
+                );
+                System.out.println("Bulkhead stats: " + cli.getBulkheadStats());
+
+                assertTrue(cli.getBulkheadStats().stream().allMatch(s -> s.getRejected() == 0));
+            }
+            finally {
+                exec.shutdownNow();
+
+                cli.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.nlpcraft.client.impl;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.apache.nlpcraft.client.impl.beans.NCCheckBean;
+import org.apache.nlpcraft.client.impl.beans.NCModelInfoResultBean;
+import org.apache.nlpcraft.client.impl.beans.NCRequestStateBean;
+import org.apache.nlpcraft.client.impl.beans.NCUsersAllBean;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.ToIntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * REST beans decoding benchmark. Measures the first decoding by the new Gson instance, which builds the
+ * reflective adapters of the bean classes, and the time and allocation per decoding once the adapters are built.
+ * Excluded from the default test run.
+ */
+class NCBeanDecodingBenchmarkTest {
+    /** */
+    private static final int ROUNDS = 3;
+
+    /** */
+    private static final int ITERS = 5_000;
+
+    /** */
+    private static final int CNT = 50;
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testDecoding() throws Exception {
+        run(NCModelInfoResultBean.class, modelInfo(), b -> b.getModel().getElements().size());
+        run(NCUsersAllBean.class, usersAll(), b -> b.getUsers().size());
+        run(NCCheckBean.class, check(), b -> b.getStates().size());
+    }
+
+    /**
+     *
+     * @param cls
+     * @param json
+     * @param size
+     * @param <T>
+     */
+    private static <T> void run(Class<T> cls, String json, ToIntFunction<T> size) {
+        com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+        long tid = Thread.currentThread().getId();
+
+        long first = 0;
+        long time = 0;
+        long alloc = 0;
+
+        // Last round is measured, others are warm-up.
+        for (int r = 0; r < ROUNDS; r++) {
+            // Same configuration as the client's one.
+            Gson gson =
+                new GsonBuilder().registerTypeAdapter(NCRequestStateBean.class, NCRequestStateBean.ADAPTER).create();
+
+            long t = System.nanoTime();
+
+            assertEquals(CNT, size.applyAsInt(gson.fromJson(json, cls)));
+
+            first = System.nanoTime() - t;
+
+            long a = mx.getThreadAllocatedBytes(tid);
+
+            t = System.nanoTime();
+
+            for (int i = 0; i < ITERS; i++)
+                assertEquals(CNT, size.applyAsInt(gson.fromJson(json, cls)));
+
+            time = (System.nanoTime() - t) / ITERS;
+            alloc = (mx.getThreadAllocatedBytes(tid) - a) / ITERS;
+        }
+
+        System.out.printf(
+            "Benchmark [bean=%s, bytes=%d, first=%dus, decode=%dus %dKB/op]%n",
+            cls.getSimpleName(),
+            json.length(),
+            first / 1000,
+            time / 1000,
+            alloc / 1024
+        );
+    }
+
+    /**
+     *
+     * @return
+     */
+    private static String modelInfo() {
+        StringBuilder buf = new StringBuilder(
+            "{\"status\":\"API_OK\",\"model\":{\"id\":\"m\",\"name\":\"Model\",\"version\":\"1.0\"," +
+            "\"description\":\"Test model\",\"origin\":\"test\",\"maxUnknownWords\":0,\"maxFreeWords\":32," +
+            "\"maxSuspiciousWords\":0,\"minWords\":1,\"maxWords\":50,\"minTokens\":0,\"maxTokens\":50," +
+            "\"minNonStopwords\":0,\"nonEnglishAllowed\":true,\"notLatinCharsetAllowed\":false," +
+            "\"swearWordsAllowed\":false,\"noNounsAllowed\":true,\"permutateSynonyms\":false," +
+            "\"dupSynonymsAllowed\":true,\"maxTotalSynonyms\":10000,\"noUserTokensAllowed\":true," +
+            "\"sparse\":false,\"metadata\":{\"k\":1},\"additionalStopWords\":[\"a\"],\"excludedStopWords\":[]," +
+            "\"suspiciousWords\":[],\"macros\":{\"<M>\":\"{a|b}\"},\"enabledBuiltInTokens\":[\"nlpcraft:num\"]," +
+            "\"abstractTokens\":[],\"maxElementSynonyms\":1000,\"maxSynonymsThresholdError\":false," +
+            "\"conversationTimeout\":60000,\"conversationDepth\":3,\"restrictedCombinations\":{},\"elements\":["
+        );
+
+        for (int i = 0; i < CNT; i++) {
+            if (i > 0)
+                buf.append(',');
+
+            buf.append("{\"id\":\"e").append(i).append("\",\"groups\":[\"g\"],\"metadata\":{\"k\":\"v\"},").
+                append("\"description\":\"Element\",\"values\":[{\"name\":\"v\",\"synonyms\":[\"x\",\"y\"]}],").
+                append("\"synonyms\":[\"s1\",\"s2\",\"s3\"],\"permutateSynonyms\":true,\"sparse\":false}");
+        }
+
+        return buf.append("]}}").toString();
+    }
+
+    /**
+     *
+     * @return
+     */
+    private static String usersAll() {
+        StringBuilder buf = new StringBuilder("{\"status\":\"API_OK\",\"users\":[");
+
+        for (int i = 0; i < CNT; i++) {
+            if (i > 0)
+                buf.append(',');
+
+            buf.append("{\"id\":").append(i).append(",\"email\":\"user").append(i).append("@test.com\",").
+                append("\"firstName\":\"First\",\"lastName\":\"Last\",\"avatarUrl\":\"http://test.com/a.png\",").
+                append("\"isAdmin\":false,\"properties\":{\"k\":\"v\"}}");
+        }
+
+        return buf.append("]}").toString();
+    }
+
+    /**
+     *
+     * @return
+     */
+    private static String check() {
+        StringBuilder buf = new StringBuilder("{\"status\":\"API_OK\",\"states\":[");
+
+        for (int i = 0; i < CNT; i++) {
+            if (i > 0)
+                buf.append(',');
+
+            buf.append("{\"srvReqId\":\"r").append(i).append("\",\"txt\":\"what is the weather\",\"usrId\":1,").
+                append("\"mdlId\":\"m\",\"probeId\":\"p\",\"status\":\"QRY_READY\",\"resType\":\"json\",").
+                append("\"resBody\":{\"a\":[1,2,3],\"b\":{\"c\":\"d\"}},\"resMeta\":{\"k\":1}}");
+        }
+
+        return buf.append("]}").toString();
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.nlpcraft.client.impl;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * JDK HTTP transport. Resources are released on close.
+ */
+class NCJdkHttpTransportTest {
+    /** */
+    private static final String THREAD = "nlpcraft-client-http";
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testClose() throws Exception {
+        HttpServer srv = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+
+        srv.createContext("/", ex -> {
+            byte[] b = "{}".getBytes(UTF_8);
+
+            ex.sendResponseHeaders(200, b.length);
+
+            try (OutputStream out = ex.getResponseBody()) {
+                out.write(b);
+            }
+        });
+        srv.start();
+
+        try {
+            String url = "http://localhost:" + srv.getAddress().getPort() + "/";
+            byte[] body = "{}".getBytes(UTF_8);
+
+            NCJdkHttpTransport t = NCJdkHttpTransport.create(0, 0);
+
+            assertEquals(200, (int)t.post(url, body, body.length, (code, in, cs, hdrs) -> code));
+
+            t.close();
+
+            long deadline = System.currentTimeMillis() + 5000;
+
+            // Platform threads of the executor finish after its shutdown, virtual threads aren't listed.
+            while (liveThreads() > 0 && System.currentTimeMillis() < deadline)
+                Thread.sleep(10);
+
+            assertEquals(0, liveThreads());
+
+            // Client itself can only be closed on Java 21 or later, from the multi-release jar.
+            boolean closeable =
+                Runtime.version().feature() >= 21 &&
+                NCThreads.class.getProtectionDomain().getCodeSource().getLocation().getPath().endsWith(".jar");
+
+            System.out.println("Client closed: " + closeable);
+
+            if (closeable)
+                assertThrows(IOException.class, () -> t.post(url, body, body.length, (code, in, cs, hdrs) -> code));
+        }
+        finally {
+            srv.stop(0);
+        }
+    }
+
+    /**
+     *
+     * @return
+     */
+    private static long liveThreads() {
+        return Thread.getAllStackTraces().keySet().stream().filter(t -> t.getName().equals(THREAD)).count();
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.nlpcraft.client.impl;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.InputStreamEntity;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.util.EntityUtils;
+import org.apache.nlpcraft.client.impl.beans.NCCheckBean;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.lang.management.ManagementFactory;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Response decoding benchmark. Compares time and allocation per <code>check</code> response of decoding
+ * straight from the entity stream against reading the entity into a string and parsing that string.
+ * Excluded from the default test run.
+ */
+class NCResponseDecodingBenchmarkTest {
+    /** */
+    private static final int ROUNDS = 3;
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testCheck() throws Exception {
+        com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+        long tid = Thread.currentThread().getId();
+
+        for (int n : new int[] { 50, 5000 }) {
+            byte[] body = payload(n);
+            int iters = 1_000_000 / n;
+
+            long[] time = new long[2];
+            long[] alloc = new long[2];
+
+            // Last round is measured, others are warm-up.
+            for (int r = 0; r < ROUNDS; r++)
+                for (int k = 0; k < 2; k++) {
+                    long a = mx.getThreadAllocatedBytes(tid);
+                    long t = System.nanoTime();
+
+                    for (int i = 0; i < iters; i++)
+                        assertEquals(n, (k == 0 ? viaString(body) : viaStream(body)).getStates().size());
+
+                    time[k] = (System.nanoTime() - t) / iters;
+                    alloc[k] = (mx.getThreadAllocatedBytes(tid) - a) / iters;
+                }
+
+            System.out.printf(
+                "Benchmark [states=%d, bytes=%d, string=%dus %dKB/op, stream=%dus %dKB/op]%n",
+                n,
+                body.length,
+                time[0] / 1000,
+                alloc[0] / 1024,
+                time[1] / 1000,
+                alloc[1] / 1024
+            );
+
+            assertTrue(alloc[1] < alloc[0]);
+        }
+    }
+
+    /**
+     * Previous decoding: the whole entity read into a string, then parsed.
+     *
+     * @param body
+     * @return
+     * @throws Exception
+     */
+    private static NCCheckBean viaString(byte[] body) throws Exception {
+        NCCheckBean b = NCClientImpl.gson.fromJson(EntityUtils.toString(response(body).getEntity()), NCCheckBean.class);
+
+        NCClientImpl.checkStatus(b.getStatus());
+
+        return b;
+    }
+
+    /**
+     *
+     * @param body
+     * @return
+     * @throws Exception
+     */
+    private static NCCheckBean viaStream(byte[] body) throws Exception {
+        return NCClientImpl.handleResponse(response(body), NCCheckBean.class);
+    }
+
+    /**
+     *
+     * @param body
+     * @return
+     */
+    private static HttpResponse response(byte[] body) {
+        HttpResponse resp = new BasicHttpResponse(HttpVersion.HTTP_1_1, 200, "OK");
+
+        // Unknown length, as with chunked responses.
+        resp.setEntity(new InputStreamEntity(new ByteArrayInputStream(body), -1, ContentType.APPLICATION_JSON));
+
+        return resp;
+    }
+
+    /**
+     *
+     * @param n
+     * @return
+     */
+    private static byte[] payload(int n) {
+        StringBuilder buf = new StringBuilder("{\"status\":\"API_OK\",\"states\":[");
+
+        for (int i = 0; i < n; i++) {
+            if (i > 0)
+                buf.append(',');
+
+            buf.append("{\"srvReqId\":\"r").append(i).append("\",\"txt\":\"what is the weather\",\"usrId\":1,").
+                append("\"mdlId\":\"m\",\"probeId\":\"p\",\"status\":\"QRY_READY\",\"resType\":\"json\",").
+                append("\"resBody\":{\"a\":[1,2,3],\"b\":{\"c\":\"d\"}},\"resMeta\":{\"k\":1}}");
+        }
+
+        return buf.append("]}").toString().getBytes(UTF_8);
+    }
+}
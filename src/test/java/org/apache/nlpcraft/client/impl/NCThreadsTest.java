@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.nlpcraft.client.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Threads of the client's background work: virtual threads when run from the multi-release jar on Java 21
+ * or later, daemon platform threads otherwise.
+ */
+class NCThreadsTest {
+    /** */
+    private static final String NAME = "nlpcraft-client-test";
+
+    /**
+     *
+     * @throws Exception
+     */
+    @Test
+    void testThreads() throws Exception {
+        // Java 21 classes are only picked from the multi-release jar, not from the classes directory.
+        boolean virt =
+            Runtime.version().feature() >= 21 &&
+            NCThreads.class.getProtectionDomain().getCodeSource().getLocation().getPath().endsWith(".jar");
+
+        System.out.println("Virtual threads expected: " + virt);
+
+        Thread t = NCThreads.factory(NAME).newThread(() -> {});
+
+        assertEquals(NAME, t.getName());
+        assertEquals(virt, isVirtual(t));
+        assertTrue(t.isDaemon());
+
+        ExecutorService exec = NCThreads.newPerTaskExecutor(NAME);
+        ScheduledExecutorService sched = NCThreads.newScheduledExecutor(NAME);
+
+        try {
+            assertEquals(virt, exec.submit(() -> isVirtual(Thread.currentThread())).get());
+            assertEquals(virt, sched.schedule(() -> isVirtual(Thread.currentThread()), 10, TimeUnit.MILLISECONDS).get());
+        }
+        finally {
+            exec.shutdown();
+            sched.shutdown();
+        }
+
+        // Delayed tasks run on the virtual threads, or on the common pool of the platform threads.
+        assertEquals(
+            virt,
+            CompletableFuture.supplyAsync(() -> isVirtual(Thread.currentThread()), NCThreads.delayed(10)).get()
+        );
+    }
+
+    /**
+     * Checks whether the thread is virtual. It's checked reflectively since tests are compiled for Java 11.
+     *
+     * @param t Thread.
+     * @return Whether the thread is virtual.
+     */
+    private static boolean isVirtual(Thread t) {
+        try {
+            return (Boolean)Thread.class.getMethod("isVirtual").invoke(t);
+        }
+        catch (NoSuchMethodException e) {
+            return false;
+        }
+        catch (ReflectiveOperationException e) {
+            throw new AssertionError(e);
+        }
+    }
+}